@@ -20,6 +20,10 @@ package org.wso2.identity.outbound.adapter.websubhub;
 
 import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterException;
 import org.wso2.identity.outbound.adapter.websubhub.model.EventPayload;
+import org.wso2.identity.outbound.adapter.websubhub.model.TopicOperationResult;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * The WebSubHub event adapter service is used to publish notification events into the intermediate hub.
@@ -53,4 +57,28 @@ public interface WebSubHubAdapterService {
      * @throws  WebSubAdapterException
      */
     void deregisterTopic(String topicSuffix, String tenantDomain) throws WebSubAdapterException;
+
+    /**
+     * Register the given topics in the intermediate hub. The topics are registered in parallel, and the failure of
+     * one topic does not stop the registration of the others.
+     *
+     * @param topicSuffixes Suffixes of the hub topics.
+     * @param tenantDomain  Tenant domain.
+     * @return Result of every topic, keyed by the topic suffix in the given order.
+     * @throws  WebSubAdapterException If the topics cannot be registered at all.
+     */
+    Map<String, TopicOperationResult> registerTopics(List<String> topicSuffixes, String tenantDomain)
+            throws WebSubAdapterException;
+
+    /**
+     * Deregister the given topics from the intermediate hub. The topics are de-registered in parallel, and the
+     * failure of one topic does not stop the de-registration of the others.
+     *
+     * @param topicSuffixes Suffixes of the hub topics.
+     * @param tenantDomain  Tenant domain.
+     * @return Result of every topic, keyed by the topic suffix in the given order.
+     * @throws  WebSubAdapterException If the topics cannot be de-registered at all.
+     */
+    Map<String, TopicOperationResult> deregisterTopics(List<String> topicSuffixes, String tenantDomain)
+            throws WebSubAdapterException;
 }
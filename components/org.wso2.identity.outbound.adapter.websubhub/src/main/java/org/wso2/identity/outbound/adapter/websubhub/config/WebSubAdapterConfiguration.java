@@ -18,10 +18,17 @@
 
 package org.wso2.identity.outbound.adapter.websubhub.config;
 
+import org.wso2.carbon.utils.CarbonUtils;
 import org.wso2.identity.outbound.adapter.common.OutboundAdapterConfigurationProvider;
 import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterException;
 import org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ENCRYPTION_KEY_ENDPOINT_URL_NOT_CONFIGURED;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.WEB_SUB_BASE_URL_NOT_CONFIGURED;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.handleClientException;
@@ -42,6 +49,108 @@ public class WebSubAdapterConfiguration {
     private static final String ENCRYPTION_KEY_ENDPOINT_URL = "adapter.websubhub.encryptionKeyEndpointUrl";
     // Value for the encryption key cache lifespan in minutes.
     private static final String ENCRYPTION_KEY_CACHE_LIFESPAN = "adapter.websubhub.encryptionKeyCacheLifespan";
+    // Percentage of the encryption key cache lifespan after which a key is refreshed in the background.
+    private static final String ENCRYPTION_KEY_CACHE_REFRESH_AHEAD =
+            "adapter.websubhub.encryptionKeyCacheRefreshAhead";
+    // Maximum percentage of the encryption key cache lifespan randomly cut from a cached key's lifespan.
+    private static final String ENCRYPTION_KEY_CACHE_JITTER = "adapter.websubhub.encryptionKeyCacheJitter";
+    private static final String ENCRYPTION_KEY_CACHE_MAX_SIZE = "adapter.websubhub.encryptionKeyCacheMaxSize";
+    // Value for the time a failed encryption key retrieval is cached in seconds.
+    private static final String ENCRYPTION_KEY_RETRIEVAL_FAILURE_BACKOFF =
+            "adapter.websubhub.encryptionKeyRetrievalFailureBackoff";
+    private static final String ENCRYPTION_KEY_WAIT_QUEUE_CAPACITY = "adapter.websubhub.encryptionKeyWaitQueueCapacity";
+    private static final String ASYNC_PUBLISH_ENABLED = "adapter.websubhub.asyncPublishEnabled";
+    private static final String PUBLISH_QUEUE_CAPACITY = "adapter.websubhub.publishQueueCapacity";
+    private static final String PUBLISH_WORKER_COUNT = "adapter.websubhub.publishWorkerCount";
+    private static final String PUBLISH_QUEUE_FULL_POLICY = "adapter.websubhub.publishQueueFullPolicy";
+    // Value for the maximum time a publisher is blocked on a full queue in milliseconds.
+    private static final String PUBLISH_QUEUE_BLOCK_TIMEOUT = "adapter.websubhub.publishQueueBlockTimeout";
+    private static final String MAX_IN_FLIGHT_PUBLISH_REQUESTS = "adapter.websubhub.maxInFlightPublishRequests";
+    private static final String BATCH_PUBLISH_ENABLED = "adapter.websubhub.batchPublishEnabled";
+    private static final String BATCH_MAX_SIZE = "adapter.websubhub.batchMaxSize";
+    // Value for the maximum time an incomplete batch waits for more events in milliseconds.
+    private static final String BATCH_LINGER_TIME = "adapter.websubhub.batchLingerTime";
+    private static final String BATCH_FORMAT = "adapter.websubhub.batchFormat";
+    private static final String ENCRYPTION_KEY_REUSE_ENABLED = "adapter.websubhub.encryptionKeyReuseEnabled";
+    // Value for the maximum age of a reused data encryption key in seconds.
+    private static final String ENCRYPTION_KEY_REUSE_MAX_AGE = "adapter.websubhub.encryptionKeyReuseMaxAge";
+    private static final String ENCRYPTION_KEY_REUSE_MAX_EVENTS = "adapter.websubhub.encryptionKeyReuseMaxEvents";
+    private static final String TOPIC_MANAGEMENT_PARALLELISM = "adapter.websubhub.topicManagementParallelism";
+    private static final String TOPIC_REGISTRY_ENABLED = "adapter.websubhub.topicRegistryEnabled";
+    // Value for the time a registered topic is remembered in seconds.
+    private static final String TOPIC_REGISTRY_LIFESPAN = "adapter.websubhub.topicRegistryLifespan";
+    private static final String TOPIC_REGISTRY_MAX_SIZE = "adapter.websubhub.topicRegistryMaxSize";
+    private static final String PUBLISH_RETRY_ENABLED = "adapter.websubhub.publishRetryEnabled";
+    private static final String PUBLISH_RETRY_MAX_ATTEMPTS = "adapter.websubhub.publishRetryMaxAttempts";
+    // Values for the backoff bounds and the deadline of publish retries in milliseconds.
+    private static final String PUBLISH_RETRY_INITIAL_BACKOFF = "adapter.websubhub.publishRetryInitialBackoff";
+    private static final String PUBLISH_RETRY_MAX_BACKOFF = "adapter.websubhub.publishRetryMaxBackoff";
+    private static final String PUBLISH_RETRY_DEADLINE = "adapter.websubhub.publishRetryDeadline";
+    // Value for the retries allowed as a percentage of the publish requests.
+    private static final String PUBLISH_RETRY_BUDGET_RATIO = "adapter.websubhub.publishRetryBudgetRatio";
+    private static final String PUBLISH_SPOOL_ENABLED = "adapter.websubhub.publishSpoolEnabled";
+    private static final String PUBLISH_SPOOL_DIRECTORY = "adapter.websubhub.publishSpoolDirectory";
+    // Values for the size of a spool segment file and of the whole spool in megabytes.
+    private static final String PUBLISH_SPOOL_SEGMENT_SIZE = "adapter.websubhub.publishSpoolSegmentSize";
+    private static final String PUBLISH_SPOOL_MAX_SIZE = "adapter.websubhub.publishSpoolMaxSize";
+    // Value for the maximum time spooled requests are left unforced to disk in milliseconds.
+    private static final String PUBLISH_SPOOL_SYNC_INTERVAL = "adapter.websubhub.publishSpoolSyncInterval";
+    private static final String CIRCUIT_BREAKER_ENABLED = "adapter.websubhub.circuitBreakerEnabled";
+    private static final String CIRCUIT_BREAKER_WINDOW_SIZE = "adapter.websubhub.circuitBreakerWindowSize";
+    // Values for the rates of failed and slow calls opening the circuit breaker as percentages.
+    private static final String CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD =
+            "adapter.websubhub.circuitBreakerFailureRateThreshold";
+    private static final String CIRCUIT_BREAKER_SLOW_CALL_RATE_THRESHOLD =
+            "adapter.websubhub.circuitBreakerSlowCallRateThreshold";
+    // Values for the slow call duration and the open duration of the circuit breaker in milliseconds.
+    private static final String CIRCUIT_BREAKER_SLOW_CALL_DURATION = "adapter.websubhub.circuitBreakerSlowCallDuration";
+    private static final String CIRCUIT_BREAKER_OPEN_DURATION = "adapter.websubhub.circuitBreakerOpenDuration";
+    private static final String CIRCUIT_BREAKER_PROBE_COUNT = "adapter.websubhub.circuitBreakerProbeCount";
+    private static final String FLOW_CONTROL_ENABLED = "adapter.websubhub.flowControlEnabled";
+    // Values for the pause of a throttled route without a Retry-After and the maximum pause in milliseconds.
+    private static final String FLOW_CONTROL_DEFAULT_PAUSE = "adapter.websubhub.flowControlDefaultPause";
+    private static final String FLOW_CONTROL_MAX_PAUSE = "adapter.websubhub.flowControlMaxPause";
+    private static final String TENANT_FAIR_SCHEDULING_ENABLED = "adapter.websubhub.tenantFairSchedulingEnabled";
+    private static final String TENANT_PUBLISH_QUEUE_CAPACITY = "adapter.websubhub.tenantPublishQueueCapacity";
+    private static final String TENANT_MAX_IN_FLIGHT_PUBLISH_REQUESTS =
+            "adapter.websubhub.tenantMaxInFlightPublishRequests";
+    // Value for the maximum number of events of a tenant published per second.
+    private static final String TENANT_PUBLISH_RATE_LIMIT = "adapter.websubhub.tenantPublishRateLimit";
+    private static final String PRIORITY_LANES_ENABLED = "adapter.websubhub.priorityLanesEnabled";
+    // Value for a comma separated list of regular expressions matching the event URIs of critical events.
+    private static final String CRITICAL_EVENT_URI_PATTERNS = "adapter.websubhub.criticalEventUriPatterns";
+    private static final String CRITICAL_PUBLISH_QUEUE_CAPACITY = "adapter.websubhub.criticalPublishQueueCapacity";
+    private static final String CRITICAL_DISPATCH_WEIGHT = "adapter.websubhub.criticalDispatchWeight";
+    private static final String CRITICAL_RESERVED_CONNECTIONS = "adapter.websubhub.criticalReservedConnections";
+    private static final String ADAPTIVE_CONCURRENCY_ENABLED = "adapter.websubhub.adaptiveConcurrencyEnabled";
+    private static final String ADAPTIVE_CONCURRENCY_INITIAL_LIMIT =
+            "adapter.websubhub.adaptiveConcurrencyInitialLimit";
+    private static final String ADAPTIVE_CONCURRENCY_MIN_LIMIT = "adapter.websubhub.adaptiveConcurrencyMinLimit";
+    private static final String CONNECTION_POOL_AUTOSCALING_ENABLED =
+            "adapter.websubhub.connectionPoolAutoscalingEnabled";
+    private static final String CONNECTION_POOL_MIN_CONNECTIONS = "adapter.websubhub.connectionPoolMinConnections";
+    private static final String CONNECTION_POOL_MAX_CONNECTIONS = "adapter.websubhub.connectionPoolMaxConnections";
+    // Values for the lease wait time above which the pool grows and the time between two resizes in milliseconds.
+    private static final String CONNECTION_POOL_LEASE_WAIT_THRESHOLD =
+            "adapter.websubhub.connectionPoolLeaseWaitThreshold";
+    private static final String CONNECTION_POOL_AUTOSCALING_INTERVAL =
+            "adapter.websubhub.connectionPoolAutoscalingInterval";
+    // Values for the idle timeout, maximum lifetime and eviction interval of pooled connections in milliseconds.
+    private static final String CONNECTION_IDLE_TIMEOUT = "adapter.websubhub.connectionIdleTimeout";
+    private static final String CONNECTION_MAX_LIFETIME = "adapter.websubhub.connectionMaxLifetime";
+    private static final String CONNECTION_EVICTION_INTERVAL = "adapter.websubhub.connectionEvictionInterval";
+    private static final String CONNECTION_WARM_UP_COUNT = "adapter.websubhub.connectionWarmUpCount";
+    private static final String SSL_SESSION_CACHE_SIZE = "adapter.websubhub.sslSessionCacheSize";
+    // Value for the lifetime of a cached TLS session in seconds.
+    private static final String SSL_SESSION_TIMEOUT = "adapter.websubhub.sslSessionTimeout";
+    private static final String CLIENT_SHARD_COUNT = "adapter.websubhub.clientShardCount";
+    private static final String CLIENT_SHARD_ROUTING_KEY = "adapter.websubhub.clientShardRoutingKey";
+    private static final String IO_THREAD_COUNT = "adapter.websubhub.ioThreadCount";
+    private static final String TCP_NO_DELAY = "adapter.websubhub.tcpNoDelay";
+    private static final String SOCKET_KEEP_ALIVE = "adapter.websubhub.socketKeepAlive";
+    // Value for the socket buffer sizes in bytes.
+    private static final String SOCKET_SEND_BUFFER_SIZE = "adapter.websubhub.socketSendBufferSize";
+    private static final String SOCKET_RECEIVE_BUFFER_SIZE = "adapter.websubhub.socketReceiveBufferSize";
     private final boolean adapterEnabled;
     private final boolean encryptionEnabled;
     private final int httpConnectionTimeout;
@@ -50,6 +159,79 @@ public class WebSubAdapterConfiguration {
     private final int defaultMaxConnections;
     private final int defaultMaxConnectionsPerRoute;
     private final int encryptionKeyCacheLifespan;
+    private final int encryptionKeyCacheRefreshAhead;
+    private final int encryptionKeyCacheJitter;
+    private final int encryptionKeyCacheMaxSize;
+    private final int encryptionKeyRetrievalFailureBackoff;
+    private final int encryptionKeyWaitQueueCapacity;
+    private final boolean asyncPublishEnabled;
+    private final int publishQueueCapacity;
+    private final int publishWorkerCount;
+    private final QueueFullPolicy publishQueueFullPolicy;
+    private final int publishQueueBlockTimeout;
+    private final int maxInFlightPublishRequests;
+    private final boolean batchPublishEnabled;
+    private final int batchMaxSize;
+    private final int batchLingerTime;
+    private final BatchFormat batchFormat;
+    private final boolean encryptionKeyReuseEnabled;
+    private final int encryptionKeyReuseMaxAge;
+    private final int encryptionKeyReuseMaxEvents;
+    private final int topicManagementParallelism;
+    private final boolean topicRegistryEnabled;
+    private final int topicRegistryLifespan;
+    private final int topicRegistryMaxSize;
+    private final boolean publishRetryEnabled;
+    private final int publishRetryMaxAttempts;
+    private final int publishRetryInitialBackoff;
+    private final int publishRetryMaxBackoff;
+    private final int publishRetryDeadline;
+    private final int publishRetryBudgetRatio;
+    private final boolean publishSpoolEnabled;
+    private final String publishSpoolDirectory;
+    private final int publishSpoolSegmentSize;
+    private final int publishSpoolMaxSize;
+    private final int publishSpoolSyncInterval;
+    private final boolean circuitBreakerEnabled;
+    private final int circuitBreakerWindowSize;
+    private final int circuitBreakerFailureRateThreshold;
+    private final int circuitBreakerSlowCallRateThreshold;
+    private final int circuitBreakerSlowCallDuration;
+    private final int circuitBreakerOpenDuration;
+    private final int circuitBreakerProbeCount;
+    private final boolean flowControlEnabled;
+    private final int flowControlDefaultPause;
+    private final int flowControlMaxPause;
+    private final boolean tenantFairSchedulingEnabled;
+    private final int tenantPublishQueueCapacity;
+    private final int tenantMaxInFlightPublishRequests;
+    private final int tenantPublishRateLimit;
+    private final boolean priorityLanesEnabled;
+    private final List<Pattern> criticalEventUriPatterns;
+    private final int criticalPublishQueueCapacity;
+    private final int criticalDispatchWeight;
+    private final int criticalReservedConnections;
+    private final boolean adaptiveConcurrencyEnabled;
+    private final int adaptiveConcurrencyInitialLimit;
+    private final int adaptiveConcurrencyMinLimit;
+    private final boolean connectionPoolAutoscalingEnabled;
+    private final int connectionPoolMinConnections;
+    private final int connectionPoolMaxConnections;
+    private final int connectionPoolLeaseWaitThreshold;
+    private final int connectionPoolAutoscalingInterval;
+    private final int connectionIdleTimeout;
+    private final int connectionMaxLifetime;
+    private final int connectionEvictionInterval;
+    private final int connectionWarmUpCount;
+    private final int sslSessionCacheSize;
+    private final int sslSessionTimeout;
+    private final int clientShardCount;
+    private final ShardRoutingKey clientShardRoutingKey;
+    private final int ioThreadCount;
+    private final boolean tcpNoDelay;
+    private final boolean socketKeepAlive;
+    private final int socketSendBufferSize;
+    private final int socketReceiveBufferSize;
     private String encryptionKeyEndpointUrl;
     private String webSubHubBaseUrl;
 
@@ -98,6 +280,223 @@ public class WebSubAdapterConfiguration {
         this.encryptionKeyCacheLifespan =
                 configurationProvider.getProperty(ENCRYPTION_KEY_CACHE_LIFESPAN).map(Integer::parseInt)
                         .orElse(WebSubHubAdapterConstants.DEFAULT_ENCRYPTION_KEY_CACHE_LIFESPAN);
+        this.encryptionKeyCacheRefreshAhead =
+                configurationProvider.getProperty(ENCRYPTION_KEY_CACHE_REFRESH_AHEAD).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_ENCRYPTION_KEY_CACHE_REFRESH_AHEAD);
+        this.encryptionKeyCacheJitter =
+                configurationProvider.getProperty(ENCRYPTION_KEY_CACHE_JITTER).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_ENCRYPTION_KEY_CACHE_JITTER);
+        this.encryptionKeyCacheMaxSize =
+                configurationProvider.getProperty(ENCRYPTION_KEY_CACHE_MAX_SIZE).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_ENCRYPTION_KEY_CACHE_MAX_SIZE);
+        this.encryptionKeyRetrievalFailureBackoff =
+                configurationProvider.getProperty(ENCRYPTION_KEY_RETRIEVAL_FAILURE_BACKOFF).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_ENCRYPTION_KEY_RETRIEVAL_FAILURE_BACKOFF);
+        this.encryptionKeyWaitQueueCapacity =
+                configurationProvider.getProperty(ENCRYPTION_KEY_WAIT_QUEUE_CAPACITY).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_ENCRYPTION_KEY_WAIT_QUEUE_CAPACITY);
+        this.asyncPublishEnabled =
+                configurationProvider.getProperty(ASYNC_PUBLISH_ENABLED).map(Boolean::parseBoolean).orElse(false);
+        this.publishQueueCapacity =
+                configurationProvider.getProperty(PUBLISH_QUEUE_CAPACITY).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_PUBLISH_QUEUE_CAPACITY);
+        this.publishWorkerCount =
+                configurationProvider.getProperty(PUBLISH_WORKER_COUNT).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_PUBLISH_WORKER_COUNT);
+        this.publishQueueFullPolicy =
+                configurationProvider.getProperty(PUBLISH_QUEUE_FULL_POLICY).map(QueueFullPolicy::fromValue)
+                        .orElse(QueueFullPolicy.BLOCK);
+        this.publishQueueBlockTimeout =
+                configurationProvider.getProperty(PUBLISH_QUEUE_BLOCK_TIMEOUT).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_PUBLISH_QUEUE_BLOCK_TIMEOUT);
+        this.maxInFlightPublishRequests =
+                configurationProvider.getProperty(MAX_IN_FLIGHT_PUBLISH_REQUESTS).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_MAX_IN_FLIGHT_PUBLISH_REQUESTS);
+        this.batchPublishEnabled =
+                configurationProvider.getProperty(BATCH_PUBLISH_ENABLED).map(Boolean::parseBoolean).orElse(false);
+        this.batchMaxSize =
+                configurationProvider.getProperty(BATCH_MAX_SIZE).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_BATCH_MAX_SIZE);
+        this.batchLingerTime =
+                configurationProvider.getProperty(BATCH_LINGER_TIME).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_BATCH_LINGER_TIME);
+        this.batchFormat =
+                configurationProvider.getProperty(BATCH_FORMAT).map(BatchFormat::fromValue)
+                        .orElse(BatchFormat.JSON_ARRAY);
+        this.encryptionKeyReuseEnabled =
+                configurationProvider.getProperty(ENCRYPTION_KEY_REUSE_ENABLED).map(Boolean::parseBoolean)
+                        .orElse(false);
+        this.encryptionKeyReuseMaxAge =
+                configurationProvider.getProperty(ENCRYPTION_KEY_REUSE_MAX_AGE).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_ENCRYPTION_KEY_REUSE_MAX_AGE);
+        this.encryptionKeyReuseMaxEvents =
+                configurationProvider.getProperty(ENCRYPTION_KEY_REUSE_MAX_EVENTS).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_ENCRYPTION_KEY_REUSE_MAX_EVENTS);
+        this.topicManagementParallelism =
+                configurationProvider.getProperty(TOPIC_MANAGEMENT_PARALLELISM).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_TOPIC_MANAGEMENT_PARALLELISM);
+        this.topicRegistryEnabled =
+                configurationProvider.getProperty(TOPIC_REGISTRY_ENABLED).map(Boolean::parseBoolean).orElse(false);
+        this.topicRegistryLifespan =
+                configurationProvider.getProperty(TOPIC_REGISTRY_LIFESPAN).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_TOPIC_REGISTRY_LIFESPAN);
+        this.topicRegistryMaxSize =
+                configurationProvider.getProperty(TOPIC_REGISTRY_MAX_SIZE).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_TOPIC_REGISTRY_MAX_SIZE);
+        this.publishRetryEnabled =
+                configurationProvider.getProperty(PUBLISH_RETRY_ENABLED).map(Boolean::parseBoolean).orElse(false);
+        this.publishRetryMaxAttempts =
+                configurationProvider.getProperty(PUBLISH_RETRY_MAX_ATTEMPTS).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_PUBLISH_RETRY_MAX_ATTEMPTS);
+        this.publishRetryInitialBackoff =
+                configurationProvider.getProperty(PUBLISH_RETRY_INITIAL_BACKOFF).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_PUBLISH_RETRY_INITIAL_BACKOFF);
+        this.publishRetryMaxBackoff =
+                configurationProvider.getProperty(PUBLISH_RETRY_MAX_BACKOFF).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_PUBLISH_RETRY_MAX_BACKOFF);
+        this.publishRetryDeadline =
+                configurationProvider.getProperty(PUBLISH_RETRY_DEADLINE).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_PUBLISH_RETRY_DEADLINE);
+        this.publishRetryBudgetRatio =
+                configurationProvider.getProperty(PUBLISH_RETRY_BUDGET_RATIO).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_PUBLISH_RETRY_BUDGET_RATIO);
+        this.publishSpoolEnabled =
+                configurationProvider.getProperty(PUBLISH_SPOOL_ENABLED).map(Boolean::parseBoolean).orElse(false);
+        this.publishSpoolDirectory = configurationProvider.getProperty(PUBLISH_SPOOL_DIRECTORY).orElseGet(() ->
+                CarbonUtils.getCarbonHome() + File.separator +
+                        WebSubHubAdapterConstants.DEFAULT_PUBLISH_SPOOL_DIRECTORY);
+        this.publishSpoolSegmentSize =
+                configurationProvider.getProperty(PUBLISH_SPOOL_SEGMENT_SIZE).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_PUBLISH_SPOOL_SEGMENT_SIZE);
+        this.publishSpoolMaxSize =
+                configurationProvider.getProperty(PUBLISH_SPOOL_MAX_SIZE).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_PUBLISH_SPOOL_MAX_SIZE);
+        this.publishSpoolSyncInterval =
+                configurationProvider.getProperty(PUBLISH_SPOOL_SYNC_INTERVAL).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_PUBLISH_SPOOL_SYNC_INTERVAL);
+        this.circuitBreakerEnabled =
+                configurationProvider.getProperty(CIRCUIT_BREAKER_ENABLED).map(Boolean::parseBoolean).orElse(false);
+        this.circuitBreakerWindowSize =
+                configurationProvider.getProperty(CIRCUIT_BREAKER_WINDOW_SIZE).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CIRCUIT_BREAKER_WINDOW_SIZE);
+        this.circuitBreakerFailureRateThreshold =
+                configurationProvider.getProperty(CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD);
+        this.circuitBreakerSlowCallRateThreshold =
+                configurationProvider.getProperty(CIRCUIT_BREAKER_SLOW_CALL_RATE_THRESHOLD).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CIRCUIT_BREAKER_SLOW_CALL_RATE_THRESHOLD);
+        this.circuitBreakerSlowCallDuration =
+                configurationProvider.getProperty(CIRCUIT_BREAKER_SLOW_CALL_DURATION).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CIRCUIT_BREAKER_SLOW_CALL_DURATION);
+        this.circuitBreakerOpenDuration =
+                configurationProvider.getProperty(CIRCUIT_BREAKER_OPEN_DURATION).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION);
+        this.circuitBreakerProbeCount =
+                configurationProvider.getProperty(CIRCUIT_BREAKER_PROBE_COUNT).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CIRCUIT_BREAKER_PROBE_COUNT);
+        this.flowControlEnabled =
+                configurationProvider.getProperty(FLOW_CONTROL_ENABLED).map(Boolean::parseBoolean).orElse(false);
+        this.flowControlDefaultPause =
+                configurationProvider.getProperty(FLOW_CONTROL_DEFAULT_PAUSE).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_FLOW_CONTROL_DEFAULT_PAUSE);
+        this.flowControlMaxPause =
+                configurationProvider.getProperty(FLOW_CONTROL_MAX_PAUSE).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_FLOW_CONTROL_MAX_PAUSE);
+        this.tenantFairSchedulingEnabled =
+                configurationProvider.getProperty(TENANT_FAIR_SCHEDULING_ENABLED).map(Boolean::parseBoolean)
+                        .orElse(false);
+        this.tenantPublishQueueCapacity =
+                configurationProvider.getProperty(TENANT_PUBLISH_QUEUE_CAPACITY).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_TENANT_PUBLISH_QUEUE_CAPACITY);
+        this.tenantMaxInFlightPublishRequests =
+                configurationProvider.getProperty(TENANT_MAX_IN_FLIGHT_PUBLISH_REQUESTS).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_TENANT_MAX_IN_FLIGHT_PUBLISH_REQUESTS);
+        this.tenantPublishRateLimit =
+                configurationProvider.getProperty(TENANT_PUBLISH_RATE_LIMIT).map(Integer::parseInt).orElse(0);
+        this.priorityLanesEnabled =
+                configurationProvider.getProperty(PRIORITY_LANES_ENABLED).map(Boolean::parseBoolean).orElse(false);
+        this.criticalEventUriPatterns =
+                configurationProvider.getProperty(CRITICAL_EVENT_URI_PATTERNS).map(this::parsePatterns)
+                        .orElse(Collections.emptyList());
+        this.criticalPublishQueueCapacity =
+                configurationProvider.getProperty(CRITICAL_PUBLISH_QUEUE_CAPACITY).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CRITICAL_PUBLISH_QUEUE_CAPACITY);
+        this.criticalDispatchWeight =
+                configurationProvider.getProperty(CRITICAL_DISPATCH_WEIGHT).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CRITICAL_DISPATCH_WEIGHT);
+        this.criticalReservedConnections =
+                configurationProvider.getProperty(CRITICAL_RESERVED_CONNECTIONS).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CRITICAL_RESERVED_CONNECTIONS);
+        this.adaptiveConcurrencyEnabled =
+                configurationProvider.getProperty(ADAPTIVE_CONCURRENCY_ENABLED).map(Boolean::parseBoolean)
+                        .orElse(false);
+        this.adaptiveConcurrencyInitialLimit =
+                configurationProvider.getProperty(ADAPTIVE_CONCURRENCY_INITIAL_LIMIT).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_ADAPTIVE_CONCURRENCY_INITIAL_LIMIT);
+        this.adaptiveConcurrencyMinLimit =
+                configurationProvider.getProperty(ADAPTIVE_CONCURRENCY_MIN_LIMIT).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_ADAPTIVE_CONCURRENCY_MIN_LIMIT);
+        this.connectionPoolAutoscalingEnabled =
+                configurationProvider.getProperty(CONNECTION_POOL_AUTOSCALING_ENABLED).map(Boolean::parseBoolean)
+                        .orElse(false);
+        this.connectionPoolMinConnections =
+                configurationProvider.getProperty(CONNECTION_POOL_MIN_CONNECTIONS).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CONNECTION_POOL_MIN_CONNECTIONS);
+        this.connectionPoolMaxConnections =
+                configurationProvider.getProperty(CONNECTION_POOL_MAX_CONNECTIONS).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CONNECTION_POOL_MAX_CONNECTIONS);
+        this.connectionPoolLeaseWaitThreshold =
+                configurationProvider.getProperty(CONNECTION_POOL_LEASE_WAIT_THRESHOLD).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CONNECTION_POOL_LEASE_WAIT_THRESHOLD);
+        this.connectionPoolAutoscalingInterval =
+                configurationProvider.getProperty(CONNECTION_POOL_AUTOSCALING_INTERVAL).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CONNECTION_POOL_AUTOSCALING_INTERVAL);
+        this.connectionIdleTimeout =
+                configurationProvider.getProperty(CONNECTION_IDLE_TIMEOUT).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CONNECTION_IDLE_TIMEOUT);
+        this.connectionMaxLifetime =
+                configurationProvider.getProperty(CONNECTION_MAX_LIFETIME).map(Integer::parseInt).orElse(0);
+        this.connectionEvictionInterval =
+                configurationProvider.getProperty(CONNECTION_EVICTION_INTERVAL).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CONNECTION_EVICTION_INTERVAL);
+        this.connectionWarmUpCount =
+                configurationProvider.getProperty(CONNECTION_WARM_UP_COUNT).map(Integer::parseInt).orElse(0);
+        this.sslSessionCacheSize =
+                configurationProvider.getProperty(SSL_SESSION_CACHE_SIZE).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_SSL_SESSION_CACHE_SIZE);
+        this.sslSessionTimeout =
+                configurationProvider.getProperty(SSL_SESSION_TIMEOUT).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_SSL_SESSION_TIMEOUT);
+        this.clientShardCount =
+                configurationProvider.getProperty(CLIENT_SHARD_COUNT).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_CLIENT_SHARD_COUNT);
+        this.clientShardRoutingKey =
+                configurationProvider.getProperty(CLIENT_SHARD_ROUTING_KEY).map(ShardRoutingKey::fromValue)
+                        .orElse(ShardRoutingKey.TENANT);
+        this.ioThreadCount =
+                configurationProvider.getProperty(IO_THREAD_COUNT).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_IO_THREAD_COUNT);
+        this.tcpNoDelay =
+                configurationProvider.getProperty(TCP_NO_DELAY).map(Boolean::parseBoolean).orElse(true);
+        this.socketKeepAlive =
+                configurationProvider.getProperty(SOCKET_KEEP_ALIVE).map(Boolean::parseBoolean).orElse(false);
+        this.socketSendBufferSize =
+                configurationProvider.getProperty(SOCKET_SEND_BUFFER_SIZE).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_SOCKET_BUFFER_SIZE);
+        this.socketReceiveBufferSize =
+                configurationProvider.getProperty(SOCKET_RECEIVE_BUFFER_SIZE).map(Integer::parseInt)
+                        .orElse(WebSubHubAdapterConstants.DEFAULT_SOCKET_BUFFER_SIZE);
+    }
+
+    private List<Pattern> parsePatterns(String patterns) {
+
+        List<Pattern> compiled = new ArrayList<>();
+        for (String pattern : patterns.split(",")) {
+            if (!pattern.trim().isEmpty()) {
+                compiled.add(Pattern.compile(pattern.trim()));
+            }
+        }
+        return Collections.unmodifiableList(compiled);
     }
 
     /**
@@ -199,4 +598,821 @@ public class WebSubAdapterConfiguration {
 
         return encryptionKeyCacheLifespan;
     }
+
+    /**
+     * Returns the percentage of the encryption key cache lifespan after which a cached key is refreshed in the
+     * background.
+     *
+     * @return encryption key cache refresh ahead percentage.
+     */
+    public int getEncryptionKeyCacheRefreshAhead() {
+
+        return encryptionKeyCacheRefreshAhead;
+    }
+
+    /**
+     * Returns the maximum percentage of the encryption key cache lifespan randomly cut from a cached key's lifespan.
+     *
+     * @return encryption key cache jitter percentage.
+     */
+    public int getEncryptionKeyCacheJitter() {
+
+        return encryptionKeyCacheJitter;
+    }
+
+    /**
+     * Returns the maximum number of tenants whose encryption keys are cached.
+     *
+     * @return encryption key cache max size.
+     */
+    public int getEncryptionKeyCacheMaxSize() {
+
+        return encryptionKeyCacheMaxSize;
+    }
+
+    /**
+     * Returns the time in seconds a failed encryption key retrieval is cached before the key is retrieved again.
+     *
+     * @return encryption key retrieval failure backoff in seconds.
+     */
+    public int getEncryptionKeyRetrievalFailureBackoff() {
+
+        return encryptionKeyRetrievalFailureBackoff;
+    }
+
+    /**
+     * Returns the maximum number of events of a tenant waiting for its encryption key to be retrieved.
+     *
+     * @return encryption key wait queue capacity.
+     */
+    public int getEncryptionKeyWaitQueueCapacity() {
+
+        return encryptionKeyWaitQueueCapacity;
+    }
+
+    /**
+     * Getter method to return asynchronous publishing enable configuration.
+     *
+     * @return whether events are published through the bounded publish queue.
+     */
+    public boolean isAsyncPublishEnabled() {
+
+        return asyncPublishEnabled;
+    }
+
+    /**
+     * Returns the maximum number of events that can wait in the publish queue.
+     *
+     * @return publish queue capacity.
+     */
+    public int getPublishQueueCapacity() {
+
+        return publishQueueCapacity;
+    }
+
+    /**
+     * Returns the number of worker threads draining the publish queue.
+     *
+     * @return publish worker count.
+     */
+    public int getPublishWorkerCount() {
+
+        return publishWorkerCount;
+    }
+
+    /**
+     * Returns the policy applied when the publish queue is full.
+     *
+     * @return publish queue full policy.
+     */
+    public QueueFullPolicy getPublishQueueFullPolicy() {
+
+        return publishQueueFullPolicy;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds a publisher waits on a full queue with the block policy.
+     *
+     * @return publish queue block timeout.
+     */
+    public int getPublishQueueBlockTimeout() {
+
+        return publishQueueBlockTimeout;
+    }
+
+    /**
+     * Returns the maximum number of publish requests that can be in flight to the hub at once.
+     *
+     * @return max in-flight publish requests.
+     */
+    public int getMaxInFlightPublishRequests() {
+
+        return maxInFlightPublishRequests;
+    }
+
+    /**
+     * Getter method to return batch publish enable configuration.
+     *
+     * @return whether events of the same topic are combined into one hub request.
+     */
+    public boolean isBatchPublishEnabled() {
+
+        return batchPublishEnabled;
+    }
+
+    /**
+     * Returns the maximum number of events sent in one batch request.
+     *
+     * @return batch max size.
+     */
+    public int getBatchMaxSize() {
+
+        return batchMaxSize;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds an incomplete batch waits before it is sent.
+     *
+     * @return batch linger time.
+     */
+    public int getBatchLingerTime() {
+
+        return batchLingerTime;
+    }
+
+    /**
+     * Returns the format used to combine events of a batch into one request body.
+     *
+     * @return batch format.
+     */
+    public BatchFormat getBatchFormat() {
+
+        return batchFormat;
+    }
+
+    /**
+     * Getter method to return encryption key reuse enable configuration.
+     *
+     * @return whether a wrapped data encryption key is reused for several events of a tenant.
+     */
+    public boolean isEncryptionKeyReuseEnabled() {
+
+        return encryptionKeyReuseEnabled;
+    }
+
+    /**
+     * Returns the maximum time in seconds a data encryption key is reused before it is rotated.
+     *
+     * @return encryption key reuse max age.
+     */
+    public int getEncryptionKeyReuseMaxAge() {
+
+        return encryptionKeyReuseMaxAge;
+    }
+
+    /**
+     * Returns the maximum number of events encrypted with one data encryption key before it is rotated.
+     *
+     * @return encryption key reuse max events.
+     */
+    public int getEncryptionKeyReuseMaxEvents() {
+
+        return encryptionKeyReuseMaxEvents;
+    }
+
+    /**
+     * Returns the maximum number of topic registration or de-registration requests of a bulk topic operation that
+     * can be in flight to the hub at once.
+     *
+     * @return topic management parallelism.
+     */
+    public int getTopicManagementParallelism() {
+
+        return topicManagementParallelism;
+    }
+
+    /**
+     * Getter method to return topic registry enable configuration.
+     *
+     * @return whether registered topics are remembered to skip redundant registrations.
+     */
+    public boolean isTopicRegistryEnabled() {
+
+        return topicRegistryEnabled;
+    }
+
+    /**
+     * Returns the time a registered topic is remembered in seconds.
+     *
+     * @return topic registry lifespan.
+     */
+    public int getTopicRegistryLifespan() {
+
+        return topicRegistryLifespan;
+    }
+
+    /**
+     * Returns the maximum number of registered topics remembered.
+     *
+     * @return topic registry max size.
+     */
+    public int getTopicRegistryMaxSize() {
+
+        return topicRegistryMaxSize;
+    }
+
+    /**
+     * Getter method to return publish retry enable configuration.
+     *
+     * @return whether failed publish requests are retried.
+     */
+    public boolean isPublishRetryEnabled() {
+
+        return publishRetryEnabled;
+    }
+
+    /**
+     * Returns the maximum number of attempts of a publish request, including the first one.
+     *
+     * @return publish retry max attempts.
+     */
+    public int getPublishRetryMaxAttempts() {
+
+        return publishRetryMaxAttempts;
+    }
+
+    /**
+     * Returns the upper bound of the delay before the first retry of a publish request in milliseconds.
+     *
+     * @return publish retry initial backoff.
+     */
+    public int getPublishRetryInitialBackoff() {
+
+        return publishRetryInitialBackoff;
+    }
+
+    /**
+     * Returns the upper bound of the delay before any retry of a publish request in milliseconds.
+     *
+     * @return publish retry max backoff.
+     */
+    public int getPublishRetryMaxBackoff() {
+
+        return publishRetryMaxBackoff;
+    }
+
+    /**
+     * Returns the time since the first attempt of a publish request after which it is not retried in milliseconds.
+     *
+     * @return publish retry deadline.
+     */
+    public int getPublishRetryDeadline() {
+
+        return publishRetryDeadline;
+    }
+
+    /**
+     * Returns the retries allowed as a percentage of the publish requests.
+     *
+     * @return publish retry budget ratio.
+     */
+    public int getPublishRetryBudgetRatio() {
+
+        return publishRetryBudgetRatio;
+    }
+
+    /**
+     * Getter method to return publish spool enable configuration.
+     *
+     * @return whether publish requests are spooled to disk while the hub is unavailable.
+     */
+    public boolean isPublishSpoolEnabled() {
+
+        return publishSpoolEnabled;
+    }
+
+    /**
+     * Returns the directory holding the publish spool files.
+     *
+     * @return publish spool directory.
+     */
+    public String getPublishSpoolDirectory() {
+
+        return publishSpoolDirectory;
+    }
+
+    /**
+     * Returns the size of a publish spool segment file in megabytes.
+     *
+     * @return publish spool segment size.
+     */
+    public int getPublishSpoolSegmentSize() {
+
+        return publishSpoolSegmentSize;
+    }
+
+    /**
+     * Returns the maximum size of the publish spool in megabytes.
+     *
+     * @return publish spool max size.
+     */
+    public int getPublishSpoolMaxSize() {
+
+        return publishSpoolMaxSize;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds spooled requests are left unforced to disk.
+     *
+     * @return publish spool sync interval.
+     */
+    public int getPublishSpoolSyncInterval() {
+
+        return publishSpoolSyncInterval;
+    }
+
+    /**
+     * Getter method to return circuit breaker enable configuration.
+     *
+     * @return whether publish requests are guarded by a circuit breaker per hub route.
+     */
+    public boolean isCircuitBreakerEnabled() {
+
+        return circuitBreakerEnabled;
+    }
+
+    /**
+     * Returns the number of most recent calls the circuit breaker computes the failure and slow call rates from.
+     *
+     * @return circuit breaker window size.
+     */
+    public int getCircuitBreakerWindowSize() {
+
+        return circuitBreakerWindowSize;
+    }
+
+    /**
+     * Returns the percentage of failed calls at which the circuit breaker opens.
+     *
+     * @return circuit breaker failure rate threshold.
+     */
+    public int getCircuitBreakerFailureRateThreshold() {
+
+        return circuitBreakerFailureRateThreshold;
+    }
+
+    /**
+     * Returns the percentage of slow calls at which the circuit breaker opens.
+     *
+     * @return circuit breaker slow call rate threshold.
+     */
+    public int getCircuitBreakerSlowCallRateThreshold() {
+
+        return circuitBreakerSlowCallRateThreshold;
+    }
+
+    /**
+     * Returns the duration from which a call counts as slow in milliseconds.
+     *
+     * @return circuit breaker slow call duration.
+     */
+    public int getCircuitBreakerSlowCallDuration() {
+
+        return circuitBreakerSlowCallDuration;
+    }
+
+    /**
+     * Returns the time the circuit breaker stays open before probing the hub in milliseconds.
+     *
+     * @return circuit breaker open duration.
+     */
+    public int getCircuitBreakerOpenDuration() {
+
+        return circuitBreakerOpenDuration;
+    }
+
+    /**
+     * Returns the number of probe calls deciding whether an open circuit breaker closes again.
+     *
+     * @return circuit breaker probe count.
+     */
+    public int getCircuitBreakerProbeCount() {
+
+        return circuitBreakerProbeCount;
+    }
+
+    /**
+     * Getter method to return flow control enable configuration.
+     *
+     * @return whether publishing to a hub route is paused while the hub throttles it.
+     */
+    public boolean isFlowControlEnabled() {
+
+        return flowControlEnabled;
+    }
+
+    /**
+     * Returns the pause of a throttled route when the hub does not send a Retry-After in milliseconds.
+     *
+     * @return flow control default pause.
+     */
+    public int getFlowControlDefaultPause() {
+
+        return flowControlDefaultPause;
+    }
+
+    /**
+     * Returns the maximum pause of a throttled route in milliseconds.
+     *
+     * @return flow control max pause.
+     */
+    public int getFlowControlMaxPause() {
+
+        return flowControlMaxPause;
+    }
+
+    /**
+     * Getter method to return tenant fair scheduling enable configuration.
+     *
+     * @return whether the publish workers are shared fairly between tenants.
+     */
+    public boolean isTenantFairSchedulingEnabled() {
+
+        return tenantFairSchedulingEnabled;
+    }
+
+    /**
+     * Returns the maximum number of queued events of a tenant with tenant fair scheduling.
+     *
+     * @return tenant publish queue capacity.
+     */
+    public int getTenantPublishQueueCapacity() {
+
+        return tenantPublishQueueCapacity;
+    }
+
+    /**
+     * Returns the maximum number of publish requests of a tenant in flight with tenant fair scheduling.
+     *
+     * @return tenant max in-flight publish requests, 0 for no limit.
+     */
+    public int getTenantMaxInFlightPublishRequests() {
+
+        return tenantMaxInFlightPublishRequests;
+    }
+
+    /**
+     * Returns the maximum number of events of a tenant published per second with tenant fair scheduling.
+     *
+     * @return tenant publish rate limit, 0 for no limit.
+     */
+    public int getTenantPublishRateLimit() {
+
+        return tenantPublishRateLimit;
+    }
+
+    /**
+     * Getter method to return priority lanes enable configuration.
+     *
+     * @return whether critical events are published ahead of the other events.
+     */
+    public boolean isPriorityLanesEnabled() {
+
+        return priorityLanesEnabled;
+    }
+
+    /**
+     * Returns the patterns of the event URIs published in the critical lane.
+     *
+     * @return critical event URI patterns.
+     */
+    public List<Pattern> getCriticalEventUriPatterns() {
+
+        return criticalEventUriPatterns;
+    }
+
+    /**
+     * Returns the maximum number of queued critical events with priority lanes.
+     *
+     * @return critical publish queue capacity.
+     */
+    public int getCriticalPublishQueueCapacity() {
+
+        return criticalPublishQueueCapacity;
+    }
+
+    /**
+     * Returns the number of critical events dispatched in a row before an event of the bulk lane.
+     *
+     * @return critical dispatch weight, 0 for strict priority.
+     */
+    public int getCriticalDispatchWeight() {
+
+        return criticalDispatchWeight;
+    }
+
+    /**
+     * Returns the number of connections per route which events of the bulk lane cannot use.
+     *
+     * @return critical reserved connections.
+     */
+    public int getCriticalReservedConnections() {
+
+        return criticalReservedConnections;
+    }
+
+    /**
+     * Getter method to return adaptive concurrency enable configuration.
+     *
+     * @return whether the in-flight publish request limit adapts to the round trip time of the hub.
+     */
+    public boolean isAdaptiveConcurrencyEnabled() {
+
+        return adaptiveConcurrencyEnabled;
+    }
+
+    /**
+     * Returns the in-flight publish request limit before the round trip time of the hub is known.
+     *
+     * @return adaptive concurrency initial limit.
+     */
+    public int getAdaptiveConcurrencyInitialLimit() {
+
+        return adaptiveConcurrencyInitialLimit;
+    }
+
+    /**
+     * Returns the lowest in-flight publish request limit with adaptive concurrency. The highest is the max in-flight
+     * publish requests.
+     *
+     * @return adaptive concurrency min limit.
+     */
+    public int getAdaptiveConcurrencyMinLimit() {
+
+        return adaptiveConcurrencyMinLimit;
+    }
+
+    /**
+     * Getter method to return connection pool autoscaling enable configuration.
+     *
+     * @return whether the hub connection pool is resized to its load.
+     */
+    public boolean isConnectionPoolAutoscalingEnabled() {
+
+        return connectionPoolAutoscalingEnabled;
+    }
+
+    /**
+     * Returns the minimum number of hub connections with connection pool autoscaling.
+     *
+     * @return connection pool min connections.
+     */
+    public int getConnectionPoolMinConnections() {
+
+        return connectionPoolMinConnections;
+    }
+
+    /**
+     * Returns the maximum number of hub connections with connection pool autoscaling.
+     *
+     * @return connection pool max connections.
+     */
+    public int getConnectionPoolMaxConnections() {
+
+        return connectionPoolMaxConnections;
+    }
+
+    /**
+     * Returns the average connection lease wait time in milliseconds above which the hub connection pool grows.
+     *
+     * @return connection pool lease wait threshold.
+     */
+    public int getConnectionPoolLeaseWaitThreshold() {
+
+        return connectionPoolLeaseWaitThreshold;
+    }
+
+    /**
+     * Returns the time in milliseconds between two resizes of the hub connection pool.
+     *
+     * @return connection pool autoscaling interval.
+     */
+    public int getConnectionPoolAutoscalingInterval() {
+
+        return connectionPoolAutoscalingInterval;
+    }
+
+    /**
+     * Returns the time in milliseconds after which an idle pooled connection is closed.
+     *
+     * @return connection idle timeout, 0 to keep idle connections for as long as the server keeps them alive.
+     */
+    public int getConnectionIdleTimeout() {
+
+        return connectionIdleTimeout;
+    }
+
+    /**
+     * Returns the time in milliseconds after which a pooled connection is closed, however busy it is.
+     *
+     * @return connection max lifetime, 0 for no limit.
+     */
+    public int getConnectionMaxLifetime() {
+
+        return connectionMaxLifetime;
+    }
+
+    /**
+     * Returns the time in milliseconds between two evictions of the expired and idle pooled connections.
+     *
+     * @return connection eviction interval, 0 to not evict connections in the background.
+     */
+    public int getConnectionEvictionInterval() {
+
+        return connectionEvictionInterval;
+    }
+
+    /**
+     * Returns the number of connections opened to the hub when the adapter is activated.
+     *
+     * @return connection warm-up count, 0 to not warm up connections.
+     */
+    public int getConnectionWarmUpCount() {
+
+        return connectionWarmUpCount;
+    }
+
+    /**
+     * Returns the maximum number of TLS sessions cached for resumption.
+     *
+     * @return SSL session cache size, 0 for no limit.
+     */
+    public int getSslSessionCacheSize() {
+
+        return sslSessionCacheSize;
+    }
+
+    /**
+     * Returns the time in seconds a TLS session is cached for resumption.
+     *
+     * @return SSL session timeout, 0 for no limit.
+     */
+    public int getSslSessionTimeout() {
+
+        return sslSessionTimeout;
+    }
+
+    /**
+     * Returns the number of independent publish clients, each with its own I/O reactor and connection pool.
+     *
+     * @return client shard count.
+     */
+    public int getClientShardCount() {
+
+        return clientShardCount;
+    }
+
+    /**
+     * Returns the event attribute hashed to pick the client shard of an event.
+     *
+     * @return client shard routing key.
+     */
+    public ShardRoutingKey getClientShardRoutingKey() {
+
+        return clientShardRoutingKey;
+    }
+
+    /**
+     * Returns the total number of I/O dispatcher threads of the publish clients.
+     *
+     * @return I/O thread count, 0 to use one thread per available processor.
+     */
+    public int getIoThreadCount() {
+
+        return ioThreadCount;
+    }
+
+    /**
+     * Returns whether Nagle's algorithm is disabled on the hub connections.
+     *
+     * @return true if TCP_NODELAY is set.
+     */
+    public boolean isTcpNoDelay() {
+
+        return tcpNoDelay;
+    }
+
+    /**
+     * Returns whether TCP keep-alive probes are sent on the hub connections.
+     *
+     * @return true if SO_KEEPALIVE is set.
+     */
+    public boolean isSocketKeepAlive() {
+
+        return socketKeepAlive;
+    }
+
+    /**
+     * Returns the send buffer size of the hub connections in bytes.
+     *
+     * @return socket send buffer size, 0 for the system default.
+     */
+    public int getSocketSendBufferSize() {
+
+        return socketSendBufferSize;
+    }
+
+    /**
+     * Returns the receive buffer size of the hub connections in bytes.
+     *
+     * @return socket receive buffer size, 0 for the system default.
+     */
+    public int getSocketReceiveBufferSize() {
+
+        return socketReceiveBufferSize;
+    }
+
+    /**
+     * Policies applied when an event is published while the publish queue is full.
+     */
+    public enum QueueFullPolicy {
+
+        // Wait for space in the queue up to the configured block timeout, then reject.
+        BLOCK,
+        // Reject the event immediately with an error to the caller.
+        FAIL_FAST,
+        // Discard the event, log it and count it as dropped.
+        DROP;
+
+        /**
+         * Resolve the policy from the configured value.
+         *
+         * @param value Configured value.
+         * @return Matching policy, or {@link #BLOCK} when the value is unknown.
+         */
+        public static QueueFullPolicy fromValue(String value) {
+
+            for (QueueFullPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(value.trim())) {
+                    return policy;
+                }
+            }
+            return BLOCK;
+        }
+    }
+
+    /**
+     * Event attributes used to route events to a client shard. All events of the same key are sent by the same
+     * shard, though not necessarily in the order they were published.
+     */
+    public enum ShardRoutingKey {
+
+        // Events of a tenant are sent by the same shard.
+        TENANT,
+        // Events of a topic are sent by the same shard.
+        TOPIC;
+
+        /**
+         * Resolve the routing key from the configured value.
+         *
+         * @param value Configured value.
+         * @return Matching routing key, or {@link #TENANT} when the value is unknown.
+         */
+        public static ShardRoutingKey fromValue(String value) {
+
+            for (ShardRoutingKey key : values()) {
+                if (key.name().equalsIgnoreCase(value.trim())) {
+                    return key;
+                }
+            }
+            return TENANT;
+        }
+    }
+
+    /**
+     * Request body formats for batched publish requests.
+     */
+    public enum BatchFormat {
+
+        // Events are sent as the elements of a JSON array.
+        JSON_ARRAY,
+        // Events are sent as newline delimited JSON, one event per line.
+        NDJSON;
+
+        /**
+         * Resolve the batch format from the configured value.
+         *
+         * @param value Configured value.
+         * @return Matching format, or {@link #JSON_ARRAY} when the value is unknown.
+         */
+        public static BatchFormat fromValue(String value) {
+
+            for (BatchFormat format : values()) {
+                if (format.name().equalsIgnoreCase(value.trim())) {
+                    return format;
+                }
+            }
+            return JSON_ARRAY;
+        }
+    }
 }
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limit on the publish requests in flight to the hub, which adapts to the round trip time of the requests with a
+ * gradient algorithm. A short and a long moving average of the round trip time are kept. While the short average
+ * stays within a tolerance of the long one, the hub is not queueing the requests and the limit grows by its square
+ * root per sample. Once the short average rises above the tolerance, the limit shrinks by the ratio of the two
+ * averages, which drains the requests queued at the hub. A request dropped by the hub, such as a throttled or timed
+ * out one, cuts the limit by a fixed ratio.
+ * <p>
+ * The limit only grows while at least half of it is in use, so that a lightly loaded hub does not raise the limit
+ * to a value it was never tested at. A limit with the same minimum and maximum is fixed.
+ * <p>
+ * A share of the limit can be reserved for critical requests. Other requests are held back once the requests in
+ * flight leave no more than the reserved share, whatever the limit has adapted to, but a single one of them is
+ * always let through so that they are not starved while the limit is at or below the reserved share.
+ */
+class AdaptiveConcurrencyLimit {
+
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+    private static final double RTT_TOLERANCE = 2.0;
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int reserved;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition belowLimit = lock.newCondition();
+    private double limit;
+    private double shortRtt;
+    private double longRtt;
+    private int inFlight;
+
+    /**
+     * Creates an adaptive concurrency limit.
+     *
+     * @param initialLimit Limit before the first round trip time is measured.
+     * @param minLimit     Minimum limit.
+     * @param maxLimit     Maximum limit.
+     */
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+
+        this(initialLimit, minLimit, maxLimit, 0);
+    }
+
+    /**
+     * Creates an adaptive concurrency limit with a share reserved for critical requests.
+     *
+     * @param initialLimit Limit before the first round trip time is measured.
+     * @param minLimit     Minimum limit.
+     * @param maxLimit     Maximum limit.
+     * @param reserved     Requests in flight reserved for critical requests.
+     */
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, int reserved) {
+
+        this.reserved = Math.max(0, reserved);
+        this.minLimit = Math.max(1, Math.min(minLimit, maxLimit));
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.max(this.minLimit, Math.min(initialLimit, this.maxLimit));
+    }
+
+    /**
+     * Wait until a request can be sent within the limit.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    void acquire() throws InterruptedException {
+
+        acquire(false);
+    }
+
+    /**
+     * Wait until a request can be sent within the limit. Requests which are not critical cannot use the reserved
+     * share of the limit.
+     *
+     * @param critical Whether the request is critical.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    void acquire(boolean critical) throws InterruptedException {
+
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= (critical ? (int) limit : bulkLimit())) {
+                belowLimit.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release a request which completed within the round trip time, adapting the limit to it.
+     *
+     * @param rttNanos Round trip time of the request in nanoseconds.
+     * @param dropped  Whether the hub dropped the request, rather than processing it.
+     */
+    void release(long rttNanos, boolean dropped) {
+
+        lock.lock();
+        try {
+            int used = inFlight--;
+            if (dropped) {
+                limit = Math.max(minLimit, limit * DROP_BACKOFF_RATIO);
+            } else if (rttNanos > 0) {
+                onSample(rttNanos, used);
+            }
+            belowLimit.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release a request which did not complete, such as a cancelled one, without adapting the limit.
+     */
+    void release() {
+
+        lock.lock();
+        try {
+            inFlight--;
+            // Both critical and other requests may be waiting, and only critical ones may be able to proceed.
+            belowLimit.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return maximum number of requests in flight.
+     */
+    int getLimit() {
+
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of requests in flight beyond which requests which are not critical are held back.
+     *
+     * @return limit of the requests which are not critical.
+     */
+    int getBulkLimit() {
+
+        lock.lock();
+        try {
+            return bulkLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     *
+     * @return in-flight count.
+     */
+    int getInFlight() {
+
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int bulkLimit() {
+
+        return Math.max(1, (int) limit - reserved);
+    }
+
+    private void onSample(long rttNanos, int used) {
+
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt = average(shortRtt, rttNanos, SHORT_WINDOW);
+        longRtt = average(longRtt, rttNanos, LONG_WINDOW);
+        // Once the latency recovered from a spike, let the long average follow it down quickly.
+        if (longRtt / shortRtt > RTT_TOLERANCE) {
+            longRtt *= 0.95;
+        }
+        if (used < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    }
+
+    private static double average(double average, long sample, int window) {
+
+        return average + (sample - average) * 2 / (window + 1);
+    }
+}
@@ -21,72 +21,294 @@ package org.wso2.identity.outbound.adapter.websubhub.internal;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
 import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
 import org.apache.http.impl.nio.client.HttpAsyncClients;
 import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
 import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
 import org.apache.http.nio.reactor.ConnectingIOReactor;
 import org.apache.http.ssl.SSLContexts;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration.ShardRoutingKey;
 import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterException;
 
 import java.io.IOException;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
 
-import static java.util.Objects.isNull;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_CREATING_ASYNC_HTTP_CLIENT;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_CREATING_SSL_CONTEXT;
-import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_GETTING_ASYNC_CLIENT;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.CLIENT_SUPERVISION_INTERVAL;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.KEY_RETRIEVAL_MAX_CONNECTIONS;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.POOL_MAINTENANCE_THREAD_NAME;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.handleServerException;
 
 /**
- * Class to retrieve the HTTP Clients.
+ * Class to retrieve the HTTP Clients. Events are published by a configurable number of independent client shards,
+ * each with its own I/O reactor and connection pool, so that a single reactor does not cap the publish throughput of
+ * large hosts. Events are routed to a shard by the hash of their tenant or topic, hence all events of a key are sent
+ * by the same shard and share its connection pool.
+ * <p>
+ * Routing does not guarantee the order of the events of a key. A shard sends several requests at a time, and a
+ * request may be retried or spooled, hence the hub can receive the events of a key in a different order than they
+ * were published.
  */
 public class ClientManager {
 
     private static final Log LOG = LogFactory.getLog(ClientManager.class);
-    private final CloseableHttpAsyncClient httpAsyncClient;
+    private final SupervisedClient[] publishClients;
+    private final ShardRoutingKey shardRoutingKey;
+    private final SupervisedClient keyRetrievalClient;
+    private final ConnectionLifecycleManager connectionLifecycleManager;
+    private final ScheduledExecutorService poolMaintenance;
 
     /**
-     * Creates a client manager.
+     * Creates a client manager. The clients are supervised, and replaced in the background once their I/O reactor
+     * has stopped.
      *
      * @throws WebSubAdapterException on errors while creating the http client.
      */
     public ClientManager() throws WebSubAdapterException {
 
-        PoolingNHttpClientConnectionManager connectionManager;
-        try {
-            connectionManager = createPoolingConnectionManager();
-        } catch (IOException e) {
-            throw handleServerException(ERROR_CREATING_ASYNC_HTTP_CLIENT, e);
+        WebSubAdapterConfiguration adapterConfiguration =
+                WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration();
+        poolMaintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, POOL_MAINTENANCE_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        connectionLifecycleManager = new ConnectionLifecycleManager(adapterConfiguration.getConnectionIdleTimeout());
+        Registry<SchemeIOSessionStrategy> sessionStrategies = createSessionStrategyRegistry(adapterConfiguration);
+        int shardCount = Math.max(1, adapterConfiguration.getClientShardCount());
+        int ioThreadCount = adapterConfiguration.getIoThreadCount() > 0 ? adapterConfiguration.getIoThreadCount() :
+                Runtime.getRuntime().availableProcessors();
+        IOReactorConfig publishReactorConfig = createIOReactorConfig(adapterConfiguration,
+                Math.max(1, ioThreadCount / shardCount));
+        shardRoutingKey = adapterConfiguration.getClientShardRoutingKey();
+        publishClients = new SupervisedClient[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            publishClients[shard] = createPublishClient(shardCount == 1 ? "publish" : "publish shard " + shard,
+                    adapterConfiguration, sessionStrategies, publishReactorConfig, shardCount);
         }
+        // Encryption keys are fetched on a separate small pool, so that they are not queued behind hub requests.
+        keyRetrievalClient = new SupervisedClient("key retrieval", stopped -> {
+            PoolingNHttpClientConnectionManager connectionManager = createPoolingConnectionManager(
+                    KEY_RETRIEVAL_MAX_CONNECTIONS, KEY_RETRIEVAL_MAX_CONNECTIONS, sessionStrategies,
+                    createIOReactorConfig(adapterConfiguration, 1), adapterConfiguration.getConnectionMaxLifetime(),
+                    false);
+            return new SupervisedClient.PooledClient(createClient(connectionManager), connectionManager);
+        }, poolMaintenance);
 
-        RequestConfig config = createRequestConfig();
-        HttpAsyncClientBuilder httpClientBuilder = HttpAsyncClients.custom().setDefaultRequestConfig(config);
-        addSslContext(httpClientBuilder);
-        httpClientBuilder.setConnectionManager(connectionManager);
-        httpAsyncClient = httpClientBuilder.build();
-        httpAsyncClient.start();
+        poolMaintenance.scheduleWithFixedDelay(() -> {
+            for (SupervisedClient publishClient : publishClients) {
+                publishClient.check();
+            }
+            keyRetrievalClient.check();
+        }, CLIENT_SUPERVISION_INTERVAL, CLIENT_SUPERVISION_INTERVAL, TimeUnit.MILLISECONDS);
+        long evictionInterval = adapterConfiguration.getConnectionEvictionInterval();
+        if (evictionInterval > 0) {
+            poolMaintenance.scheduleWithFixedDelay(() -> {
+                for (SupervisedClient publishClient : publishClients) {
+                    connectionLifecycleManager.evict(publishClient.getConnectionManager());
+                }
+                connectionLifecycleManager.evict(keyRetrievalClient.getConnectionManager());
+            }, evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+        }
+        if (adapterConfiguration.isConnectionPoolAutoscalingEnabled()) {
+            long interval = adapterConfiguration.getConnectionPoolAutoscalingInterval();
+            for (SupervisedClient publishClient : publishClients) {
+                poolMaintenance.scheduleWithFixedDelay(new ConnectionPoolAutoscaler(
+                        () -> (ConnectionPoolAutoscaler.LeaseTimingConnectionManager)
+                                publishClient.getConnectionManager(),
+                        shareOf(adapterConfiguration.getConnectionPoolMinConnections(), shardCount),
+                        shareOf(adapterConfiguration.getConnectionPoolMaxConnections(), shardCount),
+                        adapterConfiguration.getConnectionPoolLeaseWaitThreshold(), interval),
+                        interval, interval, TimeUnit.MILLISECONDS);
+            }
+        }
     }
 
     /**
-     * Get HTTP client properly configured with tenant configurations.
+     * Get HTTP client properly configured with tenant configurations. Requests which are not bound to an event,
+     * such as topic management, are sent by the first shard.
      *
      * @return CloseableHttpAsyncClient instance.
+     * @throws WebSubAdapterException If the client has stopped and is being replaced.
      */
     public CloseableHttpAsyncClient getClient() throws WebSubAdapterException {
 
-        if (isNull(httpAsyncClient)) {
-            throw handleServerException(ERROR_GETTING_ASYNC_CLIENT, null);
-        } else if (!httpAsyncClient.isRunning()) {
-            httpAsyncClient.start();
+        return publishClients[0].get();
+    }
+
+    /**
+     * Get the HTTP client of the shard publishing the events of the tenant or topic, depending on the configured
+     * routing key.
+     *
+     * @param tenantDomain Tenant domain of the event.
+     * @param topic        Topic of the event.
+     * @return CloseableHttpAsyncClient instance.
+     * @throws WebSubAdapterException If the client has stopped and is being replaced.
+     */
+    public CloseableHttpAsyncClient getClient(String tenantDomain, String topic) throws WebSubAdapterException {
+
+        String routingKey = shardRoutingKey == ShardRoutingKey.TOPIC ? topic : tenantDomain;
+        if (publishClients.length == 1 || routingKey == null) {
+            return publishClients[0].get();
         }
-        return httpAsyncClient;
+        return publishClients[Math.floorMod(routingKey.hashCode(), publishClients.length)].get();
+    }
+
+    /**
+     * Get the HTTP client used to retrieve event encryption keys.
+     *
+     * @return CloseableHttpAsyncClient instance.
+     * @throws WebSubAdapterException If the client has stopped and is being replaced.
+     */
+    public CloseableHttpAsyncClient getKeyRetrievalClient() throws WebSubAdapterException {
+
+        return keyRetrievalClient.get();
+    }
+
+    /**
+     * Whether the client a request was sent with was replaced as it had stopped. Such a request did not reach the
+     * hub, or its outcome was lost, hence it can be sent again on the current client.
+     *
+     * @param client Client the request was sent with.
+     * @return true if the client was replaced.
+     */
+    public boolean isRetired(CloseableHttpAsyncClient client) {
+
+        for (SupervisedClient publishClient : publishClients) {
+            if (!publishClient.isRetired(client)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of times a publish client shard was replaced as it had stopped.
+     *
+     * @return client restart count.
+     */
+    public long getClientRestartCount() {
+
+        long restartCount = 0;
+        for (SupervisedClient publishClient : publishClients) {
+            restartCount += publishClient.getRestartCount();
+        }
+        return restartCount;
+    }
+
+    /**
+     * Returns the number of connections opened by the adapter clients.
+     *
+     * @return opened connection count.
+     */
+    public long getOpenedConnectionCount() {
+
+        return connectionLifecycleManager.getOpenedCount();
+    }
+
+    /**
+     * Returns the number of connections of the adapter clients closed as expired or idle.
+     *
+     * @return evicted connection count.
+     */
+    public long getEvictedConnectionCount() {
+
+        return connectionLifecycleManager.getEvictedCount();
+    }
+
+    /**
+     * Stop the supervision and periodic maintenance of the clients, and close the clients along with their I/O
+     * reactors and connection pools.
+     */
+    public void shutdown() {
+
+        // Stopped first, so that no client is replaced while the clients are being closed.
+        poolMaintenance.shutdownNow();
+        for (SupervisedClient publishClient : publishClients) {
+            publishClient.close();
+        }
+        keyRetrievalClient.close();
+    }
+
+    private SupervisedClient createPublishClient(String name, WebSubAdapterConfiguration adapterConfiguration,
+                                                 Registry<SchemeIOSessionStrategy> sessionStrategies,
+                                                 IOReactorConfig reactorConfig, int shardCount)
+            throws WebSubAdapterException {
+
+        return new SupervisedClient(name, stopped -> {
+            // The configured pool sizes are shared by the shards.
+            PoolingNHttpClientConnectionManager connectionManager = createPoolingConnectionManager(
+                    shareOf(adapterConfiguration.getDefaultMaxConnections(), shardCount),
+                    shareOf(adapterConfiguration.getDefaultMaxConnectionsPerRoute(), shardCount), sessionStrategies,
+                    reactorConfig, adapterConfiguration.getConnectionMaxLifetime(),
+                    adapterConfiguration.isConnectionPoolAutoscalingEnabled());
+            if (stopped != null) {
+                // Keep the size the pool was scaled to.
+                connectionManager.setMaxTotal(stopped.getConnectionManager().getMaxTotal());
+                connectionManager.setDefaultMaxPerRoute(stopped.getConnectionManager().getDefaultMaxPerRoute());
+            }
+            CloseableHttpAsyncClient client = createClient(connectionManager);
+            if (adapterConfiguration.getConnectionWarmUpCount() > 0 &&
+                    adapterConfiguration.getWebSubHubBaseUrl() != null) {
+                connectionLifecycleManager.warmUp(connectionManager, adapterConfiguration.getWebSubHubBaseUrl(),
+                        shareOf(adapterConfiguration.getConnectionWarmUpCount(), shardCount),
+                        adapterConfiguration.getHTTPConnectionTimeout(),
+                        adapterConfiguration.getConnectionIdleTimeout(), poolMaintenance);
+            }
+            return new SupervisedClient.PooledClient(client, connectionManager);
+        }, poolMaintenance);
+    }
+
+    private static int shareOf(int total, int shardCount) {
+
+        return Math.max(1, (total + shardCount - 1) / shardCount);
+    }
+
+    /**
+     * Socket options are set explicitly, instead of relying on the defaults of the I/O reactor.
+     */
+    private static IOReactorConfig createIOReactorConfig(WebSubAdapterConfiguration adapterConfiguration,
+                                                         int ioThreadCount) {
+
+        return IOReactorConfig.custom()
+                .setIoThreadCount(ioThreadCount)
+                .setTcpNoDelay(adapterConfiguration.isTcpNoDelay())
+                .setSoKeepAlive(adapterConfiguration.isSocketKeepAlive())
+                .setSndBufSize(adapterConfiguration.getSocketSendBufferSize())
+                .setRcvBufSize(adapterConfiguration.getSocketReceiveBufferSize())
+                .build();
+    }
+
+    private CloseableHttpAsyncClient createClient(PoolingNHttpClientConnectionManager connectionManager)
+            throws WebSubAdapterException {
+
+        RequestConfig config = createRequestConfig();
+        HttpAsyncClientBuilder httpClientBuilder = HttpAsyncClients.custom().setDefaultRequestConfig(config);
+        httpClientBuilder.setConnectionManager(connectionManager);
+        httpClientBuilder.setKeepAliveStrategy(connectionLifecycleManager.getKeepAliveStrategy());
+        CloseableHttpAsyncClient client = httpClientBuilder.build();
+        client.start();
+        return client;
     }
 
     private RequestConfig createRequestConfig() {
@@ -103,16 +325,28 @@ public class ClientManager {
                 .build();
     }
 
-    private PoolingNHttpClientConnectionManager createPoolingConnectionManager() throws IOException {
-
-        int maxConnections = WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration()
-                .getDefaultMaxConnections();
-        int maxConnectionsPerRoute = WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration()
-                .getDefaultMaxConnectionsPerRoute();
+    private PoolingNHttpClientConnectionManager createPoolingConnectionManager(int maxConnections,
+                                                                               int maxConnectionsPerRoute,
+                                                                               Registry<SchemeIOSessionStrategy>
+                                                                                       sessionStrategies,
+                                                                               IOReactorConfig reactorConfig,
+                                                                               long maxLifetime,
+                                                                               boolean leaseTiming)
+            throws WebSubAdapterException {
 
-        ConnectingIOReactor ioReactor = new DefaultConnectingIOReactor();
-        PoolingNHttpClientConnectionManager poolingHttpClientConnectionMgr = new
-                PoolingNHttpClientConnectionManager(ioReactor);
+        ConnectingIOReactor ioReactor;
+        try {
+            ioReactor = new DefaultConnectingIOReactor(reactorConfig);
+        } catch (IOException e) {
+            throw handleServerException(ERROR_CREATING_ASYNC_HTTP_CLIENT, e);
+        }
+        // A max lifetime of 0 keeps the connections for as long as they are kept alive.
+        PoolingNHttpClientConnectionManager poolingHttpClientConnectionMgr = leaseTiming ?
+                new ConnectionPoolAutoscaler.LeaseTimingConnectionManager(ioReactor,
+                        connectionLifecycleManager.getConnectionFactory(), sessionStrategies, maxLifetime) :
+                new PoolingNHttpClientConnectionManager(ioReactor, connectionLifecycleManager.getConnectionFactory(),
+                        sessionStrategies, DefaultSchemePortResolver.INSTANCE, SystemDefaultDnsResolver.INSTANCE,
+                        maxLifetime, TimeUnit.MILLISECONDS);
         // Increase max total connection to 20.
         poolingHttpClientConnectionMgr.setMaxTotal(maxConnections);
         // Increase default max connection per route to 20.
@@ -120,15 +354,27 @@ public class ClientManager {
         return poolingHttpClientConnectionMgr;
     }
 
-    private void addSslContext(HttpAsyncClientBuilder builder) throws WebSubAdapterException {
+    /**
+     * The SSL context is set on the session strategies, as a client built with a connection manager does not use the
+     * SSL context set on its builder.
+     */
+    private Registry<SchemeIOSessionStrategy> createSessionStrategyRegistry(
+            WebSubAdapterConfiguration adapterConfiguration) throws WebSubAdapterException {
 
         try {
             SSLContext sslContext = SSLContexts.custom()
                     .loadTrustMaterial(WebSubHubAdapterDataHolder.getInstance().getTrustStore(), null)
                     .build();
-            builder.setSSLContext(sslContext);
-            builder.setSSLHostnameVerifier(new DefaultHostnameVerifier());
-
+            // Cached sessions let reconnects to the hub resume the TLS session with an abbreviated handshake.
+            SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+            if (sessionContext != null) {
+                sessionContext.setSessionCacheSize(adapterConfiguration.getSslSessionCacheSize());
+                sessionContext.setSessionTimeout(adapterConfiguration.getSslSessionTimeout());
+            }
+            return RegistryBuilder.<SchemeIOSessionStrategy>create()
+                    .register("http", NoopIOSessionStrategy.INSTANCE)
+                    .register("https", new SSLIOSessionStrategy(sslContext, new DefaultHostnameVerifier()))
+                    .build();
         } catch (NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
             throw handleServerException(ERROR_CREATING_SSL_CONTEXT, e);
         }
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpHost;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.UnsupportedSchemeException;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.impl.nio.conn.ManagedNHttpClientConnectionFactory;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.nio.NHttpClientConnection;
+import org.apache.http.nio.conn.ManagedNHttpClientConnection;
+import org.apache.http.nio.conn.NHttpConnectionFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the pooled connections of the adapter clients fresh, so that a publish does not fail on a socket which the
+ * hub or its load balancer already closed. Connections are kept alive for as long as the server hints in its
+ * Keep-Alive header, less a safety margin, and never longer than the idle timeout. A periodic eviction closes the
+ * connections which expired, either by their keep-alive or by their maximum lifetime, and those idle for longer than
+ * the idle timeout. The maximum lifetime itself is enforced by the connection pool, and makes new connections pick up
+ * DNS changes and load balancer rebalancing.
+ * <p>
+ * Connections to the hub can be opened ahead of the first publishes, so that these do not pay for the TCP and TLS
+ * handshakes right after an activation.
+ * <p>
+ * The number of connections opened and evicted is counted, to show the churn of the pools. Evictions are counted
+ * from the change of the available connections of a pool during an eviction, hence a connection released to the
+ * pool at the same time can hide an eviction.
+ */
+class ConnectionLifecycleManager {
+
+    private static final Log log = LogFactory.getLog(ConnectionLifecycleManager.class);
+    private static final long KEEP_ALIVE_MARGIN = 1000;
+
+    private final long idleTimeout;
+    private final LongAdder openedCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+    private final NHttpConnectionFactory<ManagedNHttpClientConnection> connectionFactory = (session, config) -> {
+        openedCount.increment();
+        return ManagedNHttpClientConnectionFactory.INSTANCE.create(session, config);
+    };
+    private final ConnectionKeepAliveStrategy keepAliveStrategy;
+
+    /**
+     * Creates a connection lifecycle manager.
+     *
+     * @param idleTimeout Time in milliseconds after which an idle connection is closed, 0 to only apply the keep-alive
+     *                    hints of the server.
+     */
+    ConnectionLifecycleManager(long idleTimeout) {
+
+        this.idleTimeout = idleTimeout;
+        this.keepAliveStrategy = (response, context) -> {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            if (keepAlive > 0) {
+                // Leave the connection before the server closes it.
+                keepAlive = Math.max(0, keepAlive - KEEP_ALIVE_MARGIN);
+            }
+            if (idleTimeout <= 0) {
+                return keepAlive;
+            }
+            return keepAlive < 0 ? idleTimeout : Math.min(keepAlive, idleTimeout);
+        };
+    }
+
+    /**
+     * Returns the factory of the pooled connections, counting the connections it opens.
+     *
+     * @return connection factory.
+     */
+    NHttpConnectionFactory<ManagedNHttpClientConnection> getConnectionFactory() {
+
+        return connectionFactory;
+    }
+
+    /**
+     * Returns the keep-alive strategy of the pooled connections.
+     *
+     * @return keep-alive strategy.
+     */
+    ConnectionKeepAliveStrategy getKeepAliveStrategy() {
+
+        return keepAliveStrategy;
+    }
+
+    /**
+     * Close the expired and idle connections of the pool.
+     *
+     * @param connectionManager Connection manager of the pool.
+     */
+    void evict(PoolingNHttpClientConnectionManager connectionManager) {
+
+        try {
+            int available = connectionManager.getTotalStats().getAvailable();
+            connectionManager.closeExpiredConnections();
+            if (idleTimeout > 0) {
+                connectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+            }
+            int evicted = available - connectionManager.getTotalStats().getAvailable();
+            if (evicted > 0) {
+                evictedCount.add(evicted);
+                if (log.isDebugEnabled()) {
+                    log.debug("Evicted " + evicted + " expired or idle WebSub Hub adapter connections.");
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Error while evicting the expired and idle WebSub Hub adapter connections.", e);
+        }
+    }
+
+    /**
+     * Open connections to the route of the URL in the background, and return them to the pool once connected.
+     * Connections are requested all at once, so that the pool opens a new connection for each of them, up to the
+     * limit per route. The pool only accounts for a connection as leased once its lease callback returned, hence the
+     * connections are returned to the pool by the executor rather than by the callback.
+     *
+     * @param connectionManager Connection manager of the pool.
+     * @param url               URL whose route is warmed up.
+     * @param count             Number of connections to open.
+     * @param connectTimeout    Connect timeout in milliseconds.
+     * @param keepAlive         Time in milliseconds the connections are kept alive in the pool, 0 for no limit.
+     * @param executor          Executor returning the connections to the pool.
+     */
+    void warmUp(PoolingNHttpClientConnectionManager connectionManager, String url, int count, long connectTimeout,
+                long keepAlive, Executor executor) {
+
+        HttpRoute route;
+        try {
+            URI uri = URI.create(url);
+            HttpHost host = new HttpHost(uri.getHost(), uri.getPort(), uri.getScheme());
+            // Resolve the default port as the route planner of the client does, so that both use the same route.
+            host = new HttpHost(host.getHostName(), DefaultSchemePortResolver.INSTANCE.resolve(host),
+                    host.getSchemeName());
+            route = new HttpRoute(host, null, "https".equalsIgnoreCase(host.getSchemeName()));
+        } catch (IllegalArgumentException | UnsupportedSchemeException e) {
+            log.warn("Unable to warm up the connections to WebSub Hub URL: " + url, e);
+            return;
+        }
+
+        int connections = Math.min(count, connectionManager.getDefaultMaxPerRoute());
+        long startTime = System.currentTimeMillis();
+        AtomicInteger pending = new AtomicInteger(connections);
+        AtomicInteger connected = new AtomicInteger();
+        Runnable onDone = () -> {
+            if (pending.decrementAndGet() == 0) {
+                log.info("Warmed up " + connected.get() + " of " + connections + " connections to WebSub Hub route: " +
+                        route.getTargetHost() + " in " + (System.currentTimeMillis() - startTime) + " ms.");
+            }
+        };
+        for (int i = 0; i < connections; i++) {
+            connectionManager.requestConnection(route, null, connectTimeout, connectTimeout, TimeUnit.MILLISECONDS,
+                    new FutureCallback<NHttpClientConnection>() {
+
+                        @Override
+                        public void completed(NHttpClientConnection connection) {
+
+                            try {
+                                executor.execute(() -> completeRoute(connectionManager, connection, route,
+                                        keepAlive, connected, onDone));
+                            } catch (RejectedExecutionException e) {
+                                closeQuietly(connection);
+                                onDone.run();
+                            }
+                        }
+
+                        @Override
+                        public void failed(Exception ex) {
+
+                            log.warn("Unable to warm up a connection to WebSub Hub route: " + route.getTargetHost(),
+                                    ex);
+                            onDone.run();
+                        }
+
+                        @Override
+                        public void cancelled() {
+
+                            onDone.run();
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Returns the number of connections opened.
+     *
+     * @return opened connection count.
+     */
+    long getOpenedCount() {
+
+        return openedCount.sum();
+    }
+
+    /**
+     * Returns the number of connections evicted as expired or idle.
+     *
+     * @return evicted connection count.
+     */
+    long getEvictedCount() {
+
+        return evictedCount.sum();
+    }
+
+    private static void completeRoute(PoolingNHttpClientConnectionManager connectionManager,
+                                      NHttpClientConnection connection, HttpRoute route, long keepAlive,
+                                      AtomicInteger connected, Runnable onDone) {
+
+        try {
+            if (!connectionManager.isRouteComplete(connection)) {
+                // Starts the TLS handshake, which completes while the connection is pooled.
+                HttpClientContext context = HttpClientContext.create();
+                connectionManager.startRoute(connection, route, context);
+                connectionManager.routeComplete(connection, route, context);
+            }
+            connected.incrementAndGet();
+        } catch (IOException e) {
+            log.warn("Unable to warm up a connection to WebSub Hub route: " + route.getTargetHost(), e);
+            closeQuietly(connection);
+        } finally {
+            connectionManager.releaseConnection(connection, null, keepAlive, TimeUnit.MILLISECONDS);
+            onDone.run();
+        }
+    }
+
+    private static void closeQuietly(NHttpClientConnection connection) {
+
+        try {
+            connection.shutdown();
+        } catch (IOException e) {
+            log.debug("Error while closing a warm-up connection.", e);
+        }
+    }
+}
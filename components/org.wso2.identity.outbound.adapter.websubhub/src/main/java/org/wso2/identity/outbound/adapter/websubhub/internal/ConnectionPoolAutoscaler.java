@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.Registry;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.nio.NHttpClientConnection;
+import org.apache.http.nio.conn.ManagedNHttpClientConnection;
+import org.apache.http.nio.conn.NHttpConnectionFactory;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+import org.apache.http.pool.PoolStats;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Resizes a connection pool to its load, within configured bounds. On every run, the pool statistics and the average
+ * time requests waited to lease a connection since the previous run are sampled. The pool grows by half when
+ * requests are waiting for a connection, or when leases took longer than the threshold. It shrinks by a quarter once
+ * less than half of it was leased for several runs in a row, closing the connections which stayed idle since the
+ * previous run. The limit per route keeps its initial ratio to the total limit.
+ */
+class ConnectionPoolAutoscaler implements Runnable {
+
+    private static final Log log = LogFactory.getLog(ConnectionPoolAutoscaler.class);
+    private static final double GROWTH_RATIO = 1.5;
+    private static final double SHRINK_RATIO = 0.75;
+    private static final int SHRINK_AFTER_IDLE_RUNS = 3;
+
+    private final Supplier<LeaseTimingConnectionManager> connectionManagers;
+    private final int minConnections;
+    private final int maxConnections;
+    private final double perRouteRatio;
+    private final long leaseWaitThreshold;
+    private final long interval;
+    private final AtomicLong resizeCount = new AtomicLong();
+    private long lastLeaseWaitTime;
+    private long lastLeaseCount;
+    private int idleRuns;
+
+    /**
+     * Creates a connection pool autoscaler.
+     *
+     * @param connectionManagers Supplier of the current connection manager of the pool.
+     * @param minConnections     Minimum total number of connections.
+     * @param maxConnections     Maximum total number of connections.
+     * @param leaseWaitThreshold Average lease wait time in milliseconds above which the pool grows.
+     * @param interval           Time in milliseconds between two runs.
+     */
+    ConnectionPoolAutoscaler(Supplier<LeaseTimingConnectionManager> connectionManagers, int minConnections,
+                             int maxConnections, long leaseWaitThreshold, long interval) {
+
+        this.connectionManagers = connectionManagers;
+        LeaseTimingConnectionManager connectionManager = connectionManagers.get();
+        this.minConnections = Math.max(1, minConnections);
+        this.maxConnections = Math.max(this.minConnections, maxConnections);
+        this.perRouteRatio = Math.min(1.0,
+                (double) connectionManager.getDefaultMaxPerRoute() / connectionManager.getMaxTotal());
+        this.leaseWaitThreshold = leaseWaitThreshold;
+        this.interval = interval;
+    }
+
+    @Override
+    public void run() {
+
+        try {
+            LeaseTimingConnectionManager connectionManager = connectionManagers.get();
+            long leaseWaitTime = connectionManager.getLeaseWaitTime();
+            long leaseCount = connectionManager.getLeaseCount();
+            long leases = leaseCount - lastLeaseCount;
+            // The counters start over when the client, and hence its pool, is replaced.
+            long averageLeaseWait = leases > 0 && leaseWaitTime >= lastLeaseWaitTime ?
+                    TimeUnit.NANOSECONDS.toMillis((leaseWaitTime - lastLeaseWaitTime) / leases) : 0;
+            lastLeaseWaitTime = leaseWaitTime;
+            lastLeaseCount = leaseCount;
+            resize(connectionManager.getTotalStats(), averageLeaseWait);
+        } catch (RuntimeException e) {
+            log.error("Error while resizing the WebSub Hub connection pool.", e);
+        }
+    }
+
+    /**
+     * Returns the number of times the pool was resized.
+     *
+     * @return resize count.
+     */
+    long getResizeCount() {
+
+        return resizeCount.get();
+    }
+
+    /**
+     * Resize the pool to the sampled load.
+     *
+     * @param stats            Total statistics of the pool.
+     * @param averageLeaseWait Average lease wait time in milliseconds since the previous run.
+     */
+    void resize(PoolStats stats, long averageLeaseWait) {
+
+        LeaseTimingConnectionManager connectionManager = connectionManagers.get();
+        int current = connectionManager.getMaxTotal();
+        int target = current;
+        if (stats.getPending() > 0 || averageLeaseWait > leaseWaitThreshold) {
+            idleRuns = 0;
+            target = Math.min(maxConnections, Math.max(current + 1, (int) (current * GROWTH_RATIO)));
+        } else if (stats.getLeased() < current / 2 && ++idleRuns >= SHRINK_AFTER_IDLE_RUNS) {
+            idleRuns = 0;
+            target = Math.max(minConnections, Math.max(stats.getLeased(), (int) (current * SHRINK_RATIO)));
+        } else if (stats.getLeased() >= current / 2) {
+            idleRuns = 0;
+        }
+        if (target == current) {
+            return;
+        }
+
+        connectionManager.setMaxTotal(target);
+        connectionManager.setDefaultMaxPerRoute(Math.max(1, (int) Math.round(target * perRouteRatio)));
+        if (target < current) {
+            connectionManager.closeIdleConnections(interval, TimeUnit.MILLISECONDS);
+        }
+        resizeCount.incrementAndGet();
+        log.info("Resized the WebSub Hub connection pool from " + current + " to " + target + " connections. " +
+                "Leased: " + stats.getLeased() + ", pending: " + stats.getPending() + ", available: " +
+                stats.getAvailable() + ", average lease wait: " + averageLeaseWait + " ms.");
+    }
+
+    /**
+     * Pooling connection manager which measures how long requests wait to lease a connection.
+     */
+    static class LeaseTimingConnectionManager extends PoolingNHttpClientConnectionManager {
+
+        private final LongAdder leaseWaitTime = new LongAdder();
+        private final LongAdder leaseCount = new LongAdder();
+
+        LeaseTimingConnectionManager(ConnectingIOReactor ioReactor) {
+
+            super(ioReactor);
+        }
+
+        LeaseTimingConnectionManager(ConnectingIOReactor ioReactor,
+                                     NHttpConnectionFactory<ManagedNHttpClientConnection> connectionFactory,
+                                     Registry<SchemeIOSessionStrategy> sessionStrategies, long timeToLive) {
+
+            super(ioReactor, connectionFactory, sessionStrategies, DefaultSchemePortResolver.INSTANCE,
+                    SystemDefaultDnsResolver.INSTANCE, timeToLive, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public Future<NHttpClientConnection> requestConnection(HttpRoute route, Object state, long connectTimeout,
+                                                               long leaseTimeout, TimeUnit timeUnit,
+                                                               FutureCallback<NHttpClientConnection> callback) {
+
+            if (callback == null) {
+                return super.requestConnection(route, state, connectTimeout, leaseTimeout, timeUnit, null);
+            }
+            long requestTime = System.nanoTime();
+            return super.requestConnection(route, state, connectTimeout, leaseTimeout, timeUnit,
+                    new FutureCallback<NHttpClientConnection>() {
+
+                        @Override
+                        public void completed(NHttpClientConnection connection) {
+
+                            onLeased(requestTime);
+                            callback.completed(connection);
+                        }
+
+                        @Override
+                        public void failed(Exception ex) {
+
+                            onLeased(requestTime);
+                            callback.failed(ex);
+                        }
+
+                        @Override
+                        public void cancelled() {
+
+                            callback.cancelled();
+                        }
+                    });
+        }
+
+        long getLeaseWaitTime() {
+
+            return leaseWaitTime.sum();
+        }
+
+        long getLeaseCount() {
+
+            return leaseCount.sum();
+        }
+
+        private void onLeased(long requestTime) {
+
+            leaseWaitTime.add(System.nanoTime() - requestTime);
+            leaseCount.increment();
+        }
+    }
+}
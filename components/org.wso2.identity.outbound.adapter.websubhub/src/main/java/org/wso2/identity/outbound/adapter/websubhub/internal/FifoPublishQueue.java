@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publish queue handing events to the workers in the order they were queued, regardless of their tenant.
+ */
+class FifoPublishQueue implements PublishQueue {
+
+    private final BlockingQueue<PublishTask> queue;
+
+    FifoPublishQueue(int capacity) {
+
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public boolean offer(PublishTask task) {
+
+        return queue.offer(task);
+    }
+
+    @Override
+    public boolean offer(PublishTask task, long timeout, TimeUnit unit) throws InterruptedException {
+
+        return queue.offer(task, timeout, unit);
+    }
+
+    @Override
+    public PublishTask poll(long timeout, TimeUnit unit) throws InterruptedException {
+
+        return queue.poll(timeout, unit);
+    }
+
+    @Override
+    public int remainingCapacity(PublishTask task) {
+
+        return queue.remainingCapacity();
+    }
+
+    @Override
+    public int size() {
+
+        return queue.size();
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Publish queue with a critical and a bulk lane, so that security critical events such as session revocations do
+ * not wait behind high volume events such as login notifications. Events are assigned to the critical lane when
+ * their event URI matches one of the configured patterns, and to the bulk lane otherwise.
+ * <p>
+ * Each lane is a publish queue of its own with its own capacity. The workers are handed a critical event for every
+ * turn, except that after a given number of critical events in a row a bulk event gets a turn, so that the bulk lane
+ * is not starved. A weight of 0 gives the critical lane strict priority. The bulk lane is further limited to the
+ * connections of the hub route minus a reserved share, leaving the reserved connections to critical events. The
+ * bulk limit is read on every poll, so that it can follow a concurrency limit which adapts to the hub. As workers
+ * take events before their requests are started, the bulk limit can be exceeded by up to the number of workers.
+ */
+class PriorityPublishQueue implements PublishQueue {
+
+    private static final long MAX_LANE_WAIT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final PublishQueue criticalLane;
+    private final PublishQueue bulkLane;
+    private final List<Pattern> criticalEventUriPatterns;
+    private final ConcurrentMap<String, Boolean> criticalEventUris = new ConcurrentHashMap<>();
+    private final int criticalWeight;
+    private final IntSupplier bulkMaxInFlight;
+    private final AtomicInteger bulkInFlight = new AtomicInteger();
+    private final AtomicInteger criticalTurns = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    /**
+     * Creates a priority publish queue.
+     *
+     * @param criticalLane             Queue of the critical events.
+     * @param bulkLane                 Queue of the other events.
+     * @param criticalEventUriPatterns Patterns of the event URIs of critical events.
+     * @param criticalWeight           Critical events handed over in a row before a bulk event, 0 for strict
+     *                                 priority.
+     * @param bulkMaxInFlight          Maximum number of publish requests of bulk events in flight.
+     */
+    PriorityPublishQueue(PublishQueue criticalLane, PublishQueue bulkLane, List<Pattern> criticalEventUriPatterns,
+                         int criticalWeight, IntSupplier bulkMaxInFlight) {
+
+        this.criticalLane = criticalLane;
+        this.bulkLane = bulkLane;
+        this.criticalEventUriPatterns = criticalEventUriPatterns;
+        this.criticalWeight = criticalWeight;
+        this.bulkMaxInFlight = bulkMaxInFlight;
+    }
+
+    @Override
+    public boolean offer(PublishTask task) {
+
+        if (!laneOf(task).offer(task)) {
+            return false;
+        }
+        signalAvailable();
+        return true;
+    }
+
+    @Override
+    public boolean offer(PublishTask task, long timeout, TimeUnit unit) throws InterruptedException {
+
+        if (!laneOf(task).offer(task, timeout, unit)) {
+            return false;
+        }
+        signalAvailable();
+        return true;
+    }
+
+    @Override
+    public PublishTask poll(long timeout, TimeUnit unit) throws InterruptedException {
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            PublishTask task = pollLanes();
+            if (task != null) {
+                return task;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            // The wait is bounded, as a lane can hold back events without signaling, such as rate limited tenants.
+            lock.lockInterruptibly();
+            try {
+                available.awaitNanos(Math.min(remaining, MAX_LANE_WAIT));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void onRequestStarted(PublishTask task) {
+
+        if (!isCritical(task)) {
+            bulkInFlight.incrementAndGet();
+        }
+        laneOf(task).onRequestStarted(task);
+    }
+
+    @Override
+    public void onRequestCompleted(PublishTask task) {
+
+        laneOf(task).onRequestCompleted(task);
+        if (!isCritical(task) && bulkInFlight.decrementAndGet() < getBulkMaxInFlight()) {
+            signalAvailable();
+        }
+    }
+
+    @Override
+    public int remainingCapacity(PublishTask task) {
+
+        return laneOf(task).remainingCapacity(task);
+    }
+
+    @Override
+    public int size() {
+
+        return criticalLane.size() + bulkLane.size();
+    }
+
+    /**
+     * Returns the number of critical events waiting to be published.
+     *
+     * @return critical lane size.
+     */
+    int getCriticalSize() {
+
+        return criticalLane.size();
+    }
+
+    private PublishTask pollLanes() throws InterruptedException {
+
+        boolean bulkOpen = bulkInFlight.get() < getBulkMaxInFlight();
+        if (criticalWeight <= 0 || criticalTurns.get() < criticalWeight || !bulkOpen) {
+            PublishTask task = criticalLane.poll(0, TimeUnit.NANOSECONDS);
+            if (task != null) {
+                criticalTurns.incrementAndGet();
+                return task;
+            }
+        }
+        if (bulkOpen) {
+            PublishTask task = bulkLane.poll(0, TimeUnit.NANOSECONDS);
+            if (task != null) {
+                criticalTurns.set(0);
+                return task;
+            }
+        }
+        // The critical lane passed its turn to the bulk lane, which had no event ready.
+        PublishTask task = criticalLane.poll(0, TimeUnit.NANOSECONDS);
+        if (task != null) {
+            criticalTurns.incrementAndGet();
+        }
+        return task;
+    }
+
+    private PublishQueue laneOf(PublishTask task) {
+
+        return isCritical(task) ? criticalLane : bulkLane;
+    }
+
+    private int getBulkMaxInFlight() {
+
+        return Math.max(1, bulkMaxInFlight.getAsInt());
+    }
+
+    @Override
+    public boolean isCritical(PublishTask task) {
+
+        String eventUri = task.getEventUri();
+        if (eventUri == null || criticalEventUriPatterns.isEmpty()) {
+            return false;
+        }
+        return criticalEventUris.computeIfAbsent(eventUri, uri -> {
+            for (Pattern pattern : criticalEventUriPatterns) {
+                if (pattern.matcher(uri).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    private void signalAvailable() {
+
+        lock.lock();
+        try {
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
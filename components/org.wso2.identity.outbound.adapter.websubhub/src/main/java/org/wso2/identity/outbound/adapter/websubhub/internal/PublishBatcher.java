@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.BATCH_FLUSHER_THREAD_NAME;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.DEFAULT_PUBLISHER_SHUTDOWN_TIMEOUT;
+
+/**
+ * Groups pending events by hub topic so that several events are sent to the hub in one request. A batch is handed
+ * over to the flush handler as soon as it reaches the max size, or once it has waited for the linger time. The flush
+ * handler must not block, as lingering batches of every topic are flushed by a single timer thread.
+ */
+public class PublishBatcher {
+
+    private static final Log log = LogFactory.getLog(PublishBatcher.class);
+
+    private final ConcurrentMap<String, Batch> batches = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long lingerTime;
+    private final Consumer<List<PublishTask>> flushHandler;
+    private final ScheduledExecutorService flusher;
+    private volatile boolean closed;
+
+    /**
+     * Creates a publish batcher.
+     *
+     * @param maxSize      Maximum number of events in a batch.
+     * @param lingerTime   Maximum time in milliseconds an incomplete batch waits for more events.
+     * @param flushHandler Non-blocking handler taking over a completed batch.
+     */
+    public PublishBatcher(int maxSize, long lingerTime, Consumer<List<PublishTask>> flushHandler) {
+
+        this.maxSize = maxSize;
+        this.lingerTime = lingerTime;
+        this.flushHandler = flushHandler;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, BATCH_FLUSHER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start flushing batches which have reached the linger time.
+     */
+    public void start() {
+
+        long interval = Math.max(1, lingerTime / 2);
+        flusher.scheduleWithFixedDelay(this::flushLingeringBatches, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Add an event to the batch of its topic. If the batch becomes full it is flushed on the calling thread. Once
+     * the batcher is shut down, every event is flushed right away.
+     *
+     * @param task Event to be published.
+     */
+    public void add(PublishTask task) {
+
+        Batch[] fullBatch = new Batch[1];
+        batches.compute(task.getTopic(), (topic, batch) -> {
+            if (batch == null) {
+                batch = new Batch();
+            }
+            batch.tasks.add(task);
+            if (batch.tasks.size() >= maxSize || closed) {
+                fullBatch[0] = batch;
+                return null;
+            }
+            return batch;
+        });
+        if (fullBatch[0] != null) {
+            flush(fullBatch[0]);
+        }
+    }
+
+    /**
+     * Stop the linger timer and flush every pending batch.
+     */
+    public void shutdown() {
+
+        closed = true;
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(DEFAULT_PUBLISHER_SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            flusher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        for (String topic : batches.keySet()) {
+            Batch batch = batches.remove(topic);
+            if (batch != null) {
+                flush(batch);
+            }
+        }
+    }
+
+    private void flushLingeringBatches() {
+
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Batch> entry : batches.entrySet()) {
+            Batch batch = entry.getValue();
+            if (now - batch.createdTime >= lingerTime && batches.remove(entry.getKey(), batch)) {
+                flush(batch);
+            }
+        }
+    }
+
+    private void flush(Batch batch) {
+
+        try {
+            flushHandler.accept(batch.tasks);
+        } catch (RuntimeException e) {
+            log.error("Unexpected error while publishing a batch of " + batch.tasks.size() +
+                    " events to WebSub Hub.", e);
+        }
+    }
+
+    /**
+     * Events of one topic waiting to be sent together. Only mutated inside the map's compute function.
+     */
+    private static class Batch {
+
+        private final List<PublishTask> tasks = new ArrayList<>();
+        private final long createdTime = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,921 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import edu.umd.cs.findbugs.annotations.SuppressWarnings;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
+import org.slf4j.MDC;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration.BatchFormat;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration.QueueFullPolicy;
+import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterException;
+import org.wso2.identity.outbound.adapter.websubhub.model.SecurityEventTokenPayload;
+import org.wso2.identity.outbound.adapter.websubhub.util.PublishAttemptListener;
+import org.wso2.identity.outbound.adapter.websubhub.util.PublishRetryPolicy;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils.CORRELATION_ID_MDC;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.DEFAULT_PUBLISHER_SHUTDOWN_TIMEOUT;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.DEFAULT_PUBLISH_SPOOL_REPLAY_BACKOFF;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_HUB_CIRCUIT_OPEN;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_HUB_CLIENT_RESTARTING;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_PUBLISHER_NOT_RUNNING;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_PUBLISH_QUEUE_FULL;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.PUBLISHER_THREAD_NAME_PREFIX;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.PUBLISH_SPOOL_THREAD_NAME;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.PUBLISH_SPOOL_WRITER_THREAD_NAME;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.TENANT_SCHEDULING_QUANTUM;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.buildBatchPublishRequest;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.buildPublishRequest;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.deferUntilEncryptionKeyResolved;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.executePublishRequest;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.getRemainingRoutePause;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.handleServerException;
+
+/**
+ * Bounded, staged publish pipeline in front of the WebSub Hub async client.
+ * Publishing threads only enqueue events, while dedicated workers serialize, encrypt and dispatch them. The number
+ * of requests handed over to the async client at once is capped, so a slow hub fills the queue instead of the heap.
+ * Events waiting for the encryption key of their tenant are handed back to the workers once the key is resolved, so
+ * that the key waiter threads never wait for the hub.
+ * With adaptive concurrency, the cap follows the round trip time of the hub, below the configured maximum.
+ * With tenant fair scheduling, the queue shares the workers and the in-flight requests fairly between tenants. With
+ * priority lanes, critical events are queued apart from the other events and handed over to the workers first.
+ * <p>
+ * When a {@link PublishSpool} is configured, requests which failed as the hub was unavailable are spooled to disk.
+ * Until all spooled requests were replayed, new requests are spooled as well instead of being sent, and a single
+ * replay thread sends the spooled requests in order, hence no request overtakes the ones spooled before it. Requests
+ * and their retries rejected by an open circuit breaker of the hub route, or while the client is being replaced, are
+ * spooled likewise.
+ * Events which find the queue full are handed over to a spool writer thread, which encodes and spools them so that
+ * the publishing thread does not. As the hub is not unavailable then, these events may be published after events
+ * submitted later.
+ * <p>
+ * While the hub throttles a route, workers hold the events and batches of the route until the pause has passed, so
+ * that they wait instead of being sent to an overloaded hub.
+ * <p>
+ * With batching, the workers group the events by topic, and send the batches which are full or have lingered for
+ * long enough. The outcome of every event is reported through {@link PublishTask#getOutcome()}.
+ */
+public class PublishDispatcher {
+
+    private static final Log log = LogFactory.getLog(PublishDispatcher.class);
+    private static final long WORKER_POLL_INTERVAL = 500;
+    private static final long DROP_LOG_INTERVAL = 1000;
+
+    private final PublishQueue queue;
+    private final ExecutorService workers;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final QueueFullPolicy queueFullPolicy;
+    private final long queueBlockTimeout;
+    private final int workerCount;
+    private final PublishBatcher batcher;
+    private final BlockingQueue<List<PublishTask>> readyBatches = new LinkedBlockingQueue<>();
+    // Events whose encryption key has been resolved while they were parked, to be dispatched again by the workers.
+    private final BlockingQueue<PublishTask> resolvedTasks = new LinkedBlockingQueue<>();
+    private final long workerPollInterval;
+    private final BatchFormat batchFormat;
+    private final PublishSpool spool;
+    private final ExecutorService spoolReplayer;
+    private final ThreadPoolExecutor spoolWriter;
+    private final long replayTimeout;
+    // Guards switching between sending and spooling new requests, so that none is sent while others are spooled.
+    private final Object spoolLock = new Object();
+    private volatile boolean running;
+    private volatile boolean hubUnavailable;
+
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong spooledCount = new AtomicLong();
+    private final AtomicLong replayedCount = new AtomicLong();
+
+    public PublishDispatcher(WebSubAdapterConfiguration configuration) {
+
+        // Without adaptive concurrency, the limit is fixed at the configured maximum.
+        int reserved = configuration.isPriorityLanesEnabled() ? configuration.getCriticalReservedConnections() : 0;
+        AdaptiveConcurrencyLimit limit = configuration.isAdaptiveConcurrencyEnabled() ? new AdaptiveConcurrencyLimit(
+                configuration.getAdaptiveConcurrencyInitialLimit(), configuration.getAdaptiveConcurrencyMinLimit(),
+                configuration.getMaxInFlightPublishRequests(), reserved) :
+                new AdaptiveConcurrencyLimit(configuration.getMaxInFlightPublishRequests(),
+                        configuration.getMaxInFlightPublishRequests(), configuration.getMaxInFlightPublishRequests(),
+                        reserved);
+        this.concurrencyLimit = limit;
+        // The bulk lane keeps the reserved connections of the route free, and the reserved share of the limit, which
+        // shrinks below the connections of the route while the hub is slow.
+        int bulkMaxConnections = configuration.getDefaultMaxConnectionsPerRoute() - reserved;
+        this.queue = configuration.isPriorityLanesEnabled() ? new PriorityPublishQueue(
+                newQueue(configuration, configuration.getCriticalPublishQueueCapacity()),
+                newQueue(configuration, configuration.getPublishQueueCapacity()),
+                configuration.getCriticalEventUriPatterns(), configuration.getCriticalDispatchWeight(),
+                () -> Math.min(bulkMaxConnections, limit.getBulkLimit())) :
+                newQueue(configuration, configuration.getPublishQueueCapacity());
+        this.workerCount = configuration.getPublishWorkerCount();
+        this.workers = Executors.newFixedThreadPool(workerCount, new PublisherThreadFactory());
+        this.queueFullPolicy = configuration.getPublishQueueFullPolicy();
+        this.queueBlockTimeout = configuration.getPublishQueueBlockTimeout();
+        this.batchFormat = configuration.getBatchFormat();
+        // Batches are sent by the workers, so that the linger timer never waits for a saturated route.
+        this.batcher = configuration.isBatchPublishEnabled() ? new PublishBatcher(configuration.getBatchMaxSize(),
+                configuration.getBatchLingerTime(), readyBatches::add) : null;
+        // Workers wake up often enough to pick up lingering batches in time.
+        this.workerPollInterval = batcher != null ?
+                Math.max(1, Math.min(configuration.getBatchLingerTime() / 2, WORKER_POLL_INTERVAL)) :
+                WORKER_POLL_INTERVAL;
+        this.spool = configuration.isPublishSpoolEnabled() ? openSpool(configuration) : null;
+        this.spoolReplayer = spool != null ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, PUBLISH_SPOOL_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        // The spool writer holds at most as many events as the queue, beyond which the queue full policy applies.
+        this.spoolWriter = spool != null ? new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(configuration.getPublishQueueCapacity()), runnable -> {
+            Thread thread = new Thread(runnable, PUBLISH_SPOOL_WRITER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        // A replay waits for the request, including its retries, to time out at most.
+        this.replayTimeout = (long) configuration.getHttpConnectionRequestTimeout() +
+                configuration.getHTTPConnectionTimeout() + configuration.getHttpReadTimeout() +
+                (configuration.isPublishRetryEnabled() ? configuration.getPublishRetryDeadline() : 0);
+    }
+
+    private static PublishQueue newQueue(WebSubAdapterConfiguration configuration, int capacity) {
+
+        return configuration.isTenantFairSchedulingEnabled() ? new TenantFairPublishQueue(capacity,
+                configuration.getTenantPublishQueueCapacity(), TENANT_SCHEDULING_QUANTUM,
+                configuration.getTenantMaxInFlightPublishRequests(), configuration.getTenantPublishRateLimit()) :
+                new FifoPublishQueue(capacity);
+    }
+
+    /**
+     * Start the publish workers.
+     */
+    public void start() {
+
+        running = true;
+        if (batcher != null) {
+            batcher.start();
+        }
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::runWorker);
+        }
+        if (spoolReplayer != null) {
+            spoolReplayer.execute(this::runSpoolReplayer);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Started WebSub Hub publish dispatcher with " + workerCount + " workers, queue full policy: "
+                    + queueFullPolicy + ".");
+        }
+    }
+
+    /**
+     * Queue an event for publishing. The configured {@link QueueFullPolicy} decides what happens when the queue is
+     * full.
+     *
+     * @param task Event to be published.
+     * @throws WebSubAdapterException if the event is rejected.
+     */
+    public void submit(PublishTask task) throws WebSubAdapterException {
+
+        if (!running) {
+            throw handleServerException(ERROR_PUBLISHER_NOT_RUNNING, null, task.getTopic(), task.getTenantDomain());
+        }
+
+        if (spool != null && queue.remainingCapacity(task) == 0 && handOverToSpoolWriter(task)) {
+            // Spooling is preferred over waiting for, or giving up on, space in the queue.
+            acceptedCount.incrementAndGet();
+            return;
+        }
+
+        boolean queued;
+        switch (queueFullPolicy) {
+            case FAIL_FAST:
+                queued = queue.offer(task);
+                break;
+            case DROP:
+                if (!queue.offer(task)) {
+                    task.complete(PublishTask.Outcome.DROPPED);
+                    long dropped = droppedCount.incrementAndGet();
+                    if (dropped == 1 || dropped % DROP_LOG_INTERVAL == 0) {
+                        log.warn("WebSub Hub publish queue is full. Dropped event for topic: " + task.getTopic()
+                                + ", tenant: " + task.getTenantDomain() + ". Total dropped events: " + dropped);
+                    }
+                    return;
+                }
+                queued = true;
+                break;
+            default:
+                try {
+                    queued = queue.offer(task, queueBlockTimeout, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    queued = false;
+                }
+                break;
+        }
+
+        if (!queued) {
+            rejectedCount.incrementAndGet();
+            task.complete(PublishTask.Outcome.FAILED);
+            throw handleServerException(ERROR_PUBLISH_QUEUE_FULL, null, task.getTopic(), task.getTenantDomain());
+        }
+        acceptedCount.incrementAndGet();
+    }
+
+    /**
+     * Stop accepting events and let the workers drain the queue and the pending batches for a bounded time.
+     */
+    public void shutdown() {
+
+        running = false;
+        if (batcher != null) {
+            // Pending batches are handed over to the workers, which send them before they stop.
+            batcher.shutdown();
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(DEFAULT_PUBLISHER_SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        int unpublished = queue.size();
+        List<PublishTask> batch;
+        while ((batch = readyBatches.poll()) != null) {
+            unpublished += batch.size();
+            complete(batch, PublishTask.Outcome.FAILED, 0);
+        }
+        PublishTask task;
+        while ((task = resolvedTasks.poll()) != null) {
+            unpublished++;
+            complete(Collections.singletonList(task), PublishTask.Outcome.FAILED, 0);
+        }
+        if (unpublished > 0) {
+            log.warn("WebSub Hub publish dispatcher stopped with " + unpublished + " unpublished events.");
+        }
+        if (spool != null) {
+            // Events handed over to the spool writer are spooled before the spool is closed.
+            spoolWriter.shutdown();
+            try {
+                if (!spoolWriter.awaitTermination(DEFAULT_PUBLISHER_SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    failUnspooled(spoolWriter.shutdownNow());
+                }
+            } catch (InterruptedException e) {
+                failUnspooled(spoolWriter.shutdownNow());
+                Thread.currentThread().interrupt();
+            }
+            spoolReplayer.shutdownNow();
+            try {
+                spoolReplayer.awaitTermination(DEFAULT_PUBLISHER_SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                spool.close();
+            } catch (IOException e) {
+                log.error("Error while closing the WebSub Hub publish spool.", e);
+            }
+        }
+    }
+
+    private void runWorker() {
+
+        while (running || !queue.isEmpty() || !readyBatches.isEmpty() || !resolvedTasks.isEmpty()) {
+            List<PublishTask> batch = readyBatches.poll();
+            if (batch != null) {
+                try {
+                    awaitRoute(batch.get(0).getWebSubHubBaseUrl());
+                } catch (InterruptedException e) {
+                    complete(batch, PublishTask.Outcome.FAILED, 0);
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    dispatchBatch(batch);
+                } catch (RuntimeException e) {
+                    complete(batch, PublishTask.Outcome.FAILED, 0);
+                    log.error("Unexpected error while publishing a batch of " + batch.size() +
+                            " events to WebSub Hub topic: " + batch.get(0).getTopic(), e);
+                }
+                continue;
+            }
+            PublishTask task = resolvedTasks.poll();
+            try {
+                if (task == null) {
+                    task = queue.poll(workerPollInterval, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (task == null) {
+                continue;
+            }
+            try {
+                awaitRoute(task.getWebSubHubBaseUrl());
+            } catch (InterruptedException e) {
+                complete(Collections.singletonList(task), PublishTask.Outcome.FAILED, 0);
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                dispatch(task);
+            } catch (RuntimeException e) {
+                complete(Collections.singletonList(task), PublishTask.Outcome.FAILED, 0);
+                log.error("Unexpected error while publishing event to WebSub Hub topic: " + task.getTopic(), e);
+            }
+        }
+    }
+
+    /**
+     * Wait until publishing to the route of the hub URL is no longer paused, or the dispatcher is shut down.
+     */
+    private void awaitRoute(String webSubHubUrl) throws InterruptedException {
+
+        long pause;
+        while (running && (pause = getRemainingRoutePause(webSubHubUrl)) > 0) {
+            Thread.sleep(Math.min(pause, WORKER_POLL_INTERVAL));
+        }
+    }
+
+    private void dispatch(PublishTask task) {
+
+        if (batcher != null) {
+            batcher.add(task);
+            return;
+        }
+
+        MDC.put(CORRELATION_ID_MDC, task.getCorrelationId());
+        try {
+            if (deferUntilEncryptionKeyResolved(task.getTenantDomain(),
+                    () -> handBackToWorkers(resolvedTasks, task, Collections.singletonList(task)))) {
+                // The event is dispatched again by the workers once the encryption key of the tenant is available.
+                return;
+            }
+            HttpPost request = buildPublishRequest(task.getSecurityEventTokenPayload(), task.getTenantDomain(),
+                    task.getTopic(), task.getWebSubHubBaseUrl(), task.getCorrelationId());
+            send(request, Collections.singletonList(task));
+        } catch (WebSubAdapterException e) {
+            complete(Collections.singletonList(task), PublishTask.Outcome.FAILED, 0);
+            log.error("Error while publishing event to WebSub Hub topic: " + task.getTopic() + ", tenant: "
+                    + task.getTenantDomain() + ". " + e.getMessage(), e);
+        } finally {
+            MDC.remove(CORRELATION_ID_MDC);
+        }
+    }
+
+    private void dispatchBatch(List<PublishTask> tasks) {
+
+        // All events of a batch share the hub topic and hence the tenant.
+        PublishTask firstTask = tasks.get(0);
+        MDC.put(CORRELATION_ID_MDC, firstTask.getCorrelationId());
+        try {
+            if (deferUntilEncryptionKeyResolved(firstTask.getTenantDomain(),
+                    () -> handBackToWorkers(readyBatches, tasks, tasks))) {
+                return;
+            }
+            List<SecurityEventTokenPayload> payloads = new ArrayList<>(tasks.size());
+            for (PublishTask task : tasks) {
+                payloads.add(task.getSecurityEventTokenPayload());
+            }
+            HttpPost request = buildBatchPublishRequest(payloads, firstTask.getTenantDomain(), firstTask.getTopic(),
+                    firstTask.getWebSubHubBaseUrl(), firstTask.getCorrelationId(), batchFormat);
+            send(request, tasks);
+        } catch (WebSubAdapterException e) {
+            complete(tasks, PublishTask.Outcome.FAILED, 0);
+            log.error("Error while publishing a batch of " + tasks.size() + " events to WebSub Hub topic: " +
+                    firstTask.getTopic() + ", tenant: " + firstTask.getTenantDomain() + ". " + e.getMessage(), e);
+        } finally {
+            MDC.remove(CORRELATION_ID_MDC);
+        }
+    }
+
+    private void send(HttpPost request, List<PublishTask> tasks) throws WebSubAdapterException {
+
+        if (request == null) {
+            // The events could not be encoded, which has already been logged.
+            complete(tasks, PublishTask.Outcome.FAILED, 0);
+            return;
+        }
+        if (hubUnavailable && spoolWhileHubUnavailable(request, tasks)) {
+            return;
+        }
+        try {
+            concurrencyLimit.acquire(queue.isCritical(tasks.get(0)));
+        } catch (InterruptedException e) {
+            complete(tasks, PublishTask.Outcome.FAILED, 0);
+            Thread.currentThread().interrupt();
+            return;
+        }
+        PublishTask firstTask = tasks.get(0);
+        queue.onRequestStarted(firstTask);
+        try {
+            executePublishRequest(request, firstTask.getTenantDomain(), firstTask.getTopic(),
+                    new CompletionListener(request, tasks));
+        } catch (WebSubAdapterException e) {
+            releaseInFlight(firstTask);
+            if (isRejectedByUnavailableHub(e) && divertToSpool(request, tasks)) {
+                // The spool replays the events once the circuit breaker lets requests pass and the client is running
+                // again.
+                return;
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            releaseInFlight(firstTask);
+            throw e;
+        }
+    }
+
+    /**
+     * Hand events, whose encryption key has been resolved while they were parked, back to the workers. Runs on a key
+     * waiter thread, which hence never waits for the hub.
+     */
+    private <T> void handBackToWorkers(BlockingQueue<T> ready, T item, List<PublishTask> tasks) {
+
+        ready.add(item);
+        // Workers which have stopped no longer take the events, unless the shutdown already failed them.
+        if (workers.isTerminated() && ready.remove(item)) {
+            complete(tasks, PublishTask.Outcome.FAILED, 0);
+        }
+    }
+
+    private void handBackToSpoolWriter(PublishTask task) {
+
+        if (!handOverToSpoolWriter(task)) {
+            complete(Collections.singletonList(task), PublishTask.Outcome.FAILED, 0);
+            log.warn("WebSub Hub publish dispatcher stopped before spooling event of topic: " + task.getTopic() +
+                    ", tenant: " + task.getTenantDomain());
+        }
+    }
+
+    /**
+     * Whether a request was not sent as the circuit breaker of its route is open, or as its client is being replaced.
+     */
+    private static boolean isRejectedByUnavailableHub(Exception e) {
+
+        if (!(e instanceof WebSubAdapterException)) {
+            return false;
+        }
+        String errorCode = ((WebSubAdapterException) e).getErrorCode();
+        return ERROR_HUB_CIRCUIT_OPEN.getCode().equals(errorCode) ||
+                ERROR_HUB_CLIENT_RESTARTING.getCode().equals(errorCode);
+    }
+
+    private void releaseInFlight(PublishTask firstTask) {
+
+        concurrencyLimit.release();
+        queue.onRequestCompleted(firstTask);
+    }
+
+    private void releaseInFlight(PublishTask firstTask, long rttNanos, boolean dropped) {
+
+        concurrencyLimit.release(rttNanos, dropped);
+        queue.onRequestCompleted(firstTask);
+    }
+
+    // The spool directory is taken from the adapter configuration.
+    @SuppressWarnings("PATH_TRAVERSAL_IN")
+    private static PublishSpool openSpool(WebSubAdapterConfiguration configuration) {
+
+        long megabyte = 1024L * 1024L;
+        try {
+            return new PublishSpool(Paths.get(configuration.getPublishSpoolDirectory()),
+                    (int) Math.min(Integer.MAX_VALUE, configuration.getPublishSpoolSegmentSize() * megabyte),
+                    configuration.getPublishSpoolMaxSize() * megabyte, configuration.getPublishSpoolSyncInterval());
+        } catch (IOException e) {
+            log.error("Unable to open the WebSub Hub publish spool in: " + configuration.getPublishSpoolDirectory() +
+                    ". Events are published without spooling.", e);
+            return null;
+        }
+    }
+
+    private boolean handOverToSpoolWriter(PublishTask task) {
+
+        try {
+            spoolWriter.execute(new SpoolWrite(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Encode an event which found the queue full and spool it. Runs on the spool writer thread.
+     */
+    private void spoolEvent(PublishTask task) {
+
+        MDC.put(CORRELATION_ID_MDC, task.getCorrelationId());
+        try {
+            if (deferUntilEncryptionKeyResolved(task.getTenantDomain(), () -> handBackToSpoolWriter(task))) {
+                return;
+            }
+            HttpPost request = buildPublishRequest(task.getSecurityEventTokenPayload(), task.getTenantDomain(),
+                    task.getTopic(), task.getWebSubHubBaseUrl(), task.getCorrelationId());
+            // Failures to encode or spool the event have already been logged.
+            if (request == null || !spool(request, Collections.singletonList(task))) {
+                complete(Collections.singletonList(task), PublishTask.Outcome.FAILED, 0);
+            }
+        } catch (WebSubAdapterException e) {
+            complete(Collections.singletonList(task), PublishTask.Outcome.FAILED, 0);
+            log.error("Error while spooling event of WebSub Hub topic: " + task.getTopic() + ", tenant: "
+                    + task.getTenantDomain() + ". " + e.getMessage(), e);
+        } finally {
+            MDC.remove(CORRELATION_ID_MDC);
+        }
+    }
+
+    private void failUnspooled(List<Runnable> spoolWrites) {
+
+        for (Runnable spoolWrite : spoolWrites) {
+            complete(Collections.singletonList(((SpoolWrite) spoolWrite).task), PublishTask.Outcome.FAILED, 0);
+        }
+        if (!spoolWrites.isEmpty()) {
+            log.warn("WebSub Hub publish dispatcher stopped with " + spoolWrites.size() + " unspooled events.");
+        }
+    }
+
+    /**
+     * Spool the request instead of sending it while the hub is unavailable, so that it does not overtake the
+     * requests spooled before it.
+     *
+     * @return true if the request was spooled, false if it is to be sent.
+     */
+    private boolean spoolWhileHubUnavailable(HttpPost request, List<PublishTask> tasks) {
+
+        synchronized (spoolLock) {
+            return hubUnavailable && spool(request, tasks);
+        }
+    }
+
+    /**
+     * Spool a request which could not be sent as the hub is unavailable, and spool the new requests as well until
+     * the spool has been drained.
+     *
+     * @return true if the request was spooled.
+     */
+    private boolean divertToSpool(HttpPost request, List<PublishTask> tasks) {
+
+        synchronized (spoolLock) {
+            if (!spool(request, tasks)) {
+                return false;
+            }
+            if (!hubUnavailable) {
+                hubUnavailable = true;
+                log.warn("WebSub Hub is unavailable. Publish requests are spooled until the hub recovers.");
+            }
+            return true;
+        }
+    }
+
+    private boolean spool(HttpPost request, List<PublishTask> tasks) {
+
+        if (spool == null) {
+            return false;
+        }
+        PublishTask firstTask = tasks.get(0);
+        try {
+            if (spool.append(PublishSpool.Record.fromRequest(request, firstTask.getTenantDomain(),
+                    firstTask.getTopic()))) {
+                spooledCount.addAndGet(tasks.size());
+                complete(tasks, PublishTask.Outcome.SPOOLED, 0);
+                return true;
+            }
+            log.warn("WebSub Hub publish spool is full. Unable to spool the request of topic: " +
+                    firstTask.getTopic() + ", tenant: " + firstTask.getTenantDomain());
+        } catch (IOException e) {
+            log.error("Error while spooling the request of WebSub Hub topic: " + firstTask.getTopic() +
+                    ", tenant: " + firstTask.getTenantDomain(), e);
+        }
+        return false;
+    }
+
+    private void runSpoolReplayer() {
+
+        while (running) {
+            try {
+                PublishSpool.Record record = spool.peek();
+                if (record != null) {
+                    awaitRoute(record.getUrl());
+                }
+                if (record == null) {
+                    resumeSendingIfSpoolDrained();
+                    spool.syncIfDue();
+                    Thread.sleep(WORKER_POLL_INTERVAL);
+                } else if (replay(record)) {
+                    spool.commit();
+                } else {
+                    Thread.sleep(DEFAULT_PUBLISH_SPOOL_REPLAY_BACKOFF);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.error("Error while replaying the WebSub Hub publish spool.", e);
+                try {
+                    Thread.sleep(DEFAULT_PUBLISH_SPOOL_REPLAY_BACKOFF);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Let new requests be sent again, unless a request was spooled since the spool was last found empty.
+     */
+    private void resumeSendingIfSpoolDrained() throws IOException {
+
+        synchronized (spoolLock) {
+            if (hubUnavailable && spool.isEmpty()) {
+                hubUnavailable = false;
+                log.info("WebSub Hub publish spool has been replayed. Publish requests are sent again.");
+            }
+        }
+    }
+
+    /**
+     * Send a spooled request and wait for its outcome, for as long as the request and its retries may take. A
+     * request which does not complete in time is aborted and replayed again later.
+     *
+     * @return true if the request is done with and can be removed from the spool, false if it has to be replayed
+     * again later.
+     */
+    private boolean replay(PublishSpool.Record record) throws InterruptedException {
+
+        CompletableFuture<HttpResponse> outcome = new CompletableFuture<>();
+        HttpPost request = record.toRequest();
+        MDC.put(CORRELATION_ID_MDC, record.getCorrelationId());
+        try {
+            executePublishRequest(request, record.getTenantDomain(), record.getTopic(),
+                    new FutureCallback<HttpResponse>() {
+
+                        @Override
+                        public void completed(HttpResponse response) {
+
+                            outcome.complete(response);
+                        }
+
+                        @Override
+                        public void failed(Exception ex) {
+
+                            outcome.completeExceptionally(ex);
+                        }
+
+                        @Override
+                        public void cancelled() {
+
+                            outcome.completeExceptionally(new CancellationException());
+                        }
+                    });
+            int responseCode = outcome.get(replayTimeout, TimeUnit.MILLISECONDS).getStatusLine().getStatusCode();
+            if (responseCode >= 200 && responseCode < 300) {
+                // New requests are still spooled until the requests spooled after this one were replayed.
+                replayedCount.incrementAndGet();
+                return true;
+            }
+            if (PublishRetryPolicy.isRetryable(responseCode)) {
+                return false;
+            }
+            // The hub rejected the request itself, which replaying would not change.
+            log.error("WebSub Hub rejected a spooled request of topic: " + record.getTopic() + ", tenant: " +
+                    record.getTenantDomain() + ". Response code: " + responseCode + ". The request is discarded.");
+            failedCount.incrementAndGet();
+            return true;
+        } catch (WebSubAdapterException | ExecutionException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Unable to replay a spooled request of WebSub Hub topic: " + record.getTopic() + ". " +
+                        e.getMessage());
+            }
+            return false;
+        } catch (TimeoutException e) {
+            request.abort();
+            log.warn("Replaying a spooled request of WebSub Hub topic: " + record.getTopic() + " did not complete " +
+                    "within " + replayTimeout + " ms. The request is replayed again later.");
+            return false;
+        } catch (InterruptedException e) {
+            request.abort();
+            throw e;
+        } finally {
+            MDC.remove(CORRELATION_ID_MDC);
+        }
+    }
+
+    public int getQueueSize() {
+
+        return queue.size();
+    }
+
+    public long getAcceptedCount() {
+
+        return acceptedCount.get();
+    }
+
+    public long getRejectedCount() {
+
+        return rejectedCount.get();
+    }
+
+    public long getDroppedCount() {
+
+        return droppedCount.get();
+    }
+
+    public long getCompletedCount() {
+
+        return completedCount.get();
+    }
+
+    public long getFailedCount() {
+
+        return failedCount.get();
+    }
+
+    public long getSpooledCount() {
+
+        return spooledCount.get();
+    }
+
+    public long getReplayedCount() {
+
+        return replayedCount.get();
+    }
+
+    public long getSpoolSize() {
+
+        return spool != null ? spool.size() : 0;
+    }
+
+    public int getConcurrencyLimit() {
+
+        return concurrencyLimit.getLimit();
+    }
+
+    public int getInFlightCount() {
+
+        return concurrencyLimit.getInFlight();
+    }
+
+    /**
+     * Record the outcome of every event carried by a hub request.
+     */
+    private void complete(List<PublishTask> tasks, PublishTask.Outcome outcome, int responseCode) {
+
+        if (outcome == PublishTask.Outcome.PUBLISHED) {
+            completedCount.addAndGet(tasks.size());
+        } else if (outcome == PublishTask.Outcome.FAILED || outcome == PublishTask.Outcome.CANCELLED) {
+            failedCount.addAndGet(tasks.size());
+        }
+        for (PublishTask task : tasks) {
+            task.complete(outcome);
+            if (log.isDebugEnabled()) {
+                log.debug("Event " + task.getSecurityEventTokenPayload().getJti() + " of topic: " +
+                        task.getTopic() + " " + outcome + ". Response code: " + responseCode +
+                        ", correlation id: " + task.getCorrelationId() + ", time in publisher: " +
+                        (System.currentTimeMillis() - task.getEnqueuedTime()) + " ms.");
+            }
+        }
+    }
+
+    /**
+     * Releases the in-flight request, adapting the concurrency limit to the round trip time of its last attempt, and
+     * records the outcome of every event carried by the hub request. A request which failed as the hub was
+     * unavailable is spooled, if a spool is configured.
+     */
+    private class CompletionListener implements PublishAttemptListener {
+
+        private final HttpPost request;
+        private final List<PublishTask> tasks;
+        // Retries are sent from the retry scheduler, hence the start time is read on another thread.
+        private volatile long startTime = System.nanoTime();
+
+        CompletionListener(HttpPost request, List<PublishTask> tasks) {
+
+            this.request = request;
+            this.tasks = tasks;
+        }
+
+        @Override
+        public void attemptSent() {
+
+            // The backoff before a retry is not part of the round trip time.
+            startTime = System.nanoTime();
+        }
+
+        @Override
+        public void completed(HttpResponse response) {
+
+            int responseCode = response.getStatusLine().getStatusCode();
+            releaseInFlight(tasks.get(0), System.nanoTime() - startTime, PublishRetryPolicy.isRetryable(responseCode));
+            if (responseCode >= 200 && responseCode < 300) {
+                complete(tasks, PublishTask.Outcome.PUBLISHED, responseCode);
+            } else if (!PublishRetryPolicy.isRetryable(responseCode) || !divertToSpool(request, tasks)) {
+                complete(tasks, PublishTask.Outcome.FAILED, responseCode);
+            }
+        }
+
+        @Override
+        public void failed(Exception ex) {
+
+            // A retry rejected before it was sent has no round trip time to adapt the limit to.
+            boolean rejected = isRejectedByUnavailableHub(ex);
+            if (rejected) {
+                releaseInFlight(tasks.get(0));
+            } else {
+                releaseInFlight(tasks.get(0), System.nanoTime() - startTime, PublishRetryPolicy.isRetryable(ex));
+            }
+            if (!(rejected || PublishRetryPolicy.isRetryable(ex)) || !divertToSpool(request, tasks)) {
+                complete(tasks, PublishTask.Outcome.FAILED, 0);
+            }
+        }
+
+        @Override
+        public void cancelled() {
+
+            releaseInFlight(tasks.get(0));
+            complete(tasks, PublishTask.Outcome.CANCELLED, 0);
+        }
+    }
+
+    /**
+     * Spooling of an event which found the queue full, kept as a type of its own so that the events still waiting
+     * for the spool writer can be failed on shutdown.
+     */
+    private class SpoolWrite implements Runnable {
+
+        private final PublishTask task;
+
+        SpoolWrite(PublishTask task) {
+
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+
+            spoolEvent(task);
+        }
+    }
+
+    /**
+     * Thread factory for the publish workers.
+     */
+    private static class PublisherThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+
+            Thread thread = new Thread(runnable, PUBLISHER_THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
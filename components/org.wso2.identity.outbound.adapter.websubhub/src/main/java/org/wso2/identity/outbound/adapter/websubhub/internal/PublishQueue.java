@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue of events waiting for a publish worker. The queue decides the order in which events are handed to
+ * the workers, and can hold back the events of a tenant while the tenant has too many publish requests in flight.
+ */
+interface PublishQueue {
+
+    /**
+     * Add an event to the queue without waiting.
+     *
+     * @param task Event to be published.
+     * @return true if the event was queued, false if there is no space for it.
+     */
+    boolean offer(PublishTask task);
+
+    /**
+     * Add an event to the queue, waiting for space up to the given time.
+     *
+     * @param task    Event to be published.
+     * @param timeout Maximum time to wait.
+     * @param unit    Unit of the timeout.
+     * @return true if the event was queued, false if there was no space for it in time.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    boolean offer(PublishTask task, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Take the next event to be published, waiting up to the given time for one.
+     *
+     * @param timeout Maximum time to wait.
+     * @param unit    Unit of the timeout.
+     * @return Next event, or null if none is ready in time.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    PublishTask poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Record that a publish request was handed to the client.
+     *
+     * @param task First event carried by the request. All events of a request share the tenant and the topic.
+     */
+    default void onRequestStarted(PublishTask task) {
+
+    }
+
+    /**
+     * Record that a publish request was completed.
+     *
+     * @param task First event carried by the request.
+     */
+    default void onRequestCompleted(PublishTask task) {
+
+    }
+
+    /**
+     * Returns whether the event is critical, and hence may use the connections reserved for critical events.
+     *
+     * @param task Event to be published.
+     * @return true if the event is critical.
+     */
+    default boolean isCritical(PublishTask task) {
+
+        return false;
+    }
+
+    /**
+     * Returns the number of further events like the given one the queue can take.
+     *
+     * @param task Event to be published.
+     * @return remaining capacity for the event.
+     */
+    int remainingCapacity(PublishTask task);
+
+    int size();
+
+    default boolean isEmpty() {
+
+        return size() == 0;
+    }
+}
@@ -0,0 +1,526 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import static org.apache.http.HttpHeaders.ACCEPT;
+import static org.apache.http.HttpHeaders.CONTENT_TYPE;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.CORRELATION_ID_REQUEST_HEADER;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.IDEMPOTENCY_KEY_REQUEST_HEADER;
+
+/**
+ * Append-only spool of encoded publish requests on local disk, holding events while the hub cannot take them without
+ * keeping them on the heap. Requests are appended to fixed size, memory-mapped segment files, and are read back in
+ * the order they were appended.
+ * <p>
+ * Every record carries a CRC32 checksum, so that a record torn by a crash is detected and discarded when the spool
+ * is opened again. The position of the reader is checkpointed after every consumed record and a restarted node
+ * resumes from it, hence a request can be replayed at most once more after a restart, which the hub deduplicates
+ * through the idempotency key of the request. Segments which have been read completely are deleted, and the number
+ * of segments is capped so that the spool cannot fill the disk.
+ * <p>
+ * Records and checkpoints are forced to disk once the sync interval has passed since they were last forced, when
+ * a segment is full, and when the spool is closed, so that a crash of the node loses at most the requests spooled
+ * within the interval. An interval of 0 forces every record and checkpoint. As the requests carry event payloads,
+ * the spool files are created readable by their owner only, where the file system supports POSIX permissions.
+ * <p>
+ * Any number of threads can append, while a single thread reads.
+ */
+public class PublishSpool implements Closeable {
+
+    private static final Log log = LogFactory.getLog(PublishSpool.class);
+    private static final String SEGMENT_FILE_PREFIX = "segment-";
+    private static final String SEGMENT_FILE_SUFFIX = ".spool";
+    private static final String CHECKPOINT_FILE_NAME = "checkpoint";
+    // Length and CRC32 checksum of the record.
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int CHECKPOINT_SIZE = 2 * Long.BYTES;
+    private static final Set<OpenOption> FILE_OPEN_OPTIONS =
+            Collections.unmodifiableSet(EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE));
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final long syncInterval;
+    private final FileAttribute<?>[] directoryAttributes;
+    private final FileAttribute<?>[] fileAttributes;
+    private final Deque<Long> segments = new ArrayDeque<>();
+    private final FileChannel checkpointChannel;
+    private final ByteBuffer checkpointBuffer = ByteBuffer.allocate(CHECKPOINT_SIZE);
+
+    private long writeSegment;
+    private MappedByteBuffer writeBuffer;
+    private long readSegment;
+    private ByteBuffer readBuffer;
+    private int readPosition;
+    private int peekedLength;
+    private long recordCount;
+    private boolean unsynced;
+    private long lastSyncTime = System.currentTimeMillis();
+
+    /**
+     * Opens the spool in the given directory, recovering the records left by a previous run.
+     *
+     * @param directory   Directory holding the spool files.
+     * @param segmentSize Size of a segment file in bytes.
+     * @param maxSize      Maximum size of all segment files in bytes.
+     * @param syncInterval Maximum time in milliseconds records and checkpoints are left unforced to disk.
+     * @throws IOException If the spool files cannot be created or read.
+     */
+    public PublishSpool(Path directory, int segmentSize, long maxSize, long syncInterval) throws IOException {
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = (int) Math.max(1, maxSize / segmentSize);
+        this.syncInterval = syncInterval;
+        if (directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            this.directoryAttributes = new FileAttribute<?>[]{
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------"))};
+            this.fileAttributes = new FileAttribute<?>[]{
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"))};
+        } else {
+            this.directoryAttributes = new FileAttribute<?>[0];
+            this.fileAttributes = new FileAttribute<?>[0];
+        }
+        Files.createDirectories(directory, directoryAttributes);
+        this.checkpointChannel = openFile(directory.resolve(CHECKPOINT_FILE_NAME));
+        recover();
+    }
+
+    /**
+     * Append a request to the spool.
+     *
+     * @param record Request to be appended.
+     * @return true if the request was appended, false if the spool is full.
+     * @throws IOException If the request cannot be written.
+     */
+    public synchronized boolean append(Record record) throws IOException {
+
+        byte[] payload = record.encode();
+        int recordSize = RECORD_HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize) {
+            log.warn("Unable to spool a publish request of " + payload.length + " bytes for topic: " +
+                    record.getTopic() + ", which is larger than the spool segment size.");
+            return false;
+        }
+        if (writeBuffer.remaining() < recordSize) {
+            if (segments.size() >= maxSegments) {
+                return false;
+            }
+            // The full segment is forced before records are appended to the next one.
+            writeBuffer.force();
+            writeSegment++;
+            writeBuffer = mapSegment(writeSegment);
+            segments.addLast(writeSegment);
+        }
+        // The payload is written before its header, so that a reader never sees the length of a partial record.
+        int position = writeBuffer.position();
+        writeBuffer.position(position + RECORD_HEADER_SIZE);
+        writeBuffer.put(payload);
+        writeBuffer.putInt(position + Integer.BYTES, checksum(payload));
+        writeBuffer.putInt(position, payload.length);
+        recordCount++;
+        unsynced = true;
+        syncIfDue();
+        return true;
+    }
+
+    /**
+     * Returns the oldest request of the spool without consuming it.
+     *
+     * @return Oldest request, or null if the spool is empty.
+     * @throws IOException If a segment cannot be read.
+     */
+    public synchronized Record peek() throws IOException {
+
+        while (true) {
+            int available = readBuffer.capacity() - readPosition - RECORD_HEADER_SIZE;
+            int length = available < 0 ? 0 : readBuffer.getInt(readPosition);
+            if (length > 0 && length <= available) {
+                byte[] payload = new byte[length];
+                ByteBuffer source = readBuffer.duplicate();
+                source.position(readPosition + RECORD_HEADER_SIZE);
+                source.get(payload);
+                if (checksum(payload) == readBuffer.getInt(readPosition + Integer.BYTES)) {
+                    peekedLength = length;
+                    return Record.decode(payload);
+                }
+                log.warn("Discarding the remainder of spool segment " + readSegment + " as a record at position " +
+                        readPosition + " is corrupted.");
+            }
+            if (readSegment == writeSegment) {
+                return null;
+            }
+            // The rest of the segment is unused or unreadable, hence continue with the next segment.
+            advanceReadSegment();
+        }
+    }
+
+    /**
+     * Consume the request returned by the last {@link #peek()}, so that it is not returned again, even after a
+     * restart.
+     *
+     * @throws IOException If the read position cannot be checkpointed.
+     */
+    public synchronized void commit() throws IOException {
+
+        if (peekedLength == 0) {
+            return;
+        }
+        readPosition += RECORD_HEADER_SIZE + peekedLength;
+        peekedLength = 0;
+        recordCount--;
+        writeCheckpoint();
+        unsynced = true;
+        syncIfDue();
+    }
+
+    /**
+     * Force the records and the checkpoint written since they were last forced to disk, if the sync interval has
+     * passed since then. Called by the thread reading the spool while it is idle, so that the records are forced
+     * within the interval even when no further record is appended.
+     *
+     * @throws IOException If the checkpoint cannot be forced.
+     */
+    public synchronized void syncIfDue() throws IOException {
+
+        if (unsynced && System.currentTimeMillis() - lastSyncTime >= syncInterval) {
+            sync();
+        }
+    }
+
+    /**
+     * Returns the number of requests in the spool, counting the records recovered on open.
+     *
+     * @return number of spooled requests.
+     */
+    public synchronized long size() {
+
+        return recordCount;
+    }
+
+    /**
+     * Returns whether the spool holds no request.
+     *
+     * @return true if the spool is empty.
+     */
+    public synchronized boolean isEmpty() {
+
+        return recordCount == 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+
+        writeCheckpoint();
+        sync();
+        checkpointChannel.close();
+    }
+
+    private synchronized void recover() throws IOException {
+
+        List<Long> existingSegments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                SEGMENT_FILE_PREFIX + "*" + SEGMENT_FILE_SUFFIX)) {
+            for (Path file : files) {
+                String name = String.valueOf(file.getFileName());
+                existingSegments.add(Long.parseLong(name.substring(SEGMENT_FILE_PREFIX.length(),
+                        name.length() - SEGMENT_FILE_SUFFIX.length())));
+            }
+        }
+        Collections.sort(existingSegments);
+        segments.addAll(existingSegments);
+
+        long checkpointSegment = 0;
+        int checkpointPosition = 0;
+        if (checkpointChannel.size() >= CHECKPOINT_SIZE) {
+            checkpointBuffer.clear();
+            checkpointChannel.read(checkpointBuffer, 0);
+            checkpointSegment = checkpointBuffer.getLong(0);
+            checkpointPosition = (int) checkpointBuffer.getLong(Long.BYTES);
+        }
+        // Segments read completely before the restart are no longer needed.
+        while (!segments.isEmpty() && segments.peekFirst() < checkpointSegment) {
+            deleteSegment(segments.pollFirst());
+        }
+        if (segments.isEmpty()) {
+            segments.addLast(checkpointSegment);
+        }
+        readSegment = segments.getFirst();
+        writeSegment = segments.getLast();
+        if (readSegment != checkpointSegment) {
+            checkpointPosition = 0;
+        }
+
+        writeBuffer = mapSegment(writeSegment);
+        readBuffer = readSegment == writeSegment ? writeBuffer.duplicate() : mapSegment(readSegment);
+        readPosition = checkpointPosition;
+
+        recordCount = 0;
+        for (long segment : segments) {
+            ByteBuffer buffer = segment == writeSegment ? writeBuffer : segment == readSegment ? readBuffer :
+                    mapSegment(segment);
+            int end = scanSegment(buffer, segment == readSegment ? readPosition : 0);
+            if (segment == writeSegment) {
+                // Clear whatever a crash left after the last complete record, as new records are appended there.
+                for (int position = end; position < buffer.capacity(); position++) {
+                    buffer.put(position, (byte) 0);
+                }
+                buffer.position(end);
+            }
+        }
+        if (recordCount > 0) {
+            log.info("Recovered " + recordCount + " spooled WebSub Hub publish requests from: " + directory);
+        }
+    }
+
+    private int scanSegment(ByteBuffer buffer, int start) {
+
+        int position = start;
+        while (buffer.capacity() - position >= RECORD_HEADER_SIZE) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.capacity() - position - RECORD_HEADER_SIZE) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            ByteBuffer source = buffer.duplicate();
+            source.position(position + RECORD_HEADER_SIZE);
+            source.get(payload);
+            if (checksum(payload) != buffer.getInt(position + Integer.BYTES)) {
+                break;
+            }
+            position += RECORD_HEADER_SIZE + length;
+            recordCount++;
+        }
+        return position;
+    }
+
+    private void advanceReadSegment() throws IOException {
+
+        long consumedSegment = segments.pollFirst();
+        readSegment = segments.peekFirst();
+        readBuffer = readSegment == writeSegment ? writeBuffer.duplicate() : mapSegment(readSegment);
+        readPosition = 0;
+        writeCheckpoint();
+        // The consumed segment is only deleted once the checkpoint no longer points into it.
+        checkpointChannel.force(false);
+        deleteSegment(consumedSegment);
+    }
+
+    private MappedByteBuffer mapSegment(long segment) throws IOException {
+
+        try (FileChannel channel = openFile(segmentFile(segment))) {
+            // The mapping stays valid once the channel is closed.
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private FileChannel openFile(Path file) throws IOException {
+
+        return FileChannel.open(file, FILE_OPEN_OPTIONS, fileAttributes);
+    }
+
+    private void sync() throws IOException {
+
+        writeBuffer.force();
+        checkpointChannel.force(false);
+        unsynced = false;
+        lastSyncTime = System.currentTimeMillis();
+    }
+
+    private void deleteSegment(long segment) {
+
+        try {
+            Files.deleteIfExists(segmentFile(segment));
+        } catch (IOException e) {
+            log.warn("Unable to delete the consumed spool segment: " + segmentFile(segment), e);
+        }
+    }
+
+    private Path segmentFile(long segment) {
+
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_FILE_PREFIX, segment, SEGMENT_FILE_SUFFIX));
+    }
+
+    private void writeCheckpoint() throws IOException {
+
+        checkpointBuffer.clear();
+        checkpointBuffer.putLong(readSegment).putLong(readPosition).flip();
+        checkpointChannel.write(checkpointBuffer, 0);
+    }
+
+    private static int checksum(byte[] payload) {
+
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Publish request as stored in the spool.
+     */
+    public static class Record {
+
+        private final String url;
+        private final String tenantDomain;
+        private final String topic;
+        private final String contentType;
+        private final String correlationId;
+        private final String idempotencyKey;
+        private final byte[] body;
+
+        Record(String url, String tenantDomain, String topic, String contentType, String correlationId,
+               String idempotencyKey, byte[] body) {
+
+            this.url = url;
+            this.tenantDomain = tenantDomain;
+            this.topic = topic;
+            this.contentType = contentType;
+            this.correlationId = correlationId;
+            this.idempotencyKey = idempotencyKey;
+            this.body = body;
+        }
+
+        /**
+         * Capture a publish request built for the hub.
+         *
+         * @param request      Publish request.
+         * @param tenantDomain Tenant domain.
+         * @param topic        Topic name.
+         * @return Spool record of the request.
+         * @throws IOException If the request entity cannot be read.
+         */
+        public static Record fromRequest(HttpPost request, String tenantDomain, String topic) throws IOException {
+
+            HttpEntity entity = request.getEntity();
+            return new Record(request.getURI().toString(), tenantDomain, topic, headerValue(request, CONTENT_TYPE),
+                    headerValue(request, CORRELATION_ID_REQUEST_HEADER),
+                    headerValue(request, IDEMPOTENCY_KEY_REQUEST_HEADER), EntityUtils.toByteArray(entity));
+        }
+
+        /**
+         * Build the publish request again from the record.
+         *
+         * @return Publish request.
+         */
+        public HttpPost toRequest() {
+
+            HttpPost request = new HttpPost(url);
+            request.setHeader(ACCEPT, ContentType.APPLICATION_JSON.getMimeType());
+            request.setHeader(CONTENT_TYPE, contentType);
+            request.setHeader(CORRELATION_ID_REQUEST_HEADER, correlationId);
+            if (!idempotencyKey.isEmpty()) {
+                request.setHeader(IDEMPOTENCY_KEY_REQUEST_HEADER, idempotencyKey);
+            }
+            request.setEntity(new ByteArrayEntity(body, ContentType.parse(contentType)));
+            return request;
+        }
+
+        public String getUrl() {
+
+            return url;
+        }
+
+        public String getTenantDomain() {
+
+            return tenantDomain;
+        }
+
+        public String getTopic() {
+
+            return topic;
+        }
+
+        public String getCorrelationId() {
+
+            return correlationId;
+        }
+
+        byte[] encode() throws IOException {
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 256);
+            try (DataOutputStream output = new DataOutputStream(bytes)) {
+                output.writeUTF(url);
+                output.writeUTF(tenantDomain);
+                output.writeUTF(topic);
+                output.writeUTF(contentType);
+                output.writeUTF(correlationId);
+                output.writeUTF(idempotencyKey);
+                output.writeInt(body.length);
+                output.write(body);
+            }
+            return bytes.toByteArray();
+        }
+
+        static Record decode(byte[] payload) throws IOException {
+
+            try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload))) {
+                String url = input.readUTF();
+                String tenantDomain = input.readUTF();
+                String topic = input.readUTF();
+                String contentType = input.readUTF();
+                String correlationId = input.readUTF();
+                String idempotencyKey = input.readUTF();
+                byte[] body = new byte[input.readInt()];
+                input.readFully(body);
+                return new Record(url, tenantDomain, topic, contentType, correlationId, idempotencyKey, body);
+            }
+        }
+
+        private static String headerValue(HttpPost request, String name) {
+
+            Header header = request.getFirstHeader(name);
+            return header == null ? "" : header.getValue();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.wso2.identity.outbound.adapter.websubhub.model.SecurityEventTokenPayload;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An event accepted for publishing, waiting to be serialized and dispatched to the WebSub Hub by a publish worker.
+ * The outcome of the event is reported on its own, also when it was sent to the hub as part of a batch.
+ */
+public class PublishTask {
+
+    private final SecurityEventTokenPayload securityEventTokenPayload;
+    private final String tenantDomain;
+    private final String topic;
+    private final String eventUri;
+    private final String webSubHubBaseUrl;
+    private final String correlationId;
+    private final long enqueuedTime;
+    private final CompletableFuture<Outcome> outcome = new CompletableFuture<>();
+
+    public PublishTask(SecurityEventTokenPayload securityEventTokenPayload, String tenantDomain, String topic,
+                       String eventUri, String webSubHubBaseUrl, String correlationId) {
+
+        this.securityEventTokenPayload = securityEventTokenPayload;
+        this.tenantDomain = tenantDomain;
+        this.topic = topic;
+        this.eventUri = eventUri;
+        this.webSubHubBaseUrl = webSubHubBaseUrl;
+        this.correlationId = correlationId;
+        this.enqueuedTime = System.currentTimeMillis();
+    }
+
+    public SecurityEventTokenPayload getSecurityEventTokenPayload() {
+
+        return securityEventTokenPayload;
+    }
+
+    public String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    public String getTopic() {
+
+        return topic;
+    }
+
+    public String getEventUri() {
+
+        return eventUri;
+    }
+
+    public String getWebSubHubBaseUrl() {
+
+        return webSubHubBaseUrl;
+    }
+
+    public String getCorrelationId() {
+
+        return correlationId;
+    }
+
+    public long getEnqueuedTime() {
+
+        return enqueuedTime;
+    }
+
+    /**
+     * Returns the outcome of the event, completed once the publisher is done with it.
+     *
+     * @return Future completed with the outcome of the event.
+     */
+    public CompletableFuture<Outcome> getOutcome() {
+
+        return outcome;
+    }
+
+    void complete(Outcome result) {
+
+        outcome.complete(result);
+    }
+
+    /**
+     * Outcomes of a published event.
+     */
+    public enum Outcome {
+
+        // The hub accepted the event.
+        PUBLISHED,
+        // The event was spooled to disk, to be replayed once the hub recovers.
+        SPOOLED,
+        // The event was discarded as the publish queue was full.
+        DROPPED,
+        // The event could not be published.
+        FAILED,
+        // The request carrying the event was cancelled.
+        CANCELLED
+    }
+}
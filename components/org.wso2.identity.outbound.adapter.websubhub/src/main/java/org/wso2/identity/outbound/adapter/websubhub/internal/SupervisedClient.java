@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterException;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_HUB_CLIENT_RESTARTING;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.handleServerException;
+
+/**
+ * Async client which is replaced once its I/O reactor has stopped, for example after an unchecked exception in a
+ * callback, as a stopped client cannot be started again. A replacement is built by the executor while callers keep
+ * getting the current client without waiting, and is swapped in atomically. Only one replacement is built at a time.
+ * <p>
+ * The stopped client is closed once replaced, which fails or cancels the requests it still held. Callers can tell
+ * such requests apart with {@link #isRetired(CloseableHttpAsyncClient)} and send them again on the new client.
+ */
+class SupervisedClient {
+
+    private static final Log log = LogFactory.getLog(SupervisedClient.class);
+
+    private final String name;
+    private final ClientFactory factory;
+    private final Executor executor;
+    private final AtomicReference<PooledClient> current = new AtomicReference<>();
+    private final AtomicBoolean replacing = new AtomicBoolean();
+    private final AtomicLong restartCount = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Creates a supervised client, building its first client.
+     *
+     * @param name     Name of the client used in logs.
+     * @param factory  Factory building the clients.
+     * @param executor Executor building the replacements.
+     * @throws WebSubAdapterException If the first client cannot be built.
+     */
+    SupervisedClient(String name, ClientFactory factory, Executor executor) throws WebSubAdapterException {
+
+        this.name = name;
+        this.factory = factory;
+        this.executor = executor;
+        this.current.set(factory.create(null));
+    }
+
+    /**
+     * Returns the current client. If it has stopped, its replacement is started in the background.
+     *
+     * @return Running client.
+     * @throws WebSubAdapterException If the client has stopped and is being replaced.
+     */
+    CloseableHttpAsyncClient get() throws WebSubAdapterException {
+
+        CloseableHttpAsyncClient client = current.get().getClient();
+        if (!client.isRunning()) {
+            replace();
+            throw handleServerException(ERROR_HUB_CLIENT_RESTARTING, null, name);
+        }
+        return client;
+    }
+
+    /**
+     * Returns the connection manager of the current client.
+     *
+     * @return connection manager.
+     */
+    PoolingNHttpClientConnectionManager getConnectionManager() {
+
+        return current.get().getConnectionManager();
+    }
+
+    /**
+     * Whether the client was replaced as it had stopped.
+     *
+     * @param client Client a request was sent with.
+     * @return true if the client is no longer the current one.
+     */
+    boolean isRetired(CloseableHttpAsyncClient client) {
+
+        return client != current.get().getClient();
+    }
+
+    /**
+     * Returns the number of times the client was replaced.
+     *
+     * @return restart count.
+     */
+    long getRestartCount() {
+
+        return restartCount.get();
+    }
+
+    /**
+     * Replace the client if it has stopped. Run periodically, so that a stopped client is replaced even while no
+     * request is sent.
+     */
+    void check() {
+
+        if (!current.get().getClient().isRunning()) {
+            replace();
+        }
+    }
+
+    /**
+     * Close the current client.
+     */
+    void close() {
+
+        closed = true;
+        closeQuietly(current.get().getClient());
+    }
+
+    private void replace() {
+
+        if (closed || !replacing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::rebuild);
+        } catch (RejectedExecutionException e) {
+            replacing.set(false);
+            log.error("Unable to replace the stopped " + name + " client of the WebSub Hub adapter.", e);
+        }
+    }
+
+    private void rebuild() {
+
+        try {
+            PooledClient stopped = current.get();
+            if (closed || stopped.getClient().isRunning()) {
+                return;
+            }
+            log.warn("The I/O reactor of the " + name + " client of the WebSub Hub adapter has stopped. " +
+                    "Replacing the client.");
+            PooledClient replacement = factory.create(stopped);
+            current.set(replacement);
+            restartCount.incrementAndGet();
+            // Closing the stopped client releases the requests it still held, which are then sent on the new one.
+            closeQuietly(stopped.getClient());
+            if (closed) {
+                // Closed while the replacement was being built.
+                closeQuietly(replacement.getClient());
+                return;
+            }
+            log.info("Replaced the stopped " + name + " client of the WebSub Hub adapter.");
+        } catch (WebSubAdapterException | RuntimeException e) {
+            log.error("Unable to replace the stopped " + name + " client of the WebSub Hub adapter.", e);
+        } finally {
+            replacing.set(false);
+        }
+    }
+
+    private static void closeQuietly(CloseableHttpAsyncClient client) {
+
+        try {
+            client.close();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Error while closing a WebSub Hub adapter client.", e);
+        }
+    }
+
+    /**
+     * Builds the clients of a supervised client.
+     */
+    @FunctionalInterface
+    interface ClientFactory {
+
+        /**
+         * Build and start a client.
+         *
+         * @param stopped The client being replaced, or null for the first client.
+         * @return Started client along with its connection manager.
+         * @throws WebSubAdapterException If the client cannot be built.
+         */
+        PooledClient create(PooledClient stopped) throws WebSubAdapterException;
+    }
+
+    /**
+     * Async client along with the connection manager of its pool.
+     */
+    static class PooledClient {
+
+        private final CloseableHttpAsyncClient client;
+        private final PoolingNHttpClientConnectionManager connectionManager;
+
+        PooledClient(CloseableHttpAsyncClient client, PoolingNHttpClientConnectionManager connectionManager) {
+
+            this.client = client;
+            this.connectionManager = connectionManager;
+        }
+
+        CloseableHttpAsyncClient getClient() {
+
+            return client;
+        }
+
+        PoolingNHttpClientConnectionManager getConnectionManager() {
+
+            return connectionManager;
+        }
+    }
+}
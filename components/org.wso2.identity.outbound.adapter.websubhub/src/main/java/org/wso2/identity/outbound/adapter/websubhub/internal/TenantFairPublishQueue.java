@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publish queue sharing the publish workers fairly between tenants, so that a tenant publishing a burst of events
+ * cannot delay the events of the other tenants.
+ * <p>
+ * Every tenant has its own queue, and the tenants with queued events are served by deficit round-robin: in its turn
+ * a tenant hands over up to a quantum of events, before the next tenant gets its turn. The number of queued events
+ * of a tenant is capped, so that one tenant cannot take all of the shared capacity. A tenant can further be limited
+ * in the publish requests it has in flight and in the rate its events are handed over, in which case its turn is
+ * skipped while it is at the limit. As workers take events before their requests are started, the in-flight cap
+ * can be exceeded by up to the number of workers. The state of a tenant, including its rate limit tokens, is dropped
+ * once the tenant has neither queued events nor requests in flight.
+ */
+class TenantFairPublishQueue implements PublishQueue {
+
+    private static final long MIN_ELIGIBILITY_WAIT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Map<String, TenantQueue> tenants = new HashMap<>();
+    private final Deque<TenantQueue> activeTenants = new ArrayDeque<>();
+    private final int capacity;
+    private final int tenantCapacity;
+    private final int quantum;
+    private final int tenantMaxInFlight;
+    private final double tenantRateLimit;
+    private int size;
+
+    /**
+     * Creates a tenant fair publish queue.
+     *
+     * @param capacity          Maximum number of queued events.
+     * @param tenantCapacity    Maximum number of queued events of a tenant.
+     * @param quantum           Number of events a tenant can hand over in its turn.
+     * @param tenantMaxInFlight Maximum number of publish requests of a tenant in flight, 0 for no limit.
+     * @param tenantRateLimit   Maximum number of events of a tenant handed over per second, 0 for no limit.
+     */
+    TenantFairPublishQueue(int capacity, int tenantCapacity, int quantum, int tenantMaxInFlight,
+                           int tenantRateLimit) {
+
+        this.capacity = capacity;
+        this.tenantCapacity = Math.min(tenantCapacity, capacity);
+        this.quantum = quantum;
+        this.tenantMaxInFlight = tenantMaxInFlight;
+        this.tenantRateLimit = tenantRateLimit;
+    }
+
+    @Override
+    public boolean offer(PublishTask task) {
+
+        lock.lock();
+        try {
+            return enqueue(task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(PublishTask task, long timeout, TimeUnit unit) throws InterruptedException {
+
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (!enqueue(task)) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public PublishTask poll(long timeout, TimeUnit unit) throws InterruptedException {
+
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                PublishTask task = dequeue(now);
+                if (task != null) {
+                    return task;
+                }
+                if (nanos <= 0) {
+                    return null;
+                }
+                // Queued events of tenants at their limit become eligible without a signal once tokens refill.
+                long wait = size == 0 ? nanos : Math.min(nanos, Math.max(MIN_ELIGIBILITY_WAIT, nextTokenDelay()));
+                nanos -= wait - notEmpty.awaitNanos(wait);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onRequestStarted(PublishTask task) {
+
+        lock.lock();
+        try {
+            tenants.computeIfAbsent(task.getTenantDomain(), TenantQueue::new).inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onRequestCompleted(PublishTask task) {
+
+        lock.lock();
+        try {
+            TenantQueue tenant = tenants.get(task.getTenantDomain());
+            if (tenant == null) {
+                return;
+            }
+            tenant.inFlight--;
+            if (tenant.tasks.isEmpty()) {
+                removeIfIdle(tenant);
+            } else if (tenantMaxInFlight > 0 && tenant.inFlight == tenantMaxInFlight - 1) {
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity(PublishTask task) {
+
+        lock.lock();
+        try {
+            TenantQueue tenant = tenants.get(task.getTenantDomain());
+            int tenantRemaining = tenantCapacity - (tenant != null ? tenant.tasks.size() : 0);
+            return Math.min(capacity - size, tenantRemaining);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean enqueue(PublishTask task) {
+
+        if (size >= capacity) {
+            return false;
+        }
+        TenantQueue tenant = tenants.computeIfAbsent(task.getTenantDomain(), TenantQueue::new);
+        if (tenant.tasks.size() >= tenantCapacity) {
+            return false;
+        }
+        if (tenant.tasks.isEmpty()) {
+            tenant.deficit = 0;
+            activeTenants.addLast(tenant);
+        }
+        tenant.tasks.addLast(task);
+        size++;
+        notEmpty.signal();
+        return true;
+    }
+
+    private PublishTask dequeue(long now) {
+
+        for (int turns = activeTenants.size(); turns > 0; turns--) {
+            TenantQueue tenant = activeTenants.peekFirst();
+            if (!tenant.isEligible(now)) {
+                // The tenant forfeits its turn while it is at its limits.
+                tenant.deficit = 0;
+                activeTenants.addLast(activeTenants.pollFirst());
+                continue;
+            }
+            if (tenant.deficit <= 0) {
+                tenant.deficit += quantum;
+            }
+            PublishTask task = tenant.tasks.pollFirst();
+            tenant.deficit--;
+            tenant.consumeToken();
+            size--;
+            if (tenant.tasks.isEmpty()) {
+                activeTenants.pollFirst();
+                removeIfIdle(tenant);
+            } else if (tenant.deficit <= 0) {
+                activeTenants.addLast(activeTenants.pollFirst());
+            }
+            notFull.signal();
+            return task;
+        }
+        return null;
+    }
+
+    private long nextTokenDelay() {
+
+        if (tenantRateLimit <= 0) {
+            return 0;
+        }
+        return (long) (TimeUnit.SECONDS.toNanos(1) / tenantRateLimit);
+    }
+
+    private void removeIfIdle(TenantQueue tenant) {
+
+        if (tenant.inFlight <= 0 && tenant.tasks.isEmpty()) {
+            tenants.remove(tenant.tenantDomain);
+        }
+    }
+
+    /**
+     * Queued events and limits of a tenant.
+     */
+    private class TenantQueue {
+
+        private final String tenantDomain;
+        private final Deque<PublishTask> tasks = new ArrayDeque<>();
+        private int deficit;
+        private int inFlight;
+        // Token bucket holding up to a second of the tenant's rate.
+        private double tokens = tenantRateLimit;
+        private long lastRefill = System.nanoTime();
+
+        TenantQueue(String tenantDomain) {
+
+            this.tenantDomain = tenantDomain;
+        }
+
+        boolean isEligible(long now) {
+
+            if (tenantMaxInFlight > 0 && inFlight >= tenantMaxInFlight) {
+                return false;
+            }
+            if (tenantRateLimit <= 0) {
+                return true;
+            }
+            tokens = Math.min(tenantRateLimit, tokens + (now - lastRefill) * tenantRateLimit /
+                    TimeUnit.SECONDS.toNanos(1));
+            lastRefill = now;
+            return tokens >= 1;
+        }
+
+        void consumeToken() {
+
+            if (tenantRateLimit > 0) {
+                tokens--;
+            }
+        }
+    }
+}
@@ -18,8 +18,10 @@
 
 package org.wso2.identity.outbound.adapter.websubhub.internal;
 
-import com.nimbusds.jose.util.DefaultResourceRetriever;
 import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration;
+import org.wso2.identity.outbound.adapter.websubhub.util.PayloadEncryptionKeys;
+import org.wso2.identity.outbound.adapter.websubhub.util.PublishResilience;
+import org.wso2.identity.outbound.adapter.websubhub.util.TopicRegistry;
 
 import java.security.KeyStore;
 
@@ -32,7 +34,10 @@ public class WebSubHubAdapterDataHolder {
     private ClientManager clientManager;
     private KeyStore trustStore;
     private WebSubAdapterConfiguration adapterConfiguration;
-    private DefaultResourceRetriever resourceRetriever;
+    private PublishDispatcher publishDispatcher;
+    private TopicRegistry topicRegistry;
+    private PublishResilience publishResilience;
+    private PayloadEncryptionKeys payloadEncryptionKeys;
 
     private WebSubHubAdapterDataHolder() {
 
@@ -73,13 +78,43 @@ public class WebSubHubAdapterDataHolder {
         this.adapterConfiguration = adapterConfiguration;
     }
 
-    public DefaultResourceRetriever getResourceRetriever() {
+    public PublishDispatcher getPublishDispatcher() {
 
-        return resourceRetriever;
+        return publishDispatcher;
     }
 
-    public void setResourceRetriever(DefaultResourceRetriever resourceRetriever) {
+    public void setPublishDispatcher(PublishDispatcher publishDispatcher) {
 
-        this.resourceRetriever = resourceRetriever;
+        this.publishDispatcher = publishDispatcher;
+    }
+
+    public TopicRegistry getTopicRegistry() {
+
+        return topicRegistry;
+    }
+
+    public void setTopicRegistry(TopicRegistry topicRegistry) {
+
+        this.topicRegistry = topicRegistry;
+    }
+
+    public PublishResilience getPublishResilience() {
+
+        return publishResilience;
+    }
+
+    public void setPublishResilience(PublishResilience publishResilience) {
+
+        this.publishResilience = publishResilience;
+    }
+
+    public PayloadEncryptionKeys getPayloadEncryptionKeys() {
+
+        return payloadEncryptionKeys;
+    }
+
+    public void setPayloadEncryptionKeys(PayloadEncryptionKeys payloadEncryptionKeys) {
+
+        this.payloadEncryptionKeys = payloadEncryptionKeys;
     }
 }
@@ -18,7 +18,6 @@
 
 package org.wso2.identity.outbound.adapter.websubhub.internal;
 
-import com.nimbusds.jose.util.DefaultResourceRetriever;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.ComponentContext;
@@ -29,6 +28,12 @@ import org.wso2.identity.outbound.adapter.common.OutboundAdapterConfigurationPro
 import org.wso2.identity.outbound.adapter.websubhub.WebSubHubAdapterService;
 import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration;
 import org.wso2.identity.outbound.adapter.websubhub.service.WebSubHubAdapterServiceImpl;
+import org.wso2.identity.outbound.adapter.websubhub.util.EventPayloadCryptographyUtils;
+import org.wso2.identity.outbound.adapter.websubhub.util.PayloadEncryptionKeys;
+import org.wso2.identity.outbound.adapter.websubhub.util.PublishResilience;
+import org.wso2.identity.outbound.adapter.websubhub.util.TopicRegistry;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * WebSubHub Outbound Event Adapter service component.
@@ -50,7 +55,22 @@ public class WebSubHubAdapterServiceComponent {
             WebSubHubAdapterDataHolder.getInstance().setAdapterConfiguration(new WebSubAdapterConfiguration(
                     OutboundAdapterConfigurationProvider.getInstance()));
             WebSubHubAdapterDataHolder.getInstance().setClientManager(new ClientManager());
-            WebSubHubAdapterDataHolder.getInstance().setResourceRetriever(new DefaultResourceRetriever());
+            WebSubAdapterConfiguration adapterConfiguration =
+                    WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration();
+            WebSubHubAdapterDataHolder.getInstance().setPublishResilience(
+                    new PublishResilience(adapterConfiguration));
+            WebSubHubAdapterDataHolder.getInstance().setPayloadEncryptionKeys(
+                    new PayloadEncryptionKeys(adapterConfiguration));
+            if (adapterConfiguration.isAdapterEnabled() && adapterConfiguration.isAsyncPublishEnabled()) {
+                PublishDispatcher publishDispatcher = new PublishDispatcher(adapterConfiguration);
+                publishDispatcher.start();
+                WebSubHubAdapterDataHolder.getInstance().setPublishDispatcher(publishDispatcher);
+            }
+            if (adapterConfiguration.isAdapterEnabled() && adapterConfiguration.isTopicRegistryEnabled()) {
+                WebSubHubAdapterDataHolder.getInstance().setTopicRegistry(new TopicRegistry(
+                        TimeUnit.SECONDS.toMillis(adapterConfiguration.getTopicRegistryLifespan()),
+                        adapterConfiguration.getTopicRegistryMaxSize()));
+            }
             if (log.isDebugEnabled()) {
                 log.debug("Successfully activated the WebSub Hub adapter service.");
             }
@@ -62,6 +82,28 @@ public class WebSubHubAdapterServiceComponent {
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        PublishDispatcher publishDispatcher = WebSubHubAdapterDataHolder.getInstance().getPublishDispatcher();
+        if (publishDispatcher != null) {
+            publishDispatcher.shutdown();
+            WebSubHubAdapterDataHolder.getInstance().setPublishDispatcher(null);
+        }
+        WebSubHubAdapterDataHolder.getInstance().setTopicRegistry(null);
+        PublishResilience publishResilience = WebSubHubAdapterDataHolder.getInstance().getPublishResilience();
+        if (publishResilience != null) {
+            publishResilience.shutdown();
+            WebSubHubAdapterDataHolder.getInstance().setPublishResilience(null);
+        }
+        PayloadEncryptionKeys payloadEncryptionKeys =
+                WebSubHubAdapterDataHolder.getInstance().getPayloadEncryptionKeys();
+        if (payloadEncryptionKeys != null) {
+            payloadEncryptionKeys.shutdown();
+            WebSubHubAdapterDataHolder.getInstance().setPayloadEncryptionKeys(null);
+        }
+        ClientManager clientManager = WebSubHubAdapterDataHolder.getInstance().getClientManager();
+        if (clientManager != null) {
+            clientManager.shutdown();
+        }
+        EventPayloadCryptographyUtils.clearCryptoEngines();
         if (log.isDebugEnabled()) {
             log.debug("Successfully de-activated the WebSub Hub adapter service.");
         }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.model;
+
+import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterException;
+
+/**
+ * Outcome of registering or de-registering one topic of a bulk topic operation.
+ */
+public class TopicOperationResult {
+
+    private final String topicSuffix;
+    private final Status status;
+    private final WebSubAdapterException error;
+
+    public TopicOperationResult(String topicSuffix, Status status, WebSubAdapterException error) {
+
+        this.topicSuffix = topicSuffix;
+        this.status = status;
+        this.error = error;
+    }
+
+    public String getTopicSuffix() {
+
+        return topicSuffix;
+    }
+
+    public Status getStatus() {
+
+        return status;
+    }
+
+    /**
+     * Returns the error the operation failed with.
+     *
+     * @return error of a failed operation, null otherwise.
+     */
+    public WebSubAdapterException getError() {
+
+        return error;
+    }
+
+    /**
+     * Whether the topic is in the requested state, either by this operation or because it already was.
+     *
+     * @return true if the operation did not fail.
+     */
+    public boolean isSuccessful() {
+
+        return status != Status.FAILED;
+    }
+
+    /**
+     * Status of a topic operation.
+     */
+    public enum Status {
+
+        // The hub registered or de-registered the topic.
+        SUCCEEDED,
+        // The topic was already registered when registering, or not registered when de-registering it.
+        UNCHANGED,
+        FAILED
+    }
+}
@@ -23,24 +23,40 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.identity.outbound.adapter.websubhub.WebSubHubAdapterService;
 import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterException;
+import org.wso2.identity.outbound.adapter.websubhub.internal.PublishDispatcher;
+import org.wso2.identity.outbound.adapter.websubhub.internal.PublishTask;
 import org.wso2.identity.outbound.adapter.websubhub.internal.WebSubHubAdapterDataHolder;
 import org.wso2.identity.outbound.adapter.websubhub.model.EventPayload;
 import org.wso2.identity.outbound.adapter.websubhub.model.SecurityEventTokenPayload;
+import org.wso2.identity.outbound.adapter.websubhub.model.TopicOperationResult;
+import org.wso2.identity.outbound.adapter.websubhub.util.TopicRegistry;
+import org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
 
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.DEREGISTER;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_DEREGISTERING_HUB_TOPIC;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_REGISTERING_HUB_TOPIC;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_TOPIC_MGT_REQUEST_INTERRUPTED;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.WEB_SUB_BASE_URL_NOT_CONFIGURED;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.WEB_SUB_HUB_ADAPTER_DISABLED;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.REGISTER;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.TOPIC_SEPARATOR;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.buildSecurityEventToken;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.getCorrelationID;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.handleClientException;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.handleServerException;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.makeAsyncAPICall;
-import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.makeTopicMgtAPICall;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.makeAsyncTopicMgtAPICall;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil.waitForTopicMgtResult;
 
 /**
  * OSGi service for publishing events using web sub hub.
@@ -58,8 +74,16 @@ public class WebSubHubAdapterServiceImpl implements WebSubHubAdapterService {
             String tenantDomain = eventPayload.getOrganizationName();
             SecurityEventTokenPayload securityEventTokenPayload =
                     buildSecurityEventToken(eventPayload, eventUri, topicSuffix);
-            makeAsyncAPICall(securityEventTokenPayload, tenantDomain, constructHubTopic(topicSuffix, tenantDomain),
-                    getWebSubBaseURL());
+            PublishDispatcher publishDispatcher = WebSubHubAdapterDataHolder.getInstance().getPublishDispatcher();
+            if (publishDispatcher != null) {
+                // Serialization, encryption and dispatching are handed over to the publish workers.
+                publishDispatcher.submit(new PublishTask(securityEventTokenPayload, tenantDomain,
+                        constructHubTopic(topicSuffix, tenantDomain), eventUri, getWebSubBaseURL(),
+                        getCorrelationID()));
+            } else {
+                makeAsyncAPICall(securityEventTokenPayload, tenantDomain,
+                        constructHubTopic(topicSuffix, tenantDomain), getWebSubBaseURL());
+            }
         } else {
             log.warn("Event cannot be published, WebSub Hub Adapter is not enabled.");
             throw handleClientException(WEB_SUB_HUB_ADAPTER_DISABLED);
@@ -70,8 +94,9 @@ public class WebSubHubAdapterServiceImpl implements WebSubHubAdapterService {
     public void registerTopic(String topicSuffix, String tenantDomain) throws WebSubAdapterException {
 
         if (WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration().isAdapterEnabled()) {
+            String topic = constructHubTopic(topicSuffix, tenantDomain);
             try {
-                makeTopicMgtAPICall(constructHubTopic(topicSuffix, tenantDomain), getWebSubBaseURL(), REGISTER);
+                waitForTopicMgtResult(startTopicOperation(topic, getWebSubBaseURL(), REGISTER), topic, REGISTER);
             } catch (IOException e) {
                 throw handleServerException(ERROR_REGISTERING_HUB_TOPIC, e, topicSuffix, tenantDomain);
             }
@@ -85,8 +110,9 @@ public class WebSubHubAdapterServiceImpl implements WebSubHubAdapterService {
     public void deregisterTopic(String topicSuffix, String tenantDomain) throws WebSubAdapterException {
 
         if (WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration().isAdapterEnabled()) {
+            String topic = constructHubTopic(topicSuffix, tenantDomain);
             try {
-                makeTopicMgtAPICall(constructHubTopic(topicSuffix, tenantDomain), getWebSubBaseURL(), DEREGISTER);
+                waitForTopicMgtResult(startTopicOperation(topic, getWebSubBaseURL(), DEREGISTER), topic, DEREGISTER);
             } catch (IOException e) {
                 throw handleServerException(ERROR_DEREGISTERING_HUB_TOPIC, e, topicSuffix, tenantDomain);
             }
@@ -96,6 +122,119 @@ public class WebSubHubAdapterServiceImpl implements WebSubHubAdapterService {
         }
     }
 
+    @Override
+    public Map<String, TopicOperationResult> registerTopics(List<String> topicSuffixes, String tenantDomain)
+            throws WebSubAdapterException {
+
+        if (WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration().isAdapterEnabled()) {
+            return manageTopics(topicSuffixes, tenantDomain, REGISTER, ERROR_REGISTERING_HUB_TOPIC);
+        } else {
+            log.warn("WebSub Hub Topics cannot be registered, WebSub Hub Adapter is not enabled.");
+            throw handleClientException(WEB_SUB_HUB_ADAPTER_DISABLED);
+        }
+    }
+
+    @Override
+    public Map<String, TopicOperationResult> deregisterTopics(List<String> topicSuffixes, String tenantDomain)
+            throws WebSubAdapterException {
+
+        if (WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration().isAdapterEnabled()) {
+            return manageTopics(topicSuffixes, tenantDomain, DEREGISTER, ERROR_DEREGISTERING_HUB_TOPIC);
+        } else {
+            log.warn("WebSub Hub Topics cannot be de-registered, WebSub Hub Adapter is not enabled.");
+            throw handleClientException(WEB_SUB_HUB_ADAPTER_DISABLED);
+        }
+    }
+
+    /**
+     * Pipeline the topic operations over the async client, keeping at most the configured number of requests in
+     * flight so that a large bulk operation neither exhausts the connection pool shared with event publishing nor
+     * overloads the hub. If the calling thread is interrupted, the operations in flight are cancelled.
+     */
+    private Map<String, TopicOperationResult> manageTopics(List<String> topicSuffixes, String tenantDomain,
+                                                           String operation, ErrorMessages error)
+            throws WebSubAdapterException {
+
+        String baseUrl = getWebSubBaseURL();
+        List<String> suffixes = new ArrayList<>(new LinkedHashSet<>(topicSuffixes));
+        TopicOperationResult[] results = new TopicOperationResult[suffixes.size()];
+        int parallelism = Math.max(1, WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration()
+                .getTopicManagementParallelism());
+        Semaphore permits = new Semaphore(parallelism);
+        List<CompletableFuture<TopicOperationResult.Status>> operationResults = new ArrayList<>(suffixes.size());
+        try {
+            for (int i = 0; i < suffixes.size(); i++) {
+                permits.acquire();
+                int index = i;
+                String topicSuffix = suffixes.get(i);
+                CompletableFuture<TopicOperationResult.Status> operationResult;
+                try {
+                    operationResult = startTopicOperation(constructHubTopic(topicSuffix, tenantDomain), baseUrl,
+                            operation);
+                } catch (WebSubAdapterException e) {
+                    operationResult = new CompletableFuture<>();
+                    operationResult.completeExceptionally(e);
+                }
+                operationResults.add(operationResult);
+                operationResult.whenComplete((status, e) -> {
+                    results[index] = toTopicOperationResult(topicSuffix, tenantDomain, status, e, error);
+                    permits.release();
+                });
+            }
+            // Wait for the requests still in flight.
+            permits.acquire(parallelism);
+        } catch (InterruptedException e) {
+            operationResults.forEach(operationResult -> operationResult.cancel(false));
+            Thread.currentThread().interrupt();
+            List<String> topics = new ArrayList<>(suffixes.size());
+            for (String topicSuffix : suffixes) {
+                topics.add(constructHubTopic(topicSuffix, tenantDomain));
+            }
+            throw handleServerException(ERROR_TOPIC_MGT_REQUEST_INTERRUPTED, e, String.join(", ", topics),
+                    operation);
+        }
+
+        Map<String, TopicOperationResult> resultMap = new LinkedHashMap<>();
+        for (TopicOperationResult result : results) {
+            resultMap.put(result.getTopicSuffix(), result);
+        }
+        return resultMap;
+    }
+
+    /**
+     * Start a topic operation, going through the topic registry if it is enabled so that topics known to be
+     * registered are not registered again.
+     */
+    private CompletableFuture<TopicOperationResult.Status> startTopicOperation(String topic, String baseUrl,
+                                                                               String operation)
+            throws WebSubAdapterException {
+
+        TopicRegistry topicRegistry = WebSubHubAdapterDataHolder.getInstance().getTopicRegistry();
+        if (topicRegistry == null) {
+            return makeAsyncTopicMgtAPICall(topic, baseUrl, operation);
+        }
+        TopicRegistry.TopicOperation topicOperation = hubTopic -> makeAsyncTopicMgtAPICall(hubTopic, baseUrl,
+                operation);
+        if (REGISTER.equals(operation)) {
+            return topicRegistry.register(topic, topicOperation);
+        }
+        return topicRegistry.deregister(topic, topicOperation);
+    }
+
+    private TopicOperationResult toTopicOperationResult(String topicSuffix, String tenantDomain,
+                                                        TopicOperationResult.Status status, Throwable throwable,
+                                                        ErrorMessages error) {
+
+        if (throwable == null) {
+            return new TopicOperationResult(topicSuffix, status, null);
+        }
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                throwable.getCause() : throwable;
+        WebSubAdapterException exception = cause instanceof WebSubAdapterException ?
+                (WebSubAdapterException) cause : handleServerException(error, cause, topicSuffix, tenantDomain);
+        return new TopicOperationResult(topicSuffix, TopicOperationResult.Status.FAILED, exception);
+    }
+
     private String getWebSubBaseURL() throws WebSubAdapterException {
 
         if (StringUtils.isEmpty(webSubHubBaseUrl)) {
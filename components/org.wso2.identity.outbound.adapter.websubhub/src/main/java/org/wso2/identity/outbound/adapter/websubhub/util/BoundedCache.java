@@ -0,0 +1,450 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size capped concurrent cache with W-TinyLFU eviction. New entries enter a small LRU window. Entries leaving the
+ * window compete with the least recently used entry of the main segmented LRU, and the one seen less often according
+ * to a count-min frequency sketch is evicted. Frequently used entries hence stay resident, while one-off entries are
+ * evicted quickly.
+ * <p>
+ * Lookups never block. Accesses are recorded in a lossy ring buffer which is applied to the eviction policy by
+ * whichever thread acquires the policy lock without waiting.
+ *
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ */
+class BoundedCache<K, V> {
+
+    private static final int READ_BUFFER_SIZE = 128;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int READ_BUFFER_DRAIN_THRESHOLD = 32;
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private final ConcurrentMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicReferenceArray<Node<K, V>> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicLong readCount = new AtomicLong();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    // Eviction policy state, guarded by the eviction lock.
+    private final FrequencySketch sketch;
+    private final AccessOrderQueue<K, V> window = new AccessOrderQueue<>();
+    private final AccessOrderQueue<K, V> probation = new AccessOrderQueue<>();
+    private final AccessOrderQueue<K, V> protectedQueue = new AccessOrderQueue<>();
+    private final int maximumSize;
+    private final int maximumWindowSize;
+    private final int maximumProtectedSize;
+
+    /**
+     * Creates a bounded cache.
+     *
+     * @param maximumSize Maximum number of entries kept in the cache.
+     */
+    BoundedCache(int maximumSize) {
+
+        this.maximumSize = Math.max(1, maximumSize);
+        this.maximumWindowSize = Math.max(1, (int) (this.maximumSize * WINDOW_RATIO));
+        this.maximumProtectedSize = (int) ((this.maximumSize - maximumWindowSize) * PROTECTED_RATIO);
+        this.sketch = new FrequencySketch(this.maximumSize);
+    }
+
+    /**
+     * Returns the value of the key, recording a hit or a miss.
+     *
+     * @param key Key.
+     * @return Value, or null if the key is not in the cache.
+     */
+    V get(K key) {
+
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        recordAccess(node);
+        return node.value;
+    }
+
+    /**
+     * Returns the value of the key without recording a hit, a miss or an access.
+     *
+     * @param key Key.
+     * @return Value, or null if the key is not in the cache.
+     */
+    V peek(K key) {
+
+        Node<K, V> node = data.get(key);
+        return node != null ? node.value : null;
+    }
+
+    /**
+     * Add or replace the value of the key.
+     *
+     * @param key   Key.
+     * @param value Value.
+     */
+    void put(K key, V value) {
+
+        Node<K, V> node = new Node<>(key, value);
+        Node<K, V> existing = data.putIfAbsent(key, node);
+        if (existing != null) {
+            synchronized (existing) {
+                existing.value = value;
+            }
+            recordAccess(existing);
+            return;
+        }
+        afterAdd(node);
+    }
+
+    /**
+     * Add the value only if the key is not in the cache.
+     *
+     * @param key   Key.
+     * @param value Value.
+     * @return True if the value was added.
+     */
+    boolean putIfAbsent(K key, V value) {
+
+        Node<K, V> node = new Node<>(key, value);
+        if (data.putIfAbsent(key, node) != null) {
+            return false;
+        }
+        afterAdd(node);
+        return true;
+    }
+
+    /**
+     * Replace the value of the key only if it is currently mapped to the expected value.
+     *
+     * @param key      Key.
+     * @param expected Expected current value.
+     * @param value    New value.
+     * @return True if the value was replaced.
+     */
+    boolean replace(K key, V expected, V value) {
+
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            return false;
+        }
+        synchronized (node) {
+            if (node.value != expected) {
+                return false;
+            }
+            node.value = value;
+        }
+        return data.get(key) == node;
+    }
+
+    /**
+     * Remove the key from the cache.
+     *
+     * @param key Key.
+     */
+    void remove(K key) {
+
+        Node<K, V> node = data.remove(key);
+        if (node == null) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            unlink(node);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    int size() {
+
+        return data.size();
+    }
+
+    long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    long getEvictionCount() {
+
+        return evictionCount.sum();
+    }
+
+    private void recordAccess(Node<K, V> node) {
+
+        long count = readCount.getAndIncrement();
+        readBuffer.lazySet((int) (count & READ_BUFFER_MASK), node);
+        if ((count & (READ_BUFFER_DRAIN_THRESHOLD - 1)) == 0 && evictionLock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void afterAdd(Node<K, V> node) {
+
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            // The entry could have been removed before the lock was obtained.
+            if (data.get(node.key) != node) {
+                return;
+            }
+            sketch.increment(node.key);
+            window.addLast(node);
+            evict();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void drainReadBuffer() {
+
+        for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+            Node<K, V> node = readBuffer.getAndSet(i, null);
+            if (node != null) {
+                onAccess(node);
+            }
+        }
+    }
+
+    private void onAccess(Node<K, V> node) {
+
+        if (node.queue == null) {
+            // Removed or evicted after the access was recorded.
+            return;
+        }
+        sketch.increment(node.key);
+        if (node.queue == probation) {
+            probation.remove(node);
+            protectedQueue.addLast(node);
+            if (protectedQueue.size > maximumProtectedSize) {
+                Node<K, V> demoted = protectedQueue.pollFirst();
+                probation.addLast(demoted);
+            }
+        } else {
+            node.queue.moveToLast(node);
+        }
+    }
+
+    private void evict() {
+
+        while (window.size > maximumWindowSize) {
+            probation.addLast(window.pollFirst());
+        }
+        while (window.size + probation.size + protectedQueue.size > maximumSize) {
+            Node<K, V> victim = probation.first;
+            Node<K, V> candidate = probation.last;
+            if (victim == null) {
+                victim = protectedQueue.first != null ? protectedQueue.first : window.first;
+                evictNode(victim);
+            } else if (victim != candidate && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                evictNode(victim);
+            } else {
+                evictNode(candidate);
+            }
+        }
+    }
+
+    private void evictNode(Node<K, V> node) {
+
+        unlink(node);
+        if (data.remove(node.key, node)) {
+            evictionCount.increment();
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+
+        if (node.queue != null) {
+            node.queue.remove(node);
+        }
+    }
+
+    /**
+     * Cache entry, also being a link of the access order queue it belongs to.
+     */
+    private static final class Node<K, V> {
+
+        private final K key;
+        private volatile V value;
+        // Guarded by the eviction lock.
+        private AccessOrderQueue<K, V> queue;
+        private Node<K, V> previous;
+        private Node<K, V> next;
+
+        Node(K key, V value) {
+
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Doubly linked queue of entries ordered from the least to the most recently used.
+     */
+    private static final class AccessOrderQueue<K, V> {
+
+        private Node<K, V> first;
+        private Node<K, V> last;
+        private int size;
+
+        void addLast(Node<K, V> node) {
+
+            node.queue = this;
+            node.previous = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            size++;
+        }
+
+        Node<K, V> pollFirst() {
+
+            Node<K, V> node = first;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+
+        void moveToLast(Node<K, V> node) {
+
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void remove(Node<K, V> node) {
+
+            if (node.previous == null) {
+                first = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+            node.queue = null;
+            size--;
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters estimating how often a key was accessed. All counters are halved once the
+     * number of recorded accesses reaches ten times the cache size, so that the estimates follow recent popularity.
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+                0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int tableMask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+
+            int capacity = Integer.highestOneBit(Math.max(16, maximumSize - 1) << 1);
+            this.table = new long[capacity];
+            this.tableMask = capacity - 1;
+            this.sampleSize = 10 * maximumSize;
+        }
+
+        int frequency(Object key) {
+
+            int hash = spread(key.hashCode());
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        void increment(Object key) {
+
+            int hash = spread(key.hashCode());
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int offset = (start + i) << 2;
+                long mask = 0xfL << offset;
+                if ((table[index] & mask) != mask) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions /= 2;
+            }
+        }
+
+        private int indexOf(int hash, int depth) {
+
+            long index = (hash + SEEDS[depth]) * SEEDS[depth];
+            index += index >>> 32;
+            return ((int) index) & tableMask;
+        }
+
+        private static int spread(int hash) {
+
+            int spread = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+            spread = ((spread >>> 16) ^ spread) * 0x45d9f3b;
+            return (spread >>> 16) ^ spread;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker of a WebSub Hub route. While the hub is degraded, requests would otherwise keep waiting for the
+ * connect and read timeouts while holding pooled connections, until the pool saturates and requests fail waiting for
+ * a connection instead.
+ * <p>
+ * The breaker records the outcome of the last calls in a sliding window, and opens once the rate of failed or of
+ * slow calls in the window reaches its threshold. An open breaker rejects calls without contacting the hub. After
+ * the open duration it lets a few probe calls through: the breaker closes again if all of them succeed in time, and
+ * opens again as soon as one of them fails.
+ */
+public class CircuitBreaker {
+
+    private static final Log log = LogFactory.getLog(CircuitBreaker.class);
+    private static final byte FAILED_CALL = 1;
+    private static final byte SLOW_CALL = 2;
+
+    private final String route;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallDuration;
+    private final long openDuration;
+    private final int probeCount;
+    private final byte[] window;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int windowPosition;
+    private int recordedCalls;
+    private int failedCalls;
+    private int slowCalls;
+    private long openUntil;
+    private int probesSent;
+    private int probesSucceeded;
+    private long rejectedCount;
+    private long openedCount;
+
+    /**
+     * Creates a closed circuit breaker.
+     *
+     * @param route                 Route guarded by the breaker.
+     * @param windowSize            Number of most recent calls the failure and slow call rates are computed from.
+     * @param minimumCalls          Number of calls recorded before the breaker can open.
+     * @param failureRateThreshold  Percentage of failed calls at which the breaker opens.
+     * @param slowCallRateThreshold Percentage of slow calls at which the breaker opens.
+     * @param slowCallDuration      Duration in milliseconds from which a call counts as slow.
+     * @param openDuration          Time in milliseconds the breaker stays open before probing the route.
+     * @param probeCount            Number of probe calls deciding whether the breaker closes again.
+     */
+    CircuitBreaker(String route, int windowSize, int minimumCalls, int failureRateThreshold,
+                   int slowCallRateThreshold, long slowCallDuration, long openDuration, int probeCount) {
+
+        this(route, windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold, slowCallDuration,
+                openDuration, probeCount, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a closed circuit breaker reading the time from the given clock.
+     *
+     * @param route                 Route guarded by the breaker.
+     * @param windowSize            Number of most recent calls the failure and slow call rates are computed from.
+     * @param minimumCalls          Number of calls recorded before the breaker can open.
+     * @param failureRateThreshold  Percentage of failed calls at which the breaker opens.
+     * @param slowCallRateThreshold Percentage of slow calls at which the breaker opens.
+     * @param slowCallDuration      Duration in milliseconds from which a call counts as slow.
+     * @param openDuration          Time in milliseconds the breaker stays open before probing the route.
+     * @param probeCount            Number of probe calls deciding whether the breaker closes again.
+     * @param clock                 Source of the current time in milliseconds.
+     */
+    CircuitBreaker(String route, int windowSize, int minimumCalls, int failureRateThreshold,
+                   int slowCallRateThreshold, long slowCallDuration, long openDuration, int probeCount,
+                   LongSupplier clock) {
+
+        this.route = route;
+        this.window = new byte[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDuration = slowCallDuration;
+        this.openDuration = openDuration;
+        this.probeCount = probeCount;
+        this.clock = clock;
+    }
+
+    /**
+     * Ask for permission to send a call over the route.
+     *
+     * @return true if the call can be sent, false if the breaker rejects it.
+     */
+    synchronized boolean tryAcquire() {
+
+        if (state == State.OPEN) {
+            if (clock.getAsLong() < openUntil) {
+                rejectedCount++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesSent = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesSent >= probeCount) {
+                rejectedCount++;
+                return false;
+            }
+            probesSent++;
+        }
+        return true;
+    }
+
+    /**
+     * Record the outcome of a call permitted by {@link #tryAcquire()}.
+     *
+     * @param duration Duration of the call in milliseconds.
+     * @param failed   Whether the call failed in a way showing the route is degraded.
+     */
+    synchronized void onResult(long duration, boolean failed) {
+
+        boolean slow = duration >= slowCallDuration;
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                open();
+            } else if (++probesSucceeded >= probeCount) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // Outcome of a call sent before the breaker opened.
+            return;
+        }
+
+        byte evicted = window[windowPosition];
+        if (recordedCalls == window.length) {
+            failedCalls -= evicted & FAILED_CALL;
+            slowCalls -= (evicted & SLOW_CALL) >> 1;
+        } else {
+            recordedCalls++;
+        }
+        byte outcome = (byte) ((failed ? FAILED_CALL : 0) | (slow ? SLOW_CALL : 0));
+        window[windowPosition] = outcome;
+        windowPosition = (windowPosition + 1) % window.length;
+        failedCalls += outcome & FAILED_CALL;
+        slowCalls += (outcome & SLOW_CALL) >> 1;
+
+        if (recordedCalls >= minimumCalls && (failedCalls * 100L >= (long) failureRateThreshold * recordedCalls ||
+                slowCalls * 100L >= (long) slowCallRateThreshold * recordedCalls)) {
+            open();
+        }
+    }
+
+    /**
+     * Record that a call permitted by {@link #tryAcquire()} was cancelled before its outcome was known.
+     */
+    synchronized void onCancelled() {
+
+        if (state == State.HALF_OPEN && probesSent > probesSucceeded) {
+            // Let another probe take the place of the cancelled one.
+            probesSent--;
+        }
+    }
+
+    public String getRoute() {
+
+        return route;
+    }
+
+    public synchronized State getState() {
+
+        return state;
+    }
+
+    /**
+     * Returns the percentage of failed calls in the window.
+     *
+     * @return failure rate, or 0 while no call has been recorded.
+     */
+    public synchronized int getFailureRate() {
+
+        return recordedCalls == 0 ? 0 : failedCalls * 100 / recordedCalls;
+    }
+
+    /**
+     * Returns the percentage of slow calls in the window.
+     *
+     * @return slow call rate, or 0 while no call has been recorded.
+     */
+    public synchronized int getSlowCallRate() {
+
+        return recordedCalls == 0 ? 0 : slowCalls * 100 / recordedCalls;
+    }
+
+    /**
+     * Returns the number of calls rejected as the breaker was open.
+     *
+     * @return rejected call count.
+     */
+    public synchronized long getRejectedCount() {
+
+        return rejectedCount;
+    }
+
+    /**
+     * Returns the number of times the breaker opened.
+     *
+     * @return open count.
+     */
+    public synchronized long getOpenedCount() {
+
+        return openedCount;
+    }
+
+    private void open() {
+
+        if (state == State.CLOSED) {
+            log.warn("Opening the circuit breaker of WebSub Hub route: " + route + ". Failure rate: " +
+                    getFailureRate() + "%, slow call rate: " + getSlowCallRate() + "%.");
+        } else if (log.isDebugEnabled()) {
+            log.debug("A probe call failed, re-opening the circuit breaker of WebSub Hub route: " + route);
+        }
+        state = State.OPEN;
+        openUntil = clock.getAsLong() + openDuration;
+        openedCount++;
+    }
+
+    private void close() {
+
+        log.info("Closing the circuit breaker of WebSub Hub route: " + route + " as the probe calls succeeded.");
+        state = State.CLOSED;
+        windowPosition = 0;
+        recordedCalls = 0;
+        failedCalls = 0;
+        slowCalls = 0;
+    }
+
+    /**
+     * States of a circuit breaker.
+     */
+    public enum State {
+
+        // Calls are sent and their outcomes recorded.
+        CLOSED,
+        // Calls are rejected until the open duration has passed.
+        OPEN,
+        // A limited number of probe calls is sent to test whether the route recovered.
+        HALF_OPEN
+    }
+}
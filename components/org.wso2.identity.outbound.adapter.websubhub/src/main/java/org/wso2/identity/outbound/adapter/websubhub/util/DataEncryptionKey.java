@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.SecretKey;
+
+/**
+ * Symmetric key used to encrypt event payloads together with its copy wrapped by the tenant's public key. The
+ * wrapped key is computed once and sent with every payload encrypted by this key.
+ */
+class DataEncryptionKey {
+
+    private final SecretKey secretKey;
+    private final String wrappedKey;
+    private final String keyWrapAlgorithm;
+    private final String ephemeralPublicKey;
+    private final PublicKey wrappingKey;
+    private final long expiryTime;
+    private final long maxUses;
+    private final AtomicLong uses = new AtomicLong();
+
+    /**
+     * Creates a data encryption key.
+     *
+     * @param secretKey   Symmetric key encrypting the payloads.
+     * @param wrappedKey  Symmetric key wrapped for the wrapping key.
+     * @param wrappingKey Public key of the tenant used to wrap the symmetric key.
+     * @param maxAge      Maximum time in milliseconds the key can be used.
+     * @param maxUses     Maximum number of payloads the key can encrypt.
+     */
+    DataEncryptionKey(SecretKey secretKey, PayloadCryptoEngine.WrappedKey wrappedKey, PublicKey wrappingKey,
+                      long maxAge, long maxUses) {
+
+        this.secretKey = secretKey;
+        this.wrappedKey = Base64.getEncoder().encodeToString(wrappedKey.getEncryptedKey());
+        this.keyWrapAlgorithm = wrappedKey.getAlgorithm();
+        this.ephemeralPublicKey = wrappedKey.getEphemeralPublicKey() == null ? null :
+                Base64.getEncoder().encodeToString(wrappedKey.getEphemeralPublicKey().getEncoded());
+        this.wrappingKey = wrappingKey;
+        this.expiryTime = System.currentTimeMillis() + maxAge;
+        this.maxUses = maxUses;
+    }
+
+    /**
+     * Reserve the key for encrypting one payload.
+     *
+     * @param publicKey Current public key of the tenant.
+     * @return True if the key is still usable and has been reserved, false if it has to be rotated.
+     */
+    boolean tryAcquire(PublicKey publicKey) {
+
+        if (System.currentTimeMillis() >= expiryTime || !wrappingKey.equals(publicKey)) {
+            return false;
+        }
+        return uses.incrementAndGet() <= maxUses;
+    }
+
+    SecretKey getSecretKey() {
+
+        return secretKey;
+    }
+
+    String getWrappedKey() {
+
+        return wrappedKey;
+    }
+
+    String getKeyWrapAlgorithm() {
+
+        return keyWrapAlgorithm;
+    }
+
+    /**
+     * Returns the Base64 encoded ephemeral public key the wrapping was agreed with.
+     *
+     * @return Ephemeral public key, or null if the key was wrapped without key agreement.
+     */
+    String getEphemeralPublicKey() {
+
+        return ephemeralPublicKey;
+    }
+}
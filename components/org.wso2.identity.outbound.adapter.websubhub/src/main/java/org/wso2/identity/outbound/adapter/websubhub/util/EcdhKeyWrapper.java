@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import edu.umd.cs.findbugs.annotations.SuppressWarnings;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.KeyAgreement;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.EC_KEY_ALGORITHM;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ECDH_ES_KEY_WRAP_ALGORITHM;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.KEY_AGREEMENT_ALGORITHM;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.KEY_DERIVATION_DIGEST_ALGORITHM;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.KEY_WRAP_ALGORITHM;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.SYMMETRIC_ENCRYPTION_ALGORITHM;
+
+/**
+ * Wraps data encryption keys for elliptic curve public keys with ECDH-ES+A128KW as defined by RFC 7518. An ephemeral
+ * key pair is generated on the curve of the tenant's key, the key encryption key is derived from the agreed secret
+ * with the Concat KDF, and the data encryption key is wrapped with AES key wrap. The ephemeral public key is sent
+ * along with the wrapped key, so that the holder of the tenant's private key can derive the same key encryption key.
+ * <p>
+ * The wrapped key is much smaller than an RSA encrypted one, and cheaper for the receiver to unwrap. For the sender
+ * however, an ephemeral key pair and a key agreement cost more than an RSA public key encryption, hence elliptic
+ * curve keys are best combined with data encryption key reuse, which wraps a key once for many payloads.
+ * <p>
+ * Like the {@link PayloadCryptoEngine} owning it, a wrapper must only be used by a single thread.
+ */
+final class EcdhKeyWrapper {
+
+    private static final int KEY_ENCRYPTION_KEY_BIT_LENGTH = 128;
+
+    private final KeyPairGenerator ephemeralKeyPairGenerator;
+    private final KeyAgreement keyAgreement;
+    private final MessageDigest digest;
+    private final Cipher keyWrapCipher;
+    private final byte[] otherInfo;
+
+    // AES key wrap carries its own integrity check value, as defined by RFC 3394.
+    @SuppressWarnings("CIPINT")
+    EcdhKeyWrapper() throws NoSuchAlgorithmException, NoSuchPaddingException {
+
+        this.ephemeralKeyPairGenerator = KeyPairGenerator.getInstance(EC_KEY_ALGORITHM);
+        this.keyAgreement = KeyAgreement.getInstance(KEY_AGREEMENT_ALGORITHM);
+        this.digest = MessageDigest.getInstance(KEY_DERIVATION_DIGEST_ALGORITHM);
+        this.keyWrapCipher = Cipher.getInstance(KEY_WRAP_ALGORITHM);
+        this.otherInfo = buildOtherInfo();
+    }
+
+    /**
+     * Wrap the data encryption key for the tenant's elliptic curve public key.
+     *
+     * @param symmetricKey Data encryption key.
+     * @param publicKey    Elliptic curve public key of the tenant.
+     * @param random       Random source of the calling thread.
+     * @return Wrapped data encryption key along with the ephemeral public key.
+     */
+    PayloadCryptoEngine.WrappedKey wrap(SecretKey symmetricKey, ECPublicKey publicKey, SecureRandom random)
+            throws InvalidKeyException, IllegalBlockSizeException {
+
+        KeyPair ephemeralKeyPair;
+        try {
+            ephemeralKeyPairGenerator.initialize(publicKey.getParams(), random);
+            ephemeralKeyPair = ephemeralKeyPairGenerator.generateKeyPair();
+        } catch (InvalidAlgorithmParameterException e) {
+            throw new InvalidKeyException("Unsupported elliptic curve of the event encryption public key.", e);
+        }
+
+        keyAgreement.init(ephemeralKeyPair.getPrivate());
+        keyAgreement.doPhase(publicKey, true);
+        byte[] sharedSecret = keyAgreement.generateSecret();
+        try {
+            SecretKey keyEncryptionKey = deriveKeyEncryptionKey(sharedSecret);
+            keyWrapCipher.init(Cipher.WRAP_MODE, keyEncryptionKey);
+            return new PayloadCryptoEngine.WrappedKey(keyWrapCipher.wrap(symmetricKey), ECDH_ES_KEY_WRAP_ALGORITHM,
+                    ephemeralKeyPair.getPublic());
+        } finally {
+            Arrays.fill(sharedSecret, (byte) 0);
+        }
+    }
+
+    /**
+     * Single round Concat KDF, as the digest output is longer than the key encryption key.
+     */
+    private SecretKey deriveKeyEncryptionKey(byte[] sharedSecret) {
+
+        digest.reset();
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(1).array());
+        digest.update(sharedSecret);
+        digest.update(otherInfo);
+        byte[] derived = digest.digest();
+        try {
+            return new SecretKeySpec(derived, 0, KEY_ENCRYPTION_KEY_BIT_LENGTH / Byte.SIZE,
+                    SYMMETRIC_ENCRYPTION_ALGORITHM);
+        } finally {
+            Arrays.fill(derived, (byte) 0);
+        }
+    }
+
+    /**
+     * AlgorithmID, empty PartyUInfo and PartyVInfo, and SuppPubInfo of the Concat KDF.
+     */
+    private static byte[] buildOtherInfo() {
+
+        byte[] algorithmId = ECDH_ES_KEY_WRAP_ALGORITHM.getBytes(StandardCharsets.US_ASCII);
+        return ByteBuffer.allocate(4 * Integer.BYTES + algorithmId.length)
+                .putInt(algorithmId.length).put(algorithmId)
+                .putInt(0)
+                .putInt(0)
+                .putInt(KEY_ENCRYPTION_KEY_BIT_LENGTH)
+                .array();
+    }
+}
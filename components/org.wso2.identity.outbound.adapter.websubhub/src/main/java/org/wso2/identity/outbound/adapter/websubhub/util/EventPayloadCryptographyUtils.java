@@ -9,58 +9,64 @@
 
 package org.wso2.identity.outbound.adapter.websubhub.util;
 
-import com.nimbusds.jose.EncryptionMethod;
-import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JWEAlgorithm;
-import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.KeyUse;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.DefaultJWKSetCache;
-import com.nimbusds.jose.util.Base64URL;
-import com.nimbusds.jose.util.DefaultResourceRetriever;
-import com.nimbusds.jose.util.Resource;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.util.EntityUtils;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration;
+import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterException;
 import org.wso2.identity.outbound.adapter.websubhub.internal.WebSubHubAdapterDataHolder;
 
 import java.io.IOException;
-import java.net.URL;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.KeyFactory;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
-import java.security.interfaces.RSAPublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
 import java.security.spec.InvalidKeySpecException;
+import java.security.spec.InvalidParameterSpecException;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Base64;
-import java.util.Collections;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
+import javax.crypto.CipherOutputStream;
 import javax.crypto.IllegalBlockSizeException;
-import javax.crypto.KeyGenerator;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ASYMMETRIC_ENCRYPTION_ALGORITHM;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.CRYPTO_KEY_ALGORITHM_JSON_KEY;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.CRYPTO_KEY_JSON_KEY;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.CRYPTO_KEY_RESPONSE_JSON_KEY;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ENCRYPTED_PAYLOAD_JSON_KEY;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.EC_KEY_ALGORITHM;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.EC_KEY_CURVE;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ENCRYPTION_KEY_ENDPOINT_URL_TENANT_PLACEHOLDER;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.EPHEMERAL_PUBLIC_KEY_JSON_KEY;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_RETRIEVING_ENCRYPTION_PUBLIC_KEY;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.IV_PARAMETER_SPEC_JSON_KEY;
-import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.SYMMETRIC_ENCRYPTION_ALGORITHM;
-import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.SYMMETRIC_ENCRYPTION_ALGORITHM_WITH_MODE;
 
 /**
  * This class contains utility methods for encrypting Event Payloads.
@@ -68,18 +74,6 @@ import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapter
 public class EventPayloadCryptographyUtils {
 
     private static final Log log = LogFactory.getLog(EventPayloadCryptographyUtils.class);
-    private static final ConcurrentMap<String, DefaultJWKSetCache> cacheMap = new ConcurrentHashMap<>();
-    private static final KeyGenerator keyGenerator;
-
-    static {
-        try {
-            int keyBitLength = EncryptionMethod.A128GCM.cekBitLength();
-            keyGenerator = KeyGenerator.getInstance(SYMMETRIC_ENCRYPTION_ALGORITHM);
-            keyGenerator.init(keyBitLength);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Unable to initialize Event Payload Cryptographer.", e);
-        }
-    }
 
     /**
      * Encrypts the event payload and returns a JSON with the encrypted content.
@@ -92,119 +86,321 @@ public class EventPayloadCryptographyUtils {
     public static JSONObject encryptEventPayload(String payloadJsonString, String tenantDomain)
             throws IdentityEventException {
 
+        PayloadCryptoEngine cryptoEngine = null;
         try {
+            cryptoEngine = PayloadCryptoEngine.acquire();
+            // Symmetric encryption key wrapped with asymmetric encryption.
+            PayloadEncryptionKeys payloadEncryptionKeys = getPayloadEncryptionKeys();
+            DataEncryptionKey dataEncryptionKey = getDataEncryptionKey(cryptoEngine, payloadEncryptionKeys,
+                    tenantDomain, getPublicKey(payloadEncryptionKeys, tenantDomain));
+
             // Encrypt event payload with symmetric encryption.
-            SecretKey symmetricKey = keyGenerator.generateKey();
-            Cipher symmetricEncryptionCipher = Cipher.getInstance(SYMMETRIC_ENCRYPTION_ALGORITHM_WITH_MODE);
-            symmetricEncryptionCipher.init(Cipher.ENCRYPT_MODE, symmetricKey);
+            Cipher symmetricEncryptionCipher = cryptoEngine.initSymmetricEncryption(dataEncryptionKey.getSecretKey());
             byte[] encryptedBytes = symmetricEncryptionCipher
                     .doFinal(payloadJsonString.getBytes(StandardCharsets.UTF_8));
             String encryptedEventPayload = Base64.getEncoder().encodeToString(encryptedBytes);
 
-            // Encrypt symmetric encryption key with asymmetric encryption.
-            PublicKey publicKey = getPublicKey(tenantDomain);
-            Cipher asymmetricEncryptionCipher = Cipher.getInstance(ASYMMETRIC_ENCRYPTION_ALGORITHM);
-            asymmetricEncryptionCipher.init(Cipher.ENCRYPT_MODE, publicKey);
-            byte[] encryptedSymmetricKeyBytes = asymmetricEncryptionCipher.doFinal(symmetricKey.getEncoded());
-            String encryptedSymmetricKey = Base64.getEncoder().encodeToString(encryptedSymmetricKeyBytes);
-
             JSONObject encryptedPayload = new JSONObject();
             encryptedPayload.put(ENCRYPTED_PAYLOAD_JSON_KEY, encryptedEventPayload);
-            encryptedPayload.put(CRYPTO_KEY_JSON_KEY, encryptedSymmetricKey);
+            encryptedPayload.put(CRYPTO_KEY_JSON_KEY, dataEncryptionKey.getWrappedKey());
+            if (dataEncryptionKey.getEphemeralPublicKey() != null) {
+                encryptedPayload.put(CRYPTO_KEY_ALGORITHM_JSON_KEY, dataEncryptionKey.getKeyWrapAlgorithm());
+                encryptedPayload.put(EPHEMERAL_PUBLIC_KEY_JSON_KEY, dataEncryptionKey.getEphemeralPublicKey());
+            }
             encryptedPayload.put(IV_PARAMETER_SPEC_JSON_KEY,
                     Base64.getEncoder().encodeToString(symmetricEncryptionCipher.getIV()));
             return encryptedPayload;
-        } catch (JOSEException | NoSuchAlgorithmException | InvalidKeyException | NoSuchPaddingException |
-                 IllegalBlockSizeException | BadPaddingException | ParseException e) {
+        } catch (NoSuchAlgorithmException | InvalidKeyException | NoSuchPaddingException |
+                 InvalidAlgorithmParameterException | IllegalBlockSizeException | BadPaddingException e) {
             throw new IdentityEventException("Error while encrypting event payload.", e);
+        } finally {
+            if (cryptoEngine != null) {
+                cryptoEngine.release();
+            }
         }
     }
 
-    private static PublicKey getPublicKey(String tenantDomain) throws ParseException, InvalidKeyException,
-            IdentityEventException, JOSEException {
+    /**
+     * Encrypts the event object while it is serialized and writes the encrypted event payload JSON to the generator.
+     * The serialized event is streamed straight into the cipher, hence no intermediate JSON string or tree of the
+     * event is created.
+     *
+     * @param generator    Generator of the enclosing Security Event Token.
+     * @param event        Event object to be encrypted.
+     * @param mapper       Object mapper used to serialize the event.
+     * @param tenantDomain Tenant domain.
+     * @throws IdentityEventException Error while encrypting the event.
+     * @throws IOException            Error while writing the encrypted event payload.
+     */
+    public static void writeEncryptedEventPayload(JsonGenerator generator, Object event, ObjectMapper mapper,
+                                                  String tenantDomain) throws IdentityEventException, IOException {
 
+        PayloadCryptoEngine cryptoEngine = null;
         try {
-            DefaultJWKSetCache orgJWKCache = getJWKCache(tenantDomain);
-            if (orgJWKCache.get() != null && !orgJWKCache.isExpired()) {
-                return convertJWKToPublicKey(orgJWKCache.get());
+            cryptoEngine = PayloadCryptoEngine.acquire();
+            // Resolve the keys first, so that nothing is encrypted for a tenant without a usable key.
+            PayloadEncryptionKeys payloadEncryptionKeys = getPayloadEncryptionKeys();
+            DataEncryptionKey dataEncryptionKey = getDataEncryptionKey(cryptoEngine, payloadEncryptionKeys,
+                    tenantDomain, getPublicKey(payloadEncryptionKeys, tenantDomain));
+
+            // Encrypt event payload with symmetric encryption.
+            Cipher symmetricEncryptionCipher = cryptoEngine.initSymmetricEncryption(dataEncryptionKey.getSecretKey());
+            PayloadOutputStream encryptedEventPayload = new PayloadOutputStream();
+            try (CipherOutputStream cipherOutputStream =
+                         new CipherOutputStream(encryptedEventPayload, symmetricEncryptionCipher)) {
+                mapper.writeValue(cipherOutputStream, event);
             }
-            synchronized (orgJWKCache) {
-                // Recheck cache for a valid key once the lock is obtained as another thread could have updated the
-                // cache while this was waiting.
-                if (orgJWKCache.get() != null && !orgJWKCache.isExpired()) {
-                    return convertJWKToPublicKey(orgJWKCache.get());
-                }
 
-                Resource keyResource = retrieveKeyFromAPI(tenantDomain);
-                JSONParser jsonParser = new JSONParser();
-                JSONObject responseJSON = (JSONObject) jsonParser.parse(keyResource.getContent());
-                if (responseJSON.get(CRYPTO_KEY_RESPONSE_JSON_KEY) == null) {
-                    throw new IdentityEventException("Event encryption public key endpoint has returned an " +
-                            "invalid response.");
-                }
-                byte[] publicKeyBytes =
-                        Base64.getDecoder().decode(responseJSON.get(CRYPTO_KEY_RESPONSE_JSON_KEY).toString());
-                RSAPublicKey rsaPublicKey = (RSAPublicKey) KeyFactory.getInstance("RSA")
-                        .generatePublic(new X509EncodedKeySpec(publicKeyBytes));
-                RSAKey compositePublicKeyJWK = new RSAKey(Base64URL.encode(rsaPublicKey.getModulus()),
-                        Base64URL.encode(rsaPublicKey.getPublicExponent()), null, null, null, null,
-                        null, null, null, null, KeyUse.ENCRYPTION, null,
-                        JWEAlgorithm.RSA_OAEP_256, null, null, null, null, null, null);
-                JWKSet jwkSet = new JWKSet(Collections.singletonList(compositePublicKeyJWK));
-                orgJWKCache.put(jwkSet);
-                return convertJWKToPublicKey(jwkSet);
+            generator.writeStartObject();
+            generator.writeFieldName(ENCRYPTED_PAYLOAD_JSON_KEY);
+            encryptedEventPayload.writeBinaryTo(generator);
+            generator.writeStringField(CRYPTO_KEY_JSON_KEY, dataEncryptionKey.getWrappedKey());
+            if (dataEncryptionKey.getEphemeralPublicKey() != null) {
+                // Without key agreement the key is wrapped with RSA, which consumers assume when no algorithm is sent.
+                generator.writeStringField(CRYPTO_KEY_ALGORITHM_JSON_KEY, dataEncryptionKey.getKeyWrapAlgorithm());
+                generator.writeStringField(EPHEMERAL_PUBLIC_KEY_JSON_KEY, dataEncryptionKey.getEphemeralPublicKey());
+            }
+            generator.writeStringField(IV_PARAMETER_SPEC_JSON_KEY,
+                    Base64.getEncoder().encodeToString(symmetricEncryptionCipher.getIV()));
+            generator.writeEndObject();
+        } catch (NoSuchAlgorithmException | InvalidKeyException | NoSuchPaddingException |
+                 InvalidAlgorithmParameterException | IllegalBlockSizeException | BadPaddingException e) {
+            throw new IdentityEventException("Error while encrypting event payload.", e);
+        } finally {
+            if (cryptoEngine != null) {
+                cryptoEngine.release();
             }
-        } catch (InvalidKeySpecException e) {
-            log.error("Unable to generate RSA public key from the retrieved key due to invalid key " +
-                    "spec for tenant : " + tenantDomain, e);
-            throw new IdentityEventException(
-                    "Unable to generate RSA public key from the retrieved key due to invalid key spec for tenant " +
-                            tenantDomain, e);
-        } catch (NoSuchAlgorithmException e) {
-            throw new IdentityEventException(
-                    "Unable to generate RSA public key from the retrieved key due to invalid algorithm.", e);
         }
     }
 
-    private static DefaultJWKSetCache getJWKCache(String tenantDomain) {
+    /**
+     * Returns the symmetric key to encrypt the next payload of the tenant, along with its wrapped form. Unless key
+     * reuse is enabled a new key is generated and wrapped for every payload. Otherwise the tenant's current key is
+     * reused until it reaches the configured age or number of events, or the tenant's public key changes.
+     */
+    private static DataEncryptionKey getDataEncryptionKey(PayloadCryptoEngine cryptoEngine,
+                                                          PayloadEncryptionKeys payloadEncryptionKeys,
+                                                          String tenantDomain, PublicKey publicKey)
+            throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException, IllegalBlockSizeException,
+            BadPaddingException {
+
+        WebSubAdapterConfiguration adapterConfiguration =
+                WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration();
+        if (!adapterConfiguration.isEncryptionKeyReuseEnabled()) {
+            return createDataEncryptionKey(cryptoEngine, publicKey, 0, 1);
+        }
+
+        BoundedCache<String, DataEncryptionKey> dataEncryptionKeys = payloadEncryptionKeys.getDataEncryptionKeys();
+        while (true) {
+            DataEncryptionKey currentKey = dataEncryptionKeys.get(tenantDomain);
+            if (currentKey != null && currentKey.tryAcquire(publicKey)) {
+                return currentKey;
+            }
+            // Rotate the key. When several threads rotate at once only one key is kept and the others retry with it.
+            DataEncryptionKey newKey = createDataEncryptionKey(cryptoEngine, publicKey,
+                    TimeUnit.SECONDS.toMillis(adapterConfiguration.getEncryptionKeyReuseMaxAge()),
+                    adapterConfiguration.getEncryptionKeyReuseMaxEvents());
+            boolean rotated = currentKey == null ? dataEncryptionKeys.putIfAbsent(tenantDomain, newKey) :
+                    dataEncryptionKeys.replace(tenantDomain, currentKey, newKey);
+            if (rotated && log.isDebugEnabled()) {
+                log.debug("Rotated the event payload data encryption key of tenant: " + tenantDomain);
+            }
+        }
+    }
+
+    private static DataEncryptionKey createDataEncryptionKey(PayloadCryptoEngine cryptoEngine, PublicKey publicKey,
+                                                             long maxAge, long maxUses)
+            throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException, IllegalBlockSizeException,
+            BadPaddingException {
+
+        SecretKey symmetricKey = cryptoEngine.generateKey();
+        return new DataEncryptionKey(symmetricKey, cryptoEngine.wrapKey(symmetricKey, publicKey), publicKey, maxAge,
+                maxUses);
+    }
+
+    /**
+     * Release the cryptographic resources held for encrypting event payloads. Invoked when the adapter is deactivated.
+     */
+    public static void clearCryptoEngines() {
+
+        PayloadCryptoEngine.clear();
+    }
+
+    /**
+     * Park a task until the encryption key of the tenant is resolved, if it is being retrieved. Events waiting for a
+     * key hence hold no publishing thread, and are published by the key waiter threads once the key has arrived or
+     * its retrieval has failed.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param task         Task encrypting an event of the tenant.
+     * @return True if the task was parked, false if the key is already resolved and the task can be run right away.
+     * @throws IdentityEventException If too many events of the tenant are waiting for the key.
+     */
+    public static boolean parkUntilEncryptionKeyResolved(String tenantDomain, Runnable task)
+            throws IdentityEventException {
+
+        return getPayloadEncryptionKeys().getPublicKeyCache().parkUntilResolved(tenantDomain, task);
+    }
+
+    private static PublicKey getPublicKey(PayloadEncryptionKeys payloadEncryptionKeys, String tenantDomain)
+            throws IdentityEventException {
 
-        return cacheMap.computeIfAbsent(tenantDomain, k ->
-                new DefaultJWKSetCache(WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration()
-                        .getEncryptionKeyCacheLifespan(), WebSubHubAdapterDataHolder.getInstance()
-                        .getAdapterConfiguration().getEncryptionKeyCacheLifespan(), TimeUnit.MINUTES));
+        return payloadEncryptionKeys.getPublicKeyCache().get(tenantDomain);
     }
 
-    private static PublicKey convertJWKToPublicKey(JWKSet jwkSet) throws JOSEException, IdentityEventException {
+    private static PayloadEncryptionKeys getPayloadEncryptionKeys() throws IdentityEventException {
 
-        JWK jwk = jwkSet.getKeys().get(0);
-        if (jwk instanceof RSAKey) {
-            RSAKey rsaKey = (RSAKey) jwk;
-            return rsaKey.toPublicKey();
-        } else {
-            log.error("Unable to encrypt event as the encryption public key is not in RSA format.");
-            throw new IdentityEventException("Event encryption public key is not in RSA format. " +
-                    "Unable to encrypt event.");
+        PayloadEncryptionKeys payloadEncryptionKeys =
+                WebSubHubAdapterDataHolder.getInstance().getPayloadEncryptionKeys();
+        if (payloadEncryptionKeys == null) {
+            throw new IdentityEventException("Event payload encryption keys are unavailable as the WebSub Hub " +
+                    "adapter is not active.");
         }
+        return payloadEncryptionKeys;
     }
 
-    private static Resource retrieveKeyFromAPI(String tenantDomain) throws IdentityEventException {
+    /**
+     * Retrieve the public key of the tenant from the encryption key endpoint on the key retrieval client, without
+     * blocking the caller.
+     */
+    static CompletableFuture<PublicKey> fetchPublicKey(String tenantDomain) {
 
-        // Retrieve key from the encryption key endpoint.
-        DefaultResourceRetriever resourceRetriever =
-                WebSubHubAdapterDataHolder.getInstance().getResourceRetriever();
-        String keyEndpointURLString = StringUtils.replace(
-                WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration().getEncryptionKeyEndpointUrl(),
-                ENCRYPTION_KEY_ENDPOINT_URL_TENANT_PLACEHOLDER, tenantDomain);
+        CompletableFuture<PublicKey> publicKeyFuture = new CompletableFuture<>();
+        String keyEndpointURLString;
+        try {
+            // The tenant domain is encoded, as it becomes a part of the request URL.
+            keyEndpointURLString = StringUtils.replace(
+                    WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration().getEncryptionKeyEndpointUrl(),
+                    ENCRYPTION_KEY_ENDPOINT_URL_TENANT_PLACEHOLDER,
+                    URLEncoder.encode(tenantDomain, StandardCharsets.UTF_8.name()));
+        } catch (UnsupportedEncodingException e) {
+            publicKeyFuture.completeExceptionally(
+                    new IdentityEventException("Unable to encode the tenant domain: " + tenantDomain, e));
+            return publicKeyFuture;
+        }
         if (keyEndpointURLString == null) {
-            throw new IdentityEventException("Event encryption public key endpoint URL is not configured.");
+            publicKeyFuture.completeExceptionally(
+                    new IdentityEventException("Event encryption public key endpoint URL is not configured."));
+            return publicKeyFuture;
         }
+
         try {
-            URL keyEndpointURL = new URL(keyEndpointURLString);
-            return resourceRetriever.retrieveResource(keyEndpointURL);
-        } catch (IOException e) {
-            log.error(String.format(ERROR_RETRIEVING_ENCRYPTION_PUBLIC_KEY.getDescription(), keyEndpointURLString), e);
-            throw new IdentityEventException(ERROR_RETRIEVING_ENCRYPTION_PUBLIC_KEY.getCode(),
-                    ERROR_RETRIEVING_ENCRYPTION_PUBLIC_KEY.getMessage());
+            HttpGet request = new HttpGet(URI.create(keyEndpointURLString));
+            CloseableHttpAsyncClient client =
+                    WebSubHubAdapterDataHolder.getInstance().getClientManager().getKeyRetrievalClient();
+            client.execute(request, new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse response) {
+
+                    try {
+                        int responseCode = response.getStatusLine().getStatusCode();
+                        if (responseCode != HttpStatus.SC_OK) {
+                            throw new IOException("Encryption key endpoint responded with status code: " +
+                                    responseCode);
+                        }
+                        String content = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+                        publicKeyFuture.complete(decodePublicKey(content, tenantDomain));
+                    } catch (IOException e) {
+                        publicKeyFuture.completeExceptionally(handleKeyRetrievalFailure(keyEndpointURLString, e));
+                    } catch (IdentityEventException e) {
+                        publicKeyFuture.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                public void failed(Exception ex) {
+
+                    publicKeyFuture.completeExceptionally(handleKeyRetrievalFailure(keyEndpointURLString, ex));
+                }
+
+                @Override
+                public void cancelled() {
+
+                    publicKeyFuture.completeExceptionally(handleKeyRetrievalFailure(keyEndpointURLString,
+                            new IOException("Encryption key retrieval was cancelled.")));
+                }
+            });
+        } catch (WebSubAdapterException | IllegalArgumentException e) {
+            publicKeyFuture.completeExceptionally(handleKeyRetrievalFailure(keyEndpointURLString, e));
+        }
+        return publicKeyFuture;
+    }
+
+    static PublicKey decodePublicKey(String keyResponse, String tenantDomain) throws IdentityEventException {
+
+        try {
+            JSONParser jsonParser = new JSONParser();
+            JSONObject responseJSON = (JSONObject) jsonParser.parse(keyResponse);
+            if (responseJSON.get(CRYPTO_KEY_RESPONSE_JSON_KEY) == null) {
+                throw new IdentityEventException("Event encryption public key endpoint has returned an " +
+                        "invalid response.");
+            }
+            byte[] publicKeyBytes =
+                    Base64.getDecoder().decode(responseJSON.get(CRYPTO_KEY_RESPONSE_JSON_KEY).toString());
+            // The decoded key is cached as is, so that a cache hit needs no further key conversion.
+            return generatePublicKey(new X509EncodedKeySpec(publicKeyBytes), tenantDomain);
+        } catch (ParseException | ClassCastException | IllegalArgumentException e) {
+            throw new IdentityEventException("Event encryption public key endpoint has returned an " +
+                    "invalid response.", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IdentityEventException(
+                    "Unable to generate the public key from the retrieved key due to invalid algorithm.", e);
         }
     }
+
+    /**
+     * Generate the tenant's public key from the retrieved key, which is either an RSA key or an elliptic curve key on
+     * the P-256 curve. The key type decides how data encryption keys of the tenant are wrapped.
+     */
+    private static PublicKey generatePublicKey(X509EncodedKeySpec keySpec, String tenantDomain)
+            throws IdentityEventException, NoSuchAlgorithmException {
+
+        try {
+            return KeyFactory.getInstance(ASYMMETRIC_ENCRYPTION_ALGORITHM).generatePublic(keySpec);
+        } catch (InvalidKeySpecException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Retrieved key of tenant: " + tenantDomain + " is not an RSA key. Trying an elliptic " +
+                        "curve key.");
+            }
+        }
+        try {
+            PublicKey publicKey = KeyFactory.getInstance(EC_KEY_ALGORITHM).generatePublic(keySpec);
+            if (!isP256Curve(((ECPublicKey) publicKey).getParams())) {
+                throw new IdentityEventException("Unsupported elliptic curve of the event encryption public key " +
+                        "of tenant " + tenantDomain + ". Only P-256 keys are supported.");
+            }
+            return publicKey;
+        } catch (InvalidKeySpecException e) {
+            log.error("Unable to generate public key from the retrieved key due to invalid key " +
+                    "spec for tenant : " + tenantDomain, e);
+            throw new IdentityEventException(
+                    "Unable to generate public key from the retrieved key due to invalid key spec for tenant " +
+                            tenantDomain, e);
+        }
+    }
+
+    /**
+     * Check whether the domain parameters of an elliptic curve key are the ones of the P-256 curve. Comparing the
+     * field size alone would accept any other 256-bit curve, such as secp256k1 or brainpoolP256r1.
+     */
+    static boolean isP256Curve(ECParameterSpec params) throws NoSuchAlgorithmException {
+
+        ECParameterSpec p256;
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance(EC_KEY_ALGORITHM);
+            parameters.init(new ECGenParameterSpec(EC_KEY_CURVE));
+            p256 = parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (InvalidParameterSpecException e) {
+            throw new NoSuchAlgorithmException("Elliptic curve " + EC_KEY_CURVE + " is not available.", e);
+        }
+        return p256.getCurve().equals(params.getCurve()) && p256.getGenerator().equals(params.getGenerator()) &&
+                p256.getOrder().equals(params.getOrder()) && p256.getCofactor() == params.getCofactor();
+    }
+
+    private static IdentityEventException handleKeyRetrievalFailure(String keyEndpointURLString, Exception e) {
+
+        log.error(String.format(ERROR_RETRIEVING_ENCRYPTION_PUBLIC_KEY.getDescription(), keyEndpointURLString), e);
+        return new IdentityEventException(ERROR_RETRIEVING_ENCRYPTION_PUBLIC_KEY.getCode(),
+                ERROR_RETRIEVING_ENCRYPTION_PUBLIC_KEY.getMessage());
+    }
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import com.nimbusds.jose.EncryptionMethod;
+
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.KeyGenerator;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ASYMMETRIC_ENCRYPTION_ALGORITHM;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.GCM_IV_LENGTH;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.GCM_TAG_LENGTH;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.SYMMETRIC_ENCRYPTION_ALGORITHM;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.SYMMETRIC_ENCRYPTION_ALGORITHM_WITH_MODE;
+
+/**
+ * Cryptographic primitives used to encrypt event payloads, used by one thread at a time. Looking up a provider for
+ * every cipher and sharing one key generator and random source across publishing threads made the threads contend on
+ * the provider tables and on the lock of the shared random source. Each encrypting thread hence borrows an engine with
+ * its own ciphers, key generator and random source, which are created once and re-initialized for every payload.
+ * <p>
+ * Engines are kept in a bounded pool rather than in thread locals, as payloads are encrypted on container threads
+ * that outlive the bundle, and would otherwise pin its class loader across redeployments. An engine is borrowed with
+ * {@link #acquire()} and must be given back with {@link #release()} once the payload is encrypted. The cipher returned
+ * by {@link #initSymmetricEncryption(SecretKey)} is only valid until the engine is released.
+ */
+final class PayloadCryptoEngine {
+
+    // Enough idle engines for the publishing threads of a busy node. Engines beyond it are dropped when released.
+    private static final int MAX_POOLED_ENGINES = Runtime.getRuntime().availableProcessors() * 4;
+    private static final BlockingQueue<PayloadCryptoEngine> ENGINES = new ArrayBlockingQueue<>(MAX_POOLED_ENGINES);
+
+    private final SecureRandom secureRandom;
+    private final KeyGenerator keyGenerator;
+    private final Cipher symmetricCipher;
+    private final Cipher asymmetricCipher;
+    private final byte[] iv = new byte[GCM_IV_LENGTH];
+    private EcdhKeyWrapper ecdhKeyWrapper;
+
+    private PayloadCryptoEngine() throws NoSuchAlgorithmException, NoSuchPaddingException {
+
+        this.secureRandom = new SecureRandom();
+        this.keyGenerator = KeyGenerator.getInstance(SYMMETRIC_ENCRYPTION_ALGORITHM);
+        this.keyGenerator.init(EncryptionMethod.A128GCM.cekBitLength(), secureRandom);
+        this.symmetricCipher = Cipher.getInstance(SYMMETRIC_ENCRYPTION_ALGORITHM_WITH_MODE);
+        this.asymmetricCipher = Cipher.getInstance(ASYMMETRIC_ENCRYPTION_ALGORITHM);
+    }
+
+    /**
+     * Borrow an idle engine from the pool, creating a new one if none is idle.
+     *
+     * @return Crypto engine owned by the calling thread until it is released.
+     * @throws NoSuchAlgorithmException If an encryption algorithm is not available.
+     * @throws NoSuchPaddingException   If an encryption padding is not available.
+     */
+    static PayloadCryptoEngine acquire() throws NoSuchAlgorithmException, NoSuchPaddingException {
+
+        PayloadCryptoEngine engine = ENGINES.poll();
+        return engine != null ? engine : new PayloadCryptoEngine();
+    }
+
+    /**
+     * Give the engine back to the pool. The engine must not be used by the calling thread afterwards.
+     *
+     * @return True if the engine was pooled, false if the pool is full and the engine is dropped.
+     */
+    boolean release() {
+
+        return ENGINES.offer(this);
+    }
+
+    /**
+     * Drop all idle engines, so that none of them outlives the adapter.
+     */
+    static void clear() {
+
+        ENGINES.clear();
+    }
+
+    /**
+     * Generate a new symmetric key to encrypt event payloads.
+     *
+     * @return Symmetric key.
+     */
+    SecretKey generateKey() {
+
+        return keyGenerator.generateKey();
+    }
+
+    /**
+     * Wrap the symmetric key for the public key of the tenant. RSA keys encrypt the symmetric key directly, while
+     * elliptic curve keys wrap it with ECDH-ES+A128KW.
+     *
+     * @param symmetricKey Symmetric key.
+     * @param publicKey    Public key of the tenant.
+     * @return Wrapped symmetric key.
+     */
+    WrappedKey wrapKey(SecretKey symmetricKey, PublicKey publicKey) throws NoSuchAlgorithmException,
+            NoSuchPaddingException, InvalidKeyException, IllegalBlockSizeException, BadPaddingException {
+
+        if (publicKey instanceof ECPublicKey) {
+            if (ecdhKeyWrapper == null) {
+                // Created on first use, as most deployments only serve RSA keys.
+                ecdhKeyWrapper = new EcdhKeyWrapper();
+            }
+            return ecdhKeyWrapper.wrap(symmetricKey, (ECPublicKey) publicKey, secureRandom);
+        }
+        asymmetricCipher.init(Cipher.ENCRYPT_MODE, publicKey, secureRandom);
+        return new WrappedKey(asymmetricCipher.doFinal(symmetricKey.getEncoded()), ASYMMETRIC_ENCRYPTION_ALGORITHM,
+                null);
+    }
+
+    /**
+     * Initialize the symmetric cipher to encrypt one payload. A fresh random IV is used for every payload, as the
+     * same symmetric key can encrypt several payloads.
+     *
+     * @param symmetricKey Symmetric key.
+     * @return Cipher of this engine, ready to encrypt one payload.
+     */
+    Cipher initSymmetricEncryption(SecretKey symmetricKey) throws InvalidKeyException,
+            InvalidAlgorithmParameterException {
+
+        secureRandom.nextBytes(iv);
+        symmetricCipher.init(Cipher.ENCRYPT_MODE, symmetricKey, new GCMParameterSpec(GCM_TAG_LENGTH, iv),
+                secureRandom);
+        return symmetricCipher;
+    }
+
+    /**
+     * Symmetric key wrapped for the public key of a tenant.
+     */
+    static final class WrappedKey {
+
+        private final byte[] encryptedKey;
+        private final String algorithm;
+        private final PublicKey ephemeralPublicKey;
+
+        WrappedKey(byte[] encryptedKey, String algorithm, PublicKey ephemeralPublicKey) {
+
+            this.encryptedKey = encryptedKey;
+            this.algorithm = algorithm;
+            this.ephemeralPublicKey = ephemeralPublicKey;
+        }
+
+        byte[] getEncryptedKey() {
+
+            return encryptedKey;
+        }
+
+        String getAlgorithm() {
+
+            return algorithm;
+        }
+
+        /**
+         * Returns the ephemeral public key the key encryption key was agreed with, if any.
+         *
+         * @return Ephemeral public key, or null for key wrap algorithms without key agreement.
+         */
+        PublicKey getEphemeralPublicKey() {
+
+            return ephemeralPublicKey;
+        }
+    }
+}
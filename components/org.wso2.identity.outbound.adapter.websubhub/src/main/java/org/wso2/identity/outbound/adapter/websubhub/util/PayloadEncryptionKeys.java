@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration;
+
+import java.security.PublicKey;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.KEY_WAITER_COUNT;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.KEY_WAITER_THREAD_NAME_PREFIX;
+
+/**
+ * Caches of the tenant public keys and of the reused data encryption keys, along with the key waiter threads which
+ * run the work parked while a key is retrieved. They are built from the adapter configuration when the adapter is
+ * activated and torn down when it is deactivated, so that the key waiter threads do not outlive the adapter, and a
+ * reactivated adapter retrieves the keys again with its new configuration.
+ */
+public class PayloadEncryptionKeys {
+
+    private static final Log log = LogFactory.getLog(PayloadEncryptionKeys.class);
+
+    private final ExecutorService keyWaiters;
+    private final TenantKeyCache<PublicKey> publicKeyCache;
+    private final BoundedCache<String, DataEncryptionKey> dataEncryptionKeys;
+
+    /**
+     * Creates the payload encryption keys of the adapter, retrieving the public keys from the configured encryption
+     * key endpoint.
+     *
+     * @param adapterConfiguration Adapter configuration.
+     */
+    public PayloadEncryptionKeys(WebSubAdapterConfiguration adapterConfiguration) {
+
+        this(adapterConfiguration, EventPayloadCryptographyUtils::fetchPublicKey);
+    }
+
+    PayloadEncryptionKeys(WebSubAdapterConfiguration adapterConfiguration,
+                          TenantKeyCache.AsyncKeyLoader<PublicKey> publicKeyLoader) {
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.keyWaiters = Executors.newFixedThreadPool(KEY_WAITER_COUNT, runnable -> {
+            Thread thread = new Thread(runnable, KEY_WAITER_THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.publicKeyCache = new TenantKeyCache<>(publicKeyLoader, keyWaiters,
+                TimeUnit.MINUTES.toMillis(adapterConfiguration.getEncryptionKeyCacheLifespan()),
+                adapterConfiguration.getEncryptionKeyCacheRefreshAhead() / 100.0,
+                adapterConfiguration.getEncryptionKeyCacheJitter() / 100.0,
+                adapterConfiguration.getEncryptionKeyCacheMaxSize(),
+                TimeUnit.SECONDS.toMillis(adapterConfiguration.getEncryptionKeyRetrievalFailureBackoff()),
+                adapterConfiguration.getEncryptionKeyWaitQueueCapacity());
+        this.dataEncryptionKeys = new BoundedCache<>(adapterConfiguration.getEncryptionKeyCacheMaxSize());
+    }
+
+    /**
+     * Returns the cache of the tenant public keys.
+     *
+     * @return Public key cache.
+     */
+    TenantKeyCache<PublicKey> getPublicKeyCache() {
+
+        return publicKeyCache;
+    }
+
+    /**
+     * Returns the data encryption keys reused per tenant.
+     *
+     * @return Data encryption keys keyed by tenant domain.
+     */
+    BoundedCache<String, DataEncryptionKey> getDataEncryptionKeys() {
+
+        return dataEncryptionKeys;
+    }
+
+    /**
+     * Stop the key waiter threads. Work still parked for a key, or waiting for a key waiter thread, is dropped.
+     */
+    public void shutdown() {
+
+        int dropped = keyWaiters.shutdownNow().size() + publicKeyCache.dropParked();
+        if (dropped > 0) {
+            log.warn("Dropped " + dropped + " events waiting for an encryption key while shutting down the " +
+                    "WebSub Hub adapter.");
+        }
+    }
+}
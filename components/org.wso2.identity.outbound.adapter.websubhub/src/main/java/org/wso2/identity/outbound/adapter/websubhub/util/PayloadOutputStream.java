@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Byte array output stream which hands its buffer over to the consumer without the copy made by
+ * {@link ByteArrayOutputStream#toByteArray()}.
+ */
+class PayloadOutputStream extends ByteArrayOutputStream {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    PayloadOutputStream() {
+
+        super(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Write the written bytes to the generator as a Base64 encoded value.
+     *
+     * @param generator JSON generator.
+     * @throws IOException on errors while writing to the generator.
+     */
+    synchronized void writeBinaryTo(JsonGenerator generator) throws IOException {
+
+        generator.writeBinary(buf, 0, count);
+    }
+
+    /**
+     * Create an HTTP entity backed by the written bytes.
+     *
+     * @param contentType Content type of the entity.
+     * @return HTTP entity.
+     */
+    synchronized ByteArrayEntity toEntity(ContentType contentType) {
+
+        return new ByteArrayEntity(buf, 0, count, contentType);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.DEFAULT_CIRCUIT_BREAKER_MINIMUM_CALLS;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.DEFAULT_PUBLISH_RETRY_MAX_BUDGET;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.PUBLISH_RETRY_THREAD_NAME;
+
+/**
+ * Retry policy, circuit breakers and flow controls guarding the publish requests sent to the WebSub Hub routes. They
+ * are built from the adapter configuration when the adapter is activated and torn down when it is deactivated, so
+ * that neither the retry scheduler thread nor the state of the routes outlives the adapter, and a reactivated adapter
+ * picks up its new configuration.
+ */
+public class PublishResilience {
+
+    private static final Log log = LogFactory.getLog(PublishResilience.class);
+
+    private final WebSubAdapterConfiguration adapterConfiguration;
+    private final ScheduledExecutorService retryScheduler;
+    private final PublishRetryPolicy retryPolicy;
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RouteFlowControl> routeFlowControls = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the publish resilience of the adapter. The retry scheduler is only started if publish retries are
+     * enabled.
+     *
+     * @param adapterConfiguration Adapter configuration.
+     */
+    public PublishResilience(WebSubAdapterConfiguration adapterConfiguration) {
+
+        this.adapterConfiguration = adapterConfiguration;
+        if (adapterConfiguration.isPublishRetryEnabled()) {
+            this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, PUBLISH_RETRY_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.retryPolicy = new PublishRetryPolicy(retryScheduler,
+                    adapterConfiguration.getPublishRetryMaxAttempts(),
+                    adapterConfiguration.getPublishRetryInitialBackoff(),
+                    adapterConfiguration.getPublishRetryMaxBackoff(),
+                    adapterConfiguration.getPublishRetryDeadline(),
+                    adapterConfiguration.getPublishRetryBudgetRatio() / 100.0,
+                    DEFAULT_PUBLISH_RETRY_MAX_BUDGET);
+        } else {
+            this.retryScheduler = null;
+            this.retryPolicy = null;
+        }
+    }
+
+    /**
+     * Returns the retry policy of publish requests.
+     *
+     * @return Retry policy, null if publish retries are disabled.
+     */
+    PublishRetryPolicy getRetryPolicy() {
+
+        return retryPolicy;
+    }
+
+    /**
+     * Returns the circuit breaker of a route, creating it on first use.
+     *
+     * @param route Hub route.
+     * @return Circuit breaker of the route, null if circuit breakers are disabled.
+     */
+    CircuitBreaker getCircuitBreaker(String route) {
+
+        if (!adapterConfiguration.isCircuitBreakerEnabled()) {
+            return null;
+        }
+        return circuitBreakers.computeIfAbsent(route,
+                key -> new CircuitBreaker(key, adapterConfiguration.getCircuitBreakerWindowSize(),
+                        DEFAULT_CIRCUIT_BREAKER_MINIMUM_CALLS,
+                        adapterConfiguration.getCircuitBreakerFailureRateThreshold(),
+                        adapterConfiguration.getCircuitBreakerSlowCallRateThreshold(),
+                        adapterConfiguration.getCircuitBreakerSlowCallDuration(),
+                        adapterConfiguration.getCircuitBreakerOpenDuration(),
+                        adapterConfiguration.getCircuitBreakerProbeCount()));
+    }
+
+    /**
+     * Returns the flow control of a route, creating it on first use.
+     *
+     * @param route Hub route.
+     * @return Flow control of the route, null if flow control is disabled.
+     */
+    RouteFlowControl getRouteFlowControl(String route) {
+
+        if (!adapterConfiguration.isFlowControlEnabled()) {
+            return null;
+        }
+        return routeFlowControls.computeIfAbsent(route,
+                key -> new RouteFlowControl(key, adapterConfiguration.getFlowControlDefaultPause(),
+                        adapterConfiguration.getFlowControlMaxPause()));
+    }
+
+    /**
+     * Returns the circuit breakers of the routes publish requests were sent to, keyed by route.
+     *
+     * @return Circuit breakers per route.
+     */
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+
+        return Collections.unmodifiableMap(circuitBreakers);
+    }
+
+    /**
+     * Returns the flow controls of the routes publish requests were sent to, keyed by route.
+     *
+     * @return Flow controls per route.
+     */
+    public Map<String, RouteFlowControl> getRouteFlowControls() {
+
+        return Collections.unmodifiableMap(routeFlowControls);
+    }
+
+    /**
+     * Stop the retry scheduler and forget the state of the routes. Retries which are still waiting for their turn
+     * are dropped.
+     */
+    public void shutdown() {
+
+        if (retryScheduler != null) {
+            List<Runnable> droppedRetries = retryScheduler.shutdownNow();
+            if (!droppedRetries.isEmpty()) {
+                log.warn("Dropped " + droppedRetries.size() + " scheduled publish retries while shutting down the " +
+                        "WebSub Hub adapter.");
+            }
+        }
+        circuitBreakers.clear();
+        routeFlowControls.clear();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.apache.http.ConnectionClosedException;
+import org.apache.http.HttpStatus;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.conn.ConnectTimeoutException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.security.SecureRandom;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether and when a failed publish request is sent again. Only failures the hub may recover from are
+ * retried: connection failures, timeouts, server errors and throttled requests. Other client errors would fail
+ * again and are never retried.
+ * <p>
+ * Retries are delayed by an exponential backoff with full jitter, and stop after the maximum number of attempts or
+ * once the deadline since the first attempt has passed. A retry budget caps the retries to a fraction of the
+ * requests sent, so that the retries of a burst of failures cannot swamp a hub which is recovering.
+ */
+public class PublishRetryPolicy {
+
+    private static final long TOKEN = 1000;
+
+    private final SecureRandom random = new SecureRandom();
+    private final ScheduledExecutorService scheduler;
+    private final int maxAttempts;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private final long deadline;
+    private final long budgetDeposit;
+    private final long maxBudget;
+    private final AtomicLong budget;
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong budgetExhaustedCount = new AtomicLong();
+
+    /**
+     * Creates a publish retry policy.
+     *
+     * @param scheduler      Scheduler sending the retries.
+     * @param maxAttempts    Maximum number of attempts of a request, including the first one.
+     * @param initialBackoff Upper bound of the delay before the first retry in milliseconds.
+     * @param maxBackoff     Upper bound of the delay before any retry in milliseconds.
+     * @param deadline       Time in milliseconds since the first attempt after which a request is not retried.
+     * @param budgetRatio    Retries allowed per request sent.
+     * @param maxBudget      Maximum number of retries the budget can save up.
+     */
+    PublishRetryPolicy(ScheduledExecutorService scheduler, int maxAttempts, long initialBackoff, long maxBackoff,
+                       long deadline, double budgetRatio, int maxBudget) {
+
+        this.scheduler = scheduler;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.deadline = deadline;
+        this.budgetDeposit = (long) (budgetRatio * TOKEN);
+        this.maxBudget = maxBudget * TOKEN;
+        this.budget = new AtomicLong(this.maxBudget);
+    }
+
+    /**
+     * Whether a response with the given status code is worth retrying.
+     *
+     * @param statusCode HTTP status code of the hub response.
+     * @return true for server errors, request timeouts and throttled requests.
+     */
+    public static boolean isRetryable(int statusCode) {
+
+        return statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR || statusCode == HttpStatus.SC_REQUEST_TIMEOUT ||
+                statusCode == WebSubHubAdapterConstants.HTTP_STATUS_TOO_MANY_REQUESTS;
+    }
+
+    /**
+     * Whether a request failing with the given exception is worth retrying.
+     *
+     * @param exception Exception the request failed with.
+     * @return true for connection failures and timeouts.
+     */
+    public static boolean isRetryable(Exception exception) {
+
+        return exception instanceof ConnectException || exception instanceof ConnectTimeoutException ||
+                exception instanceof SocketTimeoutException || exception instanceof NoHttpResponseException ||
+                exception instanceof ConnectionClosedException;
+    }
+
+    /**
+     * Record a request sent for the first time, which adds to the retry budget.
+     */
+    void onFirstAttempt() {
+
+        budget.getAndUpdate(balance -> Math.min(maxBudget, balance + budgetDeposit));
+    }
+
+    /**
+     * Schedule the next attempt of a failed request, if the policy allows it.
+     *
+     * @param attempt          Number of the attempt which failed, starting from 1.
+     * @param firstAttemptTime Time of the first attempt in milliseconds.
+     * @param retry            Task sending the next attempt.
+     * @return true if the retry was scheduled, false if the request must be given up.
+     */
+    boolean scheduleRetry(int attempt, long firstAttemptTime, Runnable retry) {
+
+        return scheduleRetry(attempt, firstAttemptTime, 0, retry);
+    }
+
+    /**
+     * Schedule the next attempt of a failed request no earlier than the given delay, if the policy allows it.
+     *
+     * @param attempt          Number of the attempt which failed, starting from 1.
+     * @param firstAttemptTime Time of the first attempt in milliseconds.
+     * @param minDelay         Minimum delay of the retry in milliseconds, such as a pause requested by the hub.
+     * @param retry            Task sending the next attempt.
+     * @return true if the retry was scheduled, false if the request must be given up.
+     */
+    boolean scheduleRetry(int attempt, long firstAttemptTime, long minDelay, Runnable retry) {
+
+        if (attempt >= maxAttempts) {
+            return false;
+        }
+        long delay = Math.max(backoff(attempt), minDelay);
+        if (System.currentTimeMillis() + delay - firstAttemptTime > deadline) {
+            return false;
+        }
+        if (!withdrawBudget()) {
+            budgetExhaustedCount.incrementAndGet();
+            return false;
+        }
+        try {
+            scheduler.schedule(retry, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+        retryCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Returns the number of retries scheduled.
+     *
+     * @return retry count.
+     */
+    long getRetryCount() {
+
+        return retryCount.get();
+    }
+
+    /**
+     * Returns the number of retries given up as the retry budget was exhausted.
+     *
+     * @return budget exhausted count.
+     */
+    long getBudgetExhaustedCount() {
+
+        return budgetExhaustedCount.get();
+    }
+
+    private long backoff(int attempt) {
+
+        // Full jitter spreads the retries of requests which failed together over the whole backoff window.
+        long ceiling = initialBackoff << Math.min(attempt - 1, 30);
+        if (ceiling <= 0 || ceiling > maxBackoff) {
+            ceiling = maxBackoff;
+        }
+        return (long) (random.nextDouble() * (ceiling + 1));
+    }
+
+    private boolean withdrawBudget() {
+
+        while (true) {
+            long balance = budget.get();
+            if (balance < TOKEN) {
+                return false;
+            }
+            if (budget.compareAndSet(balance, balance - TOKEN)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Flow control of a WebSub Hub route, pausing publishing to the route while the hub is shedding load. The hub
+ * throttles with 429 and 503 responses, optionally telling through Retry-After how long to back off. Without a
+ * Retry-After, the pause starts at a default and doubles with every consecutive throttled response, up to a maximum
+ * which also caps the pauses requested by the hub.
+ * <p>
+ * Publishers hold their events while the route is paused instead of sending them, so that the hub can recover
+ * rather than having its overload amplified by the adapter.
+ */
+public class RouteFlowControl {
+
+    private static final Log log = LogFactory.getLog(RouteFlowControl.class);
+    private static final int MAX_PAUSE_DOUBLINGS = 16;
+
+    private final String route;
+    private final long defaultPause;
+    private final long maxPause;
+    private final LongSupplier clock;
+    private final AtomicLong throttledCount = new AtomicLong();
+    private final AtomicInteger consecutiveThrottles = new AtomicInteger();
+    private volatile long pausedUntil;
+
+    /**
+     * Creates the flow control of a route.
+     *
+     * @param route        Route controlled.
+     * @param defaultPause Pause in milliseconds after a throttled response without a Retry-After.
+     * @param maxPause     Maximum pause in milliseconds.
+     */
+    RouteFlowControl(String route, long defaultPause, long maxPause) {
+
+        this(route, defaultPause, maxPause, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates the flow control of a route reading the time from the given clock.
+     *
+     * @param route        Route controlled.
+     * @param defaultPause Pause in milliseconds after a throttled response without a Retry-After.
+     * @param maxPause     Maximum pause in milliseconds.
+     * @param clock        Source of the current time in milliseconds.
+     */
+    RouteFlowControl(String route, long defaultPause, long maxPause, LongSupplier clock) {
+
+        this.route = route;
+        this.defaultPause = defaultPause;
+        this.maxPause = maxPause;
+        this.clock = clock;
+    }
+
+    /**
+     * Pause the route after a throttled response.
+     *
+     * @param retryAfter Delay in milliseconds requested by the hub, or a negative value if none was given.
+     */
+    synchronized void onThrottled(long retryAfter) {
+
+        long pause = retryAfter >= 0 ? retryAfter :
+                defaultPause << Math.min(consecutiveThrottles.getAndIncrement(), MAX_PAUSE_DOUBLINGS);
+        pause = Math.min(pause, maxPause);
+        throttledCount.incrementAndGet();
+        long now = clock.getAsLong();
+        if (now + pause > pausedUntil) {
+            if (pausedUntil <= now) {
+                log.warn("WebSub Hub route: " + route + " is throttling publish requests. Publishing to the route " +
+                        "is paused for " + pause + " ms.");
+            }
+            pausedUntil = now + pause;
+        }
+    }
+
+    /**
+     * Record a response which was not throttled.
+     */
+    void onAccepted() {
+
+        if (consecutiveThrottles.get() != 0) {
+            consecutiveThrottles.set(0);
+        }
+    }
+
+    /**
+     * Returns the time left until the route is resumed.
+     *
+     * @return remaining pause in milliseconds, 0 if the route is not paused.
+     */
+    public long getRemainingPause() {
+
+        return Math.max(0, pausedUntil - clock.getAsLong());
+    }
+
+    public String getRoute() {
+
+        return route;
+    }
+
+    /**
+     * Returns the number of throttled responses received from the route.
+     *
+     * @return throttled response count.
+     */
+    public long getThrottledCount() {
+
+        return throttledCount.get();
+    }
+}
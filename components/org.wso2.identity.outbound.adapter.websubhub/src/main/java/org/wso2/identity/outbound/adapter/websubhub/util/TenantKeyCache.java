@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.event.IdentityEventException;
+
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Per tenant cache of encryption keys which refreshes an entry in the background before it expires, while the
+ * current key keeps being served. Only one fetch per tenant is in flight at a time, and the expiry of every entry is
+ * jittered so that entries loaded together do not expire together. The number of cached tenants is capped, evicting
+ * the keys of rarely publishing tenants first.
+ * <p>
+ * Keys are fetched by an asynchronous loader, hence no thread is held while a key is fetched. A failed fetch is
+ * cached for a backoff window, during which lookups of the tenant fail without contacting the key endpoint. Work
+ * depending on a key which is being fetched can be parked in a bounded per tenant queue, and is handed over to the
+ * executor once the fetch has completed.
+ *
+ * @param <V> Type of the cached key.
+ */
+class TenantKeyCache<V> {
+
+    private static final Log log = LogFactory.getLog(TenantKeyCache.class);
+    private static final long MIN_REFRESH_RETRY_INTERVAL = 1000;
+
+    private final BoundedCache<String, Entry<V>> entries;
+    private final ConcurrentMap<String, CompletableFuture<V>> loads = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Queue<Runnable>> parked = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final AsyncKeyLoader<V> loader;
+    private final Executor executor;
+    private final long lifespan;
+    private final double refreshAheadRatio;
+    private final double jitterRatio;
+    private final long failureBackoff;
+    private final int parkedCapacity;
+
+    /**
+     * Creates a tenant key cache.
+     *
+     * @param loader            Loader fetching the key of a tenant.
+     * @param executor          Executor running the work parked while a key was fetched.
+     * @param lifespan          Lifespan of an entry in milliseconds.
+     * @param refreshAheadRatio Fraction of the lifespan after which the entry is refreshed in the background.
+     * @param jitterRatio       Maximum fraction of the lifespan randomly cut from an entry's lifespan.
+     * @param maximumSize       Maximum number of tenants whose keys are cached.
+     * @param failureBackoff    Time in milliseconds a failed fetch is cached before the key is fetched again.
+     * @param parkedCapacity    Maximum number of tasks parked per tenant while its key is fetched.
+     */
+    TenantKeyCache(AsyncKeyLoader<V> loader, Executor executor, long lifespan, double refreshAheadRatio,
+                   double jitterRatio, int maximumSize, long failureBackoff, int parkedCapacity) {
+
+        this.entries = new BoundedCache<>(maximumSize);
+        this.loader = loader;
+        this.executor = executor;
+        this.lifespan = lifespan;
+        this.refreshAheadRatio = refreshAheadRatio;
+        this.jitterRatio = jitterRatio;
+        this.failureBackoff = failureBackoff;
+        this.parkedCapacity = parkedCapacity;
+    }
+
+    /**
+     * Returns the key of the tenant. A cached key is returned without waiting, triggering a background refresh
+     * when it is due. The caller only waits when the tenant has no valid key, in which case it joins the single
+     * fetch in flight for the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Key of the tenant.
+     * @throws IdentityEventException If the key could not be loaded, or its last fetch failed within the backoff.
+     */
+    V get(String tenantDomain) throws IdentityEventException {
+
+        Entry<V> entry = getValidEntry(tenantDomain);
+        if (entry != null) {
+            return entry.getValue();
+        }
+
+        try {
+            return load(tenantDomain).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdentityEventException("Interrupted while loading the encryption key of tenant: " +
+                    tenantDomain, e);
+        } catch (ExecutionException e) {
+            throw toIdentityEventException(tenantDomain, e.getCause());
+        }
+    }
+
+    /**
+     * Park a task until the key of the tenant is resolved, unless it already is. A key is resolved when it is
+     * cached, or when its last fetch failed within the backoff window.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param task         Task using the key.
+     * @return True if the task was parked and will be run by the executor once the key is resolved, false if the
+     * key is already resolved and the caller can use it right away.
+     * @throws IdentityEventException If the parked task queue of the tenant is full.
+     */
+    boolean parkUntilResolved(String tenantDomain, Runnable task) throws IdentityEventException {
+
+        if (getValidEntry(tenantDomain) != null) {
+            return false;
+        }
+
+        boolean[] accepted = new boolean[1];
+        parked.compute(tenantDomain, (key, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+            }
+            if (queue.size() < parkedCapacity) {
+                queue.add(task);
+                accepted[0] = true;
+            }
+            return queue;
+        });
+        if (!accepted[0]) {
+            throw new IdentityEventException("Too many events are waiting for the encryption key of tenant: " +
+                    tenantDomain);
+        }
+        // The key could have been resolved while the task was being parked.
+        if (getValidEntry(tenantDomain) != null) {
+            releaseParked(tenantDomain);
+        } else {
+            load(tenantDomain);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of lookups which found a cached key, including expired ones.
+     *
+     * @return hit count.
+     */
+    long getHitCount() {
+
+        return entries.getHitCount();
+    }
+
+    /**
+     * Returns the number of lookups which found no cached key.
+     *
+     * @return miss count.
+     */
+    long getMissCount() {
+
+        return entries.getMissCount();
+    }
+
+    /**
+     * Returns the number of keys evicted to keep the cache within its maximum size.
+     *
+     * @return eviction count.
+     */
+    long getEvictionCount() {
+
+        return entries.getEvictionCount();
+    }
+
+    private Entry<V> getValidEntry(String tenantDomain) {
+
+        Entry<V> entry = entries.get(tenantDomain);
+        long now = System.currentTimeMillis();
+        if (entry == null || now >= entry.expiryTime) {
+            return null;
+        }
+        if (entry.failure == null && now >= entry.refreshTime) {
+            load(tenantDomain);
+        }
+        return entry;
+    }
+
+    private CompletableFuture<V> load(String tenantDomain) {
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loads.putIfAbsent(tenantDomain, future);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        Entry<V> resolved = entries.peek(tenantDomain);
+        long now = System.currentTimeMillis();
+        if (resolved != null && now < resolved.expiryTime && (resolved.failure != null || now < resolved.refreshTime)) {
+            // A load completed since the caller found no valid key, hence the key is not fetched again.
+            loads.remove(tenantDomain, future);
+            try {
+                future.complete(resolved.getValue());
+            } catch (IdentityEventException e) {
+                future.completeExceptionally(e);
+            }
+            releaseParked(tenantDomain);
+            return future;
+        }
+        CompletableFuture<V> fetch;
+        try {
+            fetch = loader.load(tenantDomain);
+        } catch (RuntimeException e) {
+            fetch = new CompletableFuture<>();
+            fetch.completeExceptionally(e);
+        }
+        // The load is removed from the in-flight loads before completing it, so that no caller joins an already
+        // completed load instead of starting a new one.
+        fetch.whenComplete((value, error) -> {
+            if (error == null) {
+                entries.put(tenantDomain, newEntry(value));
+                loads.remove(tenantDomain, future);
+                future.complete(value);
+            } else {
+                onLoadFailure(tenantDomain, error);
+                loads.remove(tenantDomain, future);
+                future.completeExceptionally(error);
+            }
+            releaseParked(tenantDomain);
+        });
+        return future;
+    }
+
+    private void onLoadFailure(String tenantDomain, Throwable error) {
+
+        // Keep serving a still valid key, and retry the refresh once a part of its remaining life passed.
+        Entry<V> entry = entries.get(tenantDomain);
+        if (entry != null && entry.failure == null) {
+            Entry<V> retained = entry.retryRefresh();
+            if (retained != null && entries.replace(tenantDomain, entry, retained)) {
+                log.warn("Unable to refresh the encryption key of tenant: " + tenantDomain +
+                        ". The cached key is used until it expires.", error);
+                return;
+            }
+        }
+        // Otherwise remember the failure, so that the endpoint is not contacted for every event of the tenant.
+        long now = System.currentTimeMillis();
+        entries.put(tenantDomain, new Entry<>(null, toIdentityEventException(tenantDomain, error), now,
+                now + failureBackoff));
+    }
+
+    /**
+     * Drop the tasks parked for keys which are being fetched.
+     *
+     * @return Number of dropped tasks.
+     */
+    int dropParked() {
+
+        int dropped = 0;
+        for (String tenantDomain : parked.keySet()) {
+            Queue<Runnable> tasks = parked.remove(tenantDomain);
+            if (tasks != null) {
+                dropped += tasks.size();
+            }
+        }
+        return dropped;
+    }
+
+    private void releaseParked(String tenantDomain) {
+
+        Queue<Runnable> tasks = parked.remove(tenantDomain);
+        if (tasks == null) {
+            return;
+        }
+        for (Runnable task : tasks) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                log.error("Unable to run a task parked for the encryption key of tenant: " + tenantDomain, e);
+            }
+        }
+    }
+
+    private Entry<V> newEntry(V value) {
+
+        long now = System.currentTimeMillis();
+        long entryLifespan = (long) (lifespan * (1 - jitterRatio * random.nextDouble()));
+        return new Entry<>(value, null, now + (long) (entryLifespan * refreshAheadRatio), now + entryLifespan);
+    }
+
+    private static IdentityEventException toIdentityEventException(String tenantDomain, Throwable error) {
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof IdentityEventException) {
+            return (IdentityEventException) cause;
+        }
+        return new IdentityEventException("Error while loading the encryption key of tenant: " + tenantDomain,
+                cause);
+    }
+
+    /**
+     * Fetches the key of a tenant from its source without blocking the caller.
+     *
+     * @param <V> Type of the key.
+     */
+    @FunctionalInterface
+    interface AsyncKeyLoader<V> {
+
+        /**
+         * Start fetching the key of the tenant.
+         *
+         * @param tenantDomain Tenant domain.
+         * @return Future completed with the key, or with an {@link IdentityEventException} if it cannot be fetched.
+         */
+        CompletableFuture<V> load(String tenantDomain);
+    }
+
+    /**
+     * Cached key of a tenant, or the failure of its last fetch.
+     */
+    private static class Entry<V> {
+
+        private final V value;
+        private final IdentityEventException failure;
+        private final long refreshTime;
+        private final long expiryTime;
+
+        Entry(V value, IdentityEventException failure, long refreshTime, long expiryTime) {
+
+            this.value = value;
+            this.failure = failure;
+            this.refreshTime = refreshTime;
+            this.expiryTime = expiryTime;
+        }
+
+        V getValue() throws IdentityEventException {
+
+            if (failure != null) {
+                throw new IdentityEventException(failure.getErrorCode(), failure.getMessage());
+            }
+            return value;
+        }
+
+        Entry<V> retryRefresh() {
+
+            long now = System.currentTimeMillis();
+            if (now >= expiryTime) {
+                return null;
+            }
+            return new Entry<>(value, null, now + Math.max(MIN_REFRESH_RETRY_INTERVAL, (expiryTime - now) / 4),
+                    expiryTime);
+        }
+    }
+}
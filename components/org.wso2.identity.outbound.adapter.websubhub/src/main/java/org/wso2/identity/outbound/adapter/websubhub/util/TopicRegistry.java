@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterException;
+import org.wso2.identity.outbound.adapter.websubhub.model.TopicOperationResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of the hub topics known to be registered, which spares the hub a registration call for every topic that
+ * was already registered through this node. Concurrent registrations of a topic share a single call to the hub.
+ * <p>
+ * A topic is only remembered for a limited time and the number of remembered topics is capped, evicting rarely
+ * registered topics first. A forgotten topic is simply registered again, which the hub accepts.
+ */
+public class TopicRegistry {
+
+    private final BoundedCache<String, Long> registeredTopics;
+    private final ConcurrentMap<String, CompletableFuture<TopicOperationResult.Status>> registrations =
+            new ConcurrentHashMap<>();
+    private final long lifespan;
+    private final LongSupplier clock;
+
+    /**
+     * Creates a topic registry.
+     *
+     * @param lifespan    Time in milliseconds a registered topic is remembered.
+     * @param maximumSize Maximum number of remembered topics.
+     */
+    public TopicRegistry(long lifespan, int maximumSize) {
+
+        this(lifespan, maximumSize, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a topic registry reading the time from the given clock.
+     *
+     * @param lifespan    Time in milliseconds a registered topic is remembered.
+     * @param maximumSize Maximum number of remembered topics.
+     * @param clock       Source of the current time in milliseconds.
+     */
+    TopicRegistry(long lifespan, int maximumSize, LongSupplier clock) {
+
+        this.registeredTopics = new BoundedCache<>(maximumSize);
+        this.lifespan = lifespan;
+        this.clock = clock;
+    }
+
+    /**
+     * Register a topic unless it is known to be registered. If a registration of the topic is already in flight,
+     * its outcome is shared instead of registering the topic again. As other callers may be waiting for it, a shared
+     * registration is not aborted when a caller cancels its future.
+     *
+     * @param topic        Hub topic.
+     * @param registration Operation registering the topic in the hub.
+     * @return Future completed with the outcome of the registration, {@link TopicOperationResult.Status#UNCHANGED}
+     * if the topic is known to be registered.
+     */
+    public CompletableFuture<TopicOperationResult.Status> register(String topic, TopicOperation registration) {
+
+        if (isRegistered(topic)) {
+            return CompletableFuture.completedFuture(TopicOperationResult.Status.UNCHANGED);
+        }
+
+        CompletableFuture<TopicOperationResult.Status> future = new CompletableFuture<>();
+        CompletableFuture<TopicOperationResult.Status> inFlight = registrations.putIfAbsent(topic, future);
+        if (inFlight != null) {
+            return inFlight.thenApply(status -> status);
+        }
+        CompletableFuture<TopicOperationResult.Status> call;
+        try {
+            call = registration.execute(topic);
+        } catch (WebSubAdapterException | RuntimeException e) {
+            call = new CompletableFuture<>();
+            call.completeExceptionally(e);
+        }
+        // The registration is removed from the in-flight registrations before completing it, so that no caller
+        // joins an already completed registration instead of checking the registry again.
+        call.whenComplete((status, error) -> {
+            if (error == null) {
+                registeredTopics.put(topic, clock.getAsLong() + lifespan);
+                registrations.remove(topic, future);
+                future.complete(status);
+            } else {
+                registrations.remove(topic, future);
+                future.completeExceptionally(error);
+            }
+        });
+        return future.thenApply(status -> status);
+    }
+
+    /**
+     * De-register a topic, forgetting that it was registered.
+     *
+     * @param topic          Hub topic.
+     * @param deregistration Operation de-registering the topic from the hub.
+     * @return Future completed with the outcome of the de-registration.
+     * @throws WebSubAdapterException If the de-registration could not be started.
+     */
+    public CompletableFuture<TopicOperationResult.Status> deregister(String topic, TopicOperation deregistration)
+            throws WebSubAdapterException {
+
+        registeredTopics.remove(topic);
+        // A registration in flight could remember the topic again while it is being de-registered.
+        CompletableFuture<TopicOperationResult.Status> call = deregistration.execute(topic);
+        call.whenComplete((status, error) -> registeredTopics.remove(topic));
+        // The future of the operation itself is returned, so that cancelling it aborts the de-registration.
+        return call;
+    }
+
+    /**
+     * Whether the topic is known to be registered.
+     *
+     * @param topic Hub topic.
+     * @return true if the topic was registered through this registry within its lifespan.
+     */
+    public boolean isRegistered(String topic) {
+
+        Long expiryTime = registeredTopics.get(topic);
+        return expiryTime != null && clock.getAsLong() < expiryTime;
+    }
+
+    /**
+     * Operation registering or de-registering a topic in the hub.
+     */
+    @FunctionalInterface
+    public interface TopicOperation {
+
+        /**
+         * Start the operation on the topic.
+         *
+         * @param topic Hub topic.
+         * @return Future completed with the outcome of the operation.
+         * @throws WebSubAdapterException If the operation could not be started.
+         */
+        CompletableFuture<TopicOperationResult.Status> execute(String topic) throws WebSubAdapterException;
+    }
+}
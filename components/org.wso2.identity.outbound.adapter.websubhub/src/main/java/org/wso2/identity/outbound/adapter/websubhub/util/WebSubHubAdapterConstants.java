@@ -41,6 +41,8 @@ public class WebSubHubAdapterConstants {
     public static final String ERROR_TOPIC_DEREG_FAILURE_ACTIVE_SUBS = "Topic %s could not be deregistered " +
             "as there are active subscribers";
     public static final String CORRELATION_ID_REQUEST_HEADER = "activityid";
+    public static final String IDEMPOTENCY_KEY_REQUEST_HEADER = "Idempotency-Key";
+    public static final int HTTP_STATUS_TOO_MANY_REQUESTS = 429;
     public static final Integer DEFAULT_HTTP_CONNECTION_TIMEOUT = 300;
     public static final Integer DEFAULT_HTTP_READ_TIMEOUT = 300;
     public static final Integer DEFAULT_HTTP_CONNECTION_REQUEST_TIMEOUT = 300;
@@ -48,12 +50,101 @@ public class WebSubHubAdapterConstants {
     public static final Integer DEFAULT_HTTP_MAX_CONNECTIONS_PER_ROUTE = 20;
     // The default lifespan is 30 minutes.
     public static final Integer DEFAULT_ENCRYPTION_KEY_CACHE_LIFESPAN = 30;
+    public static final Integer DEFAULT_ENCRYPTION_KEY_CACHE_REFRESH_AHEAD = 80;
+    public static final Integer DEFAULT_ENCRYPTION_KEY_CACHE_JITTER = 10;
+    public static final Integer DEFAULT_ENCRYPTION_KEY_CACHE_MAX_SIZE = 10000;
+    // The default failure backoff is 30 seconds.
+    public static final Integer DEFAULT_ENCRYPTION_KEY_RETRIEVAL_FAILURE_BACKOFF = 30;
+    public static final Integer DEFAULT_ENCRYPTION_KEY_WAIT_QUEUE_CAPACITY = 1000;
+    public static final Integer KEY_RETRIEVAL_MAX_CONNECTIONS = 4;
+    public static final Integer KEY_WAITER_COUNT = 2;
+    public static final String KEY_WAITER_THREAD_NAME_PREFIX = "websubhub-key-waiter-";
+    public static final Integer DEFAULT_PUBLISH_QUEUE_CAPACITY = 10000;
+    public static final Integer DEFAULT_PUBLISH_WORKER_COUNT = 4;
+    public static final Integer DEFAULT_PUBLISH_QUEUE_BLOCK_TIMEOUT = 1000;
+    public static final Integer DEFAULT_MAX_IN_FLIGHT_PUBLISH_REQUESTS = 100;
+    public static final Integer DEFAULT_PUBLISHER_SHUTDOWN_TIMEOUT = 5000;
+    public static final String PUBLISHER_THREAD_NAME_PREFIX = "websubhub-publisher-";
+    public static final Integer DEFAULT_BATCH_MAX_SIZE = 100;
+    public static final Integer DEFAULT_BATCH_LINGER_TIME = 20;
+    public static final String BATCH_FLUSHER_THREAD_NAME = "websubhub-batch-flusher";
+    public static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+    // The default max age of a reused data encryption key is 5 minutes.
+    public static final Integer DEFAULT_ENCRYPTION_KEY_REUSE_MAX_AGE = 300;
+    public static final Integer DEFAULT_ENCRYPTION_KEY_REUSE_MAX_EVENTS = 100000;
+    public static final Integer DEFAULT_TOPIC_MANAGEMENT_PARALLELISM = 10;
+    // The default lifespan of a topic in the topic registry is 1 hour.
+    public static final Integer DEFAULT_TOPIC_REGISTRY_LIFESPAN = 3600;
+    public static final Integer DEFAULT_TOPIC_REGISTRY_MAX_SIZE = 100000;
+    public static final Integer DEFAULT_PUBLISH_RETRY_MAX_ATTEMPTS = 3;
+    public static final Integer DEFAULT_PUBLISH_RETRY_INITIAL_BACKOFF = 200;
+    public static final Integer DEFAULT_PUBLISH_RETRY_MAX_BACKOFF = 5000;
+    public static final Integer DEFAULT_PUBLISH_RETRY_DEADLINE = 30000;
+    // By default, retries are limited to 10% of the publish requests.
+    public static final Integer DEFAULT_PUBLISH_RETRY_BUDGET_RATIO = 10;
+    public static final Integer DEFAULT_PUBLISH_RETRY_MAX_BUDGET = 100;
+    public static final String PUBLISH_RETRY_THREAD_NAME = "websubhub-publish-retry";
+    public static final String DEFAULT_PUBLISH_SPOOL_DIRECTORY = "repository/data/websubhub-publish-spool";
+    public static final Integer DEFAULT_PUBLISH_SPOOL_SEGMENT_SIZE = 16;
+    public static final Integer DEFAULT_PUBLISH_SPOOL_MAX_SIZE = 1024;
+    public static final Integer DEFAULT_PUBLISH_SPOOL_SYNC_INTERVAL = 1000;
+    public static final Integer DEFAULT_PUBLISH_SPOOL_REPLAY_BACKOFF = 5000;
+    public static final String PUBLISH_SPOOL_THREAD_NAME = "websubhub-publish-spool";
+    public static final String PUBLISH_SPOOL_WRITER_THREAD_NAME = "websubhub-publish-spool-writer";
+    public static final Integer DEFAULT_CIRCUIT_BREAKER_WINDOW_SIZE = 100;
+    public static final Integer DEFAULT_CIRCUIT_BREAKER_MINIMUM_CALLS = 20;
+    public static final Integer DEFAULT_CIRCUIT_BREAKER_FAILURE_RATE_THRESHOLD = 50;
+    public static final Integer DEFAULT_CIRCUIT_BREAKER_SLOW_CALL_RATE_THRESHOLD = 80;
+    // Calls close to the default read timeout of 300 milliseconds count as slow.
+    public static final Integer DEFAULT_CIRCUIT_BREAKER_SLOW_CALL_DURATION = 250;
+    public static final Integer DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION = 10000;
+    public static final Integer DEFAULT_CIRCUIT_BREAKER_PROBE_COUNT = 5;
+    public static final Integer DEFAULT_FLOW_CONTROL_DEFAULT_PAUSE = 1000;
+    public static final Integer DEFAULT_FLOW_CONTROL_MAX_PAUSE = 60000;
+    public static final Integer DEFAULT_TENANT_PUBLISH_QUEUE_CAPACITY = 2500;
+    public static final Integer DEFAULT_TENANT_MAX_IN_FLIGHT_PUBLISH_REQUESTS = 25;
+    // Events of a tenant handed over in a row, which keeps them together for batching.
+    public static final Integer TENANT_SCHEDULING_QUANTUM = 10;
+    public static final Integer DEFAULT_CRITICAL_PUBLISH_QUEUE_CAPACITY = 1000;
+    public static final Integer DEFAULT_CRITICAL_DISPATCH_WEIGHT = 4;
+    public static final Integer DEFAULT_CRITICAL_RESERVED_CONNECTIONS = 4;
+    public static final Integer DEFAULT_ADAPTIVE_CONCURRENCY_INITIAL_LIMIT = 20;
+    public static final Integer DEFAULT_ADAPTIVE_CONCURRENCY_MIN_LIMIT = 4;
+    public static final Integer DEFAULT_CONNECTION_POOL_MIN_CONNECTIONS = 10;
+    public static final Integer DEFAULT_CONNECTION_POOL_MAX_CONNECTIONS = 100;
+    public static final Integer DEFAULT_CONNECTION_POOL_LEASE_WAIT_THRESHOLD = 50;
+    public static final Integer DEFAULT_CONNECTION_POOL_AUTOSCALING_INTERVAL = 5000;
+    public static final Integer DEFAULT_CONNECTION_IDLE_TIMEOUT = 60000;
+    public static final Integer DEFAULT_CONNECTION_EVICTION_INTERVAL = 5000;
+    public static final Integer DEFAULT_SSL_SESSION_CACHE_SIZE = 1000;
+    public static final Integer DEFAULT_SSL_SESSION_TIMEOUT = 3600;
+    // Time in milliseconds between two checks of whether the I/O reactor of a client has stopped.
+    public static final Integer CLIENT_SUPERVISION_INTERVAL = 1000;
+    public static final Integer DEFAULT_CLIENT_SHARD_COUNT = 1;
+    public static final Integer DEFAULT_IO_THREAD_COUNT = 0;
+    public static final Integer DEFAULT_SOCKET_BUFFER_SIZE = 0;
+    public static final String POOL_MAINTENANCE_THREAD_NAME = "websubhub-connection-pool-maintenance";
     private static final String WEB_SUB_ADAPTER_ERROR_CODE_PREFIX = "WEBSUB-";
     public static final String SYMMETRIC_ENCRYPTION_ALGORITHM = "AES";
     public static final String SYMMETRIC_ENCRYPTION_ALGORITHM_WITH_MODE = "AES/GCM/NoPadding";
     public static final String ASYMMETRIC_ENCRYPTION_ALGORITHM = "RSA";
+    public static final String EC_KEY_ALGORITHM = "EC";
+    // Elliptic curve keys are only accepted on the NIST P-256 curve, which is named secp256r1 by the JDK.
+    public static final String EC_KEY_CURVE = "secp256r1";
+    public static final String KEY_AGREEMENT_ALGORITHM = "ECDH";
+    public static final String KEY_DERIVATION_DIGEST_ALGORITHM = "SHA-256";
+    public static final String KEY_WRAP_ALGORITHM = "AESWrap";
+    public static final String ECDH_ES_KEY_WRAP_ALGORITHM = "ECDH-ES+A128KW";
+    public static final int GCM_IV_LENGTH = 12;
+    public static final int GCM_TAG_LENGTH = 128;
     public static final String PAYLOAD_EVENT_JSON_KEY = "event";
+    public static final String SET_ISSUER_JSON_KEY = "iss";
+    public static final String SET_JTI_JSON_KEY = "jti";
+    public static final String SET_IAT_JSON_KEY = "iat";
+    public static final String SET_AUDIENCE_JSON_KEY = "aud";
     public static final String CRYPTO_KEY_JSON_KEY = "payloadCryptoKey";
+    public static final String CRYPTO_KEY_ALGORITHM_JSON_KEY = "payloadCryptoKeyAlgorithm";
+    public static final String EPHEMERAL_PUBLIC_KEY_JSON_KEY = "ephemeralPublicKey";
     public static final String ENCRYPTED_PAYLOAD_JSON_KEY = "payload";
     public static final String IV_PARAMETER_SPEC_JSON_KEY = "ivParameterSpec";
     public static final String CRYPTO_KEY_RESPONSE_JSON_KEY = "key";
@@ -109,7 +200,22 @@ public class WebSubHubAdapterConstants {
         TOPIC_DEREGISTRATION_FAILURE_ACTIVE_SUBS("65009", "Error occurred while de-registering topic", "Backend error" +
                 " received from WebSubHub while attempting to de-register topic: %s. Active subscribers: %s."),
         ERROR_RETRIEVING_ENCRYPTION_PUBLIC_KEY("65013", "Unable to retrieve event encryption public key",
-                "Unable to retrieve event encryption public key from %s.");
+                "Unable to retrieve event encryption public key from %s."),
+        ERROR_PUBLISH_QUEUE_FULL("65014", "WebSub Hub event publish queue is full.",
+                "Event could not be queued for publishing as the publish queue is full, topic: %s, tenant: %s."),
+        ERROR_PUBLISHER_NOT_RUNNING("65015", "WebSub Hub event publisher is not running.",
+                "Event could not be queued for publishing as the publisher is shut down, topic: %s, tenant: %s."),
+        ERROR_ENCRYPTION_KEY_WAIT_QUEUE_FULL("65016", "Too many events are waiting for the encryption key.",
+                "Event could not be published as too many events are waiting for the encryption key of tenant: %s."),
+        ERROR_TOPIC_MGT_REQUEST_INTERRUPTED("65017", "Interrupted while invoking the WebSub Hub.",
+                "Interrupted while waiting for the WebSub Hub response, topic: %s, operation: %s."),
+        ERROR_HUB_CIRCUIT_OPEN("65018", "WebSub Hub is unavailable.",
+                "Event was not published as the circuit breaker of WebSub Hub route %s is open, topic: %s, " +
+                        "tenant: %s."),
+        ERROR_HUB_CLIENT_RESTARTING("65019", "WebSub Hub adapter client is restarting.",
+                "The I/O reactor of the %s client has stopped, and the client is being replaced."),
+        ERROR_ENCRYPTION_KEY_UNAVAILABLE("65020", "Event encryption key is unavailable.",
+                "Event was not published to topic: %s as the encryption key of tenant: %s could not be retrieved.");
 
         private final String code;
         private final String message;
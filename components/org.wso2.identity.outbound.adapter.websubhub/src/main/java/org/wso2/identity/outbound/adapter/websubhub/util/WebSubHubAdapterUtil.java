@@ -18,45 +18,51 @@
 
 package org.wso2.identity.outbound.adapter.websubhub.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
-import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.utils.DateUtils;
 import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.apache.http.util.EntityUtils;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
 import org.slf4j.MDC;
 import org.wso2.carbon.identity.central.log.mgt.utils.LoggerUtils;
 import org.wso2.carbon.identity.event.IdentityEventException;
 import org.wso2.carbon.utils.DiagnosticLog;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration.BatchFormat;
 import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterClientException;
 import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterException;
 import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterServerException;
 import org.wso2.identity.outbound.adapter.websubhub.internal.WebSubHubAdapterDataHolder;
 import org.wso2.identity.outbound.adapter.websubhub.model.EventPayload;
 import org.wso2.identity.outbound.adapter.websubhub.model.SecurityEventTokenPayload;
+import org.wso2.identity.outbound.adapter.websubhub.model.TopicOperationResult;
 import org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubCorrelationLogUtils.RequestStatus;
 
 import java.io.IOException;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.http.HttpHeaders.ACCEPT;
 import static org.apache.http.HttpHeaders.CONTENT_TYPE;
@@ -68,6 +74,9 @@ import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapter
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.EVENT_ISSUER;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_BACKEND_ERROR_FROM_WEBSUB_HUB;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_EMPTY_RESPONSE_FROM_WEBSUB_HUB;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_HUB_CIRCUIT_OPEN;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_ENCRYPTION_KEY_UNAVAILABLE;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_ENCRYPTION_KEY_WAIT_QUEUE_FULL;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_INVALID_EVENT_ORGANIZATION_NAME;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_INVALID_EVENT_TOPIC;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_INVALID_EVENT_URI;
@@ -78,15 +87,23 @@ import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapter
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_NULL_EVENT_PAYLOAD;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_PUBLISHING_EVENT_INVALID_PAYLOAD;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_RETRIEVING_ENCRYPTION_PUBLIC_KEY;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_TOPIC_MGT_REQUEST_INTERRUPTED;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.TOPIC_DEREGISTRATION_FAILURE_ACTIVE_SUBS;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.HUB_ACTIVE_SUBS;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.HUB_MODE;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.HUB_REASON;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.HTTP_STATUS_TOO_MANY_REQUESTS;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.HUB_TOPIC;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.IDEMPOTENCY_KEY_REQUEST_HEADER;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.NDJSON_CONTENT_TYPE;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.PAYLOAD_EVENT_JSON_KEY;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.PUBLISH;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.REGISTER;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.RESPONSE_FOR_SUCCESSFUL_OPERATION;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.SET_AUDIENCE_JSON_KEY;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.SET_IAT_JSON_KEY;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.SET_ISSUER_JSON_KEY;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.SET_JTI_JSON_KEY;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.URL_KEY_VALUE_SEPARATOR;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.URL_PARAM_SEPARATOR;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.URL_SEPARATOR;
@@ -97,6 +114,9 @@ import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapter
 public class WebSubHubAdapterUtil {
 
     private static final Log log = LogFactory.getLog(WebSubHubAdapterUtil.class);
+    // Object mappers are thread safe once configured, hence a single instance is shared by all publishers.
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final SerializedString NDJSON_SEPARATOR = new SerializedString("\n");
 
     private WebSubHubAdapterUtil() {
 
@@ -164,38 +184,223 @@ public class WebSubHubAdapterUtil {
     public static void makeAsyncAPICall(SecurityEventTokenPayload securityEventTokenPayload, String tenantDomain,
                                         String topic, String webSubHubBaseUrl) throws WebSubAdapterException {
 
+        String correlationId = getCorrelationID();
+        if (deferUntilEncryptionKeyResolved(tenantDomain, () -> publishDeferredEvent(securityEventTokenPayload,
+                tenantDomain, topic, webSubHubBaseUrl, correlationId))) {
+            return;
+        }
+        HttpPost request = buildPublishRequest(securityEventTokenPayload, tenantDomain, topic, webSubHubBaseUrl,
+                correlationId);
+        if (request == null) {
+            throw handleServerException(ERROR_ENCRYPTION_KEY_UNAVAILABLE, null, topic, tenantDomain);
+        }
+        executePublishRequest(request, tenantDomain, topic, null);
+    }
+
+    /**
+     * Defer a task encrypting events of the tenant until the tenant's encryption key is retrieved, if encryption is
+     * enabled and the key is not available yet. The publishing thread hence never waits for the key endpoint.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param task         Task building and sending the publish request.
+     * @return True if the task was deferred, false if the caller can build the publish request right away.
+     * @throws WebSubAdapterException if too many events of the tenant are waiting for the encryption key.
+     */
+    public static boolean deferUntilEncryptionKeyResolved(String tenantDomain, Runnable task)
+            throws WebSubAdapterException {
+
+        if (!WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration().isEncryptionEnabled()) {
+            return false;
+        }
+        try {
+            return EventPayloadCryptographyUtils.parkUntilEncryptionKeyResolved(tenantDomain, task);
+        } catch (IdentityEventException e) {
+            throw handleServerException(ERROR_ENCRYPTION_KEY_WAIT_QUEUE_FULL, e, tenantDomain);
+        }
+    }
+
+    private static void publishDeferredEvent(SecurityEventTokenPayload securityEventTokenPayload, String tenantDomain,
+                                             String topic, String webSubHubBaseUrl, String correlationId) {
+
+        MDC.put(CORRELATION_ID_MDC, correlationId);
+        try {
+            HttpPost request = buildPublishRequest(securityEventTokenPayload, tenantDomain, topic, webSubHubBaseUrl,
+                    correlationId);
+            if (request == null) {
+                log.error(String.format(ERROR_ENCRYPTION_KEY_UNAVAILABLE.getDescription(), topic, tenantDomain));
+                return;
+            }
+            executePublishRequest(request, tenantDomain, topic, null);
+        } catch (WebSubAdapterException e) {
+            log.error("Error while publishing event to WebSub Hub topic: " + topic + ", tenant: " + tenantDomain +
+                    ". " + e.getMessage(), e);
+        } finally {
+            MDC.remove(CORRELATION_ID_MDC);
+        }
+    }
+
+    /**
+     * Build the publish request for the given event. The event is serialized and, if configured, encrypted here.
+     *
+     * @param securityEventTokenPayload Security Event Token object.
+     * @param tenantDomain              Tenant domain.
+     * @param topic                     Topic name.
+     * @param webSubHubBaseUrl          Web sub hub base url.
+     * @param correlationId             Correlation id to be sent with the request.
+     * @return Publish request, or null if the event cannot be published as the encryption key is unavailable.
+     * @throws WebSubAdapterException on error while building the request.
+     */
+    public static HttpPost buildPublishRequest(SecurityEventTokenPayload securityEventTokenPayload,
+                                               String tenantDomain, String topic, String webSubHubBaseUrl,
+                                               String correlationId) throws WebSubAdapterException {
+
         String url = buildURL(topic, webSubHubBaseUrl, PUBLISH);
+        HttpEntity entity = encodeSecurityEventTokens(Collections.singletonList(securityEventTokenPayload),
+                tenantDomain, null, ContentType.APPLICATION_JSON);
+        if (entity == null) {
+            return null;
+        }
 
         HttpPost request = new HttpPost(url);
         request.setHeader(ACCEPT, ContentType.APPLICATION_JSON.getMimeType());
         request.setHeader(CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType());
-        request.setHeader(CORRELATION_ID_REQUEST_HEADER, getCorrelationID());
+        request.setHeader(CORRELATION_ID_REQUEST_HEADER, correlationId);
+        // Retries send the same key, so that the hub can discard an event it already accepted.
+        request.setHeader(IDEMPOTENCY_KEY_REQUEST_HEADER, securityEventTokenPayload.getJti());
+        request.setEntity(entity);
+        return request;
+    }
 
-        ObjectMapper mapper = new ObjectMapper();
-        String jsonString;
-        try {
-            jsonString = mapper.writeValueAsString(securityEventTokenPayload);
-            // Encrypt the event object in the payload.
-            if (WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration().isEncryptionEnabled()) {
-                JSONParser jsonParser = new JSONParser();
-                JSONObject payloadJSON = (JSONObject) jsonParser.parse(jsonString);
-                payloadJSON.put(PAYLOAD_EVENT_JSON_KEY, EventPayloadCryptographyUtils.encryptEventPayload(
-                        payloadJSON.get(PAYLOAD_EVENT_JSON_KEY).toString(), tenantDomain));
-                jsonString = payloadJSON.toString();
-            }
-            request.setEntity(new StringEntity(jsonString));
-        } catch (IOException | IdentityEventException | ParseException e) {
+    /**
+     * Build a single publish request carrying several events of the same hub topic. The events are sent as a JSON
+     * array or as newline delimited JSON, depending on the configured batch format.
+     *
+     * @param securityEventTokenPayloads Security Event Token objects of the batch.
+     * @param tenantDomain               Tenant domain.
+     * @param topic                      Topic name.
+     * @param webSubHubBaseUrl           Web sub hub base url.
+     * @param correlationId              Correlation id to be sent with the request.
+     * @param batchFormat                Format used to combine the events into one request body.
+     * @return Publish request, or null if the events cannot be published as the encryption key is unavailable.
+     * @throws WebSubAdapterException on error while building the request.
+     */
+    public static HttpPost buildBatchPublishRequest(List<SecurityEventTokenPayload> securityEventTokenPayloads,
+                                                    String tenantDomain, String topic, String webSubHubBaseUrl,
+                                                    String correlationId, BatchFormat batchFormat)
+            throws WebSubAdapterException {
+
+        String url = buildURL(topic, webSubHubBaseUrl, PUBLISH);
+        ContentType contentType = batchFormat == BatchFormat.NDJSON ?
+                ContentType.create(NDJSON_CONTENT_TYPE, StandardCharsets.UTF_8) : ContentType.APPLICATION_JSON;
+        HttpEntity entity = encodeSecurityEventTokens(securityEventTokenPayloads, tenantDomain, batchFormat,
+                contentType);
+        if (entity == null) {
+            // All events of a batch belong to the same tenant, hence none of them can be encrypted.
+            return null;
+        }
+
+        HttpPost request = new HttpPost(url);
+        request.setHeader(ACCEPT, ContentType.APPLICATION_JSON.getMimeType());
+        request.setHeader(CONTENT_TYPE, contentType.getMimeType());
+        request.setHeader(CORRELATION_ID_REQUEST_HEADER, correlationId);
+        // Every event belongs to a single batch, hence the first event identifies the batch.
+        request.setHeader(IDEMPOTENCY_KEY_REQUEST_HEADER, securityEventTokenPayloads.get(0).getJti());
+        request.setEntity(entity);
+        return request;
+    }
+
+    /**
+     * Serialize the Security Event Tokens into a request entity in a single pass. When encryption is enabled the
+     * event object of each token is streamed through the cipher and the encrypted payload is written in its place.
+     *
+     * @param securityEventTokenPayloads Security Event Token objects.
+     * @param tenantDomain               Tenant domain.
+     * @param batchFormat                Format combining several tokens, or null for a single token.
+     * @param contentType                Content type of the entity.
+     * @return Request entity, or null if the events cannot be encrypted as the encryption key is unavailable.
+     * @throws WebSubAdapterClientException on error while serializing the events.
+     */
+    private static HttpEntity encodeSecurityEventTokens(List<SecurityEventTokenPayload> securityEventTokenPayloads,
+                                                        String tenantDomain, BatchFormat batchFormat,
+                                                        ContentType contentType)
+            throws WebSubAdapterClientException {
+
+        boolean encryptionEnabled =
+                WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration().isEncryptionEnabled();
+        PayloadOutputStream outputStream = new PayloadOutputStream();
+        try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(outputStream)) {
+            if (batchFormat == BatchFormat.NDJSON) {
+                generator.setRootValueSeparator(NDJSON_SEPARATOR);
+            } else if (batchFormat == BatchFormat.JSON_ARRAY) {
+                generator.writeStartArray();
+            }
+            for (SecurityEventTokenPayload securityEventTokenPayload : securityEventTokenPayloads) {
+                writeSecurityEventToken(generator, securityEventTokenPayload, tenantDomain, encryptionEnabled);
+            }
+            if (batchFormat == BatchFormat.JSON_ARRAY) {
+                generator.writeEndArray();
+            }
+        } catch (IOException | IdentityEventException e) {
             if (e instanceof IdentityEventException) {
                 if (ERROR_RETRIEVING_ENCRYPTION_PUBLIC_KEY.getCode()
                         .equals(((IdentityEventException) e).getErrorCode())) {
                     // Break the flow and this exception need not to be passed and we have logged it at lower layer.
-                    return;
+                    return null;
                 }
             }
             throw handleClientException(ERROR_PUBLISHING_EVENT_INVALID_PAYLOAD);
         }
+        return outputStream.toEntity(contentType);
+    }
 
-        CloseableHttpAsyncClient client = WebSubHubAdapterDataHolder.getInstance().getClientManager().getClient();
+    /**
+     * Write a Security Event Token to the generator. The claims are written in the order of
+     * {@link SecurityEventTokenPayload}, followed by the event object which is encrypted if required.
+     *
+     * @param generator                 JSON generator.
+     * @param securityEventTokenPayload Security Event Token object.
+     * @param tenantDomain              Tenant domain.
+     * @param encryptionEnabled         Whether the event object is encrypted.
+     * @throws IOException            on error while writing the token.
+     * @throws IdentityEventException on error while encrypting the event object.
+     */
+    private static void writeSecurityEventToken(JsonGenerator generator,
+                                                SecurityEventTokenPayload securityEventTokenPayload,
+                                                String tenantDomain, boolean encryptionEnabled)
+            throws IOException, IdentityEventException {
+
+        generator.writeStartObject();
+        generator.writeStringField(SET_ISSUER_JSON_KEY, securityEventTokenPayload.getIss());
+        generator.writeStringField(SET_JTI_JSON_KEY, securityEventTokenPayload.getJti());
+        generator.writeNumberField(SET_IAT_JSON_KEY, securityEventTokenPayload.getIat());
+        generator.writeStringField(SET_AUDIENCE_JSON_KEY, securityEventTokenPayload.getAud());
+        generator.writeFieldName(PAYLOAD_EVENT_JSON_KEY);
+        if (encryptionEnabled) {
+            EventPayloadCryptographyUtils.writeEncryptedEventPayload(generator,
+                    securityEventTokenPayload.getEvent(), OBJECT_MAPPER, tenantDomain);
+        } else {
+            OBJECT_MAPPER.writeValue(generator, securityEventTokenPayload.getEvent());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Send a publish request to the web sub hub through the async client.
+     *
+     * @param request      Publish request built by {@link #buildPublishRequest}.
+     * @param tenantDomain Tenant domain.
+     * @param topic        Topic name.
+     * @param listener     Optional callback notified once the request has been handled.
+     * @throws WebSubAdapterException on error while obtaining the client, or if the circuit breaker of the hub route
+     *                                is open.
+     */
+    public static void executePublishRequest(HttpPost request, String tenantDomain, String topic,
+                                             FutureCallback<HttpResponse> listener)
+            throws WebSubAdapterException {
+
+        CloseableHttpAsyncClient client = WebSubHubAdapterDataHolder.getInstance().getClientManager()
+                .getClient(tenantDomain, topic);
+        String url = request.getURI().toString();
 
         if (log.isDebugEnabled()) {
             log.debug("Publishing event data to WebSubHub. URL: " + url + " tenant domain: " + tenantDomain);
@@ -214,60 +419,110 @@ public class WebSubHubAdapterUtil {
             LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
         }
 
-        WebSubHubCorrelationLogUtils.triggerCorrelationLogForRequest(request);
-        final long requestStartTime = System.currentTimeMillis();
-        client.execute(request, new FutureCallback<HttpResponse>() {
-            @Override
-            public void completed(final HttpResponse response) {
+        CircuitBreaker circuitBreaker = getCircuitBreaker(request.getURI());
+        acquireCircuit(circuitBreaker, tenantDomain, topic);
+        PublishResilience publishResilience = WebSubHubAdapterDataHolder.getInstance().getPublishResilience();
+        PublishRetryPolicy retryPolicy = publishResilience != null ? publishResilience.getRetryPolicy() : null;
+        if (retryPolicy != null) {
+            retryPolicy.onFirstAttempt();
+        }
+        new PublishCallback(request, tenantDomain, topic, listener, retryPolicy, circuitBreaker,
+                getRouteFlowControl(request.getURI()), System.currentTimeMillis()).send(client);
+    }
 
-                int responseCode = response.getStatusLine().getStatusCode();
-                String responsePhrase = response.getStatusLine().getReasonPhrase();
-                if (log.isDebugEnabled()) {
-                    log.debug("WebSubHub request completed. Response code: " + responseCode);
-                }
-                handleResponseCorrelationLog(request, requestStartTime, RequestStatus.COMPLETED.getStatus(),
-                        String.valueOf(responseCode), responsePhrase);
+    /**
+     * Returns the circuit breakers of the hub routes publish requests were sent to, keyed by route.
+     *
+     * @return Circuit breakers per route, empty if circuit breakers are disabled.
+     */
+    public static Map<String, CircuitBreaker> getCircuitBreakers() {
 
+        PublishResilience publishResilience = WebSubHubAdapterDataHolder.getInstance().getPublishResilience();
+        return publishResilience != null ? publishResilience.getCircuitBreakers() : Collections.emptyMap();
+    }
 
-                if (responseCode == 200 || responseCode == 201 || responseCode == 202 || responseCode == 204) {
-                    // Check for 200 success code range.
-                    if (log.isDebugEnabled()) {
-                        String responseBody;
-                        try {
-                            responseBody = EntityUtils.toString(response.getEntity());
-                            log.debug("Response data: " + responseBody);
-                        } catch (IOException e) {
-                            log.debug("Error while reading WebSubHub event publisher response. ", e);
-                        }
-                    }
-                } else {
-                    log.error("WebHubSub event publisher received " + responseCode + " code.");
-                    String errorResponseBody;
-                    try {
-                        errorResponseBody = EntityUtils.toString(response.getEntity());
-                        log.error("Response data: " + errorResponseBody);
-                    } catch (IOException e) {
-                        log.error("Error while reading WebSubHub event publisher response. ", e);
-                    }
-                }
-            }
+    /**
+     * Returns the flow controls of the hub routes publish requests were sent to, keyed by route.
+     *
+     * @return Flow controls per route, empty if flow control is disabled.
+     */
+    public static Map<String, RouteFlowControl> getRouteFlowControls() {
 
-            @Override
-            public void failed(final Exception ex) {
+        PublishResilience publishResilience = WebSubHubAdapterDataHolder.getInstance().getPublishResilience();
+        return publishResilience != null ? publishResilience.getRouteFlowControls() : Collections.emptyMap();
+    }
 
-                handleResponseCorrelationLog(request, requestStartTime, RequestStatus.FAILED.getStatus(),
-                        ex.getMessage());
-                log.error("Publishing event data to WebSubHub failed. ", ex);
-            }
+    /**
+     * Returns the time left until publishing to the route of the given hub URL is resumed, after the hub throttled
+     * publish requests.
+     *
+     * @param webSubHubUrl WebSub Hub URL.
+     * @return remaining pause of the route in milliseconds, 0 if the route is not paused.
+     */
+    public static long getRemainingRoutePause(String webSubHubUrl) {
 
-            @Override
-            public void cancelled() {
+        PublishResilience publishResilience = WebSubHubAdapterDataHolder.getInstance().getPublishResilience();
+        if (publishResilience == null ||
+                !WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration().isFlowControlEnabled()) {
+            return 0;
+        }
+        try {
+            RouteFlowControl flowControl =
+                    publishResilience.getRouteFlowControls().get(getRoute(URI.create(webSubHubUrl)));
+            return flowControl != null ? flowControl.getRemainingPause() : 0;
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Parse the Retry-After header of a hub response, given either as delay seconds or as an HTTP date.
+     *
+     * @param response Hub response.
+     * @return requested delay in milliseconds, or -1 if the response has no valid Retry-After header.
+     */
+    static long parseRetryAfter(HttpResponse response) {
 
-                handleResponseCorrelationLog(request, requestStartTime, RequestStatus.CANCELLED.getStatus());
-                log.error("Publishing event data to WebSubHub cancelled.");
+        Header header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+        if (header == null || StringUtils.isBlank(header.getValue())) {
+            return -1;
+        }
+        String value = header.getValue().trim();
+        if (StringUtils.isNumeric(value)) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                return -1;
             }
-        });
+        }
+        Date date = DateUtils.parseDate(value);
+        return date != null ? Math.max(0, date.getTime() - System.currentTimeMillis()) : -1;
+    }
+
+    private static String getRoute(URI uri) {
 
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    private static RouteFlowControl getRouteFlowControl(URI uri) {
+
+        PublishResilience publishResilience = WebSubHubAdapterDataHolder.getInstance().getPublishResilience();
+        return publishResilience != null ? publishResilience.getRouteFlowControl(getRoute(uri)) : null;
+    }
+
+    private static CircuitBreaker getCircuitBreaker(URI uri) {
+
+        PublishResilience publishResilience = WebSubHubAdapterDataHolder.getInstance().getPublishResilience();
+        return publishResilience != null ? publishResilience.getCircuitBreaker(getRoute(uri)) : null;
+    }
+
+    private static void acquireCircuit(CircuitBreaker circuitBreaker, String tenantDomain, String topic)
+            throws WebSubAdapterException {
+
+        if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+            throw handleServerException(ERROR_HUB_CIRCUIT_OPEN, null, circuitBreaker.getRoute(), topic,
+                    tenantDomain);
+        }
     }
 
     /**
@@ -282,83 +537,177 @@ public class WebSubHubAdapterUtil {
     public static void makeTopicMgtAPICall(String topic, String webSubHubBaseUrl, String operation)
             throws IOException, WebSubAdapterException {
 
+        waitForTopicMgtResult(makeAsyncTopicMgtAPICall(topic, webSubHubBaseUrl, operation), topic, operation);
+    }
+
+    /**
+     * Wait for the outcome of a topic registration or de-registration. If the calling thread is interrupted the
+     * operation is cancelled, which aborts its request to the hub.
+     *
+     * @param result    Future of the topic operation.
+     * @param topic     topic name.
+     * @param operation whether the topic is registered, deregistered.
+     * @return Outcome of the operation.
+     * @throws IOException            on errors while communicating with WebSub hub.
+     * @throws WebSubAdapterException on client or server related errors.
+     */
+    public static TopicOperationResult.Status waitForTopicMgtResult(
+            CompletableFuture<TopicOperationResult.Status> result, String topic, String operation)
+            throws IOException, WebSubAdapterException {
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw handleServerException(ERROR_TOPIC_MGT_REQUEST_INTERRUPTED, e, topic, operation);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof WebSubAdapterException) {
+                throw (WebSubAdapterException) e.getCause();
+            }
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error while invoking the WebSub Hub to " + operation + " topic: " + topic,
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Invoke the WebSub Hub to register, unregister the topics without waiting for the response.
+     *
+     * @param topic            topic name.
+     * @param webSubHubBaseUrl WebSub Hub base URL.
+     * @param operation        whether to register, deregister the topic.
+     * @return Future completed with the outcome of the operation, or exceptionally with an {@link IOException} on
+     * errors while communicating with WebSub hub, or a {@link WebSubAdapterException} on client or server related
+     * errors. Cancelling the future aborts the request.
+     * @throws WebSubAdapterException If the request cannot be built or the client is not available.
+     */
+    public static CompletableFuture<TopicOperationResult.Status> makeAsyncTopicMgtAPICall(String topic,
+            String webSubHubBaseUrl, String operation) throws WebSubAdapterException {
+
         String topicMgtUrl = buildURL(topic, webSubHubBaseUrl, operation);
 
-        try (CloseableHttpClient httpClient = HttpClientBuilder.create().useSystemProperties().build()) {
-
-            HttpPost httpPost = new HttpPost(topicMgtUrl);
-            httpPost.setHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType());
-
-            WebSubHubCorrelationLogUtils.triggerCorrelationLogForRequest(httpPost);
-            final long requestStartTime = System.currentTimeMillis();
-
-            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-                StatusLine statusLine = response.getStatusLine();
-                int responseCode = statusLine.getStatusCode();
-                String responsePhrase = statusLine.getReasonPhrase();
-                if (responseCode == HttpStatus.SC_OK) {
-                    HttpEntity entity = response.getEntity();
-                    WebSubHubCorrelationLogUtils.triggerCorrelationLogForResponse(httpPost, requestStartTime,
-                            RequestStatus.COMPLETED.getStatus(), String.valueOf(responseCode), responsePhrase);
-                    if (entity != null) {
-                        String responseString = EntityUtils.toString(entity, StandardCharsets.UTF_8);
-                        if (RESPONSE_FOR_SUCCESSFUL_OPERATION.equals(responseString)) {
-                            if (log.isDebugEnabled()) {
-                                log.debug("Success WebSub Hub operation: " + operation + ", topic: " + topic);
-                            }
-                        } else {
-                            throw handleServerException(ERROR_INVALID_RESPONSE_FROM_WEBSUB_HUB, null, topic,
-                                    operation, responseString);
-                        }
-                    } else {
-                        String message =
-                                String.format(ERROR_EMPTY_RESPONSE_FROM_WEBSUB_HUB.getDescription(), topic, operation);
-                        throw handleServerException(message, ERROR_EMPTY_RESPONSE_FROM_WEBSUB_HUB.getCode());
-                    }
-                } else if ((responseCode == HttpStatus.SC_CONFLICT && operation.equals(REGISTER)) ||
-                        (responseCode == HttpStatus.SC_NOT_FOUND && operation.equals(DEREGISTER))) {
-                    // Since the endpoint responds with http status code 409 for registration or 404 for
-                    // de-registration, adapter accepts the response as a success and log it as a warning.
-                    // In current implementation this only happens,
-                    // 1. if the topic exists when registering the topic (409).
-                    // 2. if the topic doesn't exist when de-registering the topic (404).
-                    HttpEntity entity = response.getEntity();
-                    String responseString = "";
-                    WebSubHubCorrelationLogUtils.triggerCorrelationLogForResponse(httpPost, requestStartTime,
-                            RequestStatus.FAILED.getStatus(), String.valueOf(responseCode), responsePhrase);
-                    if (entity != null) {
-                        responseString = EntityUtils.toString(entity, StandardCharsets.UTF_8);
+        // Topic management shares the pooled client of event publishing, hence reuses its kept alive connections,
+        // trust store and timeouts instead of opening a new connection for every call.
+        CloseableHttpAsyncClient client = WebSubHubAdapterDataHolder.getInstance().getClientManager().getClient();
+
+        HttpPost httpPost = new HttpPost(topicMgtUrl);
+        httpPost.setHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType());
+
+        WebSubHubCorrelationLogUtils.triggerCorrelationLogForRequest(httpPost);
+        final long requestStartTime = System.currentTimeMillis();
+
+        CompletableFuture<TopicOperationResult.Status> result = new CompletableFuture<>();
+        client.execute(httpPost, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(final HttpResponse response) {
+
+                try {
+                    result.complete(handleTopicMgtResponse(response, httpPost, requestStartTime, topic, operation));
+                } catch (IOException | WebSubAdapterException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(final Exception ex) {
+
+                WebSubHubCorrelationLogUtils.triggerCorrelationLogForResponse(httpPost, requestStartTime,
+                        RequestStatus.FAILED.getStatus(), ex.getMessage());
+                result.completeExceptionally(ex);
+            }
+
+            @Override
+            public void cancelled() {
+
+                WebSubHubCorrelationLogUtils.triggerCorrelationLogForResponse(httpPost, requestStartTime,
+                        RequestStatus.CANCELLED.getStatus());
+                result.completeExceptionally(new IOException("WebSub Hub request to " + operation + " topic: " +
+                        topic + " was cancelled."));
+            }
+        });
+        // A caller that stops waiting for the outcome does not leave the request running.
+        result.whenComplete((status, e) -> {
+            if (result.isCancelled()) {
+                httpPost.abort();
+            }
+        });
+        return result;
+    }
+
+    private static TopicOperationResult.Status handleTopicMgtResponse(HttpResponse response, HttpPost httpPost,
+                                                                      long requestStartTime, String topic,
+                                                                      String operation)
+            throws IOException, WebSubAdapterException {
+
+        StatusLine statusLine = response.getStatusLine();
+        int responseCode = statusLine.getStatusCode();
+        String responsePhrase = statusLine.getReasonPhrase();
+        if (responseCode == HttpStatus.SC_OK) {
+            HttpEntity entity = response.getEntity();
+            WebSubHubCorrelationLogUtils.triggerCorrelationLogForResponse(httpPost, requestStartTime,
+                    RequestStatus.COMPLETED.getStatus(), String.valueOf(responseCode), responsePhrase);
+            if (entity != null) {
+                String responseString = EntityUtils.toString(entity, StandardCharsets.UTF_8);
+                if (RESPONSE_FOR_SUCCESSFUL_OPERATION.equals(responseString)) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Success WebSub Hub operation: " + operation + ", topic: " + topic);
                     }
-                    log.warn(String.format(ERROR_INVALID_RESPONSE_FROM_WEBSUB_HUB.getDescription(),
-                            topic, operation, responseString));
+                    return TopicOperationResult.Status.SUCCEEDED;
                 } else {
-                    WebSubHubCorrelationLogUtils.triggerCorrelationLogForResponse(httpPost, requestStartTime,
-                            RequestStatus.CANCELLED.getStatus(), String.valueOf(responseCode), responsePhrase);
-                    if (responseCode == HttpStatus.SC_FORBIDDEN) {
-                        Map<String, String> hubResponse = parseEventHubResponse(response);
-                        if (!hubResponse.isEmpty() && hubResponse.containsKey(HUB_REASON)) {
-                            String errorMsg = String.format(ERROR_TOPIC_DEREG_FAILURE_ACTIVE_SUBS, topic);
-                            // If topic de-registration failed due to active subscriptions, throw a client exception.
-                            if (errorMsg.equals(hubResponse.get(HUB_REASON))) {
-                                log.info(String.format(TOPIC_DEREGISTRATION_FAILURE_ACTIVE_SUBS.getDescription(),
-                                        topic, hubResponse.get(HUB_ACTIVE_SUBS)));
-                                throw handleClientException(TOPIC_DEREGISTRATION_FAILURE_ACTIVE_SUBS, topic,
-                                        hubResponse.get(HUB_ACTIVE_SUBS));
-                            }
-                        }
-                    }
-                    HttpEntity entity = response.getEntity();
-                    String responseString = "";
-                    if (entity != null) {
-                        responseString = EntityUtils.toString(entity, StandardCharsets.UTF_8);
+                    throw handleServerException(ERROR_INVALID_RESPONSE_FROM_WEBSUB_HUB, null, topic,
+                            operation, responseString);
+                }
+            } else {
+                String message =
+                        String.format(ERROR_EMPTY_RESPONSE_FROM_WEBSUB_HUB.getDescription(), topic, operation);
+                throw handleServerException(message, ERROR_EMPTY_RESPONSE_FROM_WEBSUB_HUB.getCode());
+            }
+        } else if ((responseCode == HttpStatus.SC_CONFLICT && operation.equals(REGISTER)) ||
+                (responseCode == HttpStatus.SC_NOT_FOUND && operation.equals(DEREGISTER))) {
+            // Since the endpoint responds with http status code 409 for registration or 404 for
+            // de-registration, adapter accepts the response as a success and log it as a warning.
+            // In current implementation this only happens,
+            // 1. if the topic exists when registering the topic (409).
+            // 2. if the topic doesn't exist when de-registering the topic (404).
+            HttpEntity entity = response.getEntity();
+            String responseString = "";
+            WebSubHubCorrelationLogUtils.triggerCorrelationLogForResponse(httpPost, requestStartTime,
+                    RequestStatus.FAILED.getStatus(), String.valueOf(responseCode), responsePhrase);
+            if (entity != null) {
+                responseString = EntityUtils.toString(entity, StandardCharsets.UTF_8);
+            }
+            log.warn(String.format(ERROR_INVALID_RESPONSE_FROM_WEBSUB_HUB.getDescription(),
+                    topic, operation, responseString));
+            return TopicOperationResult.Status.UNCHANGED;
+        } else {
+            WebSubHubCorrelationLogUtils.triggerCorrelationLogForResponse(httpPost, requestStartTime,
+                    RequestStatus.CANCELLED.getStatus(), String.valueOf(responseCode), responsePhrase);
+            if (responseCode == HttpStatus.SC_FORBIDDEN) {
+                Map<String, String> hubResponse = parseEventHubResponse(response);
+                if (!hubResponse.isEmpty() && hubResponse.containsKey(HUB_REASON)) {
+                    String errorMsg = String.format(ERROR_TOPIC_DEREG_FAILURE_ACTIVE_SUBS, topic);
+                    // If topic de-registration failed due to active subscriptions, throw a client exception.
+                    if (errorMsg.equals(hubResponse.get(HUB_REASON))) {
+                        log.info(String.format(TOPIC_DEREGISTRATION_FAILURE_ACTIVE_SUBS.getDescription(),
+                                topic, hubResponse.get(HUB_ACTIVE_SUBS)));
+                        throw handleClientException(TOPIC_DEREGISTRATION_FAILURE_ACTIVE_SUBS, topic,
+                                hubResponse.get(HUB_ACTIVE_SUBS));
                     }
-                    String message =
-                            String.format(ERROR_BACKEND_ERROR_FROM_WEBSUB_HUB.getDescription(), topic, operation,
-                                    responseString);
-                    log.error(message + ", Response code:" + responseCode);
-                    throw handleServerException(message, ERROR_BACKEND_ERROR_FROM_WEBSUB_HUB.getCode());
                 }
             }
+            HttpEntity entity = response.getEntity();
+            String responseString = "";
+            if (entity != null) {
+                responseString = EntityUtils.toString(entity, StandardCharsets.UTF_8);
+            }
+            String message =
+                    String.format(ERROR_BACKEND_ERROR_FROM_WEBSUB_HUB.getDescription(), topic, operation,
+                            responseString);
+            log.error(message + ", Response code:" + responseCode);
+            throw handleServerException(message, ERROR_BACKEND_ERROR_FROM_WEBSUB_HUB.getCode());
         }
     }
 
@@ -456,7 +805,7 @@ public class WebSubHubAdapterUtil {
      * @return Map of the response content.
      * @throws IOException If an error occurs while parsing the response.
      */
-    public static Map<String, String> parseEventHubResponse(CloseableHttpResponse response) throws IOException {
+    public static Map<String, String> parseEventHubResponse(HttpResponse response) throws IOException {
 
         Map<String, String> map = new HashMap<>();
         HttpEntity entity = response.getEntity();
@@ -494,4 +843,211 @@ public class WebSubHubAdapterUtil {
             MDC.remove(CORRELATION_ID_MDC);
         }
     }
+
+    /**
+     * Handles the outcome of one attempt of a publish request, sending the request again if it failed in a way the
+     * retry policy allows to be retried. The listener is only notified of the outcome of the last attempt. Every
+     * attempt is subject to the circuit breaker of the hub route, if any, and its outcome is recorded there. A
+     * throttled attempt pauses the route, and is not retried before the pause has passed. An attempt which failed
+     * as its client had stopped and was replaced is sent again on the new client, without counting as a retry.
+     */
+    private static class PublishCallback implements FutureCallback<HttpResponse> {
+
+        private final HttpPost request;
+        private final String tenantDomain;
+        private final String topic;
+        private final FutureCallback<HttpResponse> listener;
+        private final PublishRetryPolicy retryPolicy;
+        private final CircuitBreaker circuitBreaker;
+        private final RouteFlowControl routeFlowControl;
+        private final long firstAttemptTime;
+        private int attempt;
+        private long requestStartTime;
+        private CloseableHttpAsyncClient client;
+
+        PublishCallback(HttpPost request, String tenantDomain, String topic, FutureCallback<HttpResponse> listener,
+                        PublishRetryPolicy retryPolicy, CircuitBreaker circuitBreaker,
+                        RouteFlowControl routeFlowControl, long firstAttemptTime) {
+
+            this.request = request;
+            this.tenantDomain = tenantDomain;
+            this.topic = topic;
+            this.listener = listener;
+            this.retryPolicy = retryPolicy;
+            this.circuitBreaker = circuitBreaker;
+            this.routeFlowControl = routeFlowControl;
+            this.firstAttemptTime = firstAttemptTime;
+        }
+
+        void send(CloseableHttpAsyncClient client) {
+
+            attempt++;
+            WebSubHubCorrelationLogUtils.triggerCorrelationLogForRequest(request);
+            requestStartTime = System.currentTimeMillis();
+            this.client = client;
+            if (listener instanceof PublishAttemptListener) {
+                ((PublishAttemptListener) listener).attemptSent();
+            }
+            try {
+                client.execute(request, this);
+            } catch (RuntimeException e) {
+                // The request never left, hence give back the permit taken for it.
+                if (circuitBreaker != null) {
+                    circuitBreaker.onCancelled();
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public void completed(final HttpResponse response) {
+
+            int responseCode = response.getStatusLine().getStatusCode();
+            String responsePhrase = response.getStatusLine().getReasonPhrase();
+            if (log.isDebugEnabled()) {
+                log.debug("WebSubHub request completed. Response code: " + responseCode);
+            }
+            handleResponseCorrelationLog(request, requestStartTime, RequestStatus.COMPLETED.getStatus(),
+                    String.valueOf(responseCode), responsePhrase);
+            // Client errors are caused by the request itself, hence only count against the route if retryable.
+            recordOutcome(PublishRetryPolicy.isRetryable(responseCode));
+            long retryDelay = applyFlowControl(responseCode, response);
+
+
+            if (responseCode == 200 || responseCode == 201 || responseCode == 202 || responseCode == 204) {
+                // Check for 200 success code range.
+                if (log.isDebugEnabled()) {
+                    String responseBody;
+                    try {
+                        responseBody = EntityUtils.toString(response.getEntity());
+                        log.debug("Response data: " + responseBody);
+                    } catch (IOException e) {
+                        log.debug("Error while reading WebSubHub event publisher response. ", e);
+                    }
+                }
+            } else {
+                if (PublishRetryPolicy.isRetryable(responseCode) && scheduleRetry(retryDelay)) {
+                    EntityUtils.consumeQuietly(response.getEntity());
+                    log.warn("WebHubSub event publisher received " + responseCode + " code for attempt " + attempt +
+                            " to topic: " + topic + ", tenant: " + tenantDomain + ". The event will be retried.");
+                    return;
+                }
+                log.error("WebHubSub event publisher received " + responseCode + " code.");
+                String errorResponseBody;
+                try {
+                    errorResponseBody = EntityUtils.toString(response.getEntity());
+                    log.error("Response data: " + errorResponseBody);
+                } catch (IOException e) {
+                    log.error("Error while reading WebSubHub event publisher response. ", e);
+                }
+            }
+            if (listener != null) {
+                listener.completed(response);
+            }
+        }
+
+        @Override
+        public void failed(final Exception ex) {
+
+            handleResponseCorrelationLog(request, requestStartTime, RequestStatus.FAILED.getStatus(),
+                    ex.getMessage());
+            if (handOverFromRetiredClient()) {
+                return;
+            }
+            recordOutcome(true);
+            if (PublishRetryPolicy.isRetryable(ex) && scheduleRetry(0)) {
+                log.warn("Publishing event data to WebSubHub failed for attempt " + attempt + " to topic: " + topic +
+                        ", tenant: " + tenantDomain + ". The event will be retried. " + ex.getMessage());
+                return;
+            }
+            log.error("Publishing event data to WebSubHub failed. ", ex);
+            if (listener != null) {
+                listener.failed(ex);
+            }
+        }
+
+        @Override
+        public void cancelled() {
+
+            handleResponseCorrelationLog(request, requestStartTime, RequestStatus.CANCELLED.getStatus());
+            if (handOverFromRetiredClient()) {
+                return;
+            }
+            if (circuitBreaker != null) {
+                circuitBreaker.onCancelled();
+            }
+            log.error("Publishing event data to WebSubHub cancelled.");
+            if (listener != null) {
+                listener.cancelled();
+            }
+        }
+
+        private void recordOutcome(boolean failed) {
+
+            if (circuitBreaker != null) {
+                circuitBreaker.onResult(System.currentTimeMillis() - requestStartTime, failed);
+            }
+        }
+
+        /**
+         * Pause the route if the hub throttled the attempt.
+         *
+         * @return Minimum delay of a retry in milliseconds.
+         */
+        private long applyFlowControl(int responseCode, HttpResponse response) {
+
+            if (routeFlowControl == null) {
+                return 0;
+            }
+            if (responseCode == HTTP_STATUS_TOO_MANY_REQUESTS || responseCode == HttpStatus.SC_SERVICE_UNAVAILABLE) {
+                routeFlowControl.onThrottled(parseRetryAfter(response));
+                return routeFlowControl.getRemainingPause();
+            }
+            routeFlowControl.onAccepted();
+            return 0;
+        }
+
+        private boolean handOverFromRetiredClient() {
+
+            if (!WebSubHubAdapterDataHolder.getInstance().getClientManager().isRetired(client)) {
+                return false;
+            }
+            // The hub is not to blame for the failure, hence it neither counts against the route nor as a retry.
+            if (circuitBreaker != null) {
+                circuitBreaker.onCancelled();
+            }
+            attempt--;
+            log.warn("Publishing event data to WebSub Hub topic: " + topic + ", tenant: " + tenantDomain +
+                    " was interrupted as the client was replaced. The event is sent again on the new client.");
+            retry();
+            return true;
+        }
+
+        private boolean scheduleRetry(long minDelay) {
+
+            return retryPolicy != null && retryPolicy.scheduleRetry(attempt, firstAttemptTime, minDelay,
+                    this::retry);
+        }
+
+        private void retry() {
+
+            MDC.put(CORRELATION_ID_MDC, request.getFirstHeader(CORRELATION_ID_REQUEST_HEADER).getValue());
+            try {
+                // The request entity is repeatable, hence the same request is sent again once reset.
+                request.reset();
+                CloseableHttpAsyncClient client = WebSubHubAdapterDataHolder.getInstance().getClientManager()
+                        .getClient(tenantDomain, topic);
+                acquireCircuit(circuitBreaker, tenantDomain, topic);
+                send(client);
+            } catch (WebSubAdapterException | RuntimeException e) {
+                log.error("Error while retrying to publish event data to WebSub Hub topic: " + topic +
+                        ", tenant: " + tenantDomain + ". " + e.getMessage(), e);
+                if (listener != null) {
+                    listener.failed(e);
+                }
+            } finally {
+                MDC.remove(CORRELATION_ID_MDC);
+            }
+        }
+    }
 }
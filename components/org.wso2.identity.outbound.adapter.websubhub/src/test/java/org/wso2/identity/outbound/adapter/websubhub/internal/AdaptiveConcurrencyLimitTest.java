@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for {@link AdaptiveConcurrencyLimit}.
+ */
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    public void testLimitGrowsWhileLatencyIsStable() throws InterruptedException {
+
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 100);
+        runAtLimit(limit, 200, RTT);
+
+        assertEquals(limit.getLimit(), 100);
+    }
+
+    @Test
+    public void testLimitShrinksWhenHubQueues() throws InterruptedException {
+
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 4, 100);
+        runAtLimit(limit, 100, RTT);
+        int grown = limit.getLimit();
+        // The hub starts queueing the requests, which raises their round trip time well above the usual one.
+        runAtLimit(limit, 3, RTT * 5);
+
+        assertTrue(limit.getLimit() < grown / 2, "Limit did not shrink: " + limit.getLimit());
+        assertTrue(limit.getLimit() >= 4);
+    }
+
+    @Test
+    public void testDroppedRequestsCutTheLimit() throws InterruptedException {
+
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 4, 100);
+        for (int i = 0; i < 50; i++) {
+            limit.acquire();
+            limit.release(RTT, true);
+        }
+
+        assertEquals(limit.getLimit(), 4);
+        assertEquals(limit.getInFlight(), 0);
+    }
+
+    @Test
+    public void testLightLoadDoesNotRaiseTheLimit() throws InterruptedException {
+
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 100);
+        for (int i = 0; i < 100; i++) {
+            limit.acquire();
+            limit.release(RTT, false);
+        }
+
+        assertEquals(limit.getLimit(), 20);
+    }
+
+    @Test
+    public void testBulkRequestsLeaveTheReservedShareFree() throws InterruptedException {
+
+        // The limit has adapted to 8, well below the connections of the route less the reserved ones.
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 20, 4);
+        for (int i = 0; i < 4; i++) {
+            limit.acquire(false);
+        }
+        AtomicBoolean bulkAcquired = new AtomicBoolean();
+        Thread bulk = new Thread(() -> {
+            try {
+                limit.acquire(false);
+                bulkAcquired.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        bulk.start();
+        waitUntilWaiting(bulk);
+
+        // The reserved share is left to critical requests.
+        for (int i = 0; i < 4; i++) {
+            limit.acquire(true);
+        }
+        assertEquals(limit.getInFlight(), 8);
+        for (int i = 0; i < 4; i++) {
+            limit.release();
+        }
+        waitUntilWaiting(bulk);
+        assertFalse(bulkAcquired.get());
+
+        limit.release();
+        bulk.join(TimeUnit.SECONDS.toMillis(5));
+        assertTrue(bulkAcquired.get());
+        assertEquals(limit.getInFlight(), 4);
+    }
+
+    @Test
+    public void testBulkRequestsAreNotStarvedByTheReservedShare() throws InterruptedException {
+
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 20, 4);
+        for (int i = 0; i < 50; i++) {
+            limit.acquire(false);
+            limit.release(RTT, true);
+        }
+
+        assertEquals(limit.getLimit(), 1);
+        assertEquals(limit.getBulkLimit(), 1);
+        limit.acquire(false);
+        assertEquals(limit.getInFlight(), 1);
+    }
+
+    private static void waitUntilWaiting(Thread thread) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (thread.getState() != Thread.State.WAITING) {
+            assertTrue(System.currentTimeMillis() < deadline, "Thread did not wait for the limit.");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void runAtLimit(AdaptiveConcurrencyLimit limit, int rounds, long rtt) throws InterruptedException {
+
+        for (int round = 0; round < rounds; round++) {
+            int used = limit.getLimit();
+            for (int i = 0; i < used; i++) {
+                limit.acquire();
+            }
+            for (int i = 0; i < used; i++) {
+                limit.release(rtt, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration.ShardRoutingKey;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for {@link ClientManager}.
+ */
+public class ClientManagerTest {
+
+    private static final int SHARD_COUNT = 4;
+    private static final String TOPIC = "carbon.super-LOGIN";
+
+    private ClientManager clientManager;
+
+    @AfterMethod
+    public void tearDown() {
+
+        if (clientManager != null) {
+            clientManager.shutdown();
+            clientManager = null;
+        }
+        WebSubHubAdapterDataHolder.getInstance().setAdapterConfiguration(null);
+    }
+
+    @Test
+    public void testSameKeyIsRoutedToTheSameShard() throws Exception {
+
+        clientManager = newClientManager(ShardRoutingKey.TENANT);
+
+        assertSame(clientManager.getClient("wso2.com", TOPIC), clientManager.getClient("wso2.com", TOPIC));
+        // Only the tenant routes the events, whatever their topic.
+        assertSame(clientManager.getClient("wso2.com", "wso2.com-LOGOUT"), clientManager.getClient("wso2.com", TOPIC));
+    }
+
+    @Test
+    public void testKeysAreSpreadAcrossShards() throws Exception {
+
+        clientManager = newClientManager(ShardRoutingKey.TOPIC);
+
+        Set<CloseableHttpAsyncClient> clients = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            clients.add(clientManager.getClient("carbon.super", "topic-" + i));
+        }
+        assertEquals(clients.size(), SHARD_COUNT);
+    }
+
+    @Test
+    public void testNegativeHashIsRoutedToAShard() throws Exception {
+
+        clientManager = newClientManager(ShardRoutingKey.TENANT);
+        Set<CloseableHttpAsyncClient> clients = shardClients();
+        // The hash of this key is Integer.MIN_VALUE, whose absolute value is still negative.
+        String tenantDomain = "polygenelubricants";
+        assertEquals(tenantDomain.hashCode(), Integer.MIN_VALUE);
+
+        assertTrue(clients.contains(clientManager.getClient(tenantDomain, TOPIC)));
+    }
+
+    @Test
+    public void testClientOfAnyShardIsNotRetired() throws Exception {
+
+        clientManager = newClientManager(ShardRoutingKey.TENANT);
+        Set<CloseableHttpAsyncClient> clients = shardClients();
+        assertEquals(clients.size(), SHARD_COUNT);
+
+        for (CloseableHttpAsyncClient client : clients) {
+            assertFalse(clientManager.isRetired(client));
+        }
+        assertTrue(clientManager.isRetired(mock(CloseableHttpAsyncClient.class)));
+    }
+
+    private Set<CloseableHttpAsyncClient> shardClients() throws Exception {
+
+        Set<CloseableHttpAsyncClient> clients = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            clients.add(clientManager.getClient("tenant-" + i + ".com", TOPIC));
+        }
+        return clients;
+    }
+
+    private static ClientManager newClientManager(ShardRoutingKey shardRoutingKey) throws Exception {
+
+        WebSubAdapterConfiguration configuration = mock(WebSubAdapterConfiguration.class);
+        when(configuration.getClientShardCount()).thenReturn(SHARD_COUNT);
+        when(configuration.getClientShardRoutingKey()).thenReturn(shardRoutingKey);
+        when(configuration.getIoThreadCount()).thenReturn(SHARD_COUNT);
+        when(configuration.getDefaultMaxConnections()).thenReturn(20);
+        when(configuration.getDefaultMaxConnectionsPerRoute()).thenReturn(20);
+        WebSubHubAdapterDataHolder.getInstance().setAdapterConfiguration(configuration);
+        return new ClientManager();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test class for {@link ConnectionLifecycleManager}.
+ */
+public class ConnectionLifecycleManagerTest {
+
+    @Test
+    public void testKeepAliveFollowsServerHint() {
+
+        ConnectionLifecycleManager lifecycleManager = new ConnectionLifecycleManager(60000);
+
+        assertEquals(keepAlive(lifecycleManager, "timeout=5"), 4000);
+        assertEquals(keepAlive(lifecycleManager, "timeout=300"), 60000);
+        assertEquals(keepAlive(lifecycleManager, null), 60000);
+    }
+
+    @Test
+    public void testKeepAliveWithoutIdleTimeout() {
+
+        ConnectionLifecycleManager lifecycleManager = new ConnectionLifecycleManager(0);
+
+        assertEquals(keepAlive(lifecycleManager, "timeout=300"), 299000);
+        assertEquals(keepAlive(lifecycleManager, null), -1);
+    }
+
+    @Test
+    public void testWarmUpOpensPooledConnections() throws Exception {
+
+        ConnectionLifecycleManager lifecycleManager = new ConnectionLifecycleManager(60000);
+        PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(
+                new DefaultConnectingIOReactor(), lifecycleManager.getConnectionFactory());
+        connectionManager.setDefaultMaxPerRoute(3);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<Socket> accepted = new CopyOnWriteArrayList<>();
+        try (ServerSocket server = new ServerSocket(0, 10, InetAddress.getLoopbackAddress());
+             CloseableHttpAsyncClient client = HttpAsyncClients.custom().setConnectionManager(connectionManager)
+                     .build()) {
+            Thread acceptor = new Thread(() -> {
+                try {
+                    while (true) {
+                        accepted.add(server.accept());
+                    }
+                } catch (IOException e) {
+                    // The server was closed.
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+            client.start();
+
+            lifecycleManager.warmUp(connectionManager, "http://127.0.0.1:" + server.getLocalPort() + "/hub", 3,
+                    1000, 60000, executor);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (connectionManager.getTotalStats().getAvailable() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(connectionManager.getTotalStats().getAvailable(), 3);
+            assertEquals(accepted.size(), 3);
+            assertEquals(lifecycleManager.getOpenedCount(), 3);
+        } finally {
+            executor.shutdownNow();
+            for (Socket socket : accepted) {
+                socket.close();
+            }
+        }
+    }
+
+    private static long keepAlive(ConnectionLifecycleManager lifecycleManager, String keepAliveHeader) {
+
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+        if (keepAliveHeader != null) {
+            response.addHeader("Keep-Alive", keepAliveHeader);
+        }
+        return lifecycleManager.getKeepAliveStrategy().getKeepAliveDuration(response, new BasicHttpContext());
+    }
+}
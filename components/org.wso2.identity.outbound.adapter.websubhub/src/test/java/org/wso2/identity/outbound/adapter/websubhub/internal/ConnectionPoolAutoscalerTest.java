@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.pool.PoolStats;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test class for {@link ConnectionPoolAutoscaler}.
+ */
+public class ConnectionPoolAutoscalerTest {
+
+    @Test
+    public void testPoolGrowsWhileLeasesWait() throws IOException {
+
+        ConnectionPoolAutoscaler.LeaseTimingConnectionManager connectionManager = newConnectionManager(20, 10);
+        ConnectionPoolAutoscaler autoscaler = new ConnectionPoolAutoscaler(() -> connectionManager, 10, 40, 50, 1000);
+
+        autoscaler.resize(new PoolStats(20, 5, 0, 20), 0);
+        assertEquals(connectionManager.getMaxTotal(), 30);
+        assertEquals(connectionManager.getDefaultMaxPerRoute(), 15);
+        autoscaler.resize(new PoolStats(30, 0, 0, 30), 120);
+        assertEquals(connectionManager.getMaxTotal(), 40);
+        autoscaler.resize(new PoolStats(40, 10, 0, 40), 0);
+        assertEquals(connectionManager.getMaxTotal(), 40);
+        assertEquals(autoscaler.getResizeCount(), 2);
+    }
+
+    @Test
+    public void testPoolShrinksAfterIdleRuns() throws IOException {
+
+        ConnectionPoolAutoscaler.LeaseTimingConnectionManager connectionManager = newConnectionManager(40, 40);
+        ConnectionPoolAutoscaler autoscaler = new ConnectionPoolAutoscaler(() -> connectionManager, 25, 100, 50, 1000);
+
+        autoscaler.resize(new PoolStats(2, 0, 10, 40), 0);
+        autoscaler.resize(new PoolStats(2, 0, 10, 40), 0);
+        assertEquals(connectionManager.getMaxTotal(), 40);
+        autoscaler.resize(new PoolStats(2, 0, 10, 40), 0);
+        assertEquals(connectionManager.getMaxTotal(), 30);
+        assertEquals(connectionManager.getDefaultMaxPerRoute(), 30);
+        // A busy run resets the count of idle runs.
+        autoscaler.resize(new PoolStats(2, 0, 10, 30), 0);
+        autoscaler.resize(new PoolStats(20, 0, 0, 30), 0);
+        autoscaler.resize(new PoolStats(2, 0, 10, 30), 0);
+        autoscaler.resize(new PoolStats(2, 0, 10, 30), 0);
+        assertEquals(connectionManager.getMaxTotal(), 30);
+        autoscaler.resize(new PoolStats(2, 0, 10, 30), 0);
+        assertEquals(connectionManager.getMaxTotal(), 25);
+    }
+
+    private static ConnectionPoolAutoscaler.LeaseTimingConnectionManager newConnectionManager(int maxTotal,
+                                                                                             int maxPerRoute)
+            throws IOException {
+
+        ConnectionPoolAutoscaler.LeaseTimingConnectionManager connectionManager =
+                new ConnectionPoolAutoscaler.LeaseTimingConnectionManager(new DefaultConnectingIOReactor());
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        return connectionManager;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Test class for {@link PriorityPublishQueue}.
+ */
+public class PriorityPublishQueueTest {
+
+    private static final String SESSION_REVOKED = "https://schemas.identity.wso2.org/events/session/revoked";
+    private static final String LOGIN_SUCCESS = "https://schemas.identity.wso2.org/events/login/success";
+
+    @Test
+    public void testCriticalEventsAreWeighted() throws InterruptedException {
+
+        PriorityPublishQueue queue = newQueue(2, 10);
+        for (int i = 0; i < 3; i++) {
+            queue.offer(newTask(LOGIN_SUCCESS));
+        }
+        for (int i = 0; i < 5; i++) {
+            queue.offer(newTask(SESSION_REVOKED));
+        }
+
+        // Every second critical event, the bulk lane gets a turn.
+        assertEquals(pollLanes(queue, 8), "critical,critical,bulk,critical,critical,bulk,critical,bulk");
+        assertEquals(queue.size(), 0);
+    }
+
+    @Test
+    public void testStrictPriority() throws InterruptedException {
+
+        PriorityPublishQueue queue = newQueue(0, 10);
+        queue.offer(newTask(LOGIN_SUCCESS));
+        queue.offer(newTask(SESSION_REVOKED));
+        queue.offer(newTask(SESSION_REVOKED));
+        queue.offer(newTask(null));
+
+        assertEquals(pollLanes(queue, 4), "critical,critical,bulk,bulk");
+    }
+
+    @Test
+    public void testBulkLaneAtInFlightLimitIsSkipped() throws InterruptedException {
+
+        PriorityPublishQueue queue = newQueue(1, 1);
+        queue.offer(newTask(LOGIN_SUCCESS));
+        queue.offer(newTask(LOGIN_SUCCESS));
+        queue.onRequestStarted(newTask(LOGIN_SUCCESS));
+
+        // The reserved connections are left to critical events.
+        assertNull(queue.poll(20, TimeUnit.MILLISECONDS));
+        queue.offer(newTask(SESSION_REVOKED));
+        assertEquals(pollLanes(queue, 1), "critical");
+        queue.onRequestCompleted(newTask(LOGIN_SUCCESS));
+        assertEquals(pollLanes(queue, 1), "bulk");
+    }
+
+    @Test
+    public void testBulkLaneFollowsTheAdaptiveLimit() throws InterruptedException {
+
+        AtomicInteger bulkMaxInFlight = new AtomicInteger(2);
+        PriorityPublishQueue queue = new PriorityPublishQueue(new FifoPublishQueue(100), new FifoPublishQueue(100),
+                Collections.singletonList(Pattern.compile(".*/session/.*")), 1, bulkMaxInFlight::get);
+        queue.offer(newTask(LOGIN_SUCCESS));
+        queue.offer(newTask(LOGIN_SUCCESS));
+        queue.onRequestStarted(newTask(LOGIN_SUCCESS));
+
+        // The limit shrinks while the hub is slow, which closes the bulk lane below its configured limit.
+        bulkMaxInFlight.set(1);
+        assertNull(queue.poll(20, TimeUnit.MILLISECONDS));
+        bulkMaxInFlight.set(2);
+        assertEquals(pollLanes(queue, 1), "bulk");
+    }
+
+    private static PriorityPublishQueue newQueue(int criticalWeight, int bulkMaxInFlight) {
+
+        return new PriorityPublishQueue(new FifoPublishQueue(100), new FifoPublishQueue(100),
+                Collections.singletonList(Pattern.compile(".*/session/.*")), criticalWeight, () -> bulkMaxInFlight);
+    }
+
+    private static String pollLanes(PriorityPublishQueue queue, int count) throws InterruptedException {
+
+        List<String> lanes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PublishTask task = queue.poll(1, TimeUnit.SECONDS);
+            lanes.add(SESSION_REVOKED.equals(task.getEventUri()) ? "critical" : "bulk");
+        }
+        return String.join(",", lanes);
+    }
+
+    private static PublishTask newTask(String eventUri) {
+
+        return new PublishTask(null, "tenant", "topic", eventUri, "https://hub.example.com/hub", "correlation");
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.testng.annotations.Test;
+import org.wso2.identity.outbound.adapter.websubhub.model.SecurityEventTokenPayload;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Test class for {@link PublishBatcher}.
+ */
+public class PublishBatcherTest {
+
+    private static final String LOGIN_TOPIC = "carbon.super-LOGIN";
+    private static final String REGISTRATION_TOPIC = "carbon.super-REGISTRATION";
+
+    private final BlockingQueue<List<PublishTask>> flushed = new LinkedBlockingQueue<>();
+
+    @Test
+    public void testFullBatchIsFlushedRightAway() {
+
+        flushed.clear();
+        PublishBatcher batcher = new PublishBatcher(3, 60000, flushed::add);
+        batcher.start();
+        try {
+            batcher.add(newTask(LOGIN_TOPIC));
+            batcher.add(newTask(LOGIN_TOPIC));
+            assertNull(flushed.poll());
+
+            batcher.add(newTask(LOGIN_TOPIC));
+            List<PublishTask> batch = flushed.poll();
+            assertNotNull(batch);
+            assertEquals(batch.size(), 3);
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    public void testLingeringBatchIsFlushed() throws InterruptedException {
+
+        flushed.clear();
+        PublishBatcher batcher = new PublishBatcher(100, 50, flushed::add);
+        batcher.start();
+        try {
+            batcher.add(newTask(LOGIN_TOPIC));
+            assertNull(flushed.poll());
+
+            List<PublishTask> batch = flushed.poll(5, TimeUnit.SECONDS);
+            assertNotNull(batch);
+            assertEquals(batch.size(), 1);
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    public void testEventsAreGroupedByTopic() {
+
+        flushed.clear();
+        PublishBatcher batcher = new PublishBatcher(2, 60000, flushed::add);
+        batcher.start();
+        try {
+            batcher.add(newTask(LOGIN_TOPIC));
+            batcher.add(newTask(REGISTRATION_TOPIC));
+            assertNull(flushed.poll());
+
+            batcher.add(newTask(REGISTRATION_TOPIC));
+            List<PublishTask> batch = flushed.poll();
+            assertNotNull(batch);
+            assertEquals(batch.size(), 2);
+            assertEquals(batch.get(0).getTopic(), REGISTRATION_TOPIC);
+            assertEquals(batch.get(1).getTopic(), REGISTRATION_TOPIC);
+            assertNull(flushed.poll());
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdownFlushesPendingBatches() {
+
+        flushed.clear();
+        PublishBatcher batcher = new PublishBatcher(10, 60000, flushed::add);
+        batcher.start();
+        batcher.add(newTask(LOGIN_TOPIC));
+        batcher.add(newTask(REGISTRATION_TOPIC));
+
+        batcher.shutdown();
+        assertEquals(flushed.size(), 2);
+
+        // Events added while the workers drain the queue are not held back any more.
+        batcher.add(newTask(LOGIN_TOPIC));
+        assertEquals(flushed.size(), 3);
+    }
+
+    private static PublishTask newTask(String topic) {
+
+        SecurityEventTokenPayload payload = new SecurityEventTokenPayload();
+        payload.setJti(UUID.randomUUID().toString());
+        return new PublishTask(payload, "carbon.super", topic, null, "https://test.com/websub/hub",
+                UUID.randomUUID().toString());
+    }
+}
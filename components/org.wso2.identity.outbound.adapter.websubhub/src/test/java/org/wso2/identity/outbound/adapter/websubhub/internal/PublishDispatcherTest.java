@@ -0,0 +1,608 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration.BatchFormat;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration.QueueFullPolicy;
+import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterException;
+import org.wso2.identity.outbound.adapter.websubhub.model.SecurityEventTokenPayload;
+import org.wso2.identity.outbound.adapter.websubhub.util.PayloadEncryptionKeys;
+import org.wso2.identity.outbound.adapter.websubhub.util.CircuitBreaker;
+import org.wso2.identity.outbound.adapter.websubhub.util.PublishResilience;
+import org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterUtil;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.CORRELATION_ID_REQUEST_HEADER;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_PUBLISHER_NOT_RUNNING;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_PUBLISH_QUEUE_FULL;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.PUBLISHER_THREAD_NAME_PREFIX;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.PUBLISH_SPOOL_WRITER_THREAD_NAME;
+
+/**
+ * Test class for {@link PublishDispatcher}.
+ */
+public class PublishDispatcherTest {
+
+    private static final String WEBSUB_HUB_BASE_URL = "https://test.com/websub/hub";
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String TOPIC = "carbon.super-LOGIN";
+    private static final long TIMEOUT = 5000;
+
+    private final BlockingQueue<FutureCallback<HttpResponse>> sentRequests = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> sentPayloads = new LinkedBlockingQueue<>();
+    private Path spoolDirectory;
+
+    @BeforeMethod
+    public void setUp() throws WebSubAdapterException {
+
+        sentRequests.clear();
+        sentPayloads.clear();
+        // The hub never answers on its own, so that each test decides when a request completes.
+        CloseableHttpAsyncClient client = mock(CloseableHttpAsyncClient.class);
+        when(client.execute(any(HttpUriRequest.class), any(FutureCallback.class))).thenAnswer(invocation -> {
+            HttpPost request = invocation.getArgument(0);
+            sentPayloads.add(EntityUtils.toString(request.getEntity()));
+            sentRequests.add(invocation.getArgument(1));
+            return null;
+        });
+        ClientManager clientManager = mock(ClientManager.class);
+        when(clientManager.getClient(anyString(), anyString())).thenReturn(client);
+        WebSubHubAdapterDataHolder.getInstance().setClientManager(clientManager);
+        WebSubHubAdapterDataHolder.getInstance().setAdapterConfiguration(mock(WebSubAdapterConfiguration.class));
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+
+        PayloadEncryptionKeys payloadEncryptionKeys =
+                WebSubHubAdapterDataHolder.getInstance().getPayloadEncryptionKeys();
+        if (payloadEncryptionKeys != null) {
+            payloadEncryptionKeys.shutdown();
+            WebSubHubAdapterDataHolder.getInstance().setPayloadEncryptionKeys(null);
+        }
+        PublishResilience publishResilience = WebSubHubAdapterDataHolder.getInstance().getPublishResilience();
+        if (publishResilience != null) {
+            publishResilience.shutdown();
+            WebSubHubAdapterDataHolder.getInstance().setPublishResilience(null);
+        }
+        WebSubHubAdapterDataHolder.getInstance().setClientManager(null);
+        WebSubHubAdapterDataHolder.getInstance().setAdapterConfiguration(null);
+        if (spoolDirectory != null) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDirectory)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(spoolDirectory);
+            spoolDirectory = null;
+        }
+    }
+
+    @Test
+    public void testFailFastRejectsWhenQueueIsFull() throws Exception {
+
+        PublishDispatcher dispatcher = startDispatcher(QueueFullPolicy.FAIL_FAST, 0);
+        try {
+            fillDispatcher(dispatcher);
+
+            assertQueueFull(dispatcher);
+            assertEquals(dispatcher.getRejectedCount(), 1);
+            assertEquals(dispatcher.getAcceptedCount(), 3);
+        } finally {
+            completeAll(dispatcher);
+        }
+    }
+
+    @Test
+    public void testBlockRejectsOnceTimeoutExpires() throws Exception {
+
+        PublishDispatcher dispatcher = startDispatcher(QueueFullPolicy.BLOCK, 200);
+        try {
+            fillDispatcher(dispatcher);
+
+            assertQueueFull(dispatcher);
+            assertEquals(dispatcher.getRejectedCount(), 1);
+        } finally {
+            completeAll(dispatcher);
+        }
+    }
+
+    @Test
+    public void testBlockWaitsForSpace() throws Exception {
+
+        PublishDispatcher dispatcher = startDispatcher(QueueFullPolicy.BLOCK, (int) TIMEOUT);
+        try {
+            fillDispatcher(dispatcher);
+            CompletableFuture<Void> submitted = new CompletableFuture<>();
+            Thread publisher = new Thread(() -> {
+                try {
+                    dispatcher.submit(newTask());
+                    submitted.complete(null);
+                } catch (WebSubAdapterException e) {
+                    submitted.completeExceptionally(e);
+                }
+            });
+            publisher.start();
+            waitUntil(() -> publisher.getState() == Thread.State.TIMED_WAITING);
+            assertFalse(submitted.isDone());
+
+            // Once the in-flight request completes, the blocked publisher gets space in the queue.
+            complete(sentRequests.poll(TIMEOUT, TimeUnit.MILLISECONDS));
+            submitted.get(TIMEOUT, TimeUnit.MILLISECONDS);
+            publisher.join();
+            assertEquals(dispatcher.getRejectedCount(), 0);
+        } finally {
+            completeAll(dispatcher);
+        }
+    }
+
+    @Test
+    public void testDropDiscardsWhenQueueIsFull() throws Exception {
+
+        PublishDispatcher dispatcher = startDispatcher(QueueFullPolicy.DROP, 0);
+        try {
+            fillDispatcher(dispatcher);
+
+            dispatcher.submit(newTask());
+            assertEquals(dispatcher.getDroppedCount(), 1);
+            assertEquals(dispatcher.getRejectedCount(), 0);
+        } finally {
+            completeAll(dispatcher);
+        }
+    }
+
+    @Test
+    public void testInFlightRequestsAreCapped() throws Exception {
+
+        PublishDispatcher dispatcher = startDispatcher(QueueFullPolicy.FAIL_FAST, 0);
+        try {
+            fillDispatcher(dispatcher);
+
+            // The second event waits in the worker until the first request completes.
+            assertEquals(dispatcher.getInFlightCount(), 1);
+            assertEquals(sentRequests.size(), 1);
+            complete(sentRequests.poll());
+            waitUntil(() -> sentRequests.size() == 1 && dispatcher.getCompletedCount() == 1);
+            assertEquals(dispatcher.getInFlightCount(), 1);
+        } finally {
+            completeAll(dispatcher);
+        }
+    }
+
+    @Test
+    public void testShutdownDrainsQueue() throws Exception {
+
+        PublishDispatcher dispatcher = startDispatcher(QueueFullPolicy.FAIL_FAST, 0);
+        fillDispatcher(dispatcher);
+
+        completeAll(dispatcher);
+
+        assertEquals(dispatcher.getCompletedCount(), 3);
+        assertEquals(dispatcher.getQueueSize(), 0);
+        try {
+            dispatcher.submit(newTask());
+            fail("Events must not be accepted once the dispatcher is shut down.");
+        } catch (WebSubAdapterException e) {
+            assertEquals(e.getErrorCode(), ERROR_PUBLISHER_NOT_RUNNING.getCode());
+        }
+    }
+
+    @Test
+    public void testBatchedEventsReportTheirOwnOutcome() throws Exception {
+
+        WebSubAdapterConfiguration configuration = mock(WebSubAdapterConfiguration.class);
+        when(configuration.getPublishQueueCapacity()).thenReturn(10);
+        when(configuration.getPublishWorkerCount()).thenReturn(1);
+        when(configuration.getMaxInFlightPublishRequests()).thenReturn(1);
+        when(configuration.getPublishQueueFullPolicy()).thenReturn(QueueFullPolicy.FAIL_FAST);
+        when(configuration.isBatchPublishEnabled()).thenReturn(true);
+        when(configuration.getBatchMaxSize()).thenReturn(2);
+        when(configuration.getBatchLingerTime()).thenReturn(20);
+        when(configuration.getBatchFormat()).thenReturn(BatchFormat.JSON_ARRAY);
+        PublishDispatcher dispatcher = new PublishDispatcher(configuration);
+        dispatcher.start();
+        PublishTask first = newTask();
+        PublishTask second = newTask();
+        PublishTask lingering = newTask();
+        try {
+            dispatcher.submit(first);
+            dispatcher.submit(second);
+            complete(sentRequests.poll(TIMEOUT, TimeUnit.MILLISECONDS));
+
+            assertEquals(first.getOutcome().get(TIMEOUT, TimeUnit.MILLISECONDS), PublishTask.Outcome.PUBLISHED);
+            assertEquals(second.getOutcome().get(TIMEOUT, TimeUnit.MILLISECONDS), PublishTask.Outcome.PUBLISHED);
+
+            // A batch which does not fill up is sent once it has lingered.
+            dispatcher.submit(lingering);
+            sentRequests.poll(TIMEOUT, TimeUnit.MILLISECONDS).failed(new IllegalStateException("Rejected"));
+            assertEquals(lingering.getOutcome().get(TIMEOUT, TimeUnit.MILLISECONDS), PublishTask.Outcome.FAILED);
+            assertEquals(dispatcher.getCompletedCount(), 2);
+            assertEquals(dispatcher.getFailedCount(), 1);
+        } finally {
+            completeAll(dispatcher);
+        }
+    }
+
+    @Test
+    public void testBatchesAreHeldWhileTheRouteIsPaused() throws Exception {
+
+        WebSubAdapterConfiguration configuration = WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration();
+        when(configuration.getPublishQueueCapacity()).thenReturn(10);
+        when(configuration.getPublishWorkerCount()).thenReturn(1);
+        when(configuration.getMaxInFlightPublishRequests()).thenReturn(1);
+        when(configuration.getPublishQueueFullPolicy()).thenReturn(QueueFullPolicy.FAIL_FAST);
+        when(configuration.isBatchPublishEnabled()).thenReturn(true);
+        when(configuration.getBatchMaxSize()).thenReturn(2);
+        when(configuration.getBatchLingerTime()).thenReturn(200);
+        when(configuration.getBatchFormat()).thenReturn(BatchFormat.JSON_ARRAY);
+        when(configuration.isFlowControlEnabled()).thenReturn(true);
+        when(configuration.getFlowControlMaxPause()).thenReturn((int) TIMEOUT);
+        WebSubHubAdapterDataHolder.getInstance().setPublishResilience(new PublishResilience(configuration));
+        PublishDispatcher dispatcher = new PublishDispatcher(configuration);
+        dispatcher.start();
+        try {
+            dispatcher.submit(newTask());
+            dispatcher.submit(newTask());
+            FutureCallback<HttpResponse> throttledRequest = sentRequests.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+            // The event starts lingering in a batch before the route is paused.
+            PublishTask lingering = newTask();
+            dispatcher.submit(lingering);
+            waitUntil(() -> dispatcher.getQueueSize() == 0);
+            BasicHttpResponse throttled = new BasicHttpResponse(HttpVersion.HTTP_1_1, 429, "Too Many Requests");
+            throttled.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            throttled.setEntity(new StringEntity(""));
+            throttledRequest.completed(throttled);
+
+            // The batch is ready once it has lingered, but is only sent once the route has been resumed.
+            assertNull(sentRequests.poll(600, TimeUnit.MILLISECONDS));
+            complete(sentRequests.poll(TIMEOUT, TimeUnit.MILLISECONDS));
+            assertEquals(lingering.getOutcome().get(TIMEOUT, TimeUnit.MILLISECONDS), PublishTask.Outcome.PUBLISHED);
+        } finally {
+            completeAll(dispatcher);
+        }
+    }
+
+    @Test
+    public void testEventsFindingQueueFullAreSpooledByTheSpoolWriter() throws Exception {
+
+        PublishDispatcher dispatcher = startSpoolingDispatcher();
+        try {
+            fillDispatcher(dispatcher);
+            Set<String> encodingThreads = ConcurrentHashMap.newKeySet();
+            PublishTask overflowing = newTask(encodingThreads);
+
+            dispatcher.submit(overflowing);
+
+            assertEquals(overflowing.getOutcome().get(TIMEOUT, TimeUnit.MILLISECONDS), PublishTask.Outcome.SPOOLED);
+            // The event is encoded by the spool writer, not by the publishing thread.
+            assertEquals(encodingThreads, Collections.singleton(PUBLISH_SPOOL_WRITER_THREAD_NAME));
+            assertEquals(dispatcher.getSpooledCount(), 1);
+        } finally {
+            completeAll(dispatcher);
+        }
+    }
+
+    @Test
+    public void testNewRequestsDoNotOvertakeSpooledRequests() throws Exception {
+
+        PublishDispatcher dispatcher = startSpoolingDispatcher();
+        try {
+            PublishTask failed = newTask();
+            dispatcher.submit(failed);
+            BasicHttpResponse unavailable =
+                    new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_SERVICE_UNAVAILABLE, "Unavailable");
+            unavailable.setEntity(new StringEntity(""));
+            sentRequests.poll(TIMEOUT, TimeUnit.MILLISECONDS).completed(unavailable);
+            assertEquals(failed.getOutcome().get(TIMEOUT, TimeUnit.MILLISECONDS), PublishTask.Outcome.SPOOLED);
+
+            // While a spooled request waits to be replayed, a new request is spooled behind it instead of being sent.
+            PublishTask next = newTask();
+            dispatcher.submit(next);
+            assertEquals(next.getOutcome().get(TIMEOUT, TimeUnit.MILLISECONDS), PublishTask.Outcome.SPOOLED);
+
+            // The spooled requests are replayed in order, after which new requests are sent again.
+            complete(sentRequests.poll(TIMEOUT, TimeUnit.MILLISECONDS));
+            complete(sentRequests.poll(TIMEOUT, TimeUnit.MILLISECONDS));
+            waitUntil(() -> dispatcher.getReplayedCount() == 2 && dispatcher.getSpoolSize() == 0);
+            PublishTask resumed = newTask();
+            waitUntil(() -> {
+                try {
+                    dispatcher.submit(resumed);
+                    return true;
+                } catch (WebSubAdapterException e) {
+                    return false;
+                }
+            });
+            FutureCallback<HttpResponse> resumedRequest = sentRequests.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+            complete(resumedRequest);
+
+            List<String> payloads = new ArrayList<>(sentPayloads);
+            assertEquals(payloads.size(), 4);
+            assertTrue(payloads.get(0).contains(failed.getSecurityEventTokenPayload().getJti()));
+            assertTrue(payloads.get(1).contains(failed.getSecurityEventTokenPayload().getJti()));
+            assertTrue(payloads.get(2).contains(next.getSecurityEventTokenPayload().getJti()));
+            assertTrue(payloads.get(3).contains(resumed.getSecurityEventTokenPayload().getJti()));
+        } finally {
+            completeAll(dispatcher);
+        }
+    }
+
+    @Test
+    public void testEventsWaitingForEncryptionKeyAreDispatchedByTheWorkers() throws Exception {
+
+        BlockingQueue<FutureCallback<HttpResponse>> keyRequests = new LinkedBlockingQueue<>();
+        CloseableHttpAsyncClient keyRetrievalClient = mock(CloseableHttpAsyncClient.class);
+        when(keyRetrievalClient.execute(any(HttpUriRequest.class), any(FutureCallback.class))).thenAnswer(
+                invocation -> {
+                    keyRequests.add(invocation.getArgument(1));
+                    return null;
+                });
+        when(WebSubHubAdapterDataHolder.getInstance().getClientManager().getKeyRetrievalClient())
+                .thenReturn(keyRetrievalClient);
+        WebSubAdapterConfiguration adapterConfiguration =
+                WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration();
+        when(adapterConfiguration.isEncryptionEnabled()).thenReturn(true);
+        when(adapterConfiguration.getEncryptionKeyEndpointUrl()).thenReturn(
+                "https://localhost:8443/t/${tenant_domain}/key");
+        when(adapterConfiguration.getEncryptionKeyCacheLifespan()).thenReturn(30);
+        when(adapterConfiguration.getEncryptionKeyCacheMaxSize()).thenReturn(100);
+        when(adapterConfiguration.getEncryptionKeyRetrievalFailureBackoff()).thenReturn(30);
+        when(adapterConfiguration.getEncryptionKeyWaitQueueCapacity()).thenReturn(100);
+        WebSubHubAdapterDataHolder.getInstance().setPayloadEncryptionKeys(
+                new PayloadEncryptionKeys(adapterConfiguration));
+        PublishDispatcher dispatcher = startDispatcher(QueueFullPolicy.FAIL_FAST, 0);
+        try {
+            Set<String> encodingThreads = ConcurrentHashMap.newKeySet();
+            PublishTask task = newTask(encodingThreads);
+            dispatcher.submit(task);
+
+            // The event is parked until the key is retrieved, and released by a key waiter thread.
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048);
+            BasicHttpResponse keyResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+            keyResponse.setEntity(new StringEntity("{\"key\":\"" + Base64.getEncoder().encodeToString(
+                    keyPairGenerator.generateKeyPair().getPublic().getEncoded()) + "\"}"));
+            keyRequests.poll(TIMEOUT, TimeUnit.MILLISECONDS).completed(keyResponse);
+
+            complete(sentRequests.poll(TIMEOUT, TimeUnit.MILLISECONDS));
+            assertEquals(task.getOutcome().get(TIMEOUT, TimeUnit.MILLISECONDS), PublishTask.Outcome.PUBLISHED);
+            // The event is encoded and sent by a worker, not by the key waiter thread.
+            assertEquals(encodingThreads.size(), 1);
+            assertTrue(encodingThreads.iterator().next().startsWith(PUBLISHER_THREAD_NAME_PREFIX));
+        } finally {
+            completeAll(dispatcher);
+        }
+    }
+
+    @Test
+    public void testRetryRejectedByOpenedCircuitIsSpooled() throws Exception {
+
+        WebSubAdapterConfiguration adapterConfiguration =
+                WebSubHubAdapterDataHolder.getInstance().getAdapterConfiguration();
+        when(adapterConfiguration.isPublishRetryEnabled()).thenReturn(true);
+        when(adapterConfiguration.getPublishRetryMaxAttempts()).thenReturn(2);
+        when(adapterConfiguration.getPublishRetryInitialBackoff()).thenReturn(1);
+        when(adapterConfiguration.getPublishRetryMaxBackoff()).thenReturn(1);
+        when(adapterConfiguration.getPublishRetryDeadline()).thenReturn((int) TIMEOUT);
+        when(adapterConfiguration.getPublishRetryBudgetRatio()).thenReturn(100);
+        when(adapterConfiguration.isCircuitBreakerEnabled()).thenReturn(true);
+        when(adapterConfiguration.getCircuitBreakerWindowSize()).thenReturn(20);
+        when(adapterConfiguration.getCircuitBreakerFailureRateThreshold()).thenReturn(50);
+        when(adapterConfiguration.getCircuitBreakerSlowCallRateThreshold()).thenReturn(100);
+        when(adapterConfiguration.getCircuitBreakerSlowCallDuration()).thenReturn((int) TIMEOUT);
+        when(adapterConfiguration.getCircuitBreakerOpenDuration()).thenReturn((int) TIMEOUT);
+        when(adapterConfiguration.getCircuitBreakerProbeCount()).thenReturn(1);
+        // The hub asks for a pause, which holds the retry back while the circuit opens.
+        when(adapterConfiguration.isFlowControlEnabled()).thenReturn(true);
+        when(adapterConfiguration.getFlowControlMaxPause()).thenReturn((int) TIMEOUT);
+        WebSubHubAdapterDataHolder.getInstance().setPublishResilience(new PublishResilience(adapterConfiguration));
+        PublishDispatcher dispatcher = startSpoolingDispatcher();
+        try {
+            PublishTask task = newTask();
+            dispatcher.submit(task);
+            BasicHttpResponse throttled = new BasicHttpResponse(HttpVersion.HTTP_1_1, 429, "Too Many Requests");
+            throttled.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            throttled.setEntity(new StringEntity(""));
+            sentRequests.poll(TIMEOUT, TimeUnit.MILLISECONDS).completed(throttled);
+
+            // Other requests to the route fail until its circuit opens, before the retry is due.
+            CircuitBreaker circuitBreaker = WebSubHubAdapterUtil.getCircuitBreakers().values().iterator().next();
+            while (circuitBreaker.getState() != CircuitBreaker.State.OPEN) {
+                HttpPost request = new HttpPost(WEBSUB_HUB_BASE_URL);
+                request.setEntity(new StringEntity("{}"));
+                request.setHeader(CORRELATION_ID_REQUEST_HEADER, UUID.randomUUID().toString());
+                WebSubHubAdapterUtil.executePublishRequest(request, TENANT_DOMAIN, TOPIC, null);
+                sentRequests.poll(TIMEOUT, TimeUnit.MILLISECONDS).failed(new IllegalStateException("Rejected"));
+            }
+
+            assertEquals(task.getOutcome().get(TIMEOUT, TimeUnit.MILLISECONDS), PublishTask.Outcome.SPOOLED);
+            assertEquals(dispatcher.getSpooledCount(), 1);
+        } finally {
+            completeAll(dispatcher);
+        }
+    }
+
+    /**
+     * Starts a dispatcher like {@link #startDispatcher(QueueFullPolicy, int)}, which spools to a temporary directory.
+     */
+    private PublishDispatcher startSpoolingDispatcher() throws IOException {
+
+        spoolDirectory = Files.createTempDirectory("publish-spool");
+        WebSubAdapterConfiguration configuration = mock(WebSubAdapterConfiguration.class);
+        when(configuration.getPublishQueueCapacity()).thenReturn(1);
+        when(configuration.getPublishWorkerCount()).thenReturn(1);
+        when(configuration.getMaxInFlightPublishRequests()).thenReturn(1);
+        when(configuration.getPublishQueueFullPolicy()).thenReturn(QueueFullPolicy.FAIL_FAST);
+        when(configuration.isPublishSpoolEnabled()).thenReturn(true);
+        when(configuration.getPublishSpoolDirectory()).thenReturn(spoolDirectory.toString());
+        when(configuration.getPublishSpoolSegmentSize()).thenReturn(1);
+        when(configuration.getPublishSpoolMaxSize()).thenReturn(16);
+        when(configuration.getHttpReadTimeout()).thenReturn((int) TIMEOUT);
+        PublishDispatcher dispatcher = new PublishDispatcher(configuration);
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    /**
+     * Starts a dispatcher with a single worker, a queue of one event and a single request in flight.
+     */
+    private PublishDispatcher startDispatcher(QueueFullPolicy policy, int blockTimeout) {
+
+        WebSubAdapterConfiguration configuration = mock(WebSubAdapterConfiguration.class);
+        when(configuration.getPublishQueueCapacity()).thenReturn(1);
+        when(configuration.getPublishWorkerCount()).thenReturn(1);
+        when(configuration.getMaxInFlightPublishRequests()).thenReturn(1);
+        when(configuration.getPublishQueueFullPolicy()).thenReturn(policy);
+        when(configuration.getPublishQueueBlockTimeout()).thenReturn(blockTimeout);
+        PublishDispatcher dispatcher = new PublishDispatcher(configuration);
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    /**
+     * Leaves one request in flight, one event waiting in the worker and one event in the queue.
+     */
+    private void fillDispatcher(PublishDispatcher dispatcher) throws Exception {
+
+        dispatcher.submit(newTask());
+        waitUntil(() -> sentRequests.size() == 1);
+        dispatcher.submit(newTask());
+        waitUntil(() -> dispatcher.getQueueSize() == 0);
+        dispatcher.submit(newTask());
+        assertEquals(dispatcher.getQueueSize(), 1);
+    }
+
+    private void assertQueueFull(PublishDispatcher dispatcher) {
+
+        try {
+            dispatcher.submit(newTask());
+            fail("The event must be rejected as the publish queue is full.");
+        } catch (WebSubAdapterException e) {
+            assertEquals(e.getErrorCode(), ERROR_PUBLISH_QUEUE_FULL.getCode());
+        }
+    }
+
+    /**
+     * Shuts the dispatcher down while completing every request it sends, so that the workers can drain the queue.
+     */
+    private void completeAll(PublishDispatcher dispatcher) throws InterruptedException {
+
+        Thread completer = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    complete(sentRequests.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        completer.start();
+        dispatcher.shutdown();
+        completer.interrupt();
+        completer.join();
+        // Requests sent by the workers just before they stopped may not have been taken by the completer.
+        FutureCallback<HttpResponse> callback;
+        while ((callback = sentRequests.poll()) != null) {
+            complete(callback);
+        }
+    }
+
+    private static void complete(FutureCallback<HttpResponse> callback) {
+
+        callback.completed(new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_ACCEPTED, "Accepted"));
+    }
+
+    private static PublishTask newTask() {
+
+        return newTask(null);
+    }
+
+    /**
+     * Creates an event, optionally recording the threads which encode it.
+     */
+    private static PublishTask newTask(Set<String> encodingThreads) {
+
+        SecurityEventTokenPayload payload = encodingThreads == null ? new SecurityEventTokenPayload() :
+                new SecurityEventTokenPayload() {
+
+                    @Override
+                    public String getJti() {
+
+                        encodingThreads.add(Thread.currentThread().getName());
+                        return super.getJti();
+                    }
+                };
+        payload.setJti(UUID.randomUUID().toString());
+        payload.setEvent(Collections.emptyMap());
+        return new PublishTask(payload, TENANT_DOMAIN, TOPIC, null, WEBSUB_HUB_BASE_URL,
+                UUID.randomUUID().toString());
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within " + TIMEOUT + " ms.");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
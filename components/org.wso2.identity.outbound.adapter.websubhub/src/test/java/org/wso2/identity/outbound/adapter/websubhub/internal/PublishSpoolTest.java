@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.util.EntityUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for {@link PublishSpool}.
+ */
+public class PublishSpoolTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+    private static final long SYNC_INTERVAL = 100;
+
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory("publish-spool");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testRecordsAreReplayedInOrder() throws IOException {
+
+        try (PublishSpool spool = new PublishSpool(directory, SEGMENT_SIZE, 4 * SEGMENT_SIZE, SYNC_INTERVAL)) {
+            // Enough records to roll over to further segments.
+            for (int i = 0; i < 20; i++) {
+                assertTrue(spool.append(newRecord(i)));
+            }
+
+            for (int i = 0; i < 20; i++) {
+                assertRecord(spool.peek(), i);
+                // A record is returned again until it is committed.
+                assertRecord(spool.peek(), i);
+                spool.commit();
+            }
+            assertNull(spool.peek());
+            assertTrue(spool.isEmpty());
+        }
+    }
+
+    @Test
+    public void testRestartResumesFromCheckpoint() throws IOException {
+
+        try (PublishSpool spool = new PublishSpool(directory, SEGMENT_SIZE, 4 * SEGMENT_SIZE, SYNC_INTERVAL)) {
+            for (int i = 0; i < 10; i++) {
+                spool.append(newRecord(i));
+            }
+            for (int i = 0; i < 4; i++) {
+                spool.peek();
+                spool.commit();
+            }
+        }
+
+        try (PublishSpool spool = new PublishSpool(directory, SEGMENT_SIZE, 4 * SEGMENT_SIZE, SYNC_INTERVAL)) {
+            assertEquals(spool.size(), 6);
+            assertRecord(spool.peek(), 4);
+            spool.commit();
+            spool.append(newRecord(10));
+            for (int i = 5; i <= 10; i++) {
+                assertRecord(spool.peek(), i);
+                spool.commit();
+            }
+            assertNull(spool.peek());
+        }
+    }
+
+    @Test
+    public void testTornRecordIsDiscardedOnRestart() throws IOException {
+
+        try (PublishSpool spool = new PublishSpool(directory, SEGMENT_SIZE, 4 * SEGMENT_SIZE, SYNC_INTERVAL)) {
+            spool.append(newRecord(0));
+            spool.append(newRecord(1));
+        }
+        // Corrupt the payload of the second record, as a crash in the middle of an append would.
+        int firstRecordSize = 2 * Integer.BYTES + newRecord(0).encode().length;
+        try (RandomAccessFile segment = new RandomAccessFile(onlySegment().toFile(), "rw")) {
+            segment.seek(firstRecordSize + 2 * Integer.BYTES + 3);
+            segment.write(0x7f);
+        }
+
+        try (PublishSpool spool = new PublishSpool(directory, SEGMENT_SIZE, 4 * SEGMENT_SIZE, SYNC_INTERVAL)) {
+            assertEquals(spool.size(), 1);
+            spool.append(newRecord(2));
+            assertRecord(spool.peek(), 0);
+            spool.commit();
+            assertRecord(spool.peek(), 2);
+        }
+    }
+
+    @Test
+    public void testSizeIsBounded() throws IOException {
+
+        try (PublishSpool spool = new PublishSpool(directory, SEGMENT_SIZE, 2 * SEGMENT_SIZE, SYNC_INTERVAL)) {
+            int appended = 0;
+            while (spool.append(newRecord(appended))) {
+                appended++;
+            }
+            assertTrue(appended > 0);
+            assertFalse(spool.append(newRecord(appended)));
+
+            // Consumed segments are deleted, which makes room again.
+            while (spool.peek() != null) {
+                spool.commit();
+            }
+            assertTrue(spool.append(newRecord(appended)));
+            // A record larger than a segment never fits.
+            assertFalse(spool.append(new PublishSpool.Record("https://hub.example.com/hub", "carbon.super",
+                    "topic", "application/json", "correlation", "", new byte[SEGMENT_SIZE])));
+        }
+    }
+
+    @Test
+    public void testSpoolFilesAreReadableByTheOwnerOnly() throws IOException {
+
+        try (PublishSpool spool = new PublishSpool(directory, SEGMENT_SIZE, 4 * SEGMENT_SIZE, SYNC_INTERVAL)) {
+            spool.append(newRecord(0));
+        }
+        if (!directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                assertEquals(PosixFilePermissions.toString(Files.getPosixFilePermissions(file)), "rw-------",
+                        String.valueOf(file.getFileName()));
+            }
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*")) {
+            return files.iterator().next();
+        }
+    }
+
+    private static PublishSpool.Record newRecord(int index) {
+
+        return new PublishSpool.Record("https://hub.example.com/hub?hub.mode=publish&hub.topic=topic", "carbon.super",
+                "topic", "application/json", "correlation-" + index, "jti-" + index,
+                ("{\"event\":" + index + ",\"padding\":\"" + new String(new char[200]).replace('\0', 'x') + "\"}")
+                        .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertRecord(PublishSpool.Record record, int index) throws IOException {
+
+        HttpPost request = record.toRequest();
+        assertEquals(record.getCorrelationId(), "correlation-" + index);
+        assertEquals(request.getFirstHeader("Idempotency-Key").getValue(), "jti-" + index);
+        assertTrue(EntityUtils.toString(request.getEntity()).startsWith("{\"event\":" + index + ","));
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.testng.annotations.Test;
+import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_HUB_CLIENT_RESTARTING;
+
+/**
+ * Test class for {@link SupervisedClient}.
+ */
+public class SupervisedClientTest {
+
+    // Replacements are built on the calling thread.
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    @Test
+    public void testStoppedClientIsReplacedOnGet() throws Exception {
+
+        List<CloseableHttpAsyncClient> clients = new ArrayList<>();
+        SupervisedClient supervisedClient = new SupervisedClient("test", stopped -> newClient(clients),
+                DIRECT_EXECUTOR);
+        CloseableHttpAsyncClient stopped = clients.get(0);
+        assertSame(supervisedClient.get(), stopped);
+        when(stopped.isRunning()).thenReturn(false);
+
+        try {
+            supervisedClient.get();
+            fail("A stopped client should not be returned.");
+        } catch (WebSubAdapterException e) {
+            assertEquals(e.getErrorCode(), ERROR_HUB_CLIENT_RESTARTING.getCode());
+        }
+
+        assertEquals(clients.size(), 2);
+        assertSame(supervisedClient.get(), clients.get(1));
+        assertTrue(supervisedClient.isRetired(stopped));
+        assertFalse(supervisedClient.isRetired(clients.get(1)));
+        assertEquals(supervisedClient.getRestartCount(), 1);
+        // Closing the stopped client releases the requests it still held.
+        verify(stopped).close();
+    }
+
+    @Test
+    public void testStoppedClientIsReplacedOnCheck() throws Exception {
+
+        List<CloseableHttpAsyncClient> clients = new ArrayList<>();
+        List<SupervisedClient.PooledClient> replaced = new ArrayList<>();
+        SupervisedClient supervisedClient = new SupervisedClient("test", stopped -> {
+            replaced.add(stopped);
+            return newClient(clients);
+        }, DIRECT_EXECUTOR);
+
+        supervisedClient.check();
+        assertEquals(clients.size(), 1);
+
+        PoolingNHttpClientConnectionManager connectionManager = supervisedClient.getConnectionManager();
+        when(clients.get(0).isRunning()).thenReturn(false);
+        supervisedClient.check();
+
+        assertEquals(clients.size(), 2);
+        assertEquals(supervisedClient.getRestartCount(), 1);
+        // The factory is given the stopped client, so that the replacement can keep its pool size.
+        assertEquals(replaced.get(1).getConnectionManager(), connectionManager);
+        assertSame(supervisedClient.get(), clients.get(1));
+    }
+
+    @Test
+    public void testClosedClientIsNotReplaced() throws Exception {
+
+        List<CloseableHttpAsyncClient> clients = new ArrayList<>();
+        SupervisedClient supervisedClient = new SupervisedClient("test", stopped -> newClient(clients),
+                DIRECT_EXECUTOR);
+        CloseableHttpAsyncClient client = clients.get(0);
+
+        supervisedClient.close();
+        verify(client).close();
+        when(client.isRunning()).thenReturn(false);
+        supervisedClient.check();
+
+        assertEquals(clients.size(), 1);
+        assertEquals(supervisedClient.getRestartCount(), 0);
+        assertFalse(supervisedClient.isRetired(client));
+    }
+
+    @Test
+    public void testReplacementIsClosedIfClosedWhileBuilding() throws Exception {
+
+        List<CloseableHttpAsyncClient> clients = new ArrayList<>();
+        SupervisedClient[] supervisedClient = new SupervisedClient[1];
+        supervisedClient[0] = new SupervisedClient("test", stopped -> {
+            if (stopped != null) {
+                // The adapter is deactivated while the replacement is being built.
+                supervisedClient[0].close();
+            }
+            return newClient(clients);
+        }, DIRECT_EXECUTOR);
+        CloseableHttpAsyncClient stopped = clients.get(0);
+        when(stopped.isRunning()).thenReturn(false);
+
+        supervisedClient[0].check();
+
+        assertEquals(clients.size(), 2);
+        verify(stopped, atLeastOnce()).close();
+        verify(clients.get(1)).close();
+    }
+
+    @Test
+    public void testFailedReplacementIsRetried() throws Exception {
+
+        List<CloseableHttpAsyncClient> clients = new ArrayList<>();
+        boolean[] failing = {false};
+        SupervisedClient supervisedClient = new SupervisedClient("test", stopped -> {
+            if (failing[0]) {
+                throw new WebSubAdapterException("Unable to create the client.", "65000");
+            }
+            return newClient(clients);
+        }, DIRECT_EXECUTOR);
+        CloseableHttpAsyncClient stopped = clients.get(0);
+        when(stopped.isRunning()).thenReturn(false);
+
+        failing[0] = true;
+        supervisedClient.check();
+        assertEquals(supervisedClient.getRestartCount(), 0);
+        verify(stopped, never()).close();
+
+        failing[0] = false;
+        supervisedClient.check();
+        assertEquals(supervisedClient.getRestartCount(), 1);
+        assertSame(supervisedClient.get(), clients.get(1));
+    }
+
+    private static SupervisedClient.PooledClient newClient(List<CloseableHttpAsyncClient> clients) {
+
+        CloseableHttpAsyncClient client = mock(CloseableHttpAsyncClient.class);
+        when(client.isRunning()).thenReturn(true);
+        clients.add(client);
+        return new SupervisedClient.PooledClient(client, mock(PoolingNHttpClientConnectionManager.class));
+    }
+}
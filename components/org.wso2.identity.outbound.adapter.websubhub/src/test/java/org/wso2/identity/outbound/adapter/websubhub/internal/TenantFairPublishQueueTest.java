@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.internal;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for {@link TenantFairPublishQueue}.
+ */
+public class TenantFairPublishQueueTest {
+
+    @Test
+    public void testTenantsAreServedInTurns() throws InterruptedException {
+
+        TenantFairPublishQueue queue = new TenantFairPublishQueue(1000, 1000, 2, 0, 0);
+        for (int i = 0; i < 100; i++) {
+            queue.offer(newTask("noisy"));
+        }
+        queue.offer(newTask("quiet"));
+        queue.offer(newTask("quiet"));
+
+        // The quiet tenant gets its turn right after the first quantum of the noisy tenant.
+        assertEquals(pollTenants(queue, 5), "noisy,noisy,quiet,quiet,noisy");
+        assertEquals(queue.size(), 97);
+    }
+
+    @Test
+    public void testTenantCapacityIsBounded() {
+
+        TenantFairPublishQueue queue = new TenantFairPublishQueue(10, 4, 2, 0, 0);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(newTask("noisy")));
+        }
+
+        assertFalse(queue.offer(newTask("noisy")));
+        assertEquals(queue.remainingCapacity(newTask("noisy")), 0);
+        assertEquals(queue.remainingCapacity(newTask("quiet")), 4);
+        assertTrue(queue.offer(newTask("quiet")));
+    }
+
+    @Test
+    public void testTenantAtInFlightLimitIsSkipped() throws InterruptedException {
+
+        TenantFairPublishQueue queue = new TenantFairPublishQueue(1000, 1000, 1, 1, 0);
+        queue.offer(newTask("noisy"));
+        queue.offer(newTask("noisy"));
+        queue.offer(newTask("quiet"));
+        queue.onRequestStarted(newTask("noisy"));
+
+        assertEquals(pollTenants(queue, 1), "quiet");
+        assertNull(queue.poll(20, TimeUnit.MILLISECONDS));
+        queue.onRequestCompleted(newTask("noisy"));
+        assertEquals(pollTenants(queue, 1), "noisy");
+    }
+
+    @Test
+    public void testTenantRateIsLimited() throws InterruptedException {
+
+        TenantFairPublishQueue queue = new TenantFairPublishQueue(1000, 1000, 10, 0, 10);
+        for (int i = 0; i < 20; i++) {
+            queue.offer(newTask("noisy"));
+        }
+
+        // A second worth of events is handed over at once, the rest at the limited rate.
+        assertEquals(pollTenants(queue, 10).split(",").length, 10);
+        assertNull(queue.poll(20, TimeUnit.MILLISECONDS));
+        assertEquals(pollTenants(queue, 1), "noisy");
+    }
+
+    private static String pollTenants(TenantFairPublishQueue queue, int count) throws InterruptedException {
+
+        List<String> tenants = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tenants.add(queue.poll(500, TimeUnit.MILLISECONDS).getTenantDomain());
+        }
+        return String.join(",", tenants);
+    }
+
+    private static PublishTask newTask(String tenantDomain) {
+
+        return new PublishTask(null, tenantDomain, "topic", "eventUri", "https://hub.example.com/hub",
+                "correlation");
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.service;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration;
+import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterException;
+import org.wso2.identity.outbound.adapter.websubhub.internal.ClientManager;
+import org.wso2.identity.outbound.adapter.websubhub.internal.WebSubHubAdapterDataHolder;
+import org.wso2.identity.outbound.adapter.websubhub.model.TopicOperationResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_TOPIC_MGT_REQUEST_INTERRUPTED;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.HUB_TOPIC;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.RESPONSE_FOR_SUCCESSFUL_OPERATION;
+
+/**
+ * Test class for the bulk topic operations of {@link WebSubHubAdapterServiceImpl}.
+ */
+public class WebSubHubAdapterServiceImplTest {
+
+    private static final String WEBSUB_HUB_BASE_URL = "https://test.com/websub/hub";
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final int PARALLELISM = 2;
+    private static final long TIMEOUT = 5000;
+
+    private final BlockingQueue<SentRequest> sentRequests = new LinkedBlockingQueue<>();
+    private final List<HttpPost> allRequests = new ArrayList<>();
+
+    @BeforeMethod
+    public void setUp() throws WebSubAdapterException {
+
+        sentRequests.clear();
+        allRequests.clear();
+        // The hub never answers on its own, so that each test decides when a request completes.
+        CloseableHttpAsyncClient client = mock(CloseableHttpAsyncClient.class);
+        when(client.execute(any(HttpUriRequest.class), any(FutureCallback.class))).thenAnswer(invocation -> {
+            HttpPost request = invocation.getArgument(0);
+            synchronized (allRequests) {
+                allRequests.add(request);
+            }
+            sentRequests.add(new SentRequest(request, invocation.getArgument(1)));
+            return null;
+        });
+        ClientManager clientManager = mock(ClientManager.class);
+        when(clientManager.getClient()).thenReturn(client);
+        WebSubAdapterConfiguration configuration = mock(WebSubAdapterConfiguration.class);
+        when(configuration.isAdapterEnabled()).thenReturn(true);
+        when(configuration.getWebSubHubBaseUrl()).thenReturn(WEBSUB_HUB_BASE_URL);
+        when(configuration.getTopicManagementParallelism()).thenReturn(PARALLELISM);
+        WebSubHubAdapterDataHolder.getInstance().setClientManager(clientManager);
+        WebSubHubAdapterDataHolder.getInstance().setAdapterConfiguration(configuration);
+        WebSubHubAdapterDataHolder.getInstance().setTopicRegistry(null);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        WebSubHubAdapterDataHolder.getInstance().setClientManager(null);
+        WebSubHubAdapterDataHolder.getInstance().setAdapterConfiguration(null);
+    }
+
+    @Test
+    public void testRequestsInFlightAreCapped() throws Exception {
+
+        List<String> suffixes = Arrays.asList("A", "B", "C", "D", "E");
+        CompletableFuture<Map<String, TopicOperationResult>> results = manageTopicsAsync(true, suffixes);
+
+        for (int completed = 0; completed < suffixes.size(); completed++) {
+            int inFlight = Math.min(PARALLELISM, suffixes.size() - completed);
+            waitUntil(() -> sentRequests.size() == inFlight);
+            // No further request is sent until one of the requests in flight completes.
+            Thread.sleep(50);
+            assertEquals(sentRequests.size(), inFlight);
+            respond(sentRequests.take(), HttpStatus.SC_OK, RESPONSE_FOR_SUCCESSFUL_OPERATION);
+        }
+
+        Map<String, TopicOperationResult> resultMap = results.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertEquals(new ArrayList<>(resultMap.keySet()), suffixes);
+        assertEquals(allRequests.size(), suffixes.size());
+        for (TopicOperationResult result : resultMap.values()) {
+            assertEquals(result.getStatus(), TopicOperationResult.Status.SUCCEEDED);
+        }
+    }
+
+    @Test
+    public void testMixedResultsAreReportedPerTopic() throws Exception {
+
+        CompletableFuture<Map<String, TopicOperationResult>> results =
+                manageTopicsAsync(true, Arrays.asList("created", "existing", "rejected"));
+        respondToAll(results);
+
+        Map<String, TopicOperationResult> resultMap = results.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertEquals(resultMap.size(), 3);
+        assertEquals(resultMap.get("created").getStatus(), TopicOperationResult.Status.SUCCEEDED);
+        assertNull(resultMap.get("created").getError());
+        assertEquals(resultMap.get("existing").getStatus(), TopicOperationResult.Status.UNCHANGED);
+        assertNull(resultMap.get("existing").getError());
+        assertEquals(resultMap.get("rejected").getStatus(), TopicOperationResult.Status.FAILED);
+        assertNotNull(resultMap.get("rejected").getError());
+    }
+
+    @Test
+    public void testDuplicateSuffixesAreDeregisteredOnce() throws Exception {
+
+        CompletableFuture<Map<String, TopicOperationResult>> results =
+                manageTopicsAsync(false, Arrays.asList("A", "B", "A", "B", "A"));
+        respondToAll(results);
+
+        Map<String, TopicOperationResult> resultMap = results.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertEquals(new ArrayList<>(resultMap.keySet()), Arrays.asList("A", "B"));
+        assertEquals(allRequests.size(), 2);
+    }
+
+    @Test
+    public void testInterruptCancelsRequestsInFlight() throws Exception {
+
+        AtomicReference<WebSubAdapterException> error = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                new WebSubHubAdapterServiceImpl().registerTopics(Arrays.asList("A", "B", "C"), TENANT_DOMAIN);
+            } catch (WebSubAdapterException e) {
+                error.set(e);
+            }
+        });
+        caller.start();
+        waitUntil(() -> sentRequests.size() == PARALLELISM);
+        caller.interrupt();
+        caller.join(TIMEOUT);
+
+        assertNotNull(error.get());
+        assertEquals(error.get().getErrorCode(), ERROR_TOPIC_MGT_REQUEST_INTERRUPTED.getCode());
+        assertTrue(error.get().getDescription().contains(TENANT_DOMAIN + "-A"));
+        assertEquals(allRequests.size(), PARALLELISM);
+        for (HttpPost request : allRequests) {
+            assertTrue(request.isAborted());
+        }
+    }
+
+    private CompletableFuture<Map<String, TopicOperationResult>> manageTopicsAsync(boolean register,
+                                                                                   List<String> suffixes) {
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                WebSubHubAdapterServiceImpl service = new WebSubHubAdapterServiceImpl();
+                return register ? service.registerTopics(suffixes, TENANT_DOMAIN) :
+                        service.deregisterTopics(suffixes, TENANT_DOMAIN);
+            } catch (WebSubAdapterException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /**
+     * Answer each request as the hub would for its topic: "existing" topics are already registered, "rejected"
+     * topics fail and all other topics succeed.
+     */
+    private void respondToAll(CompletableFuture<?> results) throws InterruptedException {
+
+        while (!results.isDone()) {
+            SentRequest sentRequest = sentRequests.poll(10, TimeUnit.MILLISECONDS);
+            if (sentRequest == null) {
+                continue;
+            }
+            String uri = sentRequest.request.getURI().toString();
+            String topic = uri.substring(uri.indexOf(HUB_TOPIC + "=") + HUB_TOPIC.length() + 1);
+            if (topic.endsWith("-existing")) {
+                respond(sentRequest, HttpStatus.SC_CONFLICT, "");
+            } else if (topic.endsWith("-rejected")) {
+                respond(sentRequest, HttpStatus.SC_BAD_REQUEST, "");
+            } else {
+                respond(sentRequest, HttpStatus.SC_OK, RESPONSE_FOR_SUCCESSFUL_OPERATION);
+            }
+        }
+    }
+
+    private static void respond(SentRequest sentRequest, int statusCode, String body) {
+
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, null);
+        response.setEntity(new StringEntity(body, StandardCharsets.UTF_8));
+        sentRequest.callback.completed(response);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within " + TIMEOUT + " ms.");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class SentRequest {
+
+        private final HttpPost request;
+        private final FutureCallback<HttpResponse> callback;
+
+        SentRequest(HttpPost request, FutureCallback<HttpResponse> callback) {
+
+            this.request = request;
+            this.callback = callback;
+        }
+    }
+}
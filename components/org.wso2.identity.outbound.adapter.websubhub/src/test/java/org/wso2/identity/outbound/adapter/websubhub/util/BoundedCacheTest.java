@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for {@link BoundedCache}.
+ */
+public class BoundedCacheTest {
+
+    @Test
+    public void testSizeIsBounded() {
+
+        BoundedCache<String, Integer> cache = new BoundedCache<>(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("tenant-" + i, i);
+        }
+
+        assertEquals(cache.size(), 100);
+        assertEquals(cache.getEvictionCount(), 900);
+    }
+
+    @Test
+    public void testFrequentlyUsedEntriesSurviveScan() {
+
+        BoundedCache<String, Integer> cache = new BoundedCache<>(100);
+        for (int i = 0; i < 10; i++) {
+            cache.put("hot-" + i, i);
+        }
+        // A scan of one-off tenants must not push out the ones which keep publishing.
+        for (int i = 0; i < 10000; i++) {
+            cache.put("cold-" + i, i);
+            if (i % 100 == 0) {
+                for (int j = 0; j < 10; j++) {
+                    for (int k = 0; k < 5; k++) {
+                        cache.get("hot-" + j);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(cache.get("hot-" + i), "Frequently used entry hot-" + i + " was evicted.");
+        }
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    public void testHitAndMissCounters() {
+
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10);
+        cache.put("tenant", 1);
+
+        assertEquals(cache.get("tenant"), Integer.valueOf(1));
+        assertNull(cache.get("unknown"));
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 1);
+
+        // Peeking does not count as a lookup.
+        assertEquals(cache.peek("tenant"), Integer.valueOf(1));
+        assertNull(cache.peek("unknown"));
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 1);
+    }
+
+    @Test
+    public void testConditionalUpdates() {
+
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10);
+
+        assertTrue(cache.putIfAbsent("tenant", 1));
+        assertFalse(cache.putIfAbsent("tenant", 2));
+        assertFalse(cache.replace("tenant", 2, 3));
+        assertTrue(cache.replace("tenant", 1, 3));
+        assertEquals(cache.get("tenant"), Integer.valueOf(3));
+        cache.remove("tenant");
+        assertNull(cache.get("tenant"));
+    }
+}
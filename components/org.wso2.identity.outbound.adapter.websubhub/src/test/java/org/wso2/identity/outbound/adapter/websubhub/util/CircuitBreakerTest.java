@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for {@link CircuitBreaker}.
+ */
+public class CircuitBreakerTest {
+
+    private static final long SLOW_CALL_DURATION = 250;
+    private static final long OPEN_DURATION = 100;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testOpensOnFailureRate() {
+
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onResult(10, i % 2 == 0);
+        }
+
+        assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        assertFalse(breaker.tryAcquire());
+        assertEquals(breaker.getRejectedCount(), 1);
+        assertEquals(breaker.getOpenedCount(), 1);
+    }
+
+    @Test
+    public void testOpensOnSlowCallRate() {
+
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < 9; i++) {
+            breaker.tryAcquire();
+            breaker.onResult(i < 7 ? SLOW_CALL_DURATION : 10, false);
+            assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+        }
+        breaker.tryAcquire();
+        breaker.onResult(SLOW_CALL_DURATION, false);
+
+        assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        assertEquals(breaker.getSlowCallRate(), 80);
+    }
+
+    @Test
+    public void testStaysClosedBelowMinimumCalls() {
+
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < 9; i++) {
+            breaker.tryAcquire();
+            breaker.onResult(10, true);
+        }
+
+        assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+        assertEquals(breaker.getFailureRate(), 100);
+    }
+
+    @Test
+    public void testProbesCloseOrReopenTheBreaker() {
+
+        CircuitBreaker breaker = newBreaker();
+        openBreaker(breaker);
+        clock.addAndGet(OPEN_DURATION - 1);
+        assertFalse(breaker.tryAcquire());
+        clock.incrementAndGet();
+
+        // Only the probe calls pass while half open, and a failed probe opens the breaker again.
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN);
+        breaker.onResult(10, true);
+        assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        assertFalse(breaker.tryAcquire());
+
+        clock.addAndGet(OPEN_DURATION);
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(10, false);
+        breaker.onResult(10, false);
+        assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+        assertEquals(breaker.getFailureRate(), 0);
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testCancelledProbeFreesItsSlot() {
+
+        CircuitBreaker breaker = newBreaker();
+        openBreaker(breaker);
+        clock.addAndGet(OPEN_DURATION - 1);
+        assertFalse(breaker.tryAcquire());
+        clock.incrementAndGet();
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        // A probe that was never sent gives its slot to the next call.
+        breaker.onCancelled();
+        assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN);
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onResult(10, false);
+        breaker.onResult(10, false);
+        assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+    }
+
+    private static void openBreaker(CircuitBreaker breaker) {
+
+        for (int i = 0; i < 10; i++) {
+            breaker.tryAcquire();
+            breaker.onResult(10, true);
+        }
+        assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+    }
+
+    private CircuitBreaker newBreaker() {
+
+        return new CircuitBreaker("https://hub.example.com", 20, 10, 50, 80, SLOW_CALL_DURATION, OPEN_DURATION, 2,
+                clock::get);
+    }
+}
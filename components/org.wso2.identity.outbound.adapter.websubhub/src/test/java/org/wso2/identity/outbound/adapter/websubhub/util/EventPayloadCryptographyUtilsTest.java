@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.event.IdentityEventException;
+
+import java.math.BigInteger;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECFieldFp;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.EllipticCurve;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for {@link EventPayloadCryptographyUtils}.
+ */
+public class EventPayloadCryptographyUtilsTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String SECP256K1_GENERATOR_X =
+            "79BE667EF9DCBBAC55A06295CE870B07029BFCDB2DCE28D959F2815B16F81798";
+    private static final String SECP256K1_GENERATOR_Y =
+            "483ADA7726A3C4655DA4FBFC0E1108A8FD17B448A68554199C47D08FFB10D4B8";
+
+    @Test
+    public void testDecodedPublicKeyIsReused() throws Exception {
+
+        PublicKey first = generateKey("RSA", 2048);
+        PublicKey second = generateKey("RSA", 2048);
+        AtomicReference<String> keyResponse = new AtomicReference<>(toKeyResponse(first));
+        AtomicInteger decodeCount = new AtomicInteger();
+        TenantKeyCache<PublicKey> cache = new TenantKeyCache<>(tenantDomain -> {
+            CompletableFuture<PublicKey> future = new CompletableFuture<>();
+            try {
+                decodeCount.incrementAndGet();
+                future.complete(EventPayloadCryptographyUtils.decodePublicKey(keyResponse.get(), tenantDomain));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }, Runnable::run, 200, 1.0, 0, 10, 1000, 10);
+
+        PublicKey cached = cache.get(TENANT_DOMAIN);
+        assertEquals(cached, first);
+        // Cache hits return the decoded key as is, without decoding the key response again.
+        assertSame(cache.get(TENANT_DOMAIN), cached);
+        assertSame(cache.get(TENANT_DOMAIN), cached);
+        assertEquals(decodeCount.get(), 1);
+
+        // Once the entry expires, the changed key is fetched and decoded again.
+        keyResponse.set(toKeyResponse(second));
+        Thread.sleep(250);
+        PublicKey refreshed = cache.get(TENANT_DOMAIN);
+        assertNotSame(refreshed, cached);
+        assertEquals(refreshed, second);
+        assertSame(cache.get(TENANT_DOMAIN), refreshed);
+        assertEquals(decodeCount.get(), 2);
+    }
+
+    @Test
+    public void testP256KeyIsAccepted() throws Exception {
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        PublicKey publicKey = keyPairGenerator.generateKeyPair().getPublic();
+
+        assertEquals(EventPayloadCryptographyUtils.decodePublicKey(toKeyResponse(publicKey), TENANT_DOMAIN),
+                publicKey);
+    }
+
+    @Test
+    public void testOtherCurvesOfSameFieldSizeAreRejected() throws Exception {
+
+        // secp256k1 has a 256-bit field like P-256, but different domain parameters.
+        ECParameterSpec secp256k1 = new ECParameterSpec(
+                new EllipticCurve(new ECFieldFp(new BigInteger(
+                        "FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEFFFFFC2F", 16)),
+                        BigInteger.ZERO, BigInteger.valueOf(7)),
+                new ECPoint(new BigInteger(SECP256K1_GENERATOR_X, 16), new BigInteger(SECP256K1_GENERATOR_Y, 16)),
+                new BigInteger("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEBAAEDCE6AF48A03BBFD25E8CD0364141", 16), 1);
+        assertFalse(EventPayloadCryptographyUtils.isP256Curve(secp256k1));
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        ECParameterSpec p256 = ((ECPublicKey) keyPairGenerator.generateKeyPair().getPublic()).getParams();
+        assertTrue(EventPayloadCryptographyUtils.isP256Curve(p256));
+        // The P-256 curve with another base point is not P-256 either.
+        ECPoint generator = p256.getGenerator();
+        ECPoint negatedGenerator = new ECPoint(generator.getAffineX(),
+                ((ECFieldFp) p256.getCurve().getField()).getP().subtract(generator.getAffineY()));
+        assertFalse(EventPayloadCryptographyUtils.isP256Curve(new ECParameterSpec(p256.getCurve(), negatedGenerator,
+                p256.getOrder(), p256.getCofactor())));
+    }
+
+    @Test(expectedExceptions = IdentityEventException.class)
+    public void testSecp256k1KeyIsRejected() throws Exception {
+
+        // X.509 encoding of the secp256k1 generator point as a public key.
+        String encodedKey = "3056301006072A8648CE3D020106052B8104000A03420004" + SECP256K1_GENERATOR_X +
+                SECP256K1_GENERATOR_Y;
+        byte[] keyBytes = new BigInteger(encodedKey, 16).toByteArray();
+        EventPayloadCryptographyUtils.decodePublicKey(
+                "{\"key\":\"" + Base64.getEncoder().encodeToString(keyBytes) + "\"}", TENANT_DOMAIN);
+    }
+
+    private static PublicKey generateKey(String algorithm, int keySize) throws Exception {
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(algorithm);
+        keyPairGenerator.initialize(keySize);
+        return keyPairGenerator.generateKeyPair().getPublic();
+    }
+
+    private static String toKeyResponse(PublicKey publicKey) {
+
+        return "{\"key\":\"" + Base64.getEncoder().encodeToString(publicKey.getEncoded()) + "\"}";
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Multi-threaded benchmark of event payload encryption, comparing ciphers looked up for every payload together with
+ * a key generator and random source shared by all threads, with the per thread {@link PayloadCryptoEngine}. Both a
+ * new data encryption key per payload and a reused data encryption key are measured, the former also with a P-256
+ * key wrapping with ECDH-ES+A128KW instead of RSA.
+ * Run with {@code java -cp <test classpath> org.wso2.identity.outbound.adapter.websubhub.util.PayloadCryptoEngineBenchmark},
+ * which repeats the benchmark with 1, 2, 4, ... threads up to the number of available processors to show how the
+ * throughput scales with the core count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadCryptoEngineBenchmark {
+
+    private static final int PAYLOAD_SIZE = 1024;
+
+    private SecureRandom sharedSecureRandom;
+    private KeyGenerator sharedKeyGenerator;
+    private PublicKey publicKey;
+    private PublicKey ecPublicKey;
+    private SecretKey reusedKey;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws GeneralSecurityException {
+
+        sharedSecureRandom = new SecureRandom();
+        sharedKeyGenerator = KeyGenerator.getInstance("AES");
+        sharedKeyGenerator.init(128);
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        publicKey = keyPairGenerator.generateKeyPair().getPublic();
+        KeyPairGenerator ecKeyPairGenerator = KeyPairGenerator.getInstance("EC");
+        ecKeyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        ecPublicKey = ecKeyPairGenerator.generateKeyPair().getPublic();
+        reusedKey = sharedKeyGenerator.generateKey();
+        char[] event = new char[PAYLOAD_SIZE];
+        Arrays.fill(event, 'e');
+        payload = new String(event).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] sharedCryptoObjectsNewKey() throws GeneralSecurityException {
+
+        SecretKey symmetricKey = sharedKeyGenerator.generateKey();
+        Cipher asymmetricCipher = Cipher.getInstance("RSA");
+        asymmetricCipher.init(Cipher.ENCRYPT_MODE, publicKey);
+        asymmetricCipher.doFinal(symmetricKey.getEncoded());
+        return encryptWithSharedCryptoObjects(symmetricKey);
+    }
+
+    @Benchmark
+    public byte[] pooledEngineNewKey() throws GeneralSecurityException {
+
+        PayloadCryptoEngine engine = PayloadCryptoEngine.acquire();
+        try {
+            SecretKey symmetricKey = engine.generateKey();
+            engine.wrapKey(symmetricKey, publicKey);
+            return engine.initSymmetricEncryption(symmetricKey).doFinal(payload);
+        } finally {
+            engine.release();
+        }
+    }
+
+    @Benchmark
+    public byte[] pooledEngineNewKeyEllipticCurve() throws GeneralSecurityException {
+
+        PayloadCryptoEngine engine = PayloadCryptoEngine.acquire();
+        try {
+            SecretKey symmetricKey = engine.generateKey();
+            engine.wrapKey(symmetricKey, ecPublicKey);
+            return engine.initSymmetricEncryption(symmetricKey).doFinal(payload);
+        } finally {
+            engine.release();
+        }
+    }
+
+    @Benchmark
+    public byte[] sharedCryptoObjectsReusedKey() throws GeneralSecurityException {
+
+        return encryptWithSharedCryptoObjects(reusedKey);
+    }
+
+    @Benchmark
+    public byte[] pooledEngineReusedKey() throws GeneralSecurityException {
+
+        PayloadCryptoEngine engine = PayloadCryptoEngine.acquire();
+        try {
+            return engine.initSymmetricEncryption(reusedKey).doFinal(payload);
+        } finally {
+            engine.release();
+        }
+    }
+
+    private byte[] encryptWithSharedCryptoObjects(SecretKey symmetricKey) throws GeneralSecurityException {
+
+        byte[] iv = new byte[WebSubHubAdapterConstants.GCM_IV_LENGTH];
+        sharedSecureRandom.nextBytes(iv);
+        Cipher symmetricCipher = Cipher.getInstance("AES/GCM/NoPadding");
+        symmetricCipher.init(Cipher.ENCRYPT_MODE, symmetricKey,
+                new GCMParameterSpec(WebSubHubAdapterConstants.GCM_TAG_LENGTH, iv));
+        return symmetricCipher.doFinal(payload);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, processors)) {
+            new Runner(new OptionsBuilder().include(PayloadCryptoEngineBenchmark.class.getSimpleName())
+                    .threads(threads).build()).run();
+            if (threads == processors) {
+                break;
+            }
+        }
+    }
+}
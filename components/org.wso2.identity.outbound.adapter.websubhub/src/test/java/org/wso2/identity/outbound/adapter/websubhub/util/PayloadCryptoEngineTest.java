@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.security.GeneralSecurityException;
+
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for {@link PayloadCryptoEngine}.
+ */
+public class PayloadCryptoEngineTest {
+
+    @AfterMethod
+    public void tearDown() {
+
+        PayloadCryptoEngine.clear();
+    }
+
+    @Test
+    public void testEngineIsReusedAcrossCallsOnSameThread() throws GeneralSecurityException {
+
+        PayloadCryptoEngine engine = PayloadCryptoEngine.acquire();
+        assertTrue(engine.release());
+
+        for (int i = 0; i < 3; i++) {
+            PayloadCryptoEngine reused = PayloadCryptoEngine.acquire();
+            assertSame(reused, engine);
+            reused.release();
+        }
+    }
+
+    @Test
+    public void testBorrowedEngineIsNotHandedOutTwice() throws GeneralSecurityException {
+
+        PayloadCryptoEngine first = PayloadCryptoEngine.acquire();
+        PayloadCryptoEngine second = PayloadCryptoEngine.acquire();
+        assertNotSame(second, first);
+        first.release();
+        second.release();
+    }
+
+    @Test
+    public void testClearDropsIdleEngines() throws GeneralSecurityException {
+
+        PayloadCryptoEngine engine = PayloadCryptoEngine.acquire();
+        engine.release();
+        PayloadCryptoEngine.clear();
+
+        assertNotSame(PayloadCryptoEngine.acquire(), engine);
+    }
+}
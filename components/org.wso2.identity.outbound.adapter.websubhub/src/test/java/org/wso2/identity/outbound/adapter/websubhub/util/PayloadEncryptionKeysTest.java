@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.testng.annotations.Test;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration;
+
+import java.security.PublicKey;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for {@link PayloadEncryptionKeys}.
+ */
+public class PayloadEncryptionKeysTest {
+
+    private static final String TENANT_DOMAIN = "wso2.com";
+
+    @Test
+    public void testShutdownDropsParkedWork() throws Exception {
+
+        CompletableFuture<PublicKey> publicKey = new CompletableFuture<>();
+        PayloadEncryptionKeys payloadEncryptionKeys =
+                new PayloadEncryptionKeys(configuration(), tenantDomain -> publicKey);
+        AtomicBoolean ran = new AtomicBoolean();
+        assertTrue(payloadEncryptionKeys.getPublicKeyCache().parkUntilResolved(TENANT_DOMAIN, () -> ran.set(true)));
+
+        payloadEncryptionKeys.shutdown();
+        publicKey.complete(mock(PublicKey.class));
+
+        assertFalse(ran.get());
+    }
+
+    @Test
+    public void testEachActivationStartsWithEmptyCaches() throws Exception {
+
+        WebSubAdapterConfiguration configuration = configuration();
+        PayloadEncryptionKeys payloadEncryptionKeys = new PayloadEncryptionKeys(configuration,
+                tenantDomain -> CompletableFuture.completedFuture(mock(PublicKey.class)));
+        PublicKey publicKey = payloadEncryptionKeys.getPublicKeyCache().get(TENANT_DOMAIN);
+        payloadEncryptionKeys.getDataEncryptionKeys().put(TENANT_DOMAIN, mock(DataEncryptionKey.class));
+        payloadEncryptionKeys.shutdown();
+
+        PayloadEncryptionKeys reactivated = new PayloadEncryptionKeys(configuration,
+                tenantDomain -> CompletableFuture.completedFuture(mock(PublicKey.class)));
+        try {
+            assertNotSame(reactivated.getPublicKeyCache().get(TENANT_DOMAIN), publicKey);
+            assertNull(reactivated.getDataEncryptionKeys().get(TENANT_DOMAIN));
+        } finally {
+            reactivated.shutdown();
+        }
+    }
+
+    private static WebSubAdapterConfiguration configuration() {
+
+        WebSubAdapterConfiguration configuration = mock(WebSubAdapterConfiguration.class);
+        when(configuration.getEncryptionKeyCacheLifespan()).thenReturn(30);
+        when(configuration.getEncryptionKeyCacheMaxSize()).thenReturn(100);
+        when(configuration.getEncryptionKeyRetrievalFailureBackoff()).thenReturn(30);
+        when(configuration.getEncryptionKeyWaitQueueCapacity()).thenReturn(100);
+        return configuration;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wso2.carbon.identity.event.IdentityEventException;
+
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the public key cache hit path, comparing the {@link JWKSet} based cache which converted the cached
+ * JWK to a {@link PublicKey} on every hit with the {@link TenantKeyCache} holding decoded public keys.
+ * Run with {@code java -cp <test classpath> org.wso2.identity.outbound.adapter.websubhub.util.PublicKeyCacheBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicKeyCacheBenchmark {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+
+    private JWKSet jwkSet;
+    private TenantKeyCache<PublicKey> publicKeyCache;
+
+    @Setup
+    public void setup() throws NoSuchAlgorithmException, IdentityEventException {
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        RSAPublicKey publicKey = (RSAPublicKey) keyPairGenerator.generateKeyPair().getPublic();
+
+        jwkSet = new JWKSet(new RSAKey.Builder(publicKey).build());
+        Executor directExecutor = Runnable::run;
+        publicKeyCache = new TenantKeyCache<>(tenantDomain -> CompletableFuture.completedFuture(publicKey),
+                directExecutor, TimeUnit.DAYS.toMillis(1), 0.8, 0.1, 100, TimeUnit.SECONDS.toMillis(30), 10);
+        publicKeyCache.get(TENANT_DOMAIN);
+    }
+
+    @Benchmark
+    public PublicKey jwkSetCacheHit() throws JOSEException {
+
+        return ((RSAKey) jwkSet.getKeys().get(0)).toPublicKey();
+    }
+
+    @Benchmark
+    public PublicKey publicKeyCacheHit() throws IdentityEventException {
+
+        return publicKeyCache.get(TENANT_DOMAIN);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(PublicKeyCacheBenchmark.class.getSimpleName()).build()).run();
+    }
+}
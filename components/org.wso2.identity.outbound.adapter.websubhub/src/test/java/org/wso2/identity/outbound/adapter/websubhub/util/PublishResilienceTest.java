@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.testng.annotations.Test;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for {@link PublishResilience}.
+ */
+public class PublishResilienceTest {
+
+    private static final String ROUTE = "https://test.com";
+
+    @Test
+    public void testDisabledGuardsAreNotCreated() {
+
+        PublishResilience publishResilience = new PublishResilience(mock(WebSubAdapterConfiguration.class));
+
+        assertNull(publishResilience.getRetryPolicy());
+        assertNull(publishResilience.getCircuitBreaker(ROUTE));
+        assertNull(publishResilience.getRouteFlowControl(ROUTE));
+        publishResilience.shutdown();
+    }
+
+    @Test
+    public void testGuardsAreSharedPerRoute() {
+
+        PublishResilience publishResilience = new PublishResilience(enabledConfiguration());
+        try {
+            CircuitBreaker circuitBreaker = publishResilience.getCircuitBreaker(ROUTE);
+            assertNotNull(circuitBreaker);
+            assertSame(publishResilience.getCircuitBreaker(ROUTE), circuitBreaker);
+            assertNotSame(publishResilience.getCircuitBreaker("https://other.com"), circuitBreaker);
+            RouteFlowControl flowControl = publishResilience.getRouteFlowControl(ROUTE);
+            assertNotNull(flowControl);
+            assertSame(publishResilience.getRouteFlowControl(ROUTE), flowControl);
+        } finally {
+            publishResilience.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdownStopsRetriesAndForgetsRoutes() {
+
+        PublishResilience publishResilience = new PublishResilience(enabledConfiguration());
+        PublishRetryPolicy retryPolicy = publishResilience.getRetryPolicy();
+        assertNotNull(retryPolicy);
+        assertTrue(retryPolicy.scheduleRetry(1, System.currentTimeMillis(), () -> { }));
+        publishResilience.getCircuitBreaker(ROUTE);
+        publishResilience.getRouteFlowControl(ROUTE);
+
+        publishResilience.shutdown();
+
+        assertFalse(retryPolicy.scheduleRetry(1, System.currentTimeMillis(), () -> { }));
+        assertTrue(publishResilience.getCircuitBreakers().isEmpty());
+        assertTrue(publishResilience.getRouteFlowControls().isEmpty());
+    }
+
+    private static WebSubAdapterConfiguration enabledConfiguration() {
+
+        WebSubAdapterConfiguration configuration = mock(WebSubAdapterConfiguration.class);
+        when(configuration.isPublishRetryEnabled()).thenReturn(true);
+        when(configuration.getPublishRetryMaxAttempts()).thenReturn(3);
+        when(configuration.getPublishRetryInitialBackoff()).thenReturn(1000);
+        when(configuration.getPublishRetryMaxBackoff()).thenReturn(5000);
+        when(configuration.getPublishRetryDeadline()).thenReturn(60000);
+        when(configuration.getPublishRetryBudgetRatio()).thenReturn(20);
+        when(configuration.isCircuitBreakerEnabled()).thenReturn(true);
+        when(configuration.getCircuitBreakerWindowSize()).thenReturn(10);
+        when(configuration.getCircuitBreakerFailureRateThreshold()).thenReturn(50);
+        when(configuration.getCircuitBreakerSlowCallRateThreshold()).thenReturn(100);
+        when(configuration.getCircuitBreakerSlowCallDuration()).thenReturn(1000);
+        when(configuration.getCircuitBreakerOpenDuration()).thenReturn(1000);
+        when(configuration.getCircuitBreakerProbeCount()).thenReturn(1);
+        when(configuration.isFlowControlEnabled()).thenReturn(true);
+        when(configuration.getFlowControlDefaultPause()).thenReturn(1000);
+        when(configuration.getFlowControlMaxPause()).thenReturn(5000);
+        return configuration;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.apache.http.HttpStatus;
+import org.apache.http.NoHttpResponseException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLHandshakeException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for {@link PublishRetryPolicy}.
+ */
+public class PublishRetryPolicyTest {
+
+    private ScheduledExecutorService scheduler;
+
+    @BeforeMethod
+    public void setUp() {
+
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testRetryableFailures() {
+
+        assertTrue(PublishRetryPolicy.isRetryable(HttpStatus.SC_INTERNAL_SERVER_ERROR));
+        assertTrue(PublishRetryPolicy.isRetryable(HttpStatus.SC_SERVICE_UNAVAILABLE));
+        assertTrue(PublishRetryPolicy.isRetryable(HttpStatus.SC_REQUEST_TIMEOUT));
+        assertTrue(PublishRetryPolicy.isRetryable(WebSubHubAdapterConstants.HTTP_STATUS_TOO_MANY_REQUESTS));
+        assertFalse(PublishRetryPolicy.isRetryable(HttpStatus.SC_BAD_REQUEST));
+        assertFalse(PublishRetryPolicy.isRetryable(HttpStatus.SC_FORBIDDEN));
+        assertFalse(PublishRetryPolicy.isRetryable(HttpStatus.SC_NOT_FOUND));
+
+        assertTrue(PublishRetryPolicy.isRetryable(new ConnectException()));
+        assertTrue(PublishRetryPolicy.isRetryable(new SocketTimeoutException()));
+        assertTrue(PublishRetryPolicy.isRetryable(new NoHttpResponseException("No response.")));
+        assertFalse(PublishRetryPolicy.isRetryable(new UnknownHostException()));
+        assertFalse(PublishRetryPolicy.isRetryable(new SSLHandshakeException("Untrusted certificate.")));
+    }
+
+    @Test
+    public void testRetriesStopAtMaxAttempts() throws Exception {
+
+        PublishRetryPolicy policy = new PublishRetryPolicy(scheduler, 3, 1, 1, 60000, 1, 100);
+        CountDownLatch retries = new CountDownLatch(2);
+        long firstAttemptTime = System.currentTimeMillis();
+
+        assertTrue(policy.scheduleRetry(1, firstAttemptTime, retries::countDown));
+        assertTrue(policy.scheduleRetry(2, firstAttemptTime, retries::countDown));
+        assertFalse(policy.scheduleRetry(3, firstAttemptTime, retries::countDown));
+        assertTrue(retries.await(5, TimeUnit.SECONDS));
+        assertEquals(policy.getRetryCount(), 2);
+    }
+
+    @Test
+    public void testRetriesStopAtDeadline() {
+
+        PublishRetryPolicy policy = new PublishRetryPolicy(scheduler, 10, 1, 1, 1000, 1, 100);
+
+        assertFalse(policy.scheduleRetry(1, System.currentTimeMillis() - 2000, () -> { }));
+        assertEquals(policy.getRetryCount(), 0);
+    }
+
+    @Test
+    public void testRetryBudget() {
+
+        // Each request earns half a retry, and no more than two retries can be saved up.
+        PublishRetryPolicy policy = new PublishRetryPolicy(scheduler, 10, 1, 1, 60000, 0.5, 2);
+        long firstAttemptTime = System.currentTimeMillis();
+
+        assertTrue(policy.scheduleRetry(1, firstAttemptTime, () -> { }));
+        assertTrue(policy.scheduleRetry(1, firstAttemptTime, () -> { }));
+        assertFalse(policy.scheduleRetry(1, firstAttemptTime, () -> { }));
+        assertEquals(policy.getBudgetExhaustedCount(), 1);
+
+        policy.onFirstAttempt();
+        assertFalse(policy.scheduleRetry(1, firstAttemptTime, () -> { }));
+        policy.onFirstAttempt();
+        assertTrue(policy.scheduleRetry(1, firstAttemptTime, () -> { }));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test class for {@link RouteFlowControl}.
+ */
+public class RouteFlowControlTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testRetryAfterIsHonoredAndCapped() {
+
+        RouteFlowControl flowControl = new RouteFlowControl("https://hub.example.com", 100, 5000, clock::get);
+        assertEquals(flowControl.getRemainingPause(), 0);
+
+        flowControl.onThrottled(2000);
+        assertEquals(flowControl.getRemainingPause(), 2000);
+        // A shorter pause does not resume the route early.
+        clock.addAndGet(500);
+        flowControl.onThrottled(0);
+        assertEquals(flowControl.getRemainingPause(), 1500);
+        flowControl.onThrottled(60000);
+        assertEquals(flowControl.getRemainingPause(), 5000);
+        assertEquals(flowControl.getThrottledCount(), 3);
+    }
+
+    @Test
+    public void testPauseDoublesWithoutRetryAfter() {
+
+        RouteFlowControl flowControl = new RouteFlowControl("https://hub.example.com", 20, 5000, clock::get);
+        flowControl.onThrottled(-1);
+        assertEquals(flowControl.getRemainingPause(), 20);
+        flowControl.onThrottled(-1);
+        assertEquals(flowControl.getRemainingPause(), 40);
+        flowControl.onThrottled(-1);
+        assertEquals(flowControl.getRemainingPause(), 80);
+
+        clock.addAndGet(79);
+        assertEquals(flowControl.getRemainingPause(), 1);
+        clock.addAndGet(1);
+        assertEquals(flowControl.getRemainingPause(), 0);
+        flowControl.onAccepted();
+        flowControl.onThrottled(-1);
+        assertEquals(flowControl.getRemainingPause(), 20);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.event.IdentityEventException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Test class for {@link TenantKeyCache}.
+ */
+public class TenantKeyCacheTest {
+
+    private static final String TEST_TENANT = "test-tenant";
+
+    @Test
+    public void testConcurrentMissesShareOneLoad() throws Exception {
+
+        AtomicInteger loadCount = new AtomicInteger();
+        CompletableFuture<String> fetch = new CompletableFuture<>();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            TenantKeyCache<String> cache = new TenantKeyCache<>(tenantDomain -> {
+                loadCount.incrementAndGet();
+                return fetch;
+            }, executor, TimeUnit.MINUTES.toMillis(1), 0.8, 0.1, 100, TimeUnit.SECONDS.toMillis(30), 10);
+
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> cache.get(TEST_TENANT)));
+            }
+            fetch.complete("key");
+            for (Future<String> result : results) {
+                assertEquals(result.get(5, TimeUnit.SECONDS), "key");
+            }
+            assertEquals(loadCount.get(), 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRefreshAheadServesCachedKey() throws Exception {
+
+        List<CompletableFuture<String>> fetches = new ArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // With a zero refresh ahead ratio every read after the first load is due for a refresh.
+            TenantKeyCache<String> cache = new TenantKeyCache<>(tenantDomain -> {
+                CompletableFuture<String> fetch = new CompletableFuture<>();
+                fetches.add(fetch);
+                if (fetches.size() == 1) {
+                    fetch.complete("key-1");
+                }
+                return fetch;
+            }, executor, TimeUnit.MINUTES.toMillis(1), 0, 0, 100, TimeUnit.SECONDS.toMillis(30), 10);
+
+            assertEquals(cache.get(TEST_TENANT), "key-1");
+            // The refresh is in flight, while the cached key is still served.
+            assertEquals(cache.get(TEST_TENANT), "key-1");
+            assertEquals(cache.get(TEST_TENANT), "key-1");
+            assertEquals(fetches.size(), 2);
+            fetches.get(1).complete("key-2");
+            assertEquals(cache.get(TEST_TENANT), "key-2");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expectedExceptions = IdentityEventException.class)
+    public void testLoadFailureWithoutCachedKey() throws Exception {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TenantKeyCache<String> cache = new TenantKeyCache<>(
+                    tenantDomain -> failedFetch(new IdentityEventException("Key endpoint unavailable.")), executor,
+                    TimeUnit.MINUTES.toMillis(1), 0.8, 0.1, 100, TimeUnit.SECONDS.toMillis(30), 10);
+            cache.get(TEST_TENANT);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLoadFailureIsCachedForBackoff() throws Exception {
+
+        AtomicInteger loadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TenantKeyCache<String> cache = new TenantKeyCache<>(tenantDomain -> {
+                loadCount.incrementAndGet();
+                return failedFetch(new IdentityEventException("65013", "Key endpoint unavailable."));
+            }, executor, TimeUnit.MINUTES.toMillis(1), 0.8, 0.1, 100, TimeUnit.SECONDS.toMillis(30), 10);
+
+            for (int i = 0; i < 3; i++) {
+                try {
+                    cache.get(TEST_TENANT);
+                    fail("The key of a tenant whose key retrieval failed was returned.");
+                } catch (IdentityEventException e) {
+                    assertEquals(e.getErrorCode(), "65013");
+                }
+            }
+            // The failure is resolved, hence events are not parked while the backoff lasts.
+            assertFalse(cache.parkUntilResolved(TEST_TENANT, () -> { }));
+            assertEquals(loadCount.get(), 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testParkedTasksRunOnceKeyIsResolved() throws Exception {
+
+        CompletableFuture<String> fetch = new CompletableFuture<>();
+        CountDownLatch parkedTasksRun = new CountDownLatch(2);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TenantKeyCache<String> cache = new TenantKeyCache<>(tenantDomain -> fetch, executor,
+                    TimeUnit.MINUTES.toMillis(1), 0.8, 0.1, 100, TimeUnit.SECONDS.toMillis(30), 2);
+
+            assertTrue(cache.parkUntilResolved(TEST_TENANT, parkedTasksRun::countDown));
+            assertTrue(cache.parkUntilResolved(TEST_TENANT, parkedTasksRun::countDown));
+            try {
+                cache.parkUntilResolved(TEST_TENANT, parkedTasksRun::countDown);
+                fail("A task was parked beyond the capacity of the tenant's queue.");
+            } catch (IdentityEventException e) {
+                // Expected, as the queue of the tenant is full.
+            }
+            assertEquals(parkedTasksRun.getCount(), 2);
+
+            fetch.complete("key");
+            assertTrue(parkedTasksRun.await(5, TimeUnit.SECONDS));
+            assertFalse(cache.parkUntilResolved(TEST_TENANT, parkedTasksRun::countDown));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static CompletableFuture<String> failedFetch(IdentityEventException e) {
+
+        CompletableFuture<String> fetch = new CompletableFuture<>();
+        fetch.completeExceptionally(e);
+        return fetch;
+    }
+}
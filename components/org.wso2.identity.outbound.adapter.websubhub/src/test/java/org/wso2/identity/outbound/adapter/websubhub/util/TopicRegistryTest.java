@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.outbound.adapter.websubhub.util;
+
+import org.testng.annotations.Test;
+import org.wso2.identity.outbound.adapter.websubhub.model.TopicOperationResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Test class for {@link TopicRegistry}.
+ */
+public class TopicRegistryTest {
+
+    private static final String TOPIC = "carbon.super-REGISTRATION";
+
+    @Test
+    public void testRegisteredTopicIsNotRegisteredAgain() throws Exception {
+
+        TopicRegistry registry = new TopicRegistry(60000, 100);
+        AtomicInteger calls = new AtomicInteger();
+        TopicRegistry.TopicOperation registration = topic -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(TopicOperationResult.Status.SUCCEEDED);
+        };
+
+        assertEquals(registry.register(TOPIC, registration).get(), TopicOperationResult.Status.SUCCEEDED);
+        assertEquals(registry.register(TOPIC, registration).get(), TopicOperationResult.Status.UNCHANGED);
+        assertEquals(calls.get(), 1);
+        assertTrue(registry.isRegistered(TOPIC));
+    }
+
+    @Test
+    public void testConcurrentRegistrationsShareOneCall() throws Exception {
+
+        TopicRegistry registry = new TopicRegistry(60000, 100);
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<TopicOperationResult.Status> hubResponse = new CompletableFuture<>();
+        TopicRegistry.TopicOperation registration = topic -> {
+            calls.incrementAndGet();
+            return hubResponse;
+        };
+
+        CompletableFuture<TopicOperationResult.Status> first = registry.register(TOPIC, registration);
+        CompletableFuture<TopicOperationResult.Status> second = registry.register(TOPIC, registration);
+        assertFalse(registry.isRegistered(TOPIC));
+
+        hubResponse.complete(TopicOperationResult.Status.SUCCEEDED);
+        assertEquals(first.get(), TopicOperationResult.Status.SUCCEEDED);
+        assertEquals(second.get(), TopicOperationResult.Status.SUCCEEDED);
+        assertEquals(calls.get(), 1);
+        assertTrue(registry.isRegistered(TOPIC));
+    }
+
+    @Test
+    public void testFailedRegistrationIsRetried() throws Exception {
+
+        TopicRegistry registry = new TopicRegistry(60000, 100);
+        AtomicInteger calls = new AtomicInteger();
+        TopicRegistry.TopicOperation registration = topic -> {
+            CompletableFuture<TopicOperationResult.Status> result = new CompletableFuture<>();
+            if (calls.incrementAndGet() == 1) {
+                result.completeExceptionally(new IllegalStateException("Hub unavailable."));
+            } else {
+                result.complete(TopicOperationResult.Status.SUCCEEDED);
+            }
+            return result;
+        };
+
+        try {
+            registry.register(TOPIC, registration).get();
+            fail("Expected the registration to fail.");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertFalse(registry.isRegistered(TOPIC));
+        assertEquals(registry.register(TOPIC, registration).get(), TopicOperationResult.Status.SUCCEEDED);
+        assertEquals(calls.get(), 2);
+    }
+
+    @Test
+    public void testDeregistrationForgetsTopic() throws Exception {
+
+        TopicRegistry registry = new TopicRegistry(60000, 100);
+        registry.register(TOPIC, topic -> CompletableFuture.completedFuture(
+                TopicOperationResult.Status.SUCCEEDED)).get();
+
+        registry.deregister(TOPIC, topic -> CompletableFuture.completedFuture(
+                TopicOperationResult.Status.SUCCEEDED)).get();
+        assertFalse(registry.isRegistered(TOPIC));
+    }
+
+    @Test
+    public void testRegisteredTopicExpires() throws Exception {
+
+        AtomicLong clock = new AtomicLong();
+        TopicRegistry registry = new TopicRegistry(50, 100, clock::get);
+        registry.register(TOPIC, topic -> CompletableFuture.completedFuture(
+                TopicOperationResult.Status.SUCCEEDED)).get();
+        assertTrue(registry.isRegistered(TOPIC));
+
+        clock.addAndGet(49);
+        assertTrue(registry.isRegistered(TOPIC));
+        clock.incrementAndGet();
+        assertFalse(registry.isRegistered(TOPIC));
+    }
+
+    @Test
+    public void testCancelledCallerDoesNotFailSharedRegistration() throws Exception {
+
+        TopicRegistry registry = new TopicRegistry(60000, 100);
+        CompletableFuture<TopicOperationResult.Status> hubResponse = new CompletableFuture<>();
+        TopicRegistry.TopicOperation registration = topic -> hubResponse;
+
+        CompletableFuture<TopicOperationResult.Status> first = registry.register(TOPIC, registration);
+        CompletableFuture<TopicOperationResult.Status> second = registry.register(TOPIC, registration);
+        first.cancel(false);
+        assertFalse(hubResponse.isCancelled());
+
+        hubResponse.complete(TopicOperationResult.Status.SUCCEEDED);
+        assertEquals(second.get(), TopicOperationResult.Status.SUCCEEDED);
+        assertTrue(registry.isRegistered(TOPIC));
+    }
+
+    @Test
+    public void testCancelledDeregistrationIsCancelledInTheHub() throws Exception {
+
+        TopicRegistry registry = new TopicRegistry(60000, 100);
+        CompletableFuture<TopicOperationResult.Status> hubResponse = new CompletableFuture<>();
+
+        registry.deregister(TOPIC, topic -> hubResponse).cancel(false);
+        assertTrue(hubResponse.isCancelled());
+    }
+}
@@ -18,47 +18,89 @@
 
 package org.wso2.identity.outbound.adapter.websubhub.util;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.crypto.impl.AESKW;
+import com.nimbusds.jose.crypto.impl.ConcatKDF;
+import com.nimbusds.jose.crypto.impl.ECDH;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.mockito.MockedStatic;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.MDC;
 import org.testng.Assert;
-import org.testng.annotations.AfterClass;
-import org.testng.annotations.BeforeClass;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration;
+import org.wso2.identity.outbound.adapter.websubhub.config.WebSubAdapterConfiguration.BatchFormat;
 import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterClientException;
 import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterException;
 import org.wso2.identity.outbound.adapter.websubhub.exception.WebSubAdapterServerException;
+import org.wso2.identity.outbound.adapter.websubhub.internal.ClientManager;
+import org.wso2.identity.outbound.adapter.websubhub.internal.WebSubHubAdapterDataHolder;
 import org.wso2.identity.outbound.adapter.websubhub.model.EventPayload;
 import org.wso2.identity.outbound.adapter.websubhub.model.SecurityEventTokenPayload;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.net.ConnectException;
 import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
 import static org.wso2.carbon.identity.claim.metadata.mgt.util.ClaimMetadataUtils.CORRELATION_ID_MDC;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.AUDIENCE_BASE_URL;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.CORRELATION_ID_REQUEST_HEADER;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.DEREGISTER;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ERROR_TOPIC_DEREG_FAILURE_ACTIVE_SUBS;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_ENCRYPTION_KEY_UNAVAILABLE;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.ErrorMessages.ERROR_TOPIC_MGT_REQUEST_INTERRUPTED;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.HUB_ACTIVE_SUBS;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.HUB_MODE;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.HUB_REASON;
+import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.IDEMPOTENCY_KEY_REQUEST_HEADER;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.REGISTER;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.RESPONSE_FOR_SUCCESSFUL_OPERATION;
 import static org.wso2.identity.outbound.adapter.websubhub.util.WebSubHubAdapterConstants.URL_KEY_VALUE_SEPARATOR;
@@ -78,8 +120,14 @@ public class WebSubHubAdapterUtilTest {
     private static final int TEST_ORG_ID = 999;
     private static final String INVALID_RESPONSE = "INVALID_RESPONSE";
     private static final String HUB_MODE_DENIED = HUB_MODE + "=" + "denied";
+    private static final String CORRELATION_ID = "test-correlation-id";
+    private static final String ENCRYPTION_KEY_ENDPOINT_URL = "https://localhost:8443/t/${tenant_domain}/key";
+    private static final String EC_TENANT_DOMAIN = "ec-tenant";
+    private static final String UNREACHABLE_KEY_TENANT_DOMAIN = "unreachable-key-tenant";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-    private MockedStatic<HttpClientBuilder> mockStaticHttpClientBuilder;
+    private KeyPair encryptionKeyPair;
+    private KeyPair ecEncryptionKeyPair;
 
     private enum ResponseStatus {
 
@@ -87,18 +135,6 @@ public class WebSubHubAdapterUtilTest {
         REG_CONFLICT, DEREG_NOT_FOUND
     }
 
-    @BeforeClass
-    public void setup() {
-
-        mockStaticHttpClientBuilder = mockStatic(HttpClientBuilder.class);
-    }
-
-    @AfterClass
-    public void tearDown() {
-
-        mockStaticHttpClientBuilder.close();
-    }
-
     private static EventPayload getEventPayload(int orgId, String orgName, String testProperty, String ref) {
 
         if (testProperty == null) {
@@ -242,18 +278,23 @@ public class WebSubHubAdapterUtilTest {
 
     @Test(dataProvider = "makeTopicMgtAPICallDataProvider")
     public void testMakeTopicMgtAPICall(String topic, String webSubHubBaseUrl, String operation,
-                                        ResponseStatus responseStatus, Class<?> expectedException) throws IOException {
+                                        ResponseStatus responseStatus, Class<?> expectedException)
+            throws IOException, WebSubAdapterException {
 
-        HttpClientBuilder mockHttpClientBuilder = mock(HttpClientBuilder.class);
-        CloseableHttpClient mockHttpClient = mock(CloseableHttpClient.class);
-        CloseableHttpResponse mockResponse = mock(CloseableHttpResponse.class);
+        ClientManager clientManager = mock(ClientManager.class);
+        CloseableHttpAsyncClient mockHttpClient = mock(CloseableHttpAsyncClient.class);
+        HttpResponse mockResponse = mock(HttpResponse.class);
         HttpEntity mockEntity = mock(HttpEntity.class);
         StatusLine mockStatusLine = mock(StatusLine.class);
 
-        mockStaticHttpClientBuilder.when(HttpClientBuilder::create).thenReturn(mockHttpClientBuilder);
-        when(mockHttpClientBuilder.useSystemProperties()).thenReturn(mockHttpClientBuilder);
-        when(mockHttpClientBuilder.build()).thenReturn(mockHttpClient);
-        when(mockHttpClient.execute(any())).thenReturn(mockResponse);
+        when(clientManager.getClient()).thenReturn(mockHttpClient);
+        when(mockHttpClient.execute(any(HttpUriRequest.class), any(FutureCallback.class))).thenAnswer(
+                invocation -> {
+                    FutureCallback<HttpResponse> callback = invocation.getArgument(1);
+                    callback.completed(mockResponse);
+                    return null;
+                });
+        WebSubHubAdapterDataHolder.getInstance().setClientManager(clientManager);
         when(mockResponse.getStatusLine()).thenReturn(mockStatusLine);
 
         if (responseStatus == ResponseStatus.STATUS_NOT_200) {
@@ -300,8 +341,7 @@ public class WebSubHubAdapterUtilTest {
 
             if (expectedException == null) {
 
-                verify(mockHttpClientBuilder).useSystemProperties();
-                verify(mockHttpClientBuilder).build();
+                verify(mockHttpClient).execute(any(HttpUriRequest.class), any(FutureCallback.class));
                 verify(mockResponse).getStatusLine();
                 verify(mockResponse).getEntity();
                 verify(mockEntity).getContent();
@@ -313,9 +353,308 @@ public class WebSubHubAdapterUtilTest {
                 Assert.fail("Received exception: " + e.getClass().getName() + " for a successful test case.");
             }
             Assert.assertSame(e.getClass(), expectedException);
+        } finally {
+            WebSubHubAdapterDataHolder.getInstance().setClientManager(null);
         }
     }
 
+    @Test
+    public void testInterruptedTopicMgtAPICallAbortsRequest() throws Exception {
+
+        ClientManager clientManager = mock(ClientManager.class);
+        CloseableHttpAsyncClient mockHttpClient = mock(CloseableHttpAsyncClient.class);
+        List<HttpPost> requests = new ArrayList<>();
+        // The hub never answers, so that the call waits until it is interrupted.
+        when(mockHttpClient.execute(any(HttpUriRequest.class), any(FutureCallback.class))).thenAnswer(
+                invocation -> {
+                    requests.add(invocation.getArgument(0));
+                    return null;
+                });
+        when(clientManager.getClient()).thenReturn(mockHttpClient);
+        WebSubHubAdapterDataHolder.getInstance().setClientManager(clientManager);
+
+        Thread.currentThread().interrupt();
+        try {
+            WebSubHubAdapterUtil.makeTopicMgtAPICall(TEST_TOPIC, WEBSUB_HUB_BASE_URL, REGISTER);
+            Assert.fail("Expected the interrupted topic operation to fail.");
+        } catch (WebSubAdapterServerException e) {
+            assertEquals(e.getErrorCode(), ERROR_TOPIC_MGT_REQUEST_INTERRUPTED.getCode());
+            assertTrue(Thread.interrupted());
+        } finally {
+            Thread.interrupted();
+            WebSubHubAdapterDataHolder.getInstance().setClientManager(null);
+        }
+        assertEquals(requests.size(), 1);
+        assertTrue(requests.get(0).isAborted());
+    }
+
+    @DataProvider(name = "publishRequestDataProvider")
+    public Object[][] providePublishRequestData() {
+
+        return new Object[][]{
+                // encryptionEnabled, encryptionKeyReuseEnabled
+                {false, false},
+                {true, false},
+                {true, true}
+        };
+    }
+
+    @Test(dataProvider = "publishRequestDataProvider")
+    public void testBuildPublishRequest(boolean encryptionEnabled, boolean encryptionKeyReuseEnabled)
+            throws Exception {
+
+        KeyPair keyPair = mockAdapterConfiguration(encryptionEnabled, encryptionKeyReuseEnabled);
+        try {
+            SecurityEventTokenPayload securityEventTokenPayload = WebSubHubAdapterUtil.buildSecurityEventToken(
+                    getEventPayload(TEST_ORG_ID, TEST_ORG_NAME, TEST_PROPERTY, null), TEST_EVENT, TEST_TOPIC);
+
+            HttpPost request = WebSubHubAdapterUtil.buildPublishRequest(securityEventTokenPayload, TEST_ORG_NAME,
+                    TEST_TOPIC, WEBSUB_HUB_BASE_URL, CORRELATION_ID);
+
+            assertNotNull(request);
+            assertEquals(request.getURI().toString(),
+                    WEBSUB_HUB_BASE_URL + "?hub.mode=publish&hub.topic=" + TEST_TOPIC);
+            assertEquals(request.getFirstHeader(CORRELATION_ID_REQUEST_HEADER).getValue(), CORRELATION_ID);
+            assertEquals(request.getFirstHeader(IDEMPOTENCY_KEY_REQUEST_HEADER).getValue(),
+                    securityEventTokenPayload.getJti());
+            JsonNode token = OBJECT_MAPPER.readTree(EntityUtils.toByteArray(request.getEntity()));
+            assertSecurityEventToken(token, securityEventTokenPayload, keyPair);
+        } finally {
+            WebSubHubAdapterDataHolder.getInstance().setAdapterConfiguration(null);
+            WebSubHubAdapterDataHolder.getInstance().setClientManager(null);
+        }
+    }
+
+    @DataProvider(name = "batchPublishRequestDataProvider")
+    public Object[][] provideBatchPublishRequestData() {
+
+        return new Object[][]{
+                // batchFormat, encryptionEnabled
+                {BatchFormat.JSON_ARRAY, false},
+                {BatchFormat.NDJSON, false},
+                {BatchFormat.JSON_ARRAY, true},
+                {BatchFormat.NDJSON, true}
+        };
+    }
+
+    @Test(dataProvider = "batchPublishRequestDataProvider")
+    public void testBuildBatchPublishRequest(BatchFormat batchFormat, boolean encryptionEnabled) throws Exception {
+
+        KeyPair keyPair = mockAdapterConfiguration(encryptionEnabled, false);
+        try {
+            List<SecurityEventTokenPayload> securityEventTokenPayloads = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                securityEventTokenPayloads.add(WebSubHubAdapterUtil.buildSecurityEventToken(
+                        getEventPayload(TEST_ORG_ID, TEST_ORG_NAME, TEST_PROPERTY + i, null), TEST_EVENT,
+                        TEST_TOPIC));
+            }
+
+            HttpPost request = WebSubHubAdapterUtil.buildBatchPublishRequest(securityEventTokenPayloads,
+                    TEST_ORG_NAME, TEST_TOPIC, WEBSUB_HUB_BASE_URL, CORRELATION_ID, batchFormat);
+
+            assertNotNull(request);
+            List<JsonNode> tokens = new ArrayList<>();
+            String body = EntityUtils.toString(request.getEntity(), StandardCharsets.UTF_8);
+            if (batchFormat == BatchFormat.NDJSON) {
+                assertEquals(request.getFirstHeader(HttpHeaders.CONTENT_TYPE).getValue(), "application/x-ndjson");
+                for (String line : body.split("\n")) {
+                    tokens.add(OBJECT_MAPPER.readTree(line));
+                }
+            } else {
+                OBJECT_MAPPER.readTree(body).forEach(tokens::add);
+            }
+            assertEquals(tokens.size(), securityEventTokenPayloads.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                assertSecurityEventToken(tokens.get(i), securityEventTokenPayloads.get(i), keyPair);
+            }
+        } finally {
+            WebSubHubAdapterDataHolder.getInstance().setAdapterConfiguration(null);
+            WebSubHubAdapterDataHolder.getInstance().setClientManager(null);
+        }
+    }
+
+    @Test
+    public void testEncryptionKeyReuse() throws Exception {
+
+        KeyPair keyPair = mockAdapterConfiguration(true, true);
+        try {
+            List<JsonNode> tokens = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                SecurityEventTokenPayload securityEventTokenPayload = WebSubHubAdapterUtil.buildSecurityEventToken(
+                        getEventPayload(TEST_ORG_ID, TEST_ORG_NAME, TEST_PROPERTY + i, null), TEST_EVENT,
+                        TEST_TOPIC);
+                HttpPost request = WebSubHubAdapterUtil.buildPublishRequest(securityEventTokenPayload, TEST_ORG_NAME,
+                        TEST_TOPIC, WEBSUB_HUB_BASE_URL, CORRELATION_ID);
+                JsonNode token = OBJECT_MAPPER.readTree(EntityUtils.toByteArray(request.getEntity()));
+                assertSecurityEventToken(token, securityEventTokenPayload, keyPair);
+                tokens.add(token.get("event"));
+            }
+            // The wrapped key is shared while every payload gets its own IV.
+            assertEquals(tokens.get(0).get("payloadCryptoKey"), tokens.get(1).get("payloadCryptoKey"));
+            assertNotEquals(tokens.get(0).get("ivParameterSpec"), tokens.get(1).get("ivParameterSpec"));
+        } finally {
+            WebSubHubAdapterDataHolder.getInstance().setAdapterConfiguration(null);
+            WebSubHubAdapterDataHolder.getInstance().setClientManager(null);
+        }
+    }
+
+    @Test
+    public void testBuildPublishRequestWithEllipticCurveKey() throws Exception {
+
+        mockAdapterConfiguration(true, false);
+        try {
+            SecurityEventTokenPayload securityEventTokenPayload = WebSubHubAdapterUtil.buildSecurityEventToken(
+                    getEventPayload(TEST_ORG_ID, TEST_ORG_NAME, TEST_PROPERTY, null), TEST_EVENT, TEST_TOPIC);
+
+            HttpPost request = WebSubHubAdapterUtil.buildPublishRequest(securityEventTokenPayload,
+                    EC_TENANT_DOMAIN, TEST_TOPIC, WEBSUB_HUB_BASE_URL, CORRELATION_ID);
+
+            assertNotNull(request);
+            JsonNode token = OBJECT_MAPPER.readTree(EntityUtils.toByteArray(request.getEntity()));
+            assertEquals(token.get("event").get("payloadCryptoKeyAlgorithm").asText(), "ECDH-ES+A128KW");
+            // An AES wrapped 128 bit key is far smaller than an RSA encrypted one.
+            assertEquals(Base64.getDecoder().decode(token.get("event").get("payloadCryptoKey").asText()).length, 24);
+            assertSecurityEventToken(token, securityEventTokenPayload, ecEncryptionKeyPair);
+        } finally {
+            WebSubHubAdapterDataHolder.getInstance().setAdapterConfiguration(null);
+            WebSubHubAdapterDataHolder.getInstance().setClientManager(null);
+        }
+    }
+
+    @Test
+    public void testEventIsRejectedWhenEncryptionKeyIsUnavailable() throws Exception {
+
+        mockAdapterConfiguration(true, false);
+        try {
+            SecurityEventTokenPayload securityEventTokenPayload = WebSubHubAdapterUtil.buildSecurityEventToken(
+                    getEventPayload(TEST_ORG_ID, TEST_ORG_NAME, TEST_PROPERTY, null), TEST_EVENT, TEST_TOPIC);
+            // The first event waits for the key retrieval, whose failure is then cached for the backoff.
+            WebSubHubAdapterUtil.makeAsyncAPICall(securityEventTokenPayload, UNREACHABLE_KEY_TENANT_DOMAIN,
+                    TEST_TOPIC, WEBSUB_HUB_BASE_URL);
+
+            try {
+                WebSubHubAdapterUtil.makeAsyncAPICall(securityEventTokenPayload, UNREACHABLE_KEY_TENANT_DOMAIN,
+                        TEST_TOPIC, WEBSUB_HUB_BASE_URL);
+                Assert.fail("An event which cannot be encrypted should not be dropped silently.");
+            } catch (WebSubAdapterServerException e) {
+                assertEquals(e.getErrorCode(), ERROR_ENCRYPTION_KEY_UNAVAILABLE.getCode());
+            }
+        } finally {
+            WebSubHubAdapterDataHolder.getInstance().setAdapterConfiguration(null);
+            WebSubHubAdapterDataHolder.getInstance().setClientManager(null);
+        }
+    }
+
+    @AfterMethod
+    public void tearDownPayloadEncryptionKeys() {
+
+        PayloadEncryptionKeys payloadEncryptionKeys =
+                WebSubHubAdapterDataHolder.getInstance().getPayloadEncryptionKeys();
+        if (payloadEncryptionKeys != null) {
+            payloadEncryptionKeys.shutdown();
+            WebSubHubAdapterDataHolder.getInstance().setPayloadEncryptionKeys(null);
+        }
+    }
+
+    private KeyPair mockAdapterConfiguration(boolean encryptionEnabled, boolean encryptionKeyReuseEnabled)
+            throws Exception {
+
+        WebSubAdapterConfiguration adapterConfiguration = mock(WebSubAdapterConfiguration.class);
+        when(adapterConfiguration.isEncryptionEnabled()).thenReturn(encryptionEnabled);
+        when(adapterConfiguration.isEncryptionKeyReuseEnabled()).thenReturn(encryptionKeyReuseEnabled);
+        when(adapterConfiguration.getEncryptionKeyReuseMaxAge()).thenReturn(300);
+        when(adapterConfiguration.getEncryptionKeyReuseMaxEvents()).thenReturn(1000);
+        when(adapterConfiguration.getEncryptionKeyEndpointUrl()).thenReturn(ENCRYPTION_KEY_ENDPOINT_URL);
+        when(adapterConfiguration.getEncryptionKeyCacheLifespan()).thenReturn(30);
+        when(adapterConfiguration.getEncryptionKeyCacheMaxSize()).thenReturn(100);
+        when(adapterConfiguration.getEncryptionKeyRetrievalFailureBackoff()).thenReturn(30);
+        when(adapterConfiguration.getEncryptionKeyWaitQueueCapacity()).thenReturn(100);
+        WebSubHubAdapterDataHolder.getInstance().setAdapterConfiguration(adapterConfiguration);
+        WebSubHubAdapterDataHolder.getInstance().setPayloadEncryptionKeys(
+                new PayloadEncryptionKeys(adapterConfiguration));
+        if (!encryptionEnabled) {
+            return null;
+        }
+
+        // Generating the key pairs is slow, hence the same key pairs are used by every test.
+        if (encryptionKeyPair == null) {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048);
+            encryptionKeyPair = keyPairGenerator.generateKeyPair();
+        }
+        if (ecEncryptionKeyPair == null) {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+            keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+            ecEncryptionKeyPair = keyPairGenerator.generateKeyPair();
+        }
+        KeyPair keyPair = encryptionKeyPair;
+        CloseableHttpAsyncClient keyRetrievalClient = mock(CloseableHttpAsyncClient.class);
+        when(keyRetrievalClient.execute(any(HttpUriRequest.class), any(FutureCallback.class))).thenAnswer(
+                invocation -> {
+                    HttpUriRequest keyRequest = invocation.getArgument(0);
+                    if (keyRequest.getURI().getPath().contains("/t/" + UNREACHABLE_KEY_TENANT_DOMAIN + "/")) {
+                        invocation.<FutureCallback<HttpResponse>>getArgument(1).failed(
+                                new ConnectException("Connection refused"));
+                        return null;
+                    }
+                    KeyPair tenantKeyPair = keyRequest.getURI().getPath().contains("/t/" + EC_TENANT_DOMAIN + "/") ?
+                            ecEncryptionKeyPair : keyPair;
+                    String keyResponse = "{\"key\":\"" +
+                            Base64.getEncoder().encodeToString(tenantKeyPair.getPublic().getEncoded()) + "\"}";
+                    HttpResponse keyHttpResponse = mock(HttpResponse.class);
+                    StatusLine keyStatusLine = mock(StatusLine.class);
+                    when(keyStatusLine.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+                    when(keyHttpResponse.getStatusLine()).thenReturn(keyStatusLine);
+                    when(keyHttpResponse.getEntity()).thenReturn(
+                            new StringEntity(keyResponse, StandardCharsets.UTF_8));
+                    FutureCallback<HttpResponse> callback = invocation.getArgument(1);
+                    callback.completed(keyHttpResponse);
+                    return null;
+                });
+        ClientManager clientManager = mock(ClientManager.class);
+        when(clientManager.getKeyRetrievalClient()).thenReturn(keyRetrievalClient);
+        WebSubHubAdapterDataHolder.getInstance().setClientManager(clientManager);
+        return keyPair;
+    }
+
+    private void assertSecurityEventToken(JsonNode token, SecurityEventTokenPayload securityEventTokenPayload,
+                                          KeyPair keyPair) throws Exception {
+
+        assertEquals(token.get("iss").asText(), securityEventTokenPayload.getIss());
+        assertEquals(token.get("jti").asText(), securityEventTokenPayload.getJti());
+        assertEquals(token.get("iat").asLong(), securityEventTokenPayload.getIat());
+        assertEquals(token.get("aud").asText(), securityEventTokenPayload.getAud());
+
+        JsonNode event = token.get("event");
+        if (keyPair != null) {
+            byte[] wrappedKey = Base64.getDecoder().decode(event.get("payloadCryptoKey").asText());
+            byte[] symmetricKey;
+            if (keyPair.getPrivate() instanceof ECPrivateKey) {
+                // Unwrap with the reference ECDH-ES+A128KW implementation.
+                ECPublicKey ephemeralPublicKey = (ECPublicKey) KeyFactory.getInstance("EC").generatePublic(
+                        new X509EncodedKeySpec(Base64.getDecoder().decode(event.get("ephemeralPublicKey").asText())));
+                SecretKey keyEncryptionKey = ECDH.deriveSharedKey(
+                        new JWEHeader(JWEAlgorithm.ECDH_ES_A128KW, EncryptionMethod.A128GCM),
+                        ECDH.deriveSharedSecret(ephemeralPublicKey, keyPair.getPrivate(), null),
+                        new ConcatKDF("SHA-256"));
+                symmetricKey = AESKW.unwrapCEK(keyEncryptionKey, wrappedKey, null).getEncoded();
+            } else {
+                Cipher keyCipher = Cipher.getInstance("RSA");
+                keyCipher.init(Cipher.DECRYPT_MODE, keyPair.getPrivate());
+                symmetricKey = keyCipher.doFinal(wrappedKey);
+            }
+            Cipher payloadCipher = Cipher.getInstance("AES/GCM/NoPadding");
+            payloadCipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(symmetricKey, "AES"),
+                    new GCMParameterSpec(128, Base64.getDecoder().decode(event.get("ivParameterSpec").asText())));
+            event = OBJECT_MAPPER.readTree(payloadCipher.doFinal(Base64.getDecoder().decode(
+                    event.get("payload").asText())));
+        }
+        TestEventPayload eventPayload =
+                (TestEventPayload) securityEventTokenPayload.getEvent().get(TEST_EVENT);
+        assertEquals(event.get(TEST_EVENT).get("testProperty").asText(), eventPayload.getTestProperty());
+        assertEquals(event.get(TEST_EVENT).get("organizationName").asText(), TEST_ORG_NAME);
+    }
+
     /**
      * Test event payload implementation extended from {@link EventPayload}.
      */
@@ -333,4 +672,182 @@ public class WebSubHubAdapterUtilTest {
             return testProperty;
         }
     }
+
+    @Test
+    public void testParseRetryAfter() {
+
+        HttpResponse delayResponse = mock(HttpResponse.class);
+        when(delayResponse.getFirstHeader(HttpHeaders.RETRY_AFTER))
+                .thenReturn(new BasicHeader(HttpHeaders.RETRY_AFTER, "120"));
+        assertEquals(WebSubHubAdapterUtil.parseRetryAfter(delayResponse), 120000);
+
+        HttpResponse dateResponse = mock(HttpResponse.class);
+        when(dateResponse.getFirstHeader(HttpHeaders.RETRY_AFTER)).thenReturn(new BasicHeader(
+                HttpHeaders.RETRY_AFTER, DateUtils.formatDate(new Date(System.currentTimeMillis() + 60000))));
+        long retryAfter = WebSubHubAdapterUtil.parseRetryAfter(dateResponse);
+        assertTrue(retryAfter > 55000 && retryAfter <= 60000, "Unexpected Retry-After delay: " + retryAfter);
+
+        HttpResponse invalidResponse = mock(HttpResponse.class);
+        when(invalidResponse.getFirstHeader(HttpHeaders.RETRY_AFTER))
+                .thenReturn(new BasicHeader(HttpHeaders.RETRY_AFTER, "soon"));
+        assertEquals(WebSubHubAdapterUtil.parseRetryAfter(invalidResponse), -1);
+        assertEquals(WebSubHubAdapterUtil.parseRetryAfter(mock(HttpResponse.class)), -1);
+    }
+
+    @Test
+    public void testListenerIsToldOfEveryAttempt() throws Exception {
+
+        WebSubAdapterConfiguration adapterConfiguration = mock(WebSubAdapterConfiguration.class);
+        when(adapterConfiguration.isPublishRetryEnabled()).thenReturn(true);
+        when(adapterConfiguration.getPublishRetryMaxAttempts()).thenReturn(3);
+        when(adapterConfiguration.getPublishRetryInitialBackoff()).thenReturn(100);
+        when(adapterConfiguration.getPublishRetryMaxBackoff()).thenReturn(100);
+        when(adapterConfiguration.getPublishRetryDeadline()).thenReturn(60000);
+        when(adapterConfiguration.getPublishRetryBudgetRatio()).thenReturn(20);
+        PublishResilience publishResilience = new PublishResilience(adapterConfiguration);
+        CloseableHttpAsyncClient client = mock(CloseableHttpAsyncClient.class);
+        HttpResponse response = mock(HttpResponse.class);
+        StatusLine statusLine = mock(StatusLine.class);
+        when(statusLine.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        when(response.getStatusLine()).thenReturn(statusLine);
+        AtomicInteger executions = new AtomicInteger();
+        when(client.execute(any(HttpUriRequest.class), any(FutureCallback.class))).thenAnswer(invocation -> {
+            FutureCallback<HttpResponse> callback = invocation.getArgument(1);
+            if (executions.incrementAndGet() == 1) {
+                callback.failed(new ConnectException("Connection refused"));
+            } else {
+                callback.completed(response);
+            }
+            return null;
+        });
+        ClientManager clientManager = mock(ClientManager.class);
+        when(clientManager.getClient(TEST_ORG_NAME, TEST_TOPIC)).thenReturn(client);
+        WebSubHubAdapterDataHolder.getInstance().setPublishResilience(publishResilience);
+        WebSubHubAdapterDataHolder.getInstance().setClientManager(clientManager);
+        try {
+            AtomicInteger attempts = new AtomicInteger();
+            CountDownLatch completed = new CountDownLatch(1);
+            PublishAttemptListener listener = new PublishAttemptListener() {
+
+                @Override
+                public void attemptSent() {
+
+                    attempts.incrementAndGet();
+                }
+
+                @Override
+                public void completed(HttpResponse result) {
+
+                    completed.countDown();
+                }
+
+                @Override
+                public void failed(Exception ex) {
+
+                }
+
+                @Override
+                public void cancelled() {
+
+                }
+            };
+
+            HttpPost request = new HttpPost(WEBSUB_HUB_BASE_URL);
+            request.setHeader(CORRELATION_ID_REQUEST_HEADER, CORRELATION_ID);
+            WebSubHubAdapterUtil.executePublishRequest(request, TEST_ORG_NAME, TEST_TOPIC, listener);
+
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+            // The listener times the attempt which completed the request, not the backoff before it.
+            assertEquals(attempts.get(), 2);
+            assertEquals(executions.get(), 2);
+        } finally {
+            publishResilience.shutdown();
+            WebSubHubAdapterDataHolder.getInstance().setPublishResilience(null);
+            WebSubHubAdapterDataHolder.getInstance().setClientManager(null);
+        }
+    }
+
+    @Test
+    public void testRequestOfRetiredClientIsSentOnNewClient() throws Exception {
+
+        HttpResponse response = mock(HttpResponse.class);
+        StatusLine statusLine = mock(StatusLine.class);
+        when(statusLine.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        when(response.getStatusLine()).thenReturn(statusLine);
+        CloseableHttpAsyncClient retiredClient = mock(CloseableHttpAsyncClient.class);
+        when(retiredClient.execute(any(HttpUriRequest.class), any(FutureCallback.class))).thenAnswer(invocation -> {
+            // The stopped client is closed once replaced, which cancels the requests it still held.
+            invocation.<FutureCallback<HttpResponse>>getArgument(1).cancelled();
+            return null;
+        });
+        CloseableHttpAsyncClient newClient = mock(CloseableHttpAsyncClient.class);
+        when(newClient.execute(any(HttpUriRequest.class), any(FutureCallback.class))).thenAnswer(invocation -> {
+            invocation.<FutureCallback<HttpResponse>>getArgument(1).completed(response);
+            return null;
+        });
+        ClientManager clientManager = mock(ClientManager.class);
+        when(clientManager.getClient(TEST_ORG_NAME, TEST_TOPIC)).thenReturn(retiredClient, newClient);
+        when(clientManager.isRetired(retiredClient)).thenReturn(true);
+        WebSubHubAdapterDataHolder.getInstance().setClientManager(clientManager);
+        try {
+            FutureCallback<HttpResponse> listener = mock(FutureCallback.class);
+            HttpPost request = new HttpPost(WEBSUB_HUB_BASE_URL);
+            request.setHeader(CORRELATION_ID_REQUEST_HEADER, CORRELATION_ID);
+
+            // Retries are disabled, yet the request is handed over as the hub is not to blame.
+            WebSubHubAdapterUtil.executePublishRequest(request, TEST_ORG_NAME, TEST_TOPIC, listener);
+
+            verify(newClient).execute(any(HttpUriRequest.class), any(FutureCallback.class));
+            verify(listener).completed(response);
+            verify(listener, never()).cancelled();
+        } finally {
+            WebSubHubAdapterDataHolder.getInstance().setClientManager(null);
+        }
+    }
+
+    @Test
+    public void testUnsentProbeReleasesCircuitPermit() throws Exception {
+
+        WebSubAdapterConfiguration adapterConfiguration = mock(WebSubAdapterConfiguration.class);
+        when(adapterConfiguration.isCircuitBreakerEnabled()).thenReturn(true);
+        when(adapterConfiguration.getCircuitBreakerWindowSize()).thenReturn(10);
+        when(adapterConfiguration.getCircuitBreakerFailureRateThreshold()).thenReturn(50);
+        when(adapterConfiguration.getCircuitBreakerSlowCallRateThreshold()).thenReturn(100);
+        when(adapterConfiguration.getCircuitBreakerSlowCallDuration()).thenReturn(1000);
+        when(adapterConfiguration.getCircuitBreakerOpenDuration()).thenReturn(50);
+        when(adapterConfiguration.getCircuitBreakerProbeCount()).thenReturn(1);
+        PublishResilience publishResilience = new PublishResilience(adapterConfiguration);
+        CloseableHttpAsyncClient stoppedClient = mock(CloseableHttpAsyncClient.class);
+        when(stoppedClient.execute(any(HttpUriRequest.class), any(FutureCallback.class)))
+                .thenThrow(new IllegalStateException("Request cannot be executed; I/O reactor status: STOPPED"));
+        ClientManager clientManager = mock(ClientManager.class);
+        when(clientManager.getClient(TEST_ORG_NAME, TEST_TOPIC)).thenReturn(stoppedClient);
+        WebSubHubAdapterDataHolder.getInstance().setPublishResilience(publishResilience);
+        WebSubHubAdapterDataHolder.getInstance().setClientManager(clientManager);
+        try {
+            CircuitBreaker circuitBreaker = publishResilience.getCircuitBreaker("https://test.com");
+            for (int i = 0; i < 10; i++) {
+                circuitBreaker.tryAcquire();
+                circuitBreaker.onResult(10, true);
+            }
+            Thread.sleep(100);
+
+            HttpPost request = new HttpPost(WEBSUB_HUB_BASE_URL);
+            request.setHeader(CORRELATION_ID_REQUEST_HEADER, CORRELATION_ID);
+            try {
+                WebSubHubAdapterUtil.executePublishRequest(request, TEST_ORG_NAME, TEST_TOPIC, null);
+                Assert.fail("The request should not have been sent.");
+            } catch (IllegalStateException e) {
+                // Expected as the client is stopped.
+            }
+
+            // The probe slot taken for the unsent request is available to the next request.
+            assertEquals(circuitBreaker.getState(), CircuitBreaker.State.HALF_OPEN);
+            assertTrue(circuitBreaker.tryAcquire());
+        } finally {
+            publishResilience.shutdown();
+            WebSubHubAdapterDataHolder.getInstance().setPublishResilience(null);
+            WebSubHubAdapterDataHolder.getInstance().setClientManager(null);
+        }
+    }
 }